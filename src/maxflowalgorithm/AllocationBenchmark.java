@@ -0,0 +1,317 @@
+//
+// AllocationBenchmark.java
+//
+// This class is a benchmark of the maximum flow engines. Each engine is run on the same layered
+// sparse graph, and the time and the bytes allocated by the running thread are reported per
+// run. Allocation is read from the thread allocation counter of the JVM (the same counter JMH's
+// gc profiler reports as gc.alloc.rate.norm), so an engine whose augmentation loop is
+// allocation free reports 0 bytes per run. The adjacency matrix path of Flow is measured on a
+// capacity matrix of the same network, both the matrix Ford Fulkerson and a sparse engine run
+// through a Flow built from the matrix.
+//
+// The measurement follows JMH's scheme without depending on it: each engine runs in several
+// fresh JVMs (forks), so one engine's JIT profile and heap do not affect the next, and in each
+// fork timed warm up iterations are followed by timed measured iterations, each running the
+// engine as many times as fit in the iteration time (at least once). The results of the forks
+// are averaged, and the spread of their times is shown.
+//
+// The MIT License (MIT)
+//
+// Copyright (c) 2022 Luke Andrews. All Rights Reserved.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this
+// software and associated documentation files (the "Software"), to deal in the Software
+// without restriction, including without limitation the rights to use, copy, modify, merge,
+// publish, distribute, sub-license, and/or sell copies of the Software, and to permit persons
+// to whom the Software is furnished to do so, subject to the following conditions:
+// 
+// * The above copyright notice and this permission notice shall be included in all copies or
+//   substantial portions of the Software.
+// 
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, 
+// INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+// PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+// FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR 
+// OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+// DEALINGS IN THE SOFTWARE.
+//
+package maxflowalgorithm;
+
+import java.io.*;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntSupplier;
+
+class AllocationBenchmark
+{
+    private static final int    DEFAULT_FORKS       = 3;
+    private static final int    WARMUP_ITERATIONS   = 5;
+    private static final int    MEASURED_ITERATIONS = 5;
+    private static final long   ITERATION_NANOS     = 500000000L;   // time each iteration runs the engine for
+    private static final int    MAX_MATRIX_NODES    = 8192;         // largest graph the matrix path is run on
+    private static final String FORK_OPTION         = "--fork";      // runs one engine and prints its result
+
+    private static final String[] LABELS = {
+        "Ford Fulkerson (early exit)",
+        "Ford Fulkerson (bidirectional)",
+        "Capacity scaling",
+        "Dinic",
+        "Push-relabel",
+        "Ford Fulkerson (matrix)",
+        "Dinic (matrix)"
+    };
+    private static final int      FIRST_MATRIX_CASE = 5;
+
+    //
+    // main
+    //
+    // Benchmark entry point. Optional arguments give the number of layers and the number of
+    // nodes per layer of the generated graph, and the number of forks per engine (0 runs every
+    // engine in this JVM, as one fork).
+    //
+    public static void main(String[] args) throws IOException, InterruptedException
+    {
+        if (args.length == 4 && args[0].equals(FORK_OPTION))
+        {
+            double[] result = _runCase(Integer.parseInt(args[1]), Integer.parseInt(args[2]), Integer.parseInt(args[3]));
+
+            System.out.println((long) result[0] + " " + result[1] + " " + result[2]);
+
+            return;
+        }
+
+        int layers = (args.length > 0) ? Integer.parseInt(args[0]) : 10;
+        int width  = (args.length > 1) ? Integer.parseInt(args[1]) : 200;
+        int forks  = (args.length > 2) ? Integer.parseInt(args[2]) : DEFAULT_FORKS;
+
+        SparseGraph graph = _makeLayeredGraph(layers, width, 4, 100, new Random(1));
+        int         nodes = graph.getNumNodes();
+
+        System.out.println("Graph: " + nodes + " nodes, " + graph.getNumArcs() / 2 + " edges, " +
+                           Math.max(forks, 1) + " forks of " + WARMUP_ITERATIONS + " warm up and " +
+                           MEASURED_ITERATIONS + " measured iterations of " + ITERATION_NANOS / 1000000 + " ms");
+        System.out.printf("%-32s %12s %12s %18s %12s%n", "Engine", "Max Flow", "ms/run", "fork range", "bytes/run");
+
+        for (int c = 0; c < LABELS.length; c++)
+        {
+            if (c >= FIRST_MATRIX_CASE && nodes > MAX_MATRIX_NODES)
+            {
+                continue;
+            }
+
+            List<double[]> results = new ArrayList<>();
+
+            for (int f = 0; f < Math.max(forks, 1); f++)
+            {
+                results.add((forks == 0) ? _runCase(c, layers, width) : _fork(c, layers, width));
+            }
+
+            double millis = 0;
+            double least  = Double.MAX_VALUE;
+            double most   = 0;
+            double bytes  = 0;
+
+            for (double[] result : results)
+            {
+                millis += result[1] / results.size();
+                bytes  += result[2] / results.size();
+                least   = Math.min(least, result[1]);
+                most    = Math.max(most, result[1]);
+            }
+
+            System.out.printf("%-32s %12d %12.3f %8.3f..%-8.3f %12d%n",
+                              LABELS[c], (long) results.get(0)[0], millis, least, most, Math.round(bytes));
+        }
+    }
+
+    //
+    // fork
+    //
+    // Runs one engine in a fresh JVM with the class path of this one.
+    //
+    //      [in] index  - the engine, an index into LABELS
+    //      [in] layers - the number of layers of the graph
+    //      [in] width  - the number of nodes per layer
+    //
+    // Returns the maximum flow, the milliseconds per run and the bytes allocated per run.
+    //
+    private static double[] _fork(int index, int layers, int width) throws IOException, InterruptedException
+    {
+        String  java    = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        Process process = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                                             AllocationBenchmark.class.getName(), FORK_OPTION,
+                                             Integer.toString(index), Integer.toString(layers), Integer.toString(width))
+                              .redirectError(ProcessBuilder.Redirect.INHERIT)
+                              .start();
+        String  line;
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream())))
+        {
+            line = reader.readLine();
+        }
+
+        if (process.waitFor() != 0 || line == null)
+        {
+            throw new IOException("Benchmark fork for " + LABELS[index] + " failed");
+        }
+
+        String[] fields = line.trim().split(" ");
+
+        return new double[] { Double.parseDouble(fields[0]), Double.parseDouble(fields[1]), Double.parseDouble(fields[2]) };
+    }
+
+    //
+    // runCase
+    //
+    // Builds the graph and measures one engine on it in this JVM.
+    //
+    //      [in] index  - the engine, an index into LABELS
+    //      [in] layers - the number of layers of the graph
+    //      [in] width  - the number of nodes per layer
+    //
+    // Returns the maximum flow, the milliseconds per run and the bytes allocated per run.
+    //
+    private static double[] _runCase(int index, int layers, int width)
+    {
+        SparseGraph graph = _makeLayeredGraph(layers, width, 4, 100, new Random(1));
+        int         sink  = graph.getNumNodes() - 1;
+
+        if (index >= FIRST_MATRIX_CASE)
+        {
+            //
+            // The matrix path, on a capacity matrix of the same network (the residual capacities
+            // with no flow):
+            //
+            Flow flow = new Flow(graph.toResidualMatrix(), 0, sink);
+
+            return _measure(() ->
+                            {
+                                if (index == FIRST_MATRIX_CASE)
+                                {
+                                    flow.computeMaxFlowFordFulkerson();
+                                }
+                                else
+                                {
+                                    flow.computeMaxFlowDinic();
+                                }
+
+                                return flow.getMaxFlow();
+                            });
+        }
+
+        MaxFlowSolver[] solvers = {
+            new FordFulkerson(PathSearch.Mode.EARLY_EXIT),
+            new FordFulkerson(PathSearch.Mode.BIDIRECTIONAL),
+            new CapacityScaling(),
+            new Dinic(),
+            new PushRelabel()
+        };
+        MaxFlowSolver solver = solvers[index];
+
+        return _measure(() -> solver.computeMaxFlow(graph, 0, sink));
+    }
+
+    //
+    // measure
+    //
+    // Runs the warm up iterations of an engine, then the measured iterations, each running the
+    // engine until the iteration time has passed.
+    //
+    //      [in] engine - computes the maximum flow once and returns it
+    //
+    // Returns the maximum flow, the milliseconds per run and the bytes allocated per run of the
+    // measured iterations.
+    //
+    private static double[] _measure(IntSupplier engine)
+    {
+        com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        int  maxFlow  = 0;
+        long runs     = 0;
+        long nanos    = 0;
+        long bytes    = 0;
+
+        for (int i = 0; i < WARMUP_ITERATIONS + MEASURED_ITERATIONS; i++)
+        {
+            long startBytes = threads.getThreadAllocatedBytes(threadId);
+            long startTime  = System.nanoTime();
+            long endTime    = startTime;
+            long count      = 0;
+
+            while (count == 0 || endTime - startTime < ITERATION_NANOS)
+            {
+                maxFlow = engine.getAsInt();
+                endTime = System.nanoTime();
+                count++;
+            }
+
+            long endBytes = threads.getThreadAllocatedBytes(threadId);
+
+            if (i >= WARMUP_ITERATIONS)
+            {
+                runs  += count;
+                nanos += endTime - startTime;
+                bytes += endBytes - startBytes;
+            }
+        }
+
+        return new double[] { maxFlow, nanos / 1e6 / runs, (double) bytes / runs };
+    }
+
+    //
+    // makeLayeredGraph
+    //
+    // Generates a long, thin layered graph: the source feeds every node of the first layer,
+    // each node has a few edges to random nodes of the next layer, and every node of the last
+    // layer feeds the sink.
+    //
+    //      [in] layers         - the number of layers
+    //      [in] width          - the number of nodes per layer
+    //      [in] degree         - the number of edges from each node to the next layer
+    //      [in] maxCapacity    - the largest edge capacity
+    //      [in] random         - the random number generator
+    //
+    // Returns the graph. The source is node 0 and the sink is the last node.
+    //
+    private static SparseGraph _makeLayeredGraph(int layers, int width, int degree, int maxCapacity, Random random)
+    {
+        int   numNodes   = layers * width + 2;
+        int   numEdges   = 2 * width + (layers - 1) * width * degree;
+        int[] tails      = new int[numEdges];
+        int[] heads      = new int[numEdges];
+        int[] capacities = new int[numEdges];
+        int   edge       = 0;
+
+        for (int i = 0; i < width; i++)
+        {
+            tails[edge]      = 0;
+            heads[edge]      = 1 + i;
+            capacities[edge] = 1 + random.nextInt(maxCapacity);
+            edge++;
+
+            tails[edge]      = 1 + (layers - 1) * width + i;
+            heads[edge]      = numNodes - 1;
+            capacities[edge] = 1 + random.nextInt(maxCapacity);
+            edge++;
+        }
+
+        for (int layer = 0; layer < layers - 1; layer++)
+        {
+            for (int i = 0; i < width; i++)
+            {
+                for (int d = 0; d < degree; d++)
+                {
+                    tails[edge]      = 1 + layer * width + i;
+                    heads[edge]      = 1 + (layer + 1) * width + random.nextInt(width);
+                    capacities[edge] = 1 + random.nextInt(maxCapacity);
+                    edge++;
+                }
+            }
+        }
+
+        return new SparseGraph(numNodes, tails, heads, capacities, edge);
+    }
+}
@@ -0,0 +1,48 @@
+//
+// AuctionListener.java
+//
+// This interface receives progress events from the auction algorithm (see AuctionSolver.java).
+// Every event has an empty default, and AuctionListener.NONE ignores them all.
+//
+// The MIT License (MIT)
+//
+// Copyright (c) 2022 Luke Andrews. All Rights Reserved.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this
+// software and associated documentation files (the "Software"), to deal in the Software
+// without restriction, including without limitation the rights to use, copy, modify, merge,
+// publish, distribute, sub-license, and/or sell copies of the Software, and to permit persons
+// to whom the Software is furnished to do so, subject to the following conditions:
+// 
+// * The above copyright notice and this permission notice shall be included in all copies or
+//   substantial portions of the Software.
+// 
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, 
+// INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+// PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+// FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR 
+// OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+// DEALINGS IN THE SOFTWARE.
+//
+package maxflowalgorithm;
+
+interface AuctionListener
+{
+    AuctionListener NONE = new AuctionListener() {};
+
+    //
+    // phaseFinished
+    //
+    // Called after each epsilon scaling phase, once every person holds an object. The gap
+    // between the dual and primal values bounds how far the assignment is from optimal.
+    // All values are in units of the input weights.
+    //
+    //      [in] epsilon    - the epsilon of the phase
+    //      [in] primal     - the total weight of the assignment
+    //      [in] dual       - the value of the dual solution given by the prices
+    //      [in] rounds     - the number of bidding rounds the phase took
+    //
+    default void phaseFinished(double epsilon, double primal, double dual, int rounds)
+    {
+    }
+}
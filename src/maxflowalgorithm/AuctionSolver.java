@@ -0,0 +1,731 @@
+//
+// AuctionSolver.java
+//
+// This class computes a maximum weight matching of a bipartite graph with the auction
+// algorithm, as an alternative to shortest augmenting paths (see WeightedAssignment.java).
+// Persons bid for objects, raising an object's price by the margin between their best and
+// second best values plus epsilon, until every person holds an object. Epsilon is scaled
+// down over several phases, each starting from the prices of the last and keeping the
+// assignments still within the new epsilon. Weights are multiplied by n + 1 so the final
+// phase, with epsilon 1, ends at an optimal assignment; the phases stop early once the dual
+// bound is less than one weight unit above the assignment, which is then optimal too.
+//
+// The problem is made square and always solvable without adding dense edges: every source
+// gets a dummy object of value 0 ("left unmatched"), and every destination gets a dummy
+// person with edges of value 0 to the destination and to the dummy objects of the
+// destination's sources.
+//
+// Bidding is Jacobi style: in each round every unassigned person bids at once, split across
+// a work-stealing pool, and the highest bid for each object is kept with an atomic
+// compare-and-set. Then each object's winner is settled by claiming the object for the round
+// with a second compare-and-set, so ties and conflicts are resolved per object without locks.
+// Late in a phase only a few persons are still bidding, often for hundreds of thousands of
+// rounds, and a parallel round then costs far more than its bids. Once the bidders fit in one
+// task (or with a single thread) the phase finishes Gauss-Seidel style instead: one person
+// bids at a time on the calling thread and wins the object at once.
+// After each phase the primal and dual values are reported (see AuctionListener.java).
+//
+// The MIT License (MIT)
+//
+// Copyright (c) 2022 Luke Andrews. All Rights Reserved.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this
+// software and associated documentation files (the "Software"), to deal in the Software
+// without restriction, including without limitation the rights to use, copy, modify, merge,
+// publish, distribute, sub-license, and/or sell copies of the Software, and to permit persons
+// to whom the Software is furnished to do so, subject to the following conditions:
+// 
+// * The above copyright notice and this permission notice shall be included in all copies or
+//   substantial portions of the Software.
+// 
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, 
+// INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+// PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+// FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR 
+// OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+// DEALINGS IN THE SOFTWARE.
+//
+package maxflowalgorithm;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+class AuctionSolver
+{
+    private static final int  GRAIN_SIZE     = 1024;    // persons per task below which work is not split
+    private static final long EPSILON_FACTOR = 4;       // epsilon is divided by this after each phase
+    private static final long VALUE_HEADROOM = 4;       // room left for margins above the largest scaled value
+
+    private int                numSources;
+    private int                numDestinations;
+    private int                numPersons;          // persons and objects: real, then dummy
+    private int                numThreads;
+    private AuctionListener    listener = AuctionListener.NONE;
+
+    private int[]              personOffsets;       // objects of person i are objects[personOffsets[i]] .. objects[personOffsets[i + 1] - 1]
+    private int[]              objects;
+    private int[]              weights;             // weight of each person's edge, 0 for dummy edges
+    private long               scale;               // weights are multiplied by this to give values
+    private long               maxValue;
+
+    private long[]             price;
+    private int[]              owner;               // person holding each object, -1 if none
+    private int[]              assigned;            // object held by each person, -1 if none
+    private int[]              bidObject;           // object each bidder bid for this round
+    private long[]             bidValue;            // price each bidder offered this round
+    private AtomicLongArray    bestBid;             // highest bid for each object this round
+    private AtomicIntegerArray claimed;             // last round each object was won in
+    private int                round;
+    private long               epsilon;
+
+    private int[]              bidders;             // unassigned persons bidding this round
+    private int[]              nextBidders;
+    private AtomicInteger      nextSize;
+
+    //
+    // Overloaded constructor.
+    //
+    // Constructs with the adjacency arrays and edge weights of a bipartite graph and a thread count.
+    //
+    //      [in] numSources         - the number of source nodes
+    //      [in] numDestinations    - the number of destination nodes
+    //      [in] offsets            - per source, the start of its destinations (numSources + 1 entries)
+    //      [in] targets            - the destination of each edge
+    //      [in] weights            - the non-negative weight of each edge, or null if every edge has weight 1
+    //      [in] numThreads         - the number of threads to bid with
+    //
+    public AuctionSolver(int numSources, int numDestinations, int[] offsets, int[] targets, int[] weights, int numThreads)
+    {
+        if (numSources < 0 || numDestinations < 0 || offsets == null || targets == null ||
+            offsets.length < numSources + 1 || targets.length < offsets[numSources] ||
+            (weights != null && weights.length < offsets[numSources]) || numThreads < 1)
+        {
+            throw new IllegalArgumentException();
+        }
+
+        int numEdges  = offsets[numSources];
+        int maxWeight = 1;
+
+        this.numSources      = numSources;
+        this.numDestinations = numDestinations;
+        this.numPersons      = numSources + numDestinations;
+        this.numThreads      = numThreads;
+
+        //
+        // Lay out the edges of the square problem. A source's edges are its real edges and its
+        // dummy object; a destination's dummy person has the destination and, for each of the
+        // destination's edges, the dummy object of that edge's source:
+        //
+        this.personOffsets = new int[numPersons + 1];
+        this.objects       = new int[2 * numEdges + numPersons];
+        this.weights       = new int[2 * numEdges + numPersons];
+
+        int[] degree = new int[numDestinations];
+
+        for (int arc = 0; arc < numEdges; arc++)
+        {
+            degree[targets[arc]]++;
+        }
+
+        for (int u = 0; u < numSources; u++)
+        {
+            personOffsets[u + 1] = personOffsets[u] + (offsets[u + 1] - offsets[u]) + 1;
+        }
+
+        for (int v = 0; v < numDestinations; v++)
+        {
+            personOffsets[numSources + v + 1] = personOffsets[numSources + v] + degree[v] + 1;
+        }
+
+        int[] cursor = new int[numDestinations];
+
+        for (int v = 0; v < numDestinations; v++)
+        {
+            int first = personOffsets[numSources + v];
+
+            objects[first] = v;
+            cursor[v]      = first + 1;
+        }
+
+        for (int u = 0; u < numSources; u++)
+        {
+            int next = personOffsets[u];
+
+            for (int arc = offsets[u]; arc < offsets[u + 1]; arc++)
+            {
+                int v = targets[arc];
+                int w = (weights == null) ? 1 : weights[arc];
+
+                if (v < 0 || v >= numDestinations || w < 0)
+                {
+                    throw new IllegalArgumentException();
+                }
+
+                objects[next]         = v;
+                this.weights[next++]  = w;
+                objects[cursor[v]++]  = numDestinations + u;
+                maxWeight             = Math.max(maxWeight, w);
+            }
+
+            objects[next] = numDestinations + u;
+        }
+
+        this.scale = numPersons + 1;
+
+        //
+        // Scaled values must fit in a long with room for bid margins. Prices are only bounded
+        // by the course of the auction, so bids check them for overflow as they are raised:
+        //
+        if (maxWeight > Long.MAX_VALUE / VALUE_HEADROOM / scale)
+        {
+            throw new IllegalArgumentException("Weights above " + Long.MAX_VALUE / VALUE_HEADROOM / scale +
+                                               " are too large for the auction algorithm on " + numPersons + " persons");
+        }
+
+        this.maxValue    = maxWeight * scale;
+        this.price       = new long[numPersons];
+        this.owner       = new int[numPersons];
+        this.assigned    = new int[numPersons];
+        this.bidObject   = new int[numPersons];
+        this.bidValue    = new long[numPersons];
+        this.bestBid     = new AtomicLongArray(numPersons);
+        this.claimed     = new AtomicIntegerArray(numPersons);
+        this.bidders     = new int[numPersons];
+        this.nextBidders = new int[numPersons];
+        this.nextSize    = new AtomicInteger();
+    }
+
+    //
+    // setListener
+    //
+    // Sets the listener receiving progress events (see AuctionListener.java). By default
+    // AuctionListener.NONE, which ignores them.
+    //
+    //      [in] listener - the listener
+    //
+    public void setListener(AuctionListener listener)
+    {
+        this.listener = (listener == null) ? AuctionListener.NONE : listener;
+    }
+
+    //
+    // getSourceMates
+    //
+    // Gets the destination matched to each source, -1 if the source is unmatched.
+    //
+    public int[] getSourceMates()
+    {
+        int[] mates = new int[numSources];
+
+        for (int u = 0; u < numSources; u++)
+        {
+            mates[u] = (assigned[u] >= 0 && assigned[u] < numDestinations) ? assigned[u] : -1;
+        }
+
+        return mates;
+    }
+
+    //
+    // getNumMatches
+    //
+    // Gets the number of matched pairs.
+    //
+    public int getNumMatches()
+    {
+        int count = 0;
+
+        for (int u = 0; u < numSources; u++)
+        {
+            if (assigned[u] >= 0 && assigned[u] < numDestinations)
+            {
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    //
+    // computeAssignment
+    //
+    // Computes a maximum weight matching by epsilon scaling auctions.
+    //
+    // Returns the total weight of the matched edges.
+    //
+    public long computeAssignment()
+    {
+        java.util.Arrays.fill(price, 0);
+
+        for (int j = 0; j < numPersons; j++)
+        {
+            bestBid.set(j, Long.MIN_VALUE);
+            claimed.set(j, -1);
+        }
+
+        java.util.Arrays.fill(owner, -1);
+        java.util.Arrays.fill(assigned, -1);
+
+        round   = 0;
+        epsilon = Math.max(1, maxValue / EPSILON_FACTOR);
+
+        //
+        // Each call owns its pool and shuts it down when done, so no threads outlive it:
+        //
+        ForkJoinPool pool = new ForkJoinPool(numThreads);
+
+        try
+        {
+            while (true)
+            {
+                int  rounds = _runPhase(pool);
+                long gap    = _gap();
+
+                listener.phaseFinished((double) epsilon / scale, _primal(), _primal() + (double) gap / scale, rounds);
+
+                //
+                // With integer weights, an assignment less than one weight unit from the dual
+                // bound is optimal:
+                //
+                if (epsilon == 1 || gap < scale)
+                {
+                    break;
+                }
+
+                epsilon = Math.max(1, epsilon / EPSILON_FACTOR);
+            }
+        }
+        catch (ArithmeticException ex)
+        {
+            throw new IllegalArgumentException("Prices overflowed: weights too large for the auction algorithm on " +
+                                               numPersons + " persons");
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+
+        return _primal();
+    }
+
+    //
+    // runPhase
+    //
+    // Runs one auction at the current epsilon, starting from the current prices, until every
+    // person holds an object. Persons whose object from the last phase is still within epsilon
+    // of their best keep it, and the others start unassigned.
+    //
+    //      [in] pool - the pool to bid on
+    //
+    // Returns the number of bidding rounds, counting each Gauss-Seidel bid as one round.
+    //
+    private int _runPhase(ForkJoinPool pool)
+    {
+        int size   = 0;
+        int rounds = 0;
+
+        for (int i = 0; i < numPersons; i++)
+        {
+            if (assigned[i] != -1 && !_isSatisfied(i))
+            {
+                owner[assigned[i]] = -1;
+                assigned[i]        = -1;
+            }
+
+            if (assigned[i] == -1)
+            {
+                bidders[size++] = i;
+            }
+        }
+
+        while (size > 0)
+        {
+            if (size <= GRAIN_SIZE || numThreads == 1)
+            {
+                return rounds + _runSequential(size);
+            }
+
+            //
+            // Object claims are stamped with the round (clear the stamps only on wrap around):
+            //
+            if (++round == Integer.MAX_VALUE)
+            {
+                for (int j = 0; j < numPersons; j++)
+                {
+                    claimed.set(j, -1);
+                }
+
+                round = 0;
+            }
+
+            _invoke(pool, new _BidTask(0, size), size);
+
+            nextSize.set(0);
+
+            _invoke(pool, new _AwardTask(0, size), size);
+
+            int[] swap = bidders;
+
+            bidders     = nextBidders;
+            nextBidders = swap;
+            size        = nextSize.get();
+
+            rounds++;
+        }
+
+        return rounds;
+    }
+
+    //
+    // runSequential
+    //
+    // Finishes a phase Gauss-Seidel style on the calling thread: each unassigned person in
+    // turn bids and wins the object at once, evicting its owner, who bids later. The number of
+    // unassigned persons never grows, so they are kept on a stack in the bidders array.
+    //
+    //      [in] size - the number of unassigned persons, at the start of the bidders array
+    //
+    // Returns the number of bids made.
+    //
+    private int _runSequential(int size)
+    {
+        int bids = 0;
+
+        while (size > 0)
+        {
+            int i = bidders[--size];
+
+            _makeBid(i);
+
+            int j        = bidObject[i];
+            int previous = owner[j];
+
+            owner[j]    = i;
+            assigned[i] = j;
+            price[j]    = bidValue[i];
+
+            if (previous != -1)
+            {
+                assigned[previous] = -1;
+                bidders[size++]    = previous;
+            }
+
+            bids++;
+        }
+
+        return bids;
+    }
+
+    //
+    // invoke
+    //
+    // Runs a task on the pool, or directly on the calling thread if it is too small to split.
+    //
+    //      [in] pool   - the pool
+    //      [in] task   - the task
+    //      [in] size   - the number of persons the task covers
+    //
+    private static void _invoke(ForkJoinPool pool, RecursiveAction task, int size)
+    {
+        if (size > GRAIN_SIZE)
+        {
+            pool.invoke(task);
+        }
+        else
+        {
+            task.invoke();
+        }
+    }
+
+    //
+    // bid
+    //
+    // Makes a person's bid (see makeBid) and records it as the highest bid for the object if
+    // no higher bid was made this round.
+    //
+    //      [in] i - the person
+    //
+    private void _bid(int i)
+    {
+        _makeBid(i);
+
+        int  best    = bidObject[i];
+        long offer   = bidValue[i];
+        long current = bestBid.get(best);
+
+        while (offer > current && !bestBid.compareAndSet(best, current, offer))
+        {
+            current = bestBid.get(best);
+        }
+    }
+
+    //
+    // makeBid
+    //
+    // Finds a person's best object and offers a price that leaves the object just epsilon
+    // better for the person than their second best object.
+    //
+    //      [in] i - the person
+    //
+    private void _makeBid(int i)
+    {
+        int  best      = -1;
+        long bestValue = Long.MIN_VALUE;
+        long nextValue = Long.MIN_VALUE;
+
+        for (int arc = personOffsets[i]; arc < personOffsets[i + 1]; arc++)
+        {
+            long value = weights[arc] * scale - price[objects[arc]];
+
+            if (value > bestValue)
+            {
+                nextValue = bestValue;
+                bestValue = value;
+                best      = objects[arc];
+            }
+            else if (value > nextValue)
+            {
+                nextValue = value;
+            }
+        }
+
+        //
+        // A person with a single object can raise its price by any amount; a margin of the
+        // largest value keeps the number of rounds down:
+        //
+        long margin = (nextValue == Long.MIN_VALUE) ? maxValue : Math.subtractExact(bestValue, nextValue);
+        long offer  = Math.addExact(Math.addExact(price[best], margin), epsilon);
+
+        bidObject[i] = best;
+        bidValue[i]  = offer;
+    }
+
+    //
+    // award
+    //
+    // Settles a person's bid: the first bidder to claim an object at its highest bid wins it,
+    // raising its price and evicting its previous owner.
+    //
+    //      [in] i          - the bidder
+    //      [in] unassigned - receives the bidder if it lost, or the evicted owner if it won
+    //
+    private void _award(int i, IntList unassigned)
+    {
+        int j = bidObject[i];
+
+        if (bidValue[i] != bestBid.get(j))
+        {
+            unassigned.add(i);
+
+            return;
+        }
+
+        int last = claimed.get(j);
+
+        if (last == round || !claimed.compareAndSet(j, last, round))
+        {
+            unassigned.add(i);
+
+            return;
+        }
+
+        int previous = owner[j];
+
+        owner[j]    = i;
+        assigned[i] = j;
+        price[j]    = bidValue[i];
+
+        bestBid.set(j, Long.MIN_VALUE);
+
+        if (previous != -1)
+        {
+            assigned[previous] = -1;
+            unassigned.add(previous);
+        }
+    }
+
+    //
+    // isSatisfied
+    //
+    // Determines whether a person's object is within epsilon of the best value the person
+    // could get at the current prices.
+    //
+    //      [in] i - the assigned person
+    //
+    // Returns whether the person's assignment satisfies epsilon complementary slackness.
+    //
+    private boolean _isSatisfied(int i)
+    {
+        long best = Long.MIN_VALUE;
+        long own  = Long.MIN_VALUE;
+
+        for (int arc = personOffsets[i]; arc < personOffsets[i + 1]; arc++)
+        {
+            long value = weights[arc] * scale - price[objects[arc]];
+
+            best = Math.max(best, value);
+
+            if (objects[arc] == assigned[i])
+            {
+                own = Math.max(own, value);
+            }
+        }
+
+        return own >= best - epsilon;
+    }
+
+    //
+    // gap
+    //
+    // Computes the gap between the dual value given by the prices (the sum of the prices and of
+    // every person's best value at those prices) and the value of the assignment. Once every
+    // person holds an object, the prices sum to those of the assigned objects, so the gap is
+    // the sum of how far each person's object falls short of their best, and no price sums
+    // are needed.
+    //
+    // Returns the gap, in scaled units, or Long.MAX_VALUE if it does not fit in a long.
+    //
+    private long _gap()
+    {
+        long gap = 0;
+
+        for (int i = 0; i < numPersons; i++)
+        {
+            long best = Long.MIN_VALUE;
+            long own  = Long.MIN_VALUE;
+
+            for (int arc = personOffsets[i]; arc < personOffsets[i + 1]; arc++)
+            {
+                long value = weights[arc] * scale - price[objects[arc]];
+
+                best = Math.max(best, value);
+
+                if (objects[arc] == assigned[i])
+                {
+                    own = Math.max(own, value);
+                }
+            }
+
+            if (gap > Long.MAX_VALUE - (best - own))
+            {
+                return Long.MAX_VALUE;
+            }
+
+            gap += best - own;
+        }
+
+        return gap;
+    }
+
+    //
+    // primal
+    //
+    // Computes the total weight of the current assignment.
+    //
+    // Returns the total weight, in units of the input weights.
+    //
+    private long _primal()
+    {
+        long total = 0;
+
+        for (int i = 0; i < numPersons; i++)
+        {
+            //
+            // Take the best edge to the assigned object, in case an object appears more than once:
+            //
+            int best = 0;
+
+            for (int arc = personOffsets[i]; arc < personOffsets[i + 1]; arc++)
+            {
+                if (objects[arc] == assigned[i])
+                {
+                    best = Math.max(best, weights[arc]);
+                }
+            }
+
+            total += best;
+        }
+
+        return total;
+    }
+
+    //
+    // _BidTask
+    //
+    // This class makes the bids of a range of the bidders, splitting it in halves for the
+    // pool to steal until it is small enough to bid directly. Tasks are never serialized.
+    //
+    @SuppressWarnings("serial")
+    private class _BidTask extends RecursiveAction
+    {
+        private int start;
+        private int end;
+
+        _BidTask(int start, int end)
+        {
+            this.start = start;
+            this.end   = end;
+        }
+
+        protected void compute()
+        {
+            if (end - start > GRAIN_SIZE)
+            {
+                int middle = (start + end) >>> 1;
+
+                invokeAll(new _BidTask(start, middle), new _BidTask(middle, end));
+
+                return;
+            }
+
+            for (int k = start; k < end; k++)
+            {
+                _bid(bidders[k]);
+            }
+        }
+    }
+
+    //
+    // _AwardTask
+    //
+    // This class settles the bids of a range of the bidders, splitting it in halves for the
+    // pool to steal, and adds the persons left unassigned to the next round's bidders. Tasks
+    // are never serialized.
+    //
+    @SuppressWarnings("serial")
+    private class _AwardTask extends RecursiveAction
+    {
+        private int start;
+        private int end;
+
+        _AwardTask(int start, int end)
+        {
+            this.start = start;
+            this.end   = end;
+        }
+
+        protected void compute()
+        {
+            if (end - start > GRAIN_SIZE)
+            {
+                int middle = (start + end) >>> 1;
+
+                invokeAll(new _AwardTask(start, middle), new _AwardTask(middle, end));
+
+                return;
+            }
+
+            IntList unassigned = new IntList();
+
+            for (int k = start; k < end; k++)
+            {
+                _award(bidders[k], unassigned);
+            }
+
+            if (unassigned.size() > 0)
+            {
+                System.arraycopy(unassigned.toArray(), 0, nextBidders, nextSize.getAndAdd(unassigned.size()),
+                                 unassigned.size());
+            }
+        }
+    }
+}
@@ -0,0 +1,308 @@
+//
+// BatchRunner.java
+//
+// This class solves many bipartite matching problems in one run, so the start-up and warm-up
+// cost of the JVM is paid once instead of once per file. The inputs are every file in a
+// directory or every file listed in a manifest (one path per line, relative paths taken from
+// the manifest's directory, blank lines and lines starting with '#' ignored). The files are
+// solved on a fixed pool of worker threads, each file on one thread, and the answer for each
+// is written to its own file in the output directory (see MatchWriter.java). A summary line
+// per input, and the totals, are printed at the end in input order.
+//
+// The MIT License (MIT)
+//
+// Copyright (c) 2022 Luke Andrews. All Rights Reserved.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this
+// software and associated documentation files (the "Software"), to deal in the Software
+// without restriction, including without limitation the rights to use, copy, modify, merge,
+// publish, distribute, sub-license, and/or sell copies of the Software, and to permit persons
+// to whom the Software is furnished to do so, subject to the following conditions:
+// 
+// * The above copyright notice and this permission notice shall be included in all copies or
+//   substantial portions of the Software.
+// 
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, 
+// INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+// PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+// FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR 
+// OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+// DEALINGS IN THE SOFTWARE.
+//
+package maxflowalgorithm;
+
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+class BatchRunner
+{
+    private File    outputDir;
+    private int     numThreads;
+    private String  engine;     // matching engine, one of Convert's ENGINE_ names
+    private boolean weighted;   // whether destinations may carry weights ("dst1:5")
+
+    //
+    // _Result
+    //
+    // This class describes the outcome of solving one input file.
+    //
+    private static class _Result
+    {
+        File   inputFile;
+        File   outputFile;
+        int    numSources;
+        int    numDestinations;
+        int    numEdges;
+        int    maxFlow      = -1;
+        long   millis;
+        String error;           // null if the file was solved
+    }
+
+    //
+    // Overloaded constructor.
+    //
+    // Constructs with the output directory, the number of worker threads, the engine and
+    // whether text inputs are read with weights.
+    //
+    //      [in] outputDir  - the directory to write one answer file per input to
+    //      [in] numThreads - the number of files to solve at once
+    //      [in] engine     - the matching engine given with --engine (see Convert.java)
+    //      [in] weighted   - whether destinations may carry weights, as given with --weighted
+    //
+    public BatchRunner(File outputDir, int numThreads, String engine, boolean weighted)
+    {
+        if (outputDir == null || numThreads < 1 || engine == null)
+        {
+            throw new IllegalArgumentException();
+        }
+
+        this.outputDir  = outputDir;
+        this.numThreads = numThreads;
+        this.engine     = engine;
+        this.weighted   = weighted;
+    }
+
+    //
+    // run
+    //
+    // Solves every input of a directory or manifest and prints the summary to the console.
+    // A file that cannot be read or solved is reported in the summary and does not stop the others.
+    //
+    //      [in] input - the input directory or manifest file
+    //
+    public void run(File input) throws IOException
+    {
+        List<File> inputFiles = _listInputs(input);
+
+        Files.createDirectories(outputDir.toPath());
+
+        //
+        // Solve every file on the pool:
+        //
+        ExecutorService       pool    = Executors.newFixedThreadPool(numThreads);
+        List<Future<_Result>> futures = new ArrayList<>();
+        Set<String>           names   = new HashSet<>();
+        long                  start   = System.nanoTime();
+
+        try
+        {
+            for (int i = 0; i < inputFiles.size(); i++)
+            {
+                File   inputFile = inputFiles.get(i);
+                String name      = inputFile.getName() + ".out";
+
+                //
+                // Files of the same name from different directories get their index as a prefix,
+                // more than once if that name is taken too:
+                //
+                while (!names.add(name))
+                {
+                    name = i + "-" + name;
+                }
+
+                File outputFile = new File(outputDir, name);
+
+                futures.add(pool.submit(() -> _solve(inputFile, outputFile)));
+            }
+
+            List<_Result> results = new ArrayList<>();
+
+            for (Future<_Result> future : futures)
+            {
+                results.add(future.get());
+            }
+
+            _printSummary(results, (System.nanoTime() - start) / 1000000);
+        }
+        catch (InterruptedException ex)
+        {
+            Thread.currentThread().interrupt();
+
+            throw new InterruptedIOException();
+        }
+        catch (ExecutionException ex)
+        {
+            throw new IOException(ex.getCause());
+        }
+        finally
+        {
+            pool.shutdownNow();
+        }
+    }
+
+    //
+    // solve
+    //
+    // Loads one input file, finds a maximum matching (of maximum total weight, if the input
+    // is weighted) with the same engine dispatch as a single input (see Convert._getAnswer)
+    // and writes the answer. Each file is loaded and solved on one thread, since the pool
+    // already solves several files at once.
+    //
+    //      [in] inputFile  - the input file
+    //      [in] outputFile - the answer file to write
+    //
+    // Returns the result.
+    //
+    private _Result _solve(File inputFile, File outputFile)
+    {
+        _Result result = new _Result();
+        long    start  = System.nanoTime();
+
+        result.inputFile  = inputFile;
+        result.outputFile = outputFile;
+
+        try
+        {
+            Convert._Answer answer = Convert._getAnswer(inputFile.getPath(), engine, weighted, 1);
+            BipartiteGraph  graph  = answer.graph;
+
+            result.numSources      = graph.getNumSources();
+            result.numDestinations = graph.getNumDestinations();
+            result.numEdges        = graph.getNumEdges();
+            result.maxFlow         = answer.maxFlow;
+
+            try (FileChannel channel = FileChannel.open(outputFile.toPath(), StandardOpenOption.WRITE,
+                                                        StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING))
+            {
+                MatchWriter writer = new MatchWriter(channel);
+
+                if (answer.maxWeight >= 0)
+                {
+                    writer.writeWeightedAnswer(graph, answer.maxFlow, answer.maxWeight, answer.sourceMates, false);
+                }
+                else
+                {
+                    writer.writeAnswer(graph, answer.maxFlow, answer.sourceMates, false);
+                }
+
+                writer.flush();
+            }
+        }
+        catch (IOException | RuntimeException ex)
+        {
+            result.error = ex.toString();
+        }
+
+        result.millis = (System.nanoTime() - start) / 1000000;
+
+        return result;
+    }
+
+    //
+    // listInputs
+    //
+    // Lists the input files of a directory (every regular, non-hidden file, in name order) or
+    // of a manifest.
+    //
+    //      [in] input - the input directory or manifest file
+    //
+    // Returns the input files.
+    //
+    private static List<File> _listInputs(File input) throws IOException
+    {
+        List<File> inputFiles = new ArrayList<>();
+
+        if (input.isDirectory())
+        {
+            File[] files = input.listFiles();
+
+            if (files == null)
+            {
+                throw new IOException("Cannot list directory: " + input);
+            }
+
+            Arrays.sort(files);
+
+            for (File file : files)
+            {
+                if (file.isFile() && !file.isHidden())
+                {
+                    inputFiles.add(file);
+                }
+            }
+
+            return inputFiles;
+        }
+
+        File baseDir = input.getAbsoluteFile().getParentFile();
+
+        for (String line : Files.readAllLines(input.toPath(), StandardCharsets.UTF_8))
+        {
+            line = line.trim();
+
+            if (line.isEmpty() || line.startsWith("#"))
+            {
+                continue;
+            }
+
+            File file = new File(line);
+
+            inputFiles.add(file.isAbsolute() ? file : new File(baseDir, line));
+        }
+
+        return inputFiles;
+    }
+
+    //
+    // printSummary
+    //
+    // Prints one line per input and the totals.
+    //
+    //      [in] results    - the results, in input order
+    //      [in] millis     - the wall clock time of the whole batch
+    //
+    private static void _printSummary(List<_Result> results, long millis)
+    {
+        int  solved     = 0;
+        long totalFlow  = 0;
+        long totalEdges = 0;
+
+        System.out.println("***************************************************");
+
+        for (_Result result : results)
+        {
+            if (result.error != null)
+            {
+                System.out.println(result.inputFile + ": FAILED (" + result.error + ")");
+
+                continue;
+            }
+
+            solved++;
+            totalFlow  += result.maxFlow;
+            totalEdges += result.numEdges;
+
+            System.out.println(result.inputFile + ": Max Flow " + result.maxFlow + " (" + result.numSources +
+                               " sources, " + result.numDestinations + " destinations, " + result.numEdges +
+                               " edges, " + result.millis + " ms) -> " + result.outputFile);
+        }
+
+        System.out.println("***************************************************");
+        System.out.println("Solved " + solved + " of " + results.size() + " files, " + totalEdges +
+                           " edges, total Max Flow " + totalFlow + ", in " + millis + " ms");
+    }
+}
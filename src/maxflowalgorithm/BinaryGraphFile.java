@@ -0,0 +1,401 @@
+//
+// BinaryGraphFile.java
+//
+// This class writes and reads bipartite graphs (see BipartiteGraph.java) in a compact binary
+// format, so a graph converted once from text loads without parsing or interning. All values
+// are little-endian and the file is laid out as:
+//
+//      header              - 8 ints: MAGIC, VERSION, number of sources, number of destinations,
+//                            number of edges, source pool bytes, destination pool bytes, flags
+//                            (a reserved word, always 0, in version 1 files)
+//      source starts       - (number of sources + 1) ints, start of each source name
+//      destination starts  - (number of destinations + 1) ints, start of each destination name
+//      offsets             - (number of sources + 1) ints, start of each source's edges
+//      targets             - (number of edges) ints, destination of each edge
+//      weights             - (number of edges) ints, weight of each edge, only if the flags
+//                            include FLAG_WEIGHTED
+//      source pool         - the UTF-8 bytes of every source name
+//      destination pool    - the UTF-8 bytes of every destination name
+//
+// The reader memory-maps the file and copies each section into its array in bulk, then checks
+// every count, start position and target, so a damaged file is reported as an IOException.
+//
+// The MIT License (MIT)
+//
+// Copyright (c) 2022 Luke Andrews. All Rights Reserved.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this
+// software and associated documentation files (the "Software"), to deal in the Software
+// without restriction, including without limitation the rights to use, copy, modify, merge,
+// publish, distribute, sub-license, and/or sell copies of the Software, and to permit persons
+// to whom the Software is furnished to do so, subject to the following conditions:
+// 
+// * The above copyright notice and this permission notice shall be included in all copies or
+//   substantial portions of the Software.
+// 
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, 
+// INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+// PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+// FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR 
+// OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+// DEALINGS IN THE SOFTWARE.
+//
+package maxflowalgorithm;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+class BinaryGraphFile
+{
+    public static final int  MAGIC         = 0x46475042;   // "BPGF" when read as little-endian bytes
+    public static final int  VERSION       = 2;            // 2 gave the last header word its flags
+    public static final int  VERSION_1     = 1;            // still read: unweighted, with a zero flags word
+    public static final int  FLAG_WEIGHTED = 1;            // the file has a weights section
+
+    private static final int HEADER_INTS   = 8;
+    private static final int BUFFER_SIZE   = 1 << 20;       // bytes written at a time
+    private static final int WINDOW_SIZE   = 1 << 30;       // largest mapping, well under the 2 GB limit
+
+    //
+    // isBinary
+    //
+    // Determines whether a file starts with the magic number of this format.
+    //
+    //      [in] file - the file
+    //
+    // Returns whether the file is a binary graph file.
+    //
+    public static boolean isBinary(File file) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ))
+        {
+            ByteBuffer buffer = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+
+            return channel.read(buffer, 0) == 4 && buffer.getInt(0) == MAGIC;
+        }
+    }
+
+    //
+    // write
+    //
+    // Writes a bipartite graph to a file, replacing its contents.
+    //
+    //      [in] graph      - the bipartite graph
+    //      [in] outputFile - the output file
+    //
+    public static void write(BipartiteGraph graph, File outputFile) throws IOException
+    {
+        NameDictionary sources      = graph.getSources();
+        NameDictionary destinations = graph.getDestinations();
+        int            numSources   = graph.getNumSources();
+        int            numDsts      = graph.getNumDestinations();
+        int            numEdges     = graph.getNumEdges();
+
+        try (FileChannel channel = FileChannel.open(outputFile.toPath(), StandardOpenOption.WRITE,
+                                                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING))
+        {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+            buffer.putInt(MAGIC);
+            buffer.putInt(VERSION);
+            buffer.putInt(numSources);
+            buffer.putInt(numDsts);
+            buffer.putInt(numEdges);
+            buffer.putInt(sources.getStarts()[numSources]);
+            buffer.putInt(destinations.getStarts()[numDsts]);
+            buffer.putInt(graph.getWeights() != null ? FLAG_WEIGHTED : 0);
+
+            _writeInts(channel, buffer, sources.getStarts(), numSources + 1);
+            _writeInts(channel, buffer, destinations.getStarts(), numDsts + 1);
+            _writeInts(channel, buffer, graph.getOffsets(), numSources + 1);
+            _writeInts(channel, buffer, graph.getTargets(), numEdges);
+
+            if (graph.getWeights() != null)
+            {
+                _writeInts(channel, buffer, graph.getWeights(), numEdges);
+            }
+
+            _writeBytes(channel, buffer, sources.getPool(), sources.getStarts()[numSources]);
+            _writeBytes(channel, buffer, destinations.getPool(), destinations.getStarts()[numDsts]);
+
+            buffer.flip();
+
+            while (buffer.hasRemaining())
+            {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    //
+    // read
+    //
+    // Reads a bipartite graph from a file.
+    //
+    //      [in] inputFile - the input file
+    //
+    // Returns the bipartite graph.
+    //
+    public static BipartiteGraph read(File inputFile) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(inputFile.toPath(), StandardOpenOption.READ))
+        {
+            if (channel.size() < HEADER_INTS * 4)
+            {
+                throw new IOException("Not a binary graph file: " + inputFile);
+            }
+
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_INTS * 4)
+                                       .order(ByteOrder.LITTLE_ENDIAN);
+
+            if (header.getInt(0) != MAGIC)
+            {
+                throw new IOException("Not a binary graph file: " + inputFile);
+            }
+
+            int version = header.getInt(4);
+
+            if (version != VERSION && version != VERSION_1)
+            {
+                throw new IOException("Unsupported binary graph file version " + version + ": " + inputFile);
+            }
+
+            int numSources = header.getInt(8);
+            int numDsts    = header.getInt(12);
+            int numEdges   = header.getInt(16);
+            int srcBytes   = header.getInt(20);
+            int dstBytes   = header.getInt(24);
+            int flags      = header.getInt(28);
+
+            boolean weighted = (flags & FLAG_WEIGHTED) != 0;
+            long    expected = 4L * (HEADER_INTS + 2L * (numSources + 1L) + (numDsts + 1L) + (weighted ? 2L : 1L) * numEdges) +
+                               srcBytes + dstBytes;
+
+            if (numSources < 0 || numDsts < 0 || numEdges < 0 || srcBytes < 0 || dstBytes < 0 ||
+                (flags & ~(version == VERSION_1 ? 0 : FLAG_WEIGHTED)) != 0 || channel.size() != expected)
+            {
+                throw new IOException("Corrupt binary graph file: " + inputFile);
+            }
+
+            int[]  srcStarts = new int[numSources + 1];
+            int[]  dstStarts = new int[numDsts + 1];
+            int[]  offsets   = new int[numSources + 1];
+            int[]  targets   = new int[numEdges];
+            int[]  weights   = weighted ? new int[numEdges] : null;
+            byte[] srcPool   = new byte[srcBytes];
+            byte[] dstPool   = new byte[dstBytes];
+            long   position  = HEADER_INTS * 4;
+
+            position = _readInts(channel, position, srcStarts);
+            position = _readInts(channel, position, dstStarts);
+            position = _readInts(channel, position, offsets);
+            position = _readInts(channel, position, targets);
+
+            if (weighted)
+            {
+                position = _readInts(channel, position, weights);
+            }
+
+            position = _readBytes(channel, position, srcPool);
+            position = _readBytes(channel, position, dstPool);
+
+            //
+            // The arrays index each other, so check them before anything trusts them:
+            //
+            if (!_isOffsetArray(srcStarts, srcBytes) || !_isOffsetArray(dstStarts, dstBytes) ||
+                !_isOffsetArray(offsets, numEdges))
+            {
+                throw new IOException("Corrupt binary graph file: " + inputFile);
+            }
+
+            for (int target : targets)
+            {
+                if (target < 0 || target >= numDsts)
+                {
+                    throw new IOException("Corrupt binary graph file: " + inputFile);
+                }
+            }
+
+            try
+            {
+                return new BipartiteGraph(new NameDictionary(srcPool, srcStarts, numSources),
+                                          new NameDictionary(dstPool, dstStarts, numDsts),
+                                          offsets, targets, weights);
+            }
+            catch (IllegalArgumentException ex)
+            {
+                throw new IOException("Corrupt binary graph file: " + inputFile);
+            }
+        }
+    }
+
+    //
+    // isOffsetArray
+    //
+    // Determines whether an array of start positions is well formed: it starts at 0, never
+    // decreases and ends at the length of the data it indexes.
+    //
+    //      [in] starts - the start positions
+    //      [in] end    - the length of the indexed data
+    //
+    // Returns whether the array is well formed.
+    //
+    private static boolean _isOffsetArray(int[] starts, int end)
+    {
+        if (starts[0] != 0 || starts[starts.length - 1] != end)
+        {
+            return false;
+        }
+
+        for (int i = 1; i < starts.length; i++)
+        {
+            if (starts[i] < starts[i - 1])
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    //
+    // writeInts
+    //
+    // Writes ints through a buffer, flushing the buffer to the channel whenever it fills.
+    //
+    //      [in] channel    - the output channel
+    //      [in] buffer     - the write buffer
+    //      [in] values     - the values to write
+    //      [in] count      - the number of values to write
+    //
+    private static void _writeInts(FileChannel channel, ByteBuffer buffer, int[] values, int count) throws IOException
+    {
+        int index = 0;
+
+        while (index < count)
+        {
+            if (buffer.remaining() < 4)
+            {
+                _flush(channel, buffer);
+            }
+
+            int n = Math.min(count - index, buffer.remaining() / 4);
+
+            buffer.asIntBuffer().put(values, index, n);
+            buffer.position(buffer.position() + n * 4);
+
+            index += n;
+        }
+    }
+
+    //
+    // writeBytes
+    //
+    // Writes bytes through a buffer, flushing the buffer to the channel whenever it fills.
+    //
+    //      [in] channel    - the output channel
+    //      [in] buffer     - the write buffer
+    //      [in] values     - the bytes to write
+    //      [in] count      - the number of bytes to write
+    //
+    private static void _writeBytes(FileChannel channel, ByteBuffer buffer, byte[] values, int count) throws IOException
+    {
+        int index = 0;
+
+        while (index < count)
+        {
+            if (!buffer.hasRemaining())
+            {
+                _flush(channel, buffer);
+            }
+
+            int n = Math.min(count - index, buffer.remaining());
+
+            buffer.put(values, index, n);
+
+            index += n;
+        }
+    }
+
+    //
+    // flush
+    //
+    // Writes out everything in a buffer and empties it.
+    //
+    //      [in] channel    - the output channel
+    //      [in] buffer     - the write buffer
+    //
+    private static void _flush(FileChannel channel, ByteBuffer buffer) throws IOException
+    {
+        buffer.flip();
+
+        while (buffer.hasRemaining())
+        {
+            channel.write(buffer);
+        }
+
+        buffer.clear();
+    }
+
+    //
+    // readInts
+    //
+    // Fills an array of ints from a section of the file, mapping it in windows.
+    //
+    //      [in]  channel   - the input channel
+    //      [in]  position  - the offset of the section
+    //      [out] values    - the array to fill
+    //
+    // Returns the offset just past the section.
+    //
+    private static long _readInts(FileChannel channel, long position, int[] values) throws IOException
+    {
+        int index = 0;
+
+        while (index < values.length)
+        {
+            int n = Math.min(values.length - index, WINDOW_SIZE / 4);
+
+            channel.map(FileChannel.MapMode.READ_ONLY, position, n * 4L)
+                   .order(ByteOrder.LITTLE_ENDIAN)
+                   .asIntBuffer()
+                   .get(values, index, n);
+
+            index    += n;
+            position += n * 4L;
+        }
+
+        return position;
+    }
+
+    //
+    // readBytes
+    //
+    // Fills an array of bytes from a section of the file, mapping it in windows.
+    //
+    //      [in]  channel   - the input channel
+    //      [in]  position  - the offset of the section
+    //      [out] values    - the array to fill
+    //
+    // Returns the offset just past the section.
+    //
+    private static long _readBytes(FileChannel channel, long position, byte[] values) throws IOException
+    {
+        int index = 0;
+
+        while (index < values.length)
+        {
+            int n = Math.min(values.length - index, WINDOW_SIZE);
+
+            channel.map(FileChannel.MapMode.READ_ONLY, position, n).get(values, index, n);
+
+            index    += n;
+            position += n;
+        }
+
+        return position;
+    }
+}
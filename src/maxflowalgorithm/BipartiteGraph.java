@@ -0,0 +1,160 @@
+//
+// BipartiteGraph.java
+//
+// This class describes a bipartite graph of named source nodes and named destination nodes.
+// Names are interned into dense ids (see NameDictionary.java) and the edges are stored as
+// adjacency arrays from source ids to destination ids, ready for the Hopcroft Karp algorithm.
+// Edges may optionally carry weights (see WeightedAssignment.java).
+//
+// The MIT License (MIT)
+//
+// Copyright (c) 2022 Luke Andrews. All Rights Reserved.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this
+// software and associated documentation files (the "Software"), to deal in the Software
+// without restriction, including without limitation the rights to use, copy, modify, merge,
+// publish, distribute, sub-license, and/or sell copies of the Software, and to permit persons
+// to whom the Software is furnished to do so, subject to the following conditions:
+// 
+// * The above copyright notice and this permission notice shall be included in all copies or
+//   substantial portions of the Software.
+// 
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, 
+// INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+// PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+// FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR 
+// OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+// DEALINGS IN THE SOFTWARE.
+//
+package maxflowalgorithm;
+
+class BipartiteGraph
+{
+    private NameDictionary sources;
+    private NameDictionary destinations;
+    private int[]          offsets;     // destinations of source u are targets[offsets[u]] .. targets[offsets[u + 1] - 1]
+    private int[]          targets;
+    private int[]          weights;     // weight of each edge, null if every edge has weight 1
+
+    //
+    // Overloaded constructor.
+    //
+    // Constructs with the name dictionaries and adjacency arrays of a bipartite graph.
+    //
+    //      [in] sources        - the source node names
+    //      [in] destinations   - the destination node names
+    //      [in] offsets        - per source, the start of its destinations (sources.size() + 1 entries)
+    //      [in] targets        - the destination of each edge
+    //
+    public BipartiteGraph(NameDictionary sources, NameDictionary destinations, int[] offsets, int[] targets)
+    {
+        this(sources, destinations, offsets, targets, null);
+    }
+
+    //
+    // Overloaded constructor.
+    //
+    // Constructs with the name dictionaries, adjacency arrays and edge weights of a bipartite graph.
+    //
+    //      [in] sources        - the source node names
+    //      [in] destinations   - the destination node names
+    //      [in] offsets        - per source, the start of its destinations (sources.size() + 1 entries)
+    //      [in] targets        - the destination of each edge
+    //      [in] weights        - the weight of each edge, or null if every edge has weight 1
+    //
+    public BipartiteGraph(NameDictionary sources, NameDictionary destinations, int[] offsets, int[] targets, int[] weights)
+    {
+        if (sources == null || destinations == null || offsets == null || targets == null ||
+            offsets.length != sources.size() + 1 || targets.length < offsets[sources.size()] ||
+            (weights != null && weights.length < offsets[sources.size()]))
+        {
+            throw new IllegalArgumentException();
+        }
+
+        this.sources      = sources;
+        this.destinations = destinations;
+        this.offsets      = offsets;
+        this.targets      = targets;
+        this.weights      = weights;
+    }
+
+    //
+    // getSources
+    //
+    // Gets the source node names.
+    //
+    public NameDictionary getSources()
+    {
+        return sources;
+    }
+
+    //
+    // getDestinations
+    //
+    // Gets the destination node names.
+    //
+    public NameDictionary getDestinations()
+    {
+        return destinations;
+    }
+
+    //
+    // getNumSources
+    //
+    // Gets the number of source nodes.
+    //
+    public int getNumSources()
+    {
+        return sources.size();
+    }
+
+    //
+    // getNumDestinations
+    //
+    // Gets the number of destination nodes.
+    //
+    public int getNumDestinations()
+    {
+        return destinations.size();
+    }
+
+    //
+    // getNumEdges
+    //
+    // Gets the number of edges.
+    //
+    public int getNumEdges()
+    {
+        return offsets[sources.size()];
+    }
+
+    //
+    // getOffsets
+    //
+    // Gets the per source offsets into the edge targets.
+    //
+    public int[] getOffsets()
+    {
+        return offsets;
+    }
+
+    //
+    // getTargets
+    //
+    // Gets the destination of every edge.
+    //
+    public int[] getTargets()
+    {
+        return targets;
+    }
+
+    //
+    // getWeights
+    //
+    // Gets the weight of every edge, or null if the graph is unweighted (every edge has weight 1).
+    //
+    public int[] getWeights()
+    {
+        return weights;
+    }
+}
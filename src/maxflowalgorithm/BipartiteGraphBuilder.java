@@ -0,0 +1,175 @@
+//
+// BipartiteGraphBuilder.java
+//
+// This class builds a bipartite graph (see BipartiteGraph.java) one source at a time, as the
+// lines of an input file are read. Each source is followed by its destinations. A source name
+// that was already added is ignored together with its destinations, so the first entry wins.
+//
+// The MIT License (MIT)
+//
+// Copyright (c) 2022 Luke Andrews. All Rights Reserved.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this
+// software and associated documentation files (the "Software"), to deal in the Software
+// without restriction, including without limitation the rights to use, copy, modify, merge,
+// publish, distribute, sub-license, and/or sell copies of the Software, and to permit persons
+// to whom the Software is furnished to do so, subject to the following conditions:
+// 
+// * The above copyright notice and this permission notice shall be included in all copies or
+//   substantial portions of the Software.
+// 
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, 
+// INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+// PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+// FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR 
+// OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+// DEALINGS IN THE SOFTWARE.
+//
+package maxflowalgorithm;
+
+import java.nio.ByteBuffer;
+
+class BipartiteGraphBuilder implements EdgeSink
+{
+    private NameDictionary sources      = new NameDictionary();
+    private NameDictionary destinations = new NameDictionary();
+    private IntList        offsets      = new IntList();
+    private IntList        targets      = new IntList();
+    private IntList        weights;                 // edge weights, null while every weight is 1
+    private boolean        skipping     = true;     // whether destinations are being ignored
+
+    //
+    // addSource
+    //
+    // Starts the destinations of a source node.
+    //
+    //      [in] name - the source node name
+    //
+    // Returns whether the source is new (false if it duplicates an earlier source).
+    //
+    public boolean addSource(String name)
+    {
+        return _startSource(sources.intern(name));
+    }
+
+    //
+    // addSource
+    //
+    // Starts the destinations of a source node whose name is given as UTF-8 bytes.
+    //
+    //      [in] buffer - the buffer holding the name
+    //      [in] start  - the index of the first byte of the name
+    //      [in] end    - the index just past the last byte of the name
+    //
+    // Returns whether the source is new (false if it duplicates an earlier source).
+    //
+    public boolean addSource(ByteBuffer buffer, int start, int end)
+    {
+        return _startSource(sources.intern(buffer, start, end));
+    }
+
+    //
+    // addDestination
+    //
+    // Adds an edge from the current source node to a destination node.
+    //
+    //      [in] name - the destination node name
+    //
+    public void addDestination(String name)
+    {
+        _addTarget(destinations.intern(name), 1);
+    }
+
+    //
+    // addDestination
+    //
+    // Adds an edge from the current source node to a destination node whose name is given as
+    // UTF-8 bytes.
+    //
+    //      [in] buffer - the buffer holding the name
+    //      [in] start  - the index of the first byte of the name
+    //      [in] end    - the index just past the last byte of the name
+    //      [in] weight - the weight of the edge
+    //
+    public void addDestination(ByteBuffer buffer, int start, int end, int weight)
+    {
+        _addTarget(destinations.intern(buffer, start, end), weight);
+    }
+
+    //
+    // build
+    //
+    // Builds the bipartite graph from everything added so far.
+    //
+    // Returns the bipartite graph.
+    //
+    public BipartiteGraph build()
+    {
+        int[] offsetArray = new int[sources.size() + 1];
+
+        for (int i = 0; i < offsets.size(); i++)
+        {
+            offsetArray[i] = offsets.get(i);
+        }
+
+        offsetArray[sources.size()] = targets.size();
+
+        return new BipartiteGraph(sources, destinations, offsetArray, targets.toArray(),
+                                  weights == null ? null : weights.toArray());
+    }
+
+    //
+    // startSource
+    //
+    // Starts the destinations of an interned source node, unless it was seen before.
+    //
+    //      [in] id - the source id
+    //
+    // Returns whether the source is new.
+    //
+    private boolean _startSource(int id)
+    {
+        skipping = id < offsets.size();
+
+        if (!skipping)
+        {
+            offsets.add(targets.size());
+        }
+
+        return !skipping;
+    }
+
+    //
+    // addTarget
+    //
+    // Adds an edge from the current source node to an interned destination node. Weights are
+    // only recorded once an edge with a weight other than 1 is added.
+    //
+    //      [in] id     - the destination id
+    //      [in] weight - the weight of the edge
+    //
+    private void _addTarget(int id, int weight)
+    {
+        if (skipping)
+        {
+            return;
+        }
+
+        if (weights == null && weight != 1)
+        {
+            weights = new IntList(targets.size() + 1);
+
+            for (int i = 0; i < targets.size(); i++)
+            {
+                weights.add(1);
+            }
+        }
+
+        targets.add(id);
+
+        if (weights != null)
+        {
+            weights.add(weight);
+        }
+    }
+}
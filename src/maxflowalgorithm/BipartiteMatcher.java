@@ -0,0 +1,66 @@
+//
+// BipartiteMatcher.java
+//
+// This interface describes an engine that computes a maximum matching of a bipartite graph
+// given as adjacency arrays from source nodes to destination nodes (see HopcroftKarp.java and
+// PushRelabelMatcher.java), so one engine can be swapped for another without changing the caller.
+//
+// The MIT License (MIT)
+//
+// Copyright (c) 2022 Luke Andrews. All Rights Reserved.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this
+// software and associated documentation files (the "Software"), to deal in the Software
+// without restriction, including without limitation the rights to use, copy, modify, merge,
+// publish, distribute, sub-license, and/or sell copies of the Software, and to permit persons
+// to whom the Software is furnished to do so, subject to the following conditions:
+// 
+// * The above copyright notice and this permission notice shall be included in all copies or
+//   substantial portions of the Software.
+// 
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, 
+// INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+// PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+// FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR 
+// OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+// DEALINGS IN THE SOFTWARE.
+//
+package maxflowalgorithm;
+
+interface BipartiteMatcher
+{
+    //
+    // getName
+    //
+    // Gets a short name for the engine, for reporting.
+    //
+    String getName();
+
+    //
+    // computeMatching
+    //
+    // Computes a maximum matching, starting from a given matching (a warm start). Pairs whose
+    // destination is out of range or already taken by an earlier source are left out of the
+    // initial matching.
+    //
+    //      [in] initialSourceMates - the destination matched to each source, -1 if unmatched
+    //                                (may be shorter than the number of sources, or null)
+    //
+    // Returns the number of matched pairs.
+    //
+    int computeMatching(int[] initialSourceMates);
+
+    //
+    // getSourceMates
+    //
+    // Gets the destination matched to each source, -1 if the source is unmatched.
+    //
+    int[] getSourceMates();
+
+    //
+    // getDestinationMates
+    //
+    // Gets the source matched to each destination, -1 if the destination is unmatched.
+    //
+    int[] getDestinationMates();
+}
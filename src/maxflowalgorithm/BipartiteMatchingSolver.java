@@ -0,0 +1,198 @@
+//
+// BipartiteMatchingSolver.java
+//
+// This class computes a maximum flow of a unit-capacity bipartite matching network (see
+// GraphStats.computeSides) by running Hopcroft Karp, warm started with a Karp Sipser matching,
+// on the edges between the two sides and then writing the matching back into the network as a flow.
+//
+// The MIT License (MIT)
+//
+// Copyright (c) 2022 Luke Andrews. All Rights Reserved.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this
+// software and associated documentation files (the "Software"), to deal in the Software
+// without restriction, including without limitation the rights to use, copy, modify, merge,
+// publish, distribute, sub-license, and/or sell copies of the Software, and to permit persons
+// to whom the Software is furnished to do so, subject to the following conditions:
+// 
+// * The above copyright notice and this permission notice shall be included in all copies or
+//   substantial portions of the Software.
+// 
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, 
+// INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+// PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+// FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR 
+// OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+// DEALINGS IN THE SOFTWARE.
+//
+package maxflowalgorithm;
+
+class BipartiteMatchingSolver implements MaxFlowSolver
+{
+    //
+    // getName
+    //
+    // Gets a short name for the engine, for reporting.
+    //
+    public String getName()
+    {
+        return "Hopcroft Karp";
+    }
+
+    //
+    // computeMaxFlow
+    //
+    // Computes the maximum flow, starting from no flow. The resulting flow is left in the
+    // residual capacities of the sparse graph.
+    //
+    //      [in] graph      - the sparse graph, with a bipartite matching layout and unit capacities
+    //      [in] source     - the index of source node
+    //      [in] sink       - the index of the sink node
+    //
+    // Returns the maximum flow.
+    //
+    public int computeMaxFlow(SparseGraph graph, int source, int sink)
+    {
+        int[] side = GraphStats.computeSides(graph, source, sink);
+
+        if (side == null)
+        {
+            throw new IllegalArgumentException();
+        }
+
+        int[] firstArcs = graph.getFirstArcs();
+        int[] heads     = graph.getArcHeads();
+        int[] reverses  = graph.getArcReverses();
+        int[] residuals = graph.getArcResiduals();
+        int   numNodes  = graph.getNumNodes();
+
+        graph.resetFlow();
+
+        //
+        // Number the nodes of each side. Only left nodes fed by the source and right nodes
+        // feeding the sink can carry flow:
+        //
+        int[] index         = new int[numNodes];
+        int[] terminalArc   = new int[numNodes]; // source -> left node, or right node -> sink
+        int   numLeft       = 0;
+        int   numRight      = 0;
+
+        java.util.Arrays.fill(index, -1);
+
+        for (int arc = firstArcs[source]; arc < firstArcs[source + 1]; arc++)
+        {
+            index[heads[arc]]       = numLeft++;
+            terminalArc[heads[arc]] = arc;
+        }
+
+        for (int arc = firstArcs[sink]; arc < firstArcs[sink + 1]; arc++)
+        {
+            index[heads[arc]]       = numRight++;
+            terminalArc[heads[arc]] = reverses[arc];
+        }
+
+        int[] leftNode  = new int[numLeft];
+        int[] rightNode = new int[numRight];
+
+        for (int node = 0; node < numNodes; node++)
+        {
+            if (index[node] != -1)
+            {
+                if (side[node] == GraphStats.LEFT)
+                {
+                    leftNode[index[node]] = node;
+                }
+                else
+                {
+                    rightNode[index[node]] = node;
+                }
+            }
+        }
+
+        //
+        // Build the adjacency arrays of the matching, remembering the arc behind each entry:
+        //
+        int[] offsets = new int[numLeft + 1];
+
+        for (int l = 0; l < numLeft; l++)
+        {
+            int node  = leftNode[l];
+            int count = 0;
+
+            for (int arc = firstArcs[node]; arc < firstArcs[node + 1]; arc++)
+            {
+                if (graph.isForward(arc) && index[heads[arc]] != -1)
+                {
+                    count++;
+                }
+            }
+
+            offsets[l + 1] = offsets[l] + count;
+        }
+
+        int[] targets = new int[offsets[numLeft]];
+        int[] arcs    = new int[offsets[numLeft]];
+
+        for (int l = 0; l < numLeft; l++)
+        {
+            int node  = leftNode[l];
+            int entry = offsets[l];
+
+            for (int arc = firstArcs[node]; arc < firstArcs[node + 1]; arc++)
+            {
+                if (graph.isForward(arc) && index[heads[arc]] != -1)
+                {
+                    targets[entry] = index[heads[arc]];
+                    arcs[entry]    = arc;
+                    entry++;
+                }
+            }
+        }
+
+        //
+        // Match, then send one unit of flow along source -> left -> right -> sink for each pair:
+        //
+        HopcroftKarp matcher = new HopcroftKarp(numLeft, numRight, offsets, targets);
+        int          size    = matcher.computeMatching(KarpSipser.computeMatching(numLeft, numRight, offsets, targets));
+        int[]        mates   = matcher.getSourceMates();
+
+        for (int l = 0; l < numLeft; l++)
+        {
+            if (mates[l] == -1)
+            {
+                continue;
+            }
+
+            int middleArc = -1;
+
+            for (int entry = offsets[l]; entry < offsets[l + 1] && middleArc == -1; entry++)
+            {
+                if (targets[entry] == mates[l])
+                {
+                    middleArc = arcs[entry];
+                }
+            }
+
+            _push(residuals, reverses, terminalArc[leftNode[l]]);
+            _push(residuals, reverses, middleArc);
+            _push(residuals, reverses, terminalArc[rightNode[mates[l]]]);
+        }
+
+        return size;
+    }
+
+    //
+    // push
+    //
+    // Sends one unit of flow along an arc.
+    //
+    //      [in] residuals  - the residual capacities
+    //      [in] reverses   - the paired arcs
+    //      [in] arc        - the arc
+    //
+    private static void _push(int[] residuals, int[] reverses, int arc)
+    {
+        residuals[arc]--;
+        residuals[reverses[arc]]++;
+    }
+}
@@ -0,0 +1,143 @@
+//
+// ByteLineReader.java
+//
+// This class reads a stream one line at a time into a reusable byte array, so text formats
+// can be tokenized without making a String per line. Lines may end in "\n" or "\r\n"; the
+// line end is not included.
+//
+// The MIT License (MIT)
+//
+// Copyright (c) 2022 Luke Andrews. All Rights Reserved.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this
+// software and associated documentation files (the "Software"), to deal in the Software
+// without restriction, including without limitation the rights to use, copy, modify, merge,
+// publish, distribute, sub-license, and/or sell copies of the Software, and to permit persons
+// to whom the Software is furnished to do so, subject to the following conditions:
+// 
+// * The above copyright notice and this permission notice shall be included in all copies or
+//   substantial portions of the Software.
+// 
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, 
+// INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+// PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+// FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR 
+// OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+// DEALINGS IN THE SOFTWARE.
+//
+package maxflowalgorithm;
+
+import java.io.*;
+
+class ByteLineReader
+{
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private InputStream in;
+    private byte[]      buffer   = new byte[BUFFER_SIZE];
+    private int         position;
+    private int         limit;
+    private byte[]      line     = new byte[256];
+    private int         length;
+    private long        lineNumber;
+
+    //
+    // Overloaded constructor.
+    //
+    // Constructs with the stream to read.
+    //
+    //      [in] in - the input stream
+    //
+    public ByteLineReader(InputStream in)
+    {
+        this.in = in;
+    }
+
+    //
+    // getLine
+    //
+    // Gets the bytes of the current line. Only the first getLength() bytes are meaningful.
+    //
+    public byte[] getLine()
+    {
+        return line;
+    }
+
+    //
+    // getLength
+    //
+    // Gets the length of the current line.
+    //
+    public int getLength()
+    {
+        return length;
+    }
+
+    //
+    // getLineNumber
+    //
+    // Gets the number of the current line, counting from 1.
+    //
+    public long getLineNumber()
+    {
+        return lineNumber;
+    }
+
+    //
+    // next
+    //
+    // Reads the next line.
+    //
+    // Returns whether a line was read (false at the end of the stream).
+    //
+    public boolean next() throws IOException
+    {
+        length = 0;
+
+        boolean any = false;
+
+        while (true)
+        {
+            if (position == limit)
+            {
+                limit    = in.read(buffer);
+                position = 0;
+
+                if (limit <= 0)
+                {
+                    limit = 0;
+
+                    break;
+                }
+            }
+
+            any = true;
+
+            byte b = buffer[position++];
+
+            if (b == '\n')
+            {
+                break;
+            }
+
+            if (length == line.length)
+            {
+                line = java.util.Arrays.copyOf(line, length * 2);
+            }
+
+            line[length++] = b;
+        }
+
+        if (length > 0 && line[length - 1] == '\r')
+        {
+            length--;
+        }
+
+        if (any)
+        {
+            lineNumber++;
+        }
+
+        return any;
+    }
+}
@@ -0,0 +1,118 @@
+//
+// CapacityScaling.java
+//
+// This class computes a maximum flow of a sparse graph using the capacity scaling variant of
+// the Ford Fulkerson method. Paths may only use arcs with a residual capacity of at least a
+// threshold, which starts at the largest power of two not above the largest capacity and is
+// halved whenever no such path remains. Each threshold allows at most O(E) augmentations, so the
+// running time is O(E^2 * log U) for a largest capacity U, rather than growing with U itself.
+//
+// The MIT License (MIT)
+//
+// Copyright (c) 2022 Luke Andrews. All Rights Reserved.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this
+// software and associated documentation files (the "Software"), to deal in the Software
+// without restriction, including without limitation the rights to use, copy, modify, merge,
+// publish, distribute, sub-license, and/or sell copies of the Software, and to permit persons
+// to whom the Software is furnished to do so, subject to the following conditions:
+// 
+// * The above copyright notice and this permission notice shall be included in all copies or
+//   substantial portions of the Software.
+// 
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, 
+// INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+// PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+// FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR 
+// OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+// DEALINGS IN THE SOFTWARE.
+//
+package maxflowalgorithm;
+
+class CapacityScaling implements MaxFlowSolver
+{
+    private PathSearch  search;         // kept between runs on the same graph
+    private SparseGraph searchGraph;
+    private int         searchSource;
+    private int         searchSink;
+
+    //
+    // getName
+    //
+    // Gets a short name for the engine, for reporting.
+    //
+    public String getName()
+    {
+        return "Capacity scaling";
+    }
+
+    //
+    // computeMaxFlow
+    //
+    // Computes the maximum flow, starting from no flow. The resulting flow is left in the
+    // residual capacities of the sparse graph.
+    //
+    //      [in] graph      - the sparse graph
+    //      [in] source     - the index of source node
+    //      [in] sink       - the index of the sink node
+    //
+    // Returns the maximum flow.
+    //
+    public int computeMaxFlow(SparseGraph graph, int source, int sink)
+    {
+        int[] residuals  = graph.getArcResiduals();
+        int[] reverses   = graph.getArcReverses();
+        int[] capacities = graph.getArcCapacities();
+
+        graph.resetFlow();
+
+        //
+        // Start from the largest power of two not above the largest capacity:
+        //
+        int maxCapacity = 0;
+
+        for (int arc = 0; arc < graph.getNumArcs(); arc++)
+        {
+            maxCapacity = Math.max(maxCapacity, capacities[arc]);
+        }
+
+        if (search == null || searchGraph != graph || searchSource != source || searchSink != sink)
+        {
+            search       = new PathSearch(graph, source, sink, PathSearch.Mode.EARLY_EXIT);
+            searchGraph  = graph;
+            searchSource = source;
+            searchSink   = sink;
+        }
+
+        int   delta = (maxCapacity == 0) ? 0 : Integer.highestOneBit(maxCapacity);
+        int[] path  = search.getPath();
+
+        while (delta > 0)
+        {
+            search.setMinResidual(delta);
+
+            while (search.findPath())
+            {
+                int length  = search.getPathLength();
+                int minCost = Integer.MAX_VALUE;
+
+                for (int i = 0; i < length; i++)
+                {
+                    minCost = Math.min(minCost, residuals[path[i]]);
+                }
+
+                for (int i = 0; i < length; i++)
+                {
+                    int arc = path[i];
+
+                    residuals[arc]           -= minCost;
+                    residuals[reverses[arc]] += minCost;
+                }
+            }
+
+            delta /= 2;
+        }
+
+        return Math.toIntExact(graph.getInflow(sink));
+    }
+}
@@ -0,0 +1,157 @@
+//
+// ConsoleFlowListener.java
+//
+// This class prints the progress of a maximum flow computation to the console: the graphs,
+// each path search, each path with its minimum cost, and the maximum flow. The flow and
+// residual graphs are only printed for flows constructed from an adjacency matrix.
+//
+// The MIT License (MIT)
+//
+// Copyright (c) 2022 Luke Andrews. All Rights Reserved.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this
+// software and associated documentation files (the "Software"), to deal in the Software
+// without restriction, including without limitation the rights to use, copy, modify, merge,
+// publish, distribute, sub-license, and/or sell copies of the Software, and to permit persons
+// to whom the Software is furnished to do so, subject to the following conditions:
+// 
+// * The above copyright notice and this permission notice shall be included in all copies or
+//   substantial portions of the Software.
+// 
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, 
+// INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+// PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+// FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR 
+// OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+// DEALINGS IN THE SOFTWARE.
+//
+package maxflowalgorithm;
+
+class ConsoleFlowListener implements FlowListener
+{
+    private Flow flow;
+
+    //
+    // Overloaded constructor.
+    //
+    // Constructs with the flow whose progress is printed.
+    //
+    //      [in] flow - the flow
+    //
+    public ConsoleFlowListener(Flow flow)
+    {
+        this.flow = flow;
+    }
+
+    //
+    // started
+    //
+    // Prints the graph, and for an adjacency matrix the starting flow and residual graphs.
+    //
+    public void started()
+    {
+        if (flow.getSparseGraph() != null)
+        {
+            SparseGraph graph = flow.getSparseGraph();
+
+            System.out.println("Flow from " + flow.getSource() + " to " + flow.getSink() + " in sparse graph with " +
+                               graph.getNumNodes() + " nodes and " + graph.getNumArcs() / 2 + " edges");
+
+            return;
+        }
+
+        System.out.println("Flow from " + flow.getSource() + " to " + flow.getSink() + " in graph: ");
+        flow.printGraph(flow.getGraph());
+
+        _printGraphs();
+    }
+
+    //
+    // pathSearched
+    //
+    // Prints the queue and parents list of a path search.
+    //
+    public void pathSearched(int[] queue, int queueSize, int[] parents)
+    {
+        System.out.print("\nQueue:   ");
+
+        for (int i = 0; i < queueSize; i++)
+        {
+            System.out.print(queue[i] + " ");
+        }
+
+        System.out.println();
+        System.out.print("Parents: ");
+
+        for (int i = 0; i < parents.length; i++)
+        {
+            System.out.print(parents[i] + " ");
+        }
+
+        System.out.println();
+    }
+
+    //
+    // pathFound
+    //
+    // Prints a path.
+    //
+    public void pathFound(int[] path, int length)
+    {
+        System.out.print("\nPath: ");
+
+        for (int i = 0; i < length; i++)
+        {
+            System.out.print(path[i] + "->");
+        }
+
+        System.out.println(path[length]);
+    }
+
+    //
+    // augmented
+    //
+    // Prints the minimum cost of a path.
+    //
+    public void augmented(int minCost)
+    {
+        System.out.println("Min Cost: " + minCost);
+    }
+
+    //
+    // residualUpdated
+    //
+    // Prints the flow and residual graphs of an adjacency matrix.
+    //
+    public void residualUpdated()
+    {
+        if (flow.getSparseGraph() == null)
+        {
+            _printGraphs();
+        }
+    }
+
+    //
+    // finished
+    //
+    // Prints the maximum flow.
+    //
+    public void finished(String engine, int maxFlow)
+    {
+        System.out.println("\nMax Flow (" + engine + "): " + maxFlow);
+    }
+
+    //
+    // printGraphs
+    //
+    // Prints the flow and residual graphs.
+    //
+    private void _printGraphs()
+    {
+        System.out.println("\nFlow Graph:");
+        flow.printGraph(flow.getFlowGraph());
+
+        System.out.println("\nResidual Graph:");
+        flow.printGraph(flow.getResidualGraph());
+    }
+}
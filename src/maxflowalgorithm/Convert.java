@@ -25,257 +25,376 @@
 //
 package maxflowalgorithm;
 
-import java.util.*;
 import java.io.*;
+import java.nio.channels.Channels;
 
 class Convert
 {
+    private static final long   FOLLOW_POLL_MILLIS   = 1000;             // time between polls of a followed log
+    private static final String ENGINE_HOPCROFT_KARP = "hopcroft-karp";  // matching engines for --engine
+    private static final String ENGINE_PUSH_RELABEL  = "push-relabel";
+    private static final String ENGINE_PARALLEL      = "parallel-hopcroft-karp";
+    private static final String ENGINE_AUCTION       = "auction";
+    
     //
     // main
     //
     // Main program entry point. Given an input file, constructs an answer for maximum flow
-    // and prints it to the console. The input file name is expected as a command line argument.
+    // and prints it to the console. The input file name is expected as a command line argument,
+    // and may be a text file, a gzip compressed text file or a binary graph file (see
+    // BinaryGraphFile.java). A file name of "-" reads a text or gzip compressed text input from
+    // standard input instead, so Convert can run in a pipeline (see PipeLoader.java).
+    //
+    // With --sorted, the matches are printed in source name order instead of the order the
+    // sources were read. With --engine push-relabel, the matching is computed by unit-capacity
+    // push-relabel instead of Hopcroft Karp (see PushRelabelMatcher.java), and with --engine
+    // parallel-hopcroft-karp by Hopcroft Karp on all cores (see ParallelHopcroftKarp.java).
+    // With --to-binary, converts a text input file to a binary graph file instead.
+    // With --batch, solves every input file of a directory or manifest (see BatchRunner.java),
+    // with the engine and --weighted options given after --batch.
+    // With --weighted, a destination name ending in a colon and digits carries that weight
+    // ("Person 1>Dev:5,Eng:3"), and an input with any weight other than 1 is solved for the
+    // matching of maximum total weight instead (see WeightedAssignment.java). Without it names
+    // are taken whole, so "Room:101" stays one name. A binary graph file keeps the weights it
+    // was converted with. With --engine
+    // auction, weighted or unweighted inputs are solved by a parallel auction instead, and the
+    // optimality gap after each of its phases is printed to the error stream (see AuctionSolver.java).
+    // The auction needs several bids per person in each of its phases, and is slower than the
+    // default weighted solver on most inputs.
+    // With --follow, keeps reading lines appended to an input log and re-solving after each
+    // append (see LogFollower.java).
     //
     public static void main(String[] args)
     {
-        if(args.length != 1) 
+        if (args.length == 3 && args[0].equals("--to-binary"))
         {
-            System.out.println("Usage: java Convert filename");
+            _toBinary(new File(args[1]), new File(args[2]), false);
             
             return;
         }
         
-        File    inputFile = new File(args[0]);
-        _Answer ans       = _getAnswer(inputFile);
+        if (args.length == 4 && args[0].equals("--to-binary") && args[1].equals("--weighted"))
+        {
+            _toBinary(new File(args[2]), new File(args[3]), true);
+            
+            return;
+        }
         
-        if (ans != null)
+        if (args.length >= 3 && args[0].equals("--batch"))
         {
-            System.out.println("***************************************************");
-            System.out.println("Max Flow: " + ans.maxFlow);
-            System.out.println("Matches:");
+            _runBatch(args);
             
-            for(String setOneNode : ans.matches.keySet())
+            return;
+        }
+        
+        if ((args.length == 2 || args.length == 3) && args[0].equals("--follow"))
+        {
+            try
+            {
+                new LogFollower(new File(args[1])).follow(FOLLOW_POLL_MILLIS, args.length == 3 ? new File(args[2]) : null);
+            }
+            catch (IOException ex)
             {
-                System.out.println("\t"+setOneNode + "-->" + ans.matches.get(setOneNode));
+                System.err.println(ex);
             }
             
-            System.out.println("***************************************************");
+            return;
+        }
+        
+        boolean sorted   = false;
+        boolean weighted = false;
+        String  engine   = ENGINE_HOPCROFT_KARP;
+        int     arg      = 0;
+        
+        while (arg < args.length - 1 && args[arg].startsWith("--"))
+        {
+            if (args[arg].equals("--sorted"))
+            {
+                sorted = true;
+                arg++;
+            }
+            else if (args[arg].equals("--weighted"))
+            {
+                weighted = true;
+                arg++;
+            }
+            else if (args[arg].equals("--engine") && arg + 2 < args.length)
+            {
+                engine = args[arg + 1];
+                arg   += 2;
+            }
+            else
+            {
+                break;
+            }
+        }
+        
+        if (arg != args.length - 1 || !_isEngine(engine))
+        {
+            System.out.println("Usage: java Convert [--sorted] [--weighted] [--engine hopcroft-karp|push-relabel|parallel-hopcroft-karp|auction] filename|-");
+            System.out.println("       java Convert --to-binary [--weighted] filename binaryfilename");
+            System.out.println("       java Convert --batch [--engine name] [--weighted] directory|manifest outputdirectory [threads]");
+            System.out.println("       java Convert --follow filename [outputfilename]");
+            
+            return;
+        }
+        
+        try
+        {
+            _Answer ans = _getAnswer(args[arg], engine, weighted, Runtime.getRuntime().availableProcessors());
+            
+            try
+            {
+                MatchWriter writer = new MatchWriter(Channels.newChannel(new FileOutputStream(FileDescriptor.out)));
+                
+                if (ans.maxWeight >= 0)
+                {
+                    writer.writeWeightedAnswer(ans.graph, ans.maxFlow, ans.maxWeight, ans.sourceMates, sorted);
+                }
+                else
+                {
+                    writer.writeAnswer(ans.graph, ans.maxFlow, ans.sourceMates, sorted);
+                }
+                
+                writer.flush();
+            }
+            catch (IOException ex)
+            {
+                System.err.println(ex);
+            }
+        }
+        catch (IOException | IllegalArgumentException ex)
+        {
+            System.err.println(ex);
         }
     }
     
+    //
+    // _isEngine
+    //
+    // Determines whether a name given with --engine is one of the ENGINE_ names.
+    //
+    //      [in] engine - the engine name
+    //
+    // Returns whether the engine is known.
+    //
+    private static boolean _isEngine(String engine)
+    {
+        return engine.equals(ENGINE_HOPCROFT_KARP) || engine.equals(ENGINE_PUSH_RELABEL) ||
+               engine.equals(ENGINE_PARALLEL) || engine.equals(ENGINE_AUCTION);
+    }
+    
     //
     // _Answer
     //
     // This class describes an answer to a particular bipartite matching problem with
-    // a computed maximum flow and a collection of bipartite matches.
+    // a computed maximum flow (and, for weighted problems, the total weight of the matches)
+    // and the destination matched to each source. Shared with batch mode (see BatchRunner.java).
     //
-    private static class _Answer
+    static class _Answer
     {
-        int maxFlow = -1;
+        int  maxFlow   = -1;
+        long maxWeight = -1;
         
-        TreeMap<String,String> matches = new TreeMap<>();
+        BipartiteGraph graph;
+        int[]          sourceMates;
     }
     
     // 
     // _getAnswer
     //
-    // Reads a given file to construct an adjacency matrix and computes a maximum matching.
-    // The maximum matching is computed using the Ford Fulkerson maximum flow algorithm.
+    // Reads a given file to construct a bipartite graph and computes a maximum matching.
+    // A text file is memory-mapped and parsed on all cores without a String per token (see
+    // ParallelLoader.java and MappedParser.java), a gzip file is decompressed as it is parsed
+    // (see GzipLoader.java), a binary graph file is loaded directly and standard input is
+    // parsed as it arrives (see PipeLoader.java).
+    // The maximum matching is computed directly on the bipartite graph using the Hopcroft Karp
+    // algorithm (see HopcroftKarp.java and ParallelHopcroftKarp.java) or unit-capacity push-relabel
+    // (see PushRelabelMatcher.java), so no flow network is built. A weighted graph is solved for
+    // a maximum weight matching instead (see WeightedAssignment.java).
+    //
+    // Batch mode shares this method (see BatchRunner.java), passing one thread per file.
+    //
+    //      [in] inputName  - the input file name, or "-" for standard input
+    //      [in] engine     - the matching engine, one of the ENGINE_ names (only the auction
+    //                        engine applies to weighted graphs)
+    //      [in] weighted   - whether destinations in text input may carry weights ("dst1:5")
+    //      [in] numThreads - the number of threads to load and solve with
     //
-    private static _Answer _getAnswer(File inputFile)
+    // Returns the answer. Throws IOException if the input could not be read, and
+    // IllegalArgumentException if it could not be solved.
+    //
+    static _Answer _getAnswer(String inputName, String engine, boolean weighted, int numThreads) throws IOException
     {
         _Answer answer = new _Answer();
         
-        FileReader               fileReader      = null;
-        BufferedReader           bufferedReader  = null;
-        Vector<String>           srcIndexMap     = new Vector<String>();
-        Vector<String>           dstIndexMap     = new Vector<String>();
-        TreeMap<String,String[]> adjacencyList   = new TreeMap<String,String[]>();
+        //
+        // Read the graph (ignoring duplicate source node entries):
+        //
+        BipartiteGraph graph = inputName.equals("-") ? PipeLoader.load(System.in, weighted) :
+                               GraphLoader.load(new File(inputName), numThreads, weighted);
         
-        try
+        answer.graph = graph;
+        
+        if (engine.equals(ENGINE_AUCTION))
         {
-            //
-            // Create buffered file reader:
-            //
-            fileReader     = new FileReader(inputFile);
-            bufferedReader = new BufferedReader(fileReader);
+            AuctionSolver auction = new AuctionSolver(graph.getNumSources(), graph.getNumDestinations(),
+                                                      graph.getOffsets(), graph.getTargets(), graph.getWeights(),
+                                                      numThreads);
             
-            //
-            // Read each line in the input file and construct adjacency list:
-            //
-            String line = bufferedReader.readLine();
+            auction.setListener(new _AuctionProgress());
             
-            while (line != null)
-            {
-                //
-                // Separate source node from its destination nodes.
-                // If the source node is not in its respective index map, add it:
-                //
-                String[] pairings = line.split(">", 2); // TODO: find a better name for this variable                
-                String   srcNode  = pairings[0];
-                
-                if (!srcIndexMap.contains(srcNode))
-                {
-                    srcIndexMap.add(srcNode);
-                }
-                
-                //
-                // Separate the string of destination nodes into an array of single destination nodes.
-                // For each node, if it is not in its respective index map, add it:
-                //
-                String[] dstNodes = pairings[1].split(",");
-
-                for (String dstNode : dstNodes)
-                {
-                    if (!dstIndexMap.contains(dstNode))
-                    {
-                        dstIndexMap.add(dstNode);
-                    }
-                }
-                
-                //
-                // Add new entry into adjacency list (ignoring duplicate source node entries):
-                //
-                if (!adjacencyList.containsKey(srcNode))
-                {
-                    adjacencyList.put(srcNode, dstNodes);
-                }
-                
-                //
-                // Read next line:
-                //
-                line = bufferedReader.readLine();
-            }
+            long maxWeight = auction.computeAssignment();
             
-            //
-            // Find maximum matching:
-            //
-            int[][] flowGraph = _makeFlowGraph(adjacencyList, srcIndexMap, dstIndexMap);
+            answer.maxWeight   = graph.getWeights() != null ? maxWeight : -1;
+            answer.maxFlow     = auction.getNumMatches();
+            answer.sourceMates = auction.getSourceMates();
             
-            Flow flow = new Flow(flowGraph, 0, flowGraph.length - 1);
+            return answer;
+        }
+        
+        if (graph.getWeights() != null)
+        {
+            WeightedAssignment assignment = new WeightedAssignment(graph.getNumSources(), graph.getNumDestinations(),
+                                                                   graph.getOffsets(), graph.getTargets(),
+                                                                   graph.getWeights());
             
-            flow.computeMaxFlowFordFulkerson();
-
-            int[][] newFlowGraph = flow.getFlowGraph();
+            answer.maxWeight   = assignment.computeAssignment();
+            answer.maxFlow     = assignment.getNumMatches();
+            answer.sourceMates = assignment.getSourceMates();
             
-            answer.maxFlow = flow.getMaxFlow();
-            answer.matches = _makeMatchesMap(newFlowGraph, srcIndexMap, dstIndexMap);
+            return answer;
         }
-        catch (IOException ex)
+        
+        //
+        // Find maximum matching, starting from a greedy one (see KarpSipser.java):
+        //
+        int[]            initial = KarpSipser.computeMatching(graph.getNumSources(), graph.getNumDestinations(),
+                                                              graph.getOffsets(), graph.getTargets());
+        BipartiteMatcher matcher;
+        
+        if (engine.equals(ENGINE_PUSH_RELABEL))
         {
-            System.err.println(ex);
+            matcher = new PushRelabelMatcher(graph.getNumSources(), graph.getNumDestinations(),
+                                             graph.getOffsets(), graph.getTargets());
+        }
+        else if (engine.equals(ENGINE_PARALLEL))
+        {
+            matcher = new ParallelHopcroftKarp(graph.getNumSources(), graph.getNumDestinations(),
+                                               graph.getOffsets(), graph.getTargets(), numThreads);
         }
+        else
+        {
+            matcher = new HopcroftKarp(graph.getNumSources(), graph.getNumDestinations(),
+                                       graph.getOffsets(), graph.getTargets());
+        }
+        
+        answer.maxFlow     = matcher.computeMatching(initial);
+        answer.sourceMates = matcher.getSourceMates();
         
         return answer;
     }
     
     //
-    // _makeFlowGraph
+    // _AuctionProgress
     //
-    // Helper for getAnswer(). Assumes all method parameters are valid.
-    // Converts the adjacency list into a flow graph in the form of an adjacency matrix valid 
-    // for the Ford Fulkerson algorithm. Uses index maps (implemented as vectors) to convert 
-    // string names to integer positions.
+    // This class prints the primal and dual values of the auction after each epsilon phase
+    // to the error stream, so the progress does not mix with the answer.
+    //
+    private static class _AuctionProgress implements AuctionListener
+    {
+        public void phaseFinished(double epsilon, double primal, double dual, int rounds)
+        {
+            System.err.printf("Auction phase: epsilon %.3g, primal %.1f, dual %.1f, gap %.3f, %d rounds%n",
+                              epsilon, primal, dual, dual - primal, rounds);
+        }
+    }
+    
     //
-    //      [in] adjacencyList      - the resulting flow graph to convert
-    //      [in] srcIndexMap        - the source node index map
-    //      [in] dstIndexMap        - the destination node index map
+    // _runBatch
     //
-    // Returns the flow graph.
+    // Runs batch mode from the command line arguments "--batch [--engine name] input output [threads]".
     //
-    private static int[][] _makeFlowGraph(TreeMap<String, String[]> adjacencyList,
-                                          Vector<String> srcIndexMap,
-                                          Vector<String> dstIndexMap)
+    //      [in] args - the command line arguments
+    //
+    private static void _runBatch(String[] args)
     {
-        int     numSrcNodes = srcIndexMap.size();
-        int     numDstNodes = dstIndexMap.size();
-        int     length      = numSrcNodes + numDstNodes + 2; // +2 for source and sink
-        int[][] array       = new int[length][length];
+        int     numThreads = Runtime.getRuntime().availableProcessors();
+        String  engine     = ENGINE_HOPCROFT_KARP;
+        boolean weighted   = false;
+        int     arg        = 1;
         
-        //
-        // Initialize array to all zeros (nothing connected):
-        //
-        for (int i = 0; i < length; ++i)
+        if (args[arg].equals("--engine"))
         {
-            for (int j = 0; j < length; ++j)
-            {
-                array[i][j] = 0;
-            }
+            engine = args[arg + 1];
+            arg   += 2;
         }
-
-        //
-        // Set flow source as connected to every src node:
-        //
-        for (int j = 1; j <= numSrcNodes; ++j)
+        
+        if (arg < args.length && args[arg].equals("--weighted"))
         {
-            array[0][j] = 1;
+            weighted = true;
+            arg++;
         }
         
-        //
-        // Set every dst node as connected to flow sink:
-        //
-        for (int i = numSrcNodes + 1; i < length - 1; ++i)
+        if (args.length - arg < 2 || args.length - arg > 3 || !_isEngine(engine))
         {
-            array[i][length - 1] = 1;
+            System.out.println("Usage: java Convert --batch [--engine name] [--weighted] directory|manifest outputdirectory [threads]");
+            
+            return;
         }
         
-        //
-        // Set adjacency between src and dst nodes:
-        //
-        for (int i = 1; i <= numSrcNodes; ++i)
+        if (args.length - arg == 3)
         {
-            String   srcNode  = srcIndexMap.elementAt(i - 1);
-            String[] dstNodes = adjacencyList.get(srcNode);
+            try
+            {
+                numThreads = Integer.parseInt(args[arg + 2]);
+            }
+            catch (NumberFormatException ex)
+            {
+                numThreads = 0;
+            }
             
-            for (int j = 0; j < dstNodes.length; ++j)
+            if (numThreads < 1)
             {
-                String dstNode  = dstNodes[j];
-                int    dstIndex = dstIndexMap.indexOf(dstNode) + numSrcNodes + 1;
+                System.out.println("Illegal thread count: " + args[arg + 2]);
                 
-                array[i][dstIndex] = 1;
-            }   
+                return;
+            }
         }
         
-        return array;
+        try
+        {
+            new BatchRunner(new File(args[arg + 1]), numThreads, engine, weighted).run(new File(args[arg]));
+        }
+        catch (IOException ex)
+        {
+            System.err.println(ex);
+        }
     }
     
     //
-    // _makeMatchesMap
-    //
-    // Helper for getAnswer(). Assumes all method parameters are valid.
-    // Converts the resulting flow graph from the Ford Fulkerson algorithm into a map of matches for printing. 
-    // Uses index maps (implemented as vectors) to convert string names to integer positions.
+    // _toBinary
     //
-    //      [in] flowGraph      - the resulting flow graph to convert
-    //      [in] srcIndexMap    - the source node index map
-    //      [in] dstIndexMap    - the destination node index map
+    // Reads a text input file and writes its bipartite graph as a binary graph file.
     //
-    // Returns the map of matches.
+    //      [in] inputFile  - the text input file
+    //      [in] outputFile - the binary graph file to write
+    //      [in] weighted   - whether destinations may carry weights ("dst1:5")
     //
-    private static TreeMap<String, String> _makeMatchesMap(int[][] flowGraph,
-                                                           Vector<String> srcIndexMap,
-                                                           Vector<String> dstIndexMap)
+    private static void _toBinary(File inputFile, File outputFile, boolean weighted)
     {
-        TreeMap<String, String> matches = new TreeMap<String, String>();
-        
-        int numSrcNodes = srcIndexMap.size();
-
-        for (int i = 1; i <= numSrcNodes; ++i)
+        try
         {
-            for (int j = numSrcNodes + 1; j < flowGraph.length - 1; ++j)
-            {
-                int value = flowGraph[i][j];
-                
-                if (value > 0)
-                {
-                    String srcNode = srcIndexMap.elementAt(i - 1);
-                    String dstNode = dstIndexMap.elementAt(j - (numSrcNodes + 1));
-                    
-                    matches.put(srcNode, dstNode);
-                }
-            }
+            BipartiteGraph graph = ParallelLoader.load(inputFile, Runtime.getRuntime().availableProcessors(), weighted);
+            
+            BinaryGraphFile.write(graph, outputFile);
+            
+            System.out.println("Wrote " + graph.getNumSources() + " sources, " + graph.getNumDestinations() +
+                               " destinations and " + graph.getNumEdges() + " edges to " + outputFile);
+        }
+        catch (IOException ex)
+        {
+            System.err.println(ex);
         }
-        
-        return matches;
     }
 }
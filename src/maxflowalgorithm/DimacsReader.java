@@ -0,0 +1,339 @@
+//
+// DimacsReader.java
+//
+// This class reads a maximum flow problem in the DIMACS format straight into a sparse graph
+// (see SparseGraph.java), so no adjacency matrix is ever built. The lines used are:
+//
+//      c <text>            - a comment
+//      p max <nodes> <arcs> - the problem line, before any node or arc line
+//      n <id> s            - the source node
+//      n <id> t            - the sink node
+//      a <u> <v> <cap>     - an arc from u to v with capacity cap
+//
+// Nodes are numbered from 1 in the file and from 0 in the graph. The input is read one line
+// at a time into a reused buffer (see ByteLineReader.java) and may be gzip compressed.
+//
+// The MIT License (MIT)
+//
+// Copyright (c) 2022 Luke Andrews. All Rights Reserved.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this
+// software and associated documentation files (the "Software"), to deal in the Software
+// without restriction, including without limitation the rights to use, copy, modify, merge,
+// publish, distribute, sub-license, and/or sell copies of the Software, and to permit persons
+// to whom the Software is furnished to do so, subject to the following conditions:
+// 
+// * The above copyright notice and this permission notice shall be included in all copies or
+//   substantial portions of the Software.
+// 
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, 
+// INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+// PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+// FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR 
+// OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+// DEALINGS IN THE SOFTWARE.
+//
+package maxflowalgorithm;
+
+import java.io.*;
+
+class DimacsReader
+{
+    private static final int MAX_RESERVED_ARCS = 1 << 20;  // most arcs to make room for before they are read
+
+    private ByteLineReader reader;
+    private int            position;    // index of the next unread byte of the current line
+
+    //
+    // Overloaded constructor.
+    //
+    // Constructs with the stream to read.
+    //
+    //      [in] in - the input stream
+    //
+    private DimacsReader(InputStream in)
+    {
+        this.reader = new ByteLineReader(in);
+    }
+
+    //
+    // read
+    //
+    // Reads a maximum flow problem from a DIMACS file.
+    //
+    //      [in] inputFile - the input file, optionally gzip compressed
+    //
+    // Returns the maximum flow problem.
+    //
+    public static FlowProblem read(File inputFile) throws IOException
+    {
+        try (InputStream in = GzipLoader.open(inputFile))
+        {
+            return read(in);
+        }
+    }
+
+    //
+    // read
+    //
+    // Reads a maximum flow problem in the DIMACS format from a stream. The stream is not closed.
+    //
+    //      [in] in - the input stream
+    //
+    // Returns the maximum flow problem.
+    //
+    public static FlowProblem read(InputStream in) throws IOException
+    {
+        return new DimacsReader(in)._read();
+    }
+
+    //
+    // read
+    //
+    // Reads every line and builds the sparse graph.
+    //
+    // Returns the maximum flow problem.
+    //
+    private FlowProblem _read() throws IOException
+    {
+        int     numNodes   = -1;
+        int     source     = -1;
+        int     sink       = -1;
+        IntList  tails      = null;
+        IntList  heads      = null;
+        LongList capacities = null;
+
+        while (reader.next())
+        {
+            byte[] line = reader.getLine();
+
+            position = 0;
+
+            _skipSpaces();
+
+            if (position == reader.getLength() || line[position] == 'c')
+            {
+                continue;
+            }
+
+            byte kind = line[position++];
+
+            if (kind != 'p' && numNodes < 0)
+            {
+                throw _error("problem line expected first");
+            }
+
+            switch (kind)
+            {
+                case 'p':
+                {
+                    if (numNodes >= 0)
+                    {
+                        throw _error("second problem line");
+                    }
+
+                    if (!_nextWordIs("max"))
+                    {
+                        throw _error("only \"p max\" problems are supported");
+                    }
+
+                    numNodes = _nextInt(0, Integer.MAX_VALUE - 1);
+
+                    //
+                    // The arc count comes from the file, so only trust it up to a point:
+                    //
+                    int numArcs  = _nextInt(0, Integer.MAX_VALUE);
+                    int reserved = Math.min(numArcs, MAX_RESERVED_ARCS);
+
+                    tails      = new IntList(reserved);
+                    heads      = new IntList(reserved);
+                    capacities = new LongList(reserved);
+
+                    break;
+                }
+
+                case 'n':
+                {
+                    int node = _nextInt(1, numNodes) - 1;
+
+                    if (_nextWordIs("s"))
+                    {
+                        source = node;
+                    }
+                    else if (_wordIs("t"))
+                    {
+                        sink = node;
+                    }
+                    else
+                    {
+                        throw _error("node designator must be s or t");
+                    }
+
+                    break;
+                }
+
+                case 'a':
+                {
+                    tails.add(_nextInt(1, numNodes) - 1);
+                    heads.add(_nextInt(1, numNodes) - 1);
+                    capacities.add(_nextLong(0, FlowProblem.MAX_CAPACITY));
+
+                    break;
+                }
+
+                default:
+                {
+                    throw _error("unknown line type '" + (char) kind + "'");
+                }
+            }
+        }
+
+        if (numNodes < 0 || source < 0 || sink < 0 || source == sink)
+        {
+            throw new IOException("DIMACS input needs a problem line and distinct source and sink nodes");
+        }
+
+        return FlowProblem.create(numNodes, tails, heads, capacities, source, sink, null);
+    }
+
+    //
+    // skipSpaces
+    //
+    // Moves past spaces and tabs.
+    //
+    private void _skipSpaces()
+    {
+        byte[] line = reader.getLine();
+
+        while (position < reader.getLength() && (line[position] == ' ' || line[position] == '\t'))
+        {
+            position++;
+        }
+    }
+
+    //
+    // nextWordIs
+    //
+    // Reads the next word and compares it with an expected word.
+    //
+    //      [in] word - the expected word
+    //
+    // Returns whether the next word is the expected word.
+    //
+    private boolean _nextWordIs(String word)
+    {
+        _skipSpaces();
+
+        return _wordIs(word);
+    }
+
+    //
+    // wordIs
+    //
+    // Compares the word starting at the current position with an expected word, moving past
+    // it if it matches.
+    //
+    //      [in] word - the expected word
+    //
+    // Returns whether the word matches.
+    //
+    private boolean _wordIs(String word)
+    {
+        byte[] line = reader.getLine();
+        int    end  = position;
+
+        while (end < reader.getLength() && line[end] != ' ' && line[end] != '\t')
+        {
+            end++;
+        }
+
+        if (end - position != word.length())
+        {
+            return false;
+        }
+
+        for (int i = 0; i < word.length(); i++)
+        {
+            if (line[position + i] != word.charAt(i))
+            {
+                return false;
+            }
+        }
+
+        position = end;
+
+        return true;
+    }
+
+    //
+    // nextInt
+    //
+    // Reads the next decimal number and checks its range.
+    //
+    //      [in] min - the smallest allowed value
+    //      [in] max - the largest allowed value
+    //
+    // Returns the number.
+    //
+    private int _nextInt(int min, int max) throws IOException
+    {
+        return (int) _nextLong(min, max);
+    }
+
+    //
+    // nextLong
+    //
+    // Reads the next decimal number and checks its range.
+    //
+    //      [in] min - the smallest allowed value
+    //      [in] max - the largest allowed value, below Long.MAX_VALUE / 10
+    //
+    // Returns the number.
+    //
+    private long _nextLong(long min, long max) throws IOException
+    {
+        byte[] line  = reader.getLine();
+        long   value = 0;
+        int    start;
+
+        _skipSpaces();
+
+        start = position;
+
+        while (position < reader.getLength() && line[position] >= '0' && line[position] <= '9')
+        {
+            value = value * 10 + (line[position++] - '0');
+
+            if (value > max)
+            {
+                throw _error("number out of range");
+            }
+        }
+
+        if (position == start || (position < reader.getLength() && line[position] != ' ' && line[position] != '\t'))
+        {
+            throw _error("number expected");
+        }
+
+        if (value < min)
+        {
+            throw _error("number out of range");
+        }
+
+        return value;
+    }
+
+    //
+    // error
+    //
+    // Makes an exception describing a problem with the current line.
+    //
+    //      [in] message - the problem
+    //
+    // Returns the exception.
+    //
+    private IOException _error(String message)
+    {
+        return new IOException("DIMACS line " + reader.getLineNumber() + ": " + message);
+    }
+}
@@ -0,0 +1,260 @@
+//
+// Dinic.java
+//
+// This class computes a maximum flow of a sparse graph using Dinic's algorithm. Each phase
+// builds a level graph by breadth-first search from the source and then pushes a blocking
+// flow through it, using a current-arc pointer per node so no arc is examined twice in a phase.
+// On unit-capacity networks such as bipartite matchings this takes O(E * sqrt(V)) time.
+// The search is written once against ResidualNetwork, so the same code runs on int capacities
+// (SparseGraph) and on 64-bit capacities (LongSparseGraph).
+//
+// The MIT License (MIT)
+//
+// Copyright (c) 2022 Luke Andrews. All Rights Reserved.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this
+// software and associated documentation files (the "Software"), to deal in the Software
+// without restriction, including without limitation the rights to use, copy, modify, merge,
+// publish, distribute, sub-license, and/or sell copies of the Software, and to permit persons
+// to whom the Software is furnished to do so, subject to the following conditions:
+//
+// * The above copyright notice and this permission notice shall be included in all copies or
+//   substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+// INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+// PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+// FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+// OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+// DEALINGS IN THE SOFTWARE.
+//
+package maxflowalgorithm;
+
+class Dinic implements MaxFlowSolver, LongMaxFlowSolver
+{
+    private ResidualNetwork graph;
+    private int             source;
+    private int             sink;
+
+    private int[]           level;      // distance from the source in the level graph, -1 if unreached
+    private int[]           currentArc; // next arc to try at each node during a blocking flow
+    private int[]           queue;      // breadth-first search queue
+    private int[]           pathArc;    // arcs of the path currently being explored
+
+    //
+    // getName
+    //
+    // Gets a short name for the engine, for reporting.
+    //
+    public String getName()
+    {
+        return "Dinic";
+    }
+
+    //
+    // computeMaxFlow
+    //
+    // Computes the maximum flow, starting from no flow. The resulting flow is left in the
+    // residual capacities of the sparse graph. Working arrays are kept between calls and only
+    // reallocated when the number of nodes changes.
+    //
+    //      [in] graph      - the sparse graph
+    //      [in] source     - the index of source node
+    //      [in] sink       - the index of the sink node
+    //
+    // Returns the maximum flow. Throws ArithmeticException if it does not fit in an int, in
+    // which case the graph should be solved as a LongSparseGraph.
+    //
+    public int computeMaxFlow(SparseGraph graph, int source, int sink)
+    {
+        return Math.toIntExact(_computeMaxFlow(graph, source, sink));
+    }
+
+    //
+    // computeMaxFlow
+    //
+    // Computes the maximum flow of a graph with 64-bit capacities, starting from no flow.
+    // The resulting flow is left in the residual capacities of the sparse graph.
+    //
+    //      [in] graph      - the sparse graph
+    //      [in] source     - the index of source node
+    //      [in] sink       - the index of the sink node
+    //
+    // Returns the maximum flow.
+    //
+    public long computeMaxFlow(LongSparseGraph graph, int source, int sink)
+    {
+        return _computeMaxFlow(graph, source, sink);
+    }
+
+    //
+    // computeMaxFlow
+    //
+    // Computes the maximum flow of either kind of sparse graph.
+    //
+    //      [in] graph      - the sparse graph
+    //      [in] source     - the index of source node
+    //      [in] sink       - the index of the sink node
+    //
+    // Returns the maximum flow.
+    //
+    private long _computeMaxFlow(ResidualNetwork graph, int source, int sink)
+    {
+        this.graph  = graph;
+        this.source = source;
+        this.sink   = sink;
+
+        int numNodes = graph.getNumNodes();
+
+        if (level == null || level.length != numNodes)
+        {
+            level      = new int[numNodes];
+            currentArc = new int[numNodes];
+            queue      = new int[numNodes];
+            pathArc    = new int[numNodes];
+        }
+
+        int[] firstArcs = graph.getFirstArcs();
+        long  maxFlow   = 0;
+
+        graph.resetFlow();
+
+        while (_buildLevelGraph())
+        {
+            System.arraycopy(firstArcs, 0, currentArc, 0, currentArc.length);
+
+            long pushed = _augment();
+
+            while (pushed > 0)
+            {
+                maxFlow += pushed;
+                pushed   = _augment();
+            }
+        }
+
+        return maxFlow;
+    }
+
+    //
+    // buildLevelGraph
+    //
+    // Labels every node with its breadth-first distance from the source over arcs with
+    // remaining residual capacity.
+    //
+    // Returns whether the sink is reachable.
+    //
+    private boolean _buildLevelGraph()
+    {
+        int[] firstArcs = graph.getFirstArcs();
+        int[] heads     = graph.getArcHeads();
+
+        for (int i = 0; i < level.length; i++)
+        {
+            level[i] = -1;
+        }
+
+        int qSize = 1;
+        queue[0]      = source;
+        level[source] = 0;
+
+        for (int i = 0; i < qSize; i++)
+        {
+            int node = queue[i];
+
+            //
+            // Nodes beyond the sink's level can never be on a shortest path:
+            //
+            if (level[sink] != -1 && level[node] >= level[sink])
+            {
+                break;
+            }
+
+            for (int arc = firstArcs[node]; arc < firstArcs[node + 1]; arc++)
+            {
+                int head = heads[arc];
+
+                if (level[head] == -1 && graph.hasResidual(arc))
+                {
+                    level[head]     = level[node] + 1;
+                    queue[qSize++]  = head;
+                }
+            }
+        }
+
+        return level[sink] != -1;
+    }
+
+    //
+    // augment
+    //
+    // Finds one source to sink path in the level graph by depth-first search and pushes as
+    // much flow along it as possible. Current-arc pointers only move forward, and nodes found
+    // to be dead ends are removed from the level graph, so a whole blocking flow costs O(V * E).
+    //
+    // Returns the flow pushed, or 0 if the blocking flow is complete.
+    //
+    private long _augment()
+    {
+        int[] firstArcs = graph.getFirstArcs();
+        int[] heads     = graph.getArcHeads();
+        int[] reverses  = graph.getArcReverses();
+
+        int depth = 0;
+        int node  = source;
+
+        while (node != sink)
+        {
+            //
+            // Advance along the first admissible arc:
+            //
+            int end = firstArcs[node + 1];
+            int arc = currentArc[node];
+
+            while (arc < end && (!graph.hasResidual(arc) || level[heads[arc]] != level[node] + 1))
+            {
+                arc++;
+            }
+
+            currentArc[node] = arc;
+
+            if (arc < end)
+            {
+                pathArc[depth++] = arc;
+                node             = heads[arc];
+
+                continue;
+            }
+
+            //
+            // Dead end: remove the node from the level graph and retreat:
+            //
+            level[node] = -1;
+
+            if (depth == 0)
+            {
+                return 0;
+            }
+
+            depth--;
+            node = heads[reverses[pathArc[depth]]];
+            currentArc[node]++;
+        }
+
+        //
+        // Push the bottleneck capacity along the path:
+        //
+        long minCost = Long.MAX_VALUE;
+
+        for (int i = 0; i < depth; i++)
+        {
+            minCost = Math.min(minCost, graph.getResidual(pathArc[i]));
+        }
+
+        for (int i = 0; i < depth; i++)
+        {
+            graph.push(pathArc[i], minCost);
+        }
+
+        return minCost;
+    }
+}
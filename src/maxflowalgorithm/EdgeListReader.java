@@ -0,0 +1,221 @@
+//
+// EdgeListReader.java
+//
+// This class reads a maximum flow problem from a plain edge list straight into a sparse graph
+// (see SparseGraph.java), so no adjacency matrix is ever built. Each line holds one edge:
+//
+//      <u>,<v>             - an edge from node u to node v with capacity 1
+//      <u>,<v>,<cap>       - an edge from node u to node v with capacity cap
+//
+// Nodes are names (numbers are just names too) and are numbered in the order they are first
+// seen (see NameDictionary.java). Spaces around fields are ignored, as are empty lines and
+// lines starting with '#'. A first line whose capacity is not a number is taken to be a
+// header and skipped. The input is read one line at a time into a reused buffer (see
+// ByteLineReader.java) and may be gzip compressed.
+//
+// The MIT License (MIT)
+//
+// Copyright (c) 2022 Luke Andrews. All Rights Reserved.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this
+// software and associated documentation files (the "Software"), to deal in the Software
+// without restriction, including without limitation the rights to use, copy, modify, merge,
+// publish, distribute, sub-license, and/or sell copies of the Software, and to permit persons
+// to whom the Software is furnished to do so, subject to the following conditions:
+// 
+// * The above copyright notice and this permission notice shall be included in all copies or
+//   substantial portions of the Software.
+// 
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, 
+// INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+// PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+// FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR 
+// OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+// DEALINGS IN THE SOFTWARE.
+//
+package maxflowalgorithm;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+
+class EdgeListReader
+{
+    //
+    // read
+    //
+    // Reads a maximum flow problem from an edge list file.
+    //
+    //      [in] inputFile  - the input file, optionally gzip compressed
+    //      [in] sourceName - the name of the source node
+    //      [in] sinkName   - the name of the sink node
+    //
+    // Returns the maximum flow problem.
+    //
+    public static FlowProblem read(File inputFile, String sourceName, String sinkName) throws IOException
+    {
+        try (InputStream in = GzipLoader.open(inputFile))
+        {
+            return read(in, sourceName, sinkName);
+        }
+    }
+
+    //
+    // read
+    //
+    // Reads a maximum flow problem from an edge list stream. The stream is not closed.
+    //
+    //      [in] in         - the input stream
+    //      [in] sourceName - the name of the source node
+    //      [in] sinkName   - the name of the sink node
+    //
+    // Returns the maximum flow problem.
+    //
+    public static FlowProblem read(InputStream in, String sourceName, String sinkName) throws IOException
+    {
+        ByteLineReader reader     = new ByteLineReader(in);
+        NameDictionary names      = new NameDictionary();
+        IntList        tails      = new IntList();
+        IntList        heads      = new IntList();
+        LongList       capacities = new LongList();
+        int[]          fields     = new int[6];     // start and end of each field
+        boolean        first      = true;
+
+        while (reader.next())
+        {
+            byte[] line      = reader.getLine();
+            int    numFields = _split(line, reader.getLength(), fields);
+
+            if (numFields == 0 || line[fields[0]] == '#')
+            {
+                continue;
+            }
+
+            if (numFields < 2 || numFields > 3 || fields[0] == fields[1] || fields[2] == fields[3])
+            {
+                throw new IOException("Edge list line " + reader.getLineNumber() + ": expected u,v[,cap]");
+            }
+
+            long capacity = numFields == 3 ? _parseCapacity(line, fields[4], fields[5]) : 1;
+
+            if (capacity < 0)
+            {
+                if (first)
+                {
+                    first = false;
+
+                    continue;
+                }
+
+                throw new IOException("Edge list line " + reader.getLineNumber() + ": capacity must be a number from 0 to " +
+                                      FlowProblem.MAX_CAPACITY);
+            }
+
+            ByteBuffer buffer = ByteBuffer.wrap(line);
+
+            tails.add(names.intern(buffer, fields[0], fields[1]));
+            heads.add(names.intern(buffer, fields[2], fields[3]));
+            capacities.add(capacity);
+
+            first = false;
+        }
+
+        int source = names.find(sourceName);
+        int sink   = names.find(sinkName);
+
+        if (source < 0 || sink < 0 || source == sink)
+        {
+            throw new IOException("Edge list needs distinct source and sink nodes, got \"" + sourceName +
+                                  "\" and \"" + sinkName + "\"");
+        }
+
+        return FlowProblem.create(names.size(), tails, heads, capacities, source, sink, names);
+    }
+
+    //
+    // split
+    //
+    // Splits a line at commas into at most three fields, trimming spaces and tabs.
+    //
+    //      [in]  line      - the line
+    //      [in]  length    - the length of the line
+    //      [out] fields    - the start and end of each field
+    //
+    // Returns the number of fields (4 if there are more than three), or 0 for a blank line.
+    //
+    private static int _split(byte[] line, int length, int[] fields)
+    {
+        int count = 0;
+        int start = 0;
+
+        for (int i = 0; i <= length; i++)
+        {
+            if (i < length && line[i] != ',')
+            {
+                continue;
+            }
+
+            if (count == 3)
+            {
+                return 4;
+            }
+
+            int s = start;
+            int e = i;
+
+            while (s < e && (line[s] == ' ' || line[s] == '\t'))
+            {
+                s++;
+            }
+
+            while (e > s && (line[e - 1] == ' ' || line[e - 1] == '\t'))
+            {
+                e--;
+            }
+
+            fields[2 * count]     = s;
+            fields[2 * count + 1] = e;
+            count++;
+            start = i + 1;
+        }
+
+        return (count == 1 && fields[0] == fields[1]) ? 0 : count;
+    }
+
+    //
+    // parseCapacity
+    //
+    // Parses a capacity.
+    //
+    //      [in] line   - the line
+    //      [in] start  - the index of the first digit
+    //      [in] end    - the index just past the last digit
+    //
+    // Returns the capacity, or -1 if the field is not a number from 0 to FlowProblem.MAX_CAPACITY.
+    //
+    private static long _parseCapacity(byte[] line, int start, int end)
+    {
+        long value = 0;
+
+        if (start == end)
+        {
+            return -1;
+        }
+
+        for (int i = start; i < end; i++)
+        {
+            if (line[i] < '0' || line[i] > '9')
+            {
+                return -1;
+            }
+
+            value = value * 10 + (line[i] - '0');
+
+            if (value > FlowProblem.MAX_CAPACITY)
+            {
+                return -1;
+            }
+        }
+
+        return value;
+    }
+}
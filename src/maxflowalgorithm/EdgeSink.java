@@ -0,0 +1,59 @@
+//
+// EdgeSink.java
+//
+// This interface describes a receiver of the lines parsed from a "src>dst1,dst2,..." input
+// (see MappedParser.java). Each line is delivered as a source name followed by its destination
+// names, all as ranges of UTF-8 bytes, so a receiver can intern them without making Strings.
+// A destination may carry a weight ("src>dst1:5,dst2:3"), which is 1 when not given.
+//
+// The MIT License (MIT)
+//
+// Copyright (c) 2022 Luke Andrews. All Rights Reserved.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this
+// software and associated documentation files (the "Software"), to deal in the Software
+// without restriction, including without limitation the rights to use, copy, modify, merge,
+// publish, distribute, sub-license, and/or sell copies of the Software, and to permit persons
+// to whom the Software is furnished to do so, subject to the following conditions:
+// 
+// * The above copyright notice and this permission notice shall be included in all copies or
+//   substantial portions of the Software.
+// 
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, 
+// INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+// PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+// FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR 
+// OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+// DEALINGS IN THE SOFTWARE.
+//
+package maxflowalgorithm;
+
+import java.nio.ByteBuffer;
+
+interface EdgeSink
+{
+    //
+    // addSource
+    //
+    // Starts the destinations of a source node.
+    //
+    //      [in] buffer - the buffer holding the name
+    //      [in] start  - the index of the first byte of the name
+    //      [in] end    - the index just past the last byte of the name
+    //
+    // Returns whether the destinations of this source should be delivered.
+    //
+    boolean addSource(ByteBuffer buffer, int start, int end);
+
+    //
+    // addDestination
+    //
+    // Adds an edge from the current source node to a destination node.
+    //
+    //      [in] buffer - the buffer holding the name
+    //      [in] start  - the index of the first byte of the name
+    //      [in] end    - the index just past the last byte of the name
+    //      [in] weight - the weight of the edge
+    //
+    void addDestination(ByteBuffer buffer, int start, int end, int weight);
+}
@@ -4,6 +4,8 @@
 // This class maintains a flow graph with a computable and retrievable maximum flow.
 // The maximum flow calculation is separate from construction, so member variables hold no 
 // significant value until the calculation is actually performed via a method call.
+// The graph is held either as an adjacency matrix (for tiny, dense graphs) or as a sparse
+// graph (see SparseGraph.java), whose memory use grows with the number of edges instead.
 //
 // The MIT License (MIT)
 //
@@ -27,6 +29,8 @@
 //
 package maxflowalgorithm;
 
+import java.io.*;
+
 class Flow
 {
     private int[][] graph;
@@ -37,6 +41,24 @@ class Flow
     private int[][] residualGraph;
     private int     maxFlow;
     
+    private SparseGraph sparseGraph;
+    private SparseGraph matrixGraph;    // sparse copy of the matrix for the sparse engines, made on first use
+    
+    private FordFulkerson   fordFulkerson;      // engines kept between runs so their working arrays are reused
+    private Dinic           dinic;
+    private PushRelabel     pushRelabel;
+    private CapacityScaling capacityScaling;
+    
+    private int[]   queue;      // breadth-first search queue, reused by every path search
+    private int[]   parents;    // parent of each node on the last path search, -1 if unreached
+    private int[]   path;       // nodes of the last path found, from source to sink
+    private int     pathLength; // number of edges on the last path found
+    
+    private FlowListener    listener   = FlowListener.NONE;
+    private PathSearch.Mode searchMode = PathSearch.Mode.FULL;
+    private long            verticesScanned;
+    private long            arcsScanned;
+    
     //
     // Overloaded constructor.
     //
@@ -50,9 +72,6 @@ class Flow
     //
     public Flow(int[][] graph, int source, int sink)
     {
-        System.out.println("Flow from " + source + " to " + sink + " in graph: ");
-        printGraph(graph);
-        
         this.graph  = graph;
         this.source = source;
         this.sink   = sink;
@@ -67,18 +86,106 @@ class Flow
         this.flowGraph     = _createFlowGraph();
         this.residualGraph = _createResidual();
         this.maxFlow       = 0;
+        
+        this.queue   = new int[graph.length];
+        this.parents = new int[graph.length];
+        this.path    = new int[graph.length];
+    }
+    
+    //
+    // Overloaded constructor.
+    //
+    // Constructs with a sparse graph, source node index and sink node index.
+    // No adjacency matrices are created; the flow is kept in the sparse graph itself.
+    //
+    //      [in] graph      - the sparse graph
+    //      [in] source     - the index of source node
+    //      [in] sink       - the index of the sink node
+    //
+    public Flow(SparseGraph graph, int source, int sink)
+    {
+        this.sparseGraph = graph;
+        this.source      = source;
+        this.sink        = sink;
+        
+        if(!_inputCheckSparse())
+        {
+            System.out.println("\nIllegal Argument to Flow()");
+            
+            throw new IllegalArgumentException();
+        }
+        
+        this.maxFlow = 0;
     }
     
     //
     // getFlowGraph
     //
-    // Gets the flow graph.
+    // Gets the flow graph. For a flow constructed from a sparse graph, the flow graph is
+    // converted into an adjacency matrix on every call, so this is only suitable for small graphs.
+    // Use getSparseGraph instead.
     //
     public int[][] getFlowGraph()
     {
+        if (graph == null)
+        {
+            return sparseGraph.toFlowMatrix();
+        }
+        
         return flowGraph;
     }
     
+    //
+    // getGraph
+    //
+    // Gets the weighted graph, or null if the flow was constructed from a sparse graph.
+    //
+    public int[][] getGraph()
+    {
+        return graph;
+    }
+    
+    //
+    // getResidualGraph
+    //
+    // Gets the residual graph, or null if the flow was constructed from a sparse graph.
+    //
+    public int[][] getResidualGraph()
+    {
+        return residualGraph;
+    }
+    
+    //
+    // getSource
+    //
+    // Gets the index of the source node.
+    //
+    public int getSource()
+    {
+        return source;
+    }
+    
+    //
+    // getSink
+    //
+    // Gets the index of the sink node.
+    //
+    public int getSink()
+    {
+        return sink;
+    }
+    
+    //
+    // getSparseGraph
+    //
+    // Gets the sparse graph, or null if the flow was constructed from an adjacency matrix.
+    // The flow on each arc is available through SparseGraph.getFlow.
+    //
+    public SparseGraph getSparseGraph()
+    {
+        return sparseGraph;
+    }
+    
     //
     // getMaxFlow
     //
@@ -89,81 +196,207 @@ class Flow
         return maxFlow;
     }
     
+    //
+    // setListener
+    //
+    // Sets the listener receiving progress events (see FlowListener.java). By default
+    // FlowListener.NONE, which ignores them; ConsoleFlowListener prints them to the console.
+    //
+    //      [in] listener - the listener
+    //
+    public void setListener(FlowListener listener)
+    {
+        this.listener = (listener == null) ? FlowListener.NONE : listener;
+    }
+    
+    //
+    // setPathSearchMode
+    //
+    // Sets how computeMaxFlowFordFulkerson searches for paths (see PathSearch.java).
+    // The bidirectional search always runs on a sparse graph.
+    //
+    //      [in] mode - the search mode
+    //
+    public void setPathSearchMode(PathSearch.Mode mode)
+    {
+        searchMode = mode;
+    }
+    
+    //
+    // getVerticesScanned
+    //
+    // Gets the number of vertices scanned by path searches in the last Ford Fulkerson run.
+    //
+    public long getVerticesScanned()
+    {
+        return verticesScanned;
+    }
+    
+    //
+    // getArcsScanned
+    //
+    // Gets the number of arcs (or matrix entries) scanned by path searches in the last
+    // Ford Fulkerson run.
+    //
+    public long getArcsScanned()
+    {
+        return arcsScanned;
+    }
+    
     //
     // computeMaxFlowFordFulkerson
     //
     // Computes the maximum flow of the graph using the Ford Fulkerson method.
-    // Algorithm progress is printed to the console.
+    // Algorithm progress is reported to the listener.
     //
     public void computeMaxFlowFordFulkerson()
     {
+        verticesScanned = 0;
+        arcsScanned     = 0;
+        
         //
-        // Reset flow graph (no flow to start):
+        // The sparse graph and the bidirectional search use the sparse path:
         //
-        flowGraph = _createFlowGraph();
-        System.out.println("\nFlow Graph:");
-        printGraph(flowGraph);
+        if (graph == null || searchMode == PathSearch.Mode.BIDIRECTIONAL)
+        {
+            SparseGraph workingGraph = _getWorkingGraph();
+            
+            if (fordFulkerson == null || fordFulkerson.getMode() != searchMode)
+            {
+                fordFulkerson = new FordFulkerson(searchMode);
+            }
+            
+            FordFulkerson solver = fordFulkerson;
+            
+            solver.setListener(listener);
+            listener.started();
+            
+            maxFlow         = solver.computeMaxFlow(workingGraph, source, sink);
+            verticesScanned = solver.getVerticesScanned();
+            arcsScanned     = solver.getArcsScanned();
+            
+            _loadFromWorkingGraph(workingGraph);
+            listener.finished(solver.getName(), maxFlow);
+            
+            return;
+        }
         
         //
-        // Reset residual graph (starts as a copy of the graph):
+        // Reset flow graph (no flow to start):
         //
-        residualGraph = _createResidual();
-        System.out.println("\nResidual Graph:");
-        printGraph(residualGraph);
+        _resetFlowGraph();
         
         //
-        // Get a path through the residual graph:
+        // Reset residual graph (starts as a copy of the graph):
         //
-        Node pathStart = _getPath();
+        _resetResidual();
+        listener.started();
         
         //
-        // While we have a valid path:
+        // While we have a valid path through the residual graph:
         //
-        while(pathStart != null)
+        while (_getPath())
         {
-            System.out.print("\nPath: ");
-            Node curr = pathStart;
-            
-            while(curr.next != null)
-            {
-                System.out.print(curr.value.startNodeId + "->");
-                curr = curr.next;
-            }
-            
-            System.out.print(curr.value.startNodeId + "->");
-            System.out.println(curr.value.endNodeId);
+            listener.pathFound(path, pathLength);
             
             //
             // Get the minimum cost of the path:
             //
-            int minCost = _getMinCost(pathStart);
-            System.out.println("Min Cost: " + minCost);
+            int minCost = _getMinCost();
+            listener.augmented(minCost);
             
             //
             // Update the flow:
             //
-            _updateFlow(pathStart, minCost);
-            System.out.println("\nFlow Graph:");
-            printGraph(flowGraph);
+            _updateFlow(minCost);
             
             //
             // Update the residual:
             //
-            _updateResidual(pathStart, minCost);
-            System.out.println("\nResidual Graph:");
-            printGraph(residualGraph);
-            
-            //
-            // Get a new path through the residual graph:
-            //
-            pathStart = _getPath();
+            _updateResidual(minCost);
+            listener.residualUpdated();
         }
         
         //
         // Get max flow from flow graph:
         //
         maxFlow = _computeMaxFlow();
-        System.out.println("\nMax Flow: " + maxFlow);
+        listener.finished("Ford Fulkerson", maxFlow);
+    }
+    
+    //
+    // computeMaxFlowDinic
+    //
+    // Computes the maximum flow of the graph using Dinic's algorithm (see Dinic.java).
+    // The flow graph and maximum flow are the same as those of computeMaxFlowFordFulkerson.
+    //
+    public void computeMaxFlowDinic()
+    {
+        if (dinic == null)
+        {
+            dinic = new Dinic();
+        }
+        
+        computeMaxFlow(dinic);
+    }
+    
+    //
+    // computeMaxFlowPushRelabel
+    //
+    // Computes the maximum flow of the graph using the push-relabel method with highest-label
+    // selection, the gap heuristic and global relabeling (see PushRelabel.java).
+    // The maximum flow is the same as that of computeMaxFlowFordFulkerson.
+    //
+    public void computeMaxFlowPushRelabel()
+    {
+        if (pushRelabel == null)
+        {
+            pushRelabel = new PushRelabel();
+        }
+        
+        computeMaxFlow(pushRelabel);
+    }
+    
+    //
+    // computeMaxFlowCapacityScaling
+    //
+    // Computes the maximum flow of the graph using the capacity scaling variant of the
+    // Ford Fulkerson method (see CapacityScaling.java), whose running time does not grow with
+    // the capacity values.
+    //
+    public void computeMaxFlowCapacityScaling()
+    {
+        if (capacityScaling == null)
+        {
+            capacityScaling = new CapacityScaling();
+        }
+        
+        computeMaxFlow(capacityScaling);
+    }
+    
+    //
+    // computeMaxFlow
+    //
+    // Computes the maximum flow of the graph using a given engine (see MaxFlowSolver.java).
+    //
+    //      [in] solver - the engine to use
+    //
+    public void computeMaxFlow(MaxFlowSolver solver)
+    {
+        _runSolver(_getWorkingGraph(), solver);
+    }
+    
+    //
+    // computeMaxFlow
+    //
+    // Computes the maximum flow of the graph using the engine the SolverSelector judges
+    // fastest for it (see SolverSelector.java).
+    //
+    public void computeMaxFlow()
+    {
+        SparseGraph workingGraph = _getWorkingGraph();
+        
+        _runSolver(workingGraph, SolverSelector.select(workingGraph, source, sink));
     }
     
     //
@@ -275,26 +508,47 @@ class Flow
         return residualGraph;
     }
     
+    //
+    // resetFlowGraph
+    //
+    // Empties the flow graph in place.
+    //
+    private void _resetFlowGraph()
+    {
+        for (int i = 0; i < flowGraph.length; i++)
+        {
+            java.util.Arrays.fill(flowGraph[i], 0);
+        }
+    }
+    
+    //
+    // resetResidual
+    //
+    // Copies the input graph into the residual graph in place.
+    //
+    private void _resetResidual()
+    {
+        for (int i = 0; i < graph.length; i++)
+        {
+            System.arraycopy(graph[i], 0, residualGraph[i], 0, graph.length);
+        }
+    }
+    
     //
     // getPath
     //
     // Computes a path by performing a breadth-first search from the source to the sink.
+    // In the early exit search mode, the search stops as soon as the sink is reached.
+    // The queue, parents list and path are member arrays, so no memory is allocated.
     //
-    // Returns the start node of the path.
+    // Returns whether a path was found. If so, the path holds its nodes from source to sink.
     //
-    private Node _getPath()
+    private boolean _getPath()
     {
-        //
-        // Initialize queue of nodes encountered:
-        //
-        int[] queue = new int[residualGraph.length];
-        
         //
         // Initialize parents list / in-queue list (serves both purposes, if they are
         // the source, or if they have a parent, they must be in the queue):
         //
-        int[] parents = new int[residualGraph.length];
-        
         for (int i = 0; i < parents.length; i++)
         {
             parents[i] = -1;
@@ -309,95 +563,81 @@ class Flow
         //
         // Do a breadth first traversal:
         //
-        for (int i = 0; i < qSize; i++)
+        boolean earlyExit = (searchMode == PathSearch.Mode.EARLY_EXIT);
+        
+        for (int i = 0; i < qSize && !(earlyExit && parents[sink] != -1); i++)
         {
             int queueNode = queue[i];
             
+            verticesScanned++;
+            
             for (int j = 0; j < residualGraph.length; j++)
             {
+                arcsScanned++;
+                
                 if (j != source && parents[j] == -1 && residualGraph[queueNode][j] > 0)
                 {
                     queue[qSize] = j;
                     parents[j] = queueNode;
                     qSize++;
+                    
+                    if (earlyExit && j == sink)
+                    {
+                        break;
+                    }
                 }
             }
         }
         
-        System.out.print("\nQueue:   ");
-        
-        for (int i = 0; i < queue.length; i++)
-        {
-            System.out.print(queue[i] + " ");
-        }
-        
-        System.out.println();
-        System.out.print("Parents: ");
-        
-        for(int i = 0; i < parents.length; i++)
-        {
-            System.out.print(parents[i] + " ");
-        }
-        
-        System.out.println();
+        listener.pathSearched(queue, qSize, parents);
         
         //
         // No path found :(
         //
         if (parents[sink] == -1)
         {
-            return null;
+            return false;
         }
         
         //
-        // Path found! Create list of edges starting at the destination
-        // and following the parent pointers:
+        // Path found! Count its edges by following the parent pointers from the sink,
+        // then follow them again to fill in the path from the end:
         //
-        int  currNode   = sink;
-        int  currParent = parents[sink];
-        Node path       = new Node(new Edge(currParent, currNode));
+        pathLength = 0;
         
-        while (currParent != source)
+        for (int node = sink; node != source; node = parents[node])
         {
-            //
-            // Go up to the parent:
-            //
-            currNode = currParent;
-            
-            //
-            // Get the new parent:
-            //
-            currParent = parents[currNode];
-            
-            //
-            // Prepend to the path:
-            //
-            path = new Node(new Edge(currParent, currNode), path);
+            pathLength++;
         }
         
-        return path;
+        int index = pathLength;
+        
+        for (int node = sink; node != source; node = parents[node])
+        {
+            path[index--] = node;
+        }
+        
+        path[0] = source;
+        
+        return true;
     }
     
     //
     // getMinCost
     //
-    // Determines the minimum cost of an edge along a given path.
-    //
-    //      [in] path - the start node of the path
+    // Determines the minimum cost of an edge along the last path found.
     //
     // Returns the minimum cost.
     //
-    private int _getMinCost(Node path)
+    private int _getMinCost()
     {
         int min = Integer.MAX_VALUE;
         
-        while (path != null)
+        for (int i = 0; i < pathLength; i++)
         {
-            int cost = residualGraph[path.value.startNodeId][path.value.endNodeId];
-            
-            min  = Math.min(min, cost);
+            int cost = residualGraph[path[i]][path[i + 1]];
             
-            path = path.next;
+            min = Math.min(min, cost);
         }
         
         return min;
@@ -406,20 +646,19 @@ class Flow
     //
     // updateFlow
     //
-    // Updates the flow graph along a given path with a given minimum edge cost.
+    // Updates the flow graph along the last path found with a given minimum edge cost.
     //
-    //      [in] path       - the start node of the path
     //      [in] minCost    - the minimum edge cost
     //
-    private void _updateFlow(Node path, int minCost)
+    private void _updateFlow(int minCost)
     {
         //
         // Go to each edge in the path:
         //
-        while (path != null)
+        for (int i = 0; i < pathLength; i++)
         {
-            int startId = path.value.startNodeId;
-            int endId   = path.value.endNodeId;
+            int startId = path[i];
+            int endId   = path[i + 1];
           
             //
             // If it's a "real" edge, we're increasing the flow:
@@ -436,31 +675,25 @@ class Flow
             {
                 flowGraph[endId][startId] -= minCost;
             }
-            
-            //
-            // Next edge on the path:
-            //
-            path = path.next;
         }
     }
     
     //
     // updateResidual
     //
-    // Updates the residual graph along a given path with a given minimum edge cost.
+    // Updates the residual graph along the last path found with a given minimum edge cost.
     //
-    //      [in] path       - the start node of the path
     //      [in] minCost    - the minimum edge cost
     //
-    private void _updateResidual(Node path, int minCost)
+    private void _updateResidual(int minCost)
     {
         //
         // Go to each edge in the path:
         //
-        while (path != null)
+        for (int i = 0; i < pathLength; i++)
         {
-            int startId = path.value.startNodeId;
-            int endId = path.value.endNodeId;
+            int startId = path[i];
+            int endId   = path[i + 1];
           
             //
             // Decrease along the path chosen:
@@ -471,11 +704,6 @@ class Flow
             // Increase in the opposite direction:
             //
             residualGraph[endId][startId] += minCost;
-            
-            //
-            // Next edge on the path:
-            //
-            path = path.next;
         }
     }
     
@@ -498,23 +726,214 @@ class Flow
         return flowTotal;
     }
     
+    //
+    // inputCheckSparse
+    //
+    // Used for construction from a sparse graph. Validates values of member variables.
+    //
+    // Returns whether all validation checks were passed.
+    //
+    private boolean _inputCheckSparse()
+    {
+        if (sparseGraph == null)
+        {
+            return false;
+        }
+        
+        int numNodes = sparseGraph.getNumNodes();
+        
+        if (source < 0 || source >= numNodes)
+        {
+            return false;
+        }
+        
+        if (sink < 0 || sink >= numNodes || sink == source)
+        {
+            return false;
+        }
+        
+        return true;
+    }
+    
+    //
+    // getWorkingGraph
+    //
+    // Gets a sparse graph for the algorithms that only run on sparse graphs. A flow constructed
+    // from an adjacency matrix has its graph converted on the first call and the copy is kept,
+    // since every engine resets its flow before running; later changes to the matrix are not
+    // seen by these engines.
+    //
+    // Returns the sparse graph.
+    //
+    private SparseGraph _getWorkingGraph()
+    {
+        if (graph == null)
+        {
+            return sparseGraph;
+        }
+        
+        if (matrixGraph == null)
+        {
+            matrixGraph = SparseGraph.fromMatrix(graph);
+        }
+        
+        return matrixGraph;
+    }
+    
+    //
+    // runSolver
+    //
+    // Computes the maximum flow of a working graph (see getWorkingGraph) with a given engine
+    // and loads the result.
+    //
+    //      [in] workingGraph   - the sparse graph to compute the flow in
+    //      [in] solver         - the engine to use
+    //
+    private void _runSolver(SparseGraph workingGraph, MaxFlowSolver solver)
+    {
+        listener.started();
+        
+        maxFlow = solver.computeMaxFlow(workingGraph, source, sink);
+        
+        _loadFromWorkingGraph(workingGraph);
+        listener.finished(solver.getName(), maxFlow);
+    }
+    
+    //
+    // loadFromWorkingGraph
+    //
+    // Copies the flow computed on a working graph (see getWorkingGraph) back into the flow
+    // and residual graphs of a flow constructed from an adjacency matrix, in place.
+    //
+    //      [in] workingGraph - the sparse graph holding the computed flow
+    //
+    private void _loadFromWorkingGraph(SparseGraph workingGraph)
+    {
+        if (graph != null)
+        {
+            workingGraph.fillFlowMatrix(flowGraph);
+            workingGraph.fillResidualMatrix(residualGraph);
+        }
+    }
+    
+    //
+    // _solveFile
+    //
+    // Reads a maximum flow problem named by the command line arguments and prints its maximum flow.
+    //
+    //      [in] args - the command line arguments
+    //
+    private static void _solveFile(String[] args)
+    {
+        FlowProblem problem = null;
+        
+        try
+        {
+            if (args.length == 2 && args[0].equals("--dimacs"))
+            {
+                problem = DimacsReader.read(new File(args[1]));
+            }
+            else if (args.length == 4 && args[0].equals("--edges"))
+            {
+                problem = EdgeListReader.read(new File(args[1]), args[2], args[3]);
+            }
+            else
+            {
+                System.out.println("Usage: java Flow [--dimacs filename | --edges filename source sink]");
+                
+                return;
+            }
+        }
+        catch (IOException ex)
+        {
+            System.err.println(ex);
+            
+            return;
+        }
+        
+        //
+        // Capacities or totals beyond the range of an int are solved on 64-bit capacities:
+        //
+        if (problem.getLongGraph() != null)
+        {
+            LongSparseGraph   longGraph  = problem.getLongGraph();
+            LongMaxFlowSolver longSolver = SolverSelector.selectLong(longGraph, problem.getSource(), problem.getSink());
+            
+            System.out.println("Flow from " + problem.getSource() + " to " + problem.getSink() + " in sparse graph with " +
+                               longGraph.getNumNodes() + " nodes and " + longGraph.getNumArcs() / 2 + " edges");
+            System.out.println("Max Flow (" + longSolver.getName() + "): " +
+                               longSolver.computeMaxFlow(longGraph, problem.getSource(), problem.getSink()));
+            
+            return;
+        }
+        
+        SparseGraph   graph  = problem.getGraph();
+        MaxFlowSolver solver = SolverSelector.select(graph, problem.getSource(), problem.getSink());
+        Flow          flow   = new Flow(graph, problem.getSource(), problem.getSink());
+        
+        System.out.println("Flow from " + problem.getSource() + " to " + problem.getSink() + " in sparse graph with " +
+                           graph.getNumNodes() + " nodes and " + graph.getNumArcs() / 2 + " edges");
+        
+        flow.computeMaxFlow(solver);
+        
+        System.out.println("Max Flow (" + solver.getName() + "): " + flow.getMaxFlow());
+    }
+    
     //
     // main
     //
     // Optional entry point. This is a demo of the Ford Fulkerson algorithm.
     // Uncomment lines to demo more graphs.
     //
+    // Given "--dimacs filename" or "--edges filename source sink", instead reads a problem in
+    // the DIMACS format (see DimacsReader.java) or an edge list (see EdgeListReader.java) and
+    // prints its maximum flow.
+    //
     public static void main(String[] args)
     {
         int[][] graphAdjMatrix = null;
         Flow    f              = null;
         
+        if (args.length > 0)
+        {
+            _solveFile(args);
+            
+            return;
+        }
+        
         graphAdjMatrix = new int[][] {{0, 1}, {0, 0}};
         f              = new Flow(graphAdjMatrix, 0, 1);
         
+        f.setListener(new ConsoleFlowListener(f));
+        
         System.out.println("\nFlow calculation using Ford Fulkerson: ");
         f.computeMaxFlowFordFulkerson();
         
+        System.out.println("\nFlow calculation using Dinic: ");
+        f.computeMaxFlowDinic();
+        
+        System.out.println("\nFlow calculation using push-relabel: ");
+        f.computeMaxFlowPushRelabel();
+        
+        System.out.println("\nFlow calculation using capacity scaling: ");
+        f.computeMaxFlowCapacityScaling();
+        
+        System.out.println("\nFlow calculation using automatic engine selection: ");
+        f.computeMaxFlow();
+        
+        //
+        // Capacities whose total does not fit in an int need the 64-bit engine:
+        //
+        LongSparseGraph longGraph = new LongSparseGraph(4, new int[] {0, 0, 1, 2},
+                                                           new int[] {1, 2, 3, 3},
+                                                           new long[] {3000000000L, 3000000000L,
+                                                                       3000000000L, 3000000000L}, 4);
+        
+        LongMaxFlowSolver longSolver = SolverSelector.selectLong(longGraph, 0, 3);
+        
+        System.out.println("\nFlow calculation using 64-bit " + longSolver.getName() + ": ");
+        System.out.println("\nMax Flow: " + longSolver.computeMaxFlow(longGraph, 0, 3));
+        
         System.out.println();
         System.out.println();
         
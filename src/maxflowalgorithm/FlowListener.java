@@ -0,0 +1,100 @@
+//
+// FlowListener.java
+//
+// This interface receives progress events from a maximum flow computation. Every event has
+// an empty default, and FlowListener.NONE ignores them all; Flow and FordFulkerson skip
+// preparing event data when the listener is NONE, so tracing costs nothing unless it is used.
+// See ConsoleFlowListener.java for a listener that prints the progress to the console.
+//
+// The MIT License (MIT)
+//
+// Copyright (c) 2022 Luke Andrews. All Rights Reserved.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this
+// software and associated documentation files (the "Software"), to deal in the Software
+// without restriction, including without limitation the rights to use, copy, modify, merge,
+// publish, distribute, sub-license, and/or sell copies of the Software, and to permit persons
+// to whom the Software is furnished to do so, subject to the following conditions:
+// 
+// * The above copyright notice and this permission notice shall be included in all copies or
+//   substantial portions of the Software.
+// 
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, 
+// INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+// PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+// FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR 
+// OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+// DEALINGS IN THE SOFTWARE.
+//
+package maxflowalgorithm;
+
+interface FlowListener
+{
+    FlowListener NONE = new FlowListener() {};
+
+    //
+    // started
+    //
+    // Called when a computation starts, after the flow has been reset.
+    //
+    default void started()
+    {
+    }
+
+    //
+    // pathSearched
+    //
+    // Called after each breadth-first path search of the adjacency matrix path.
+    //
+    //      [in] queue      - the nodes in the order they were queued
+    //      [in] queueSize  - the number of nodes queued
+    //      [in] parents    - the parent of each node, -1 if not reached
+    //
+    default void pathSearched(int[] queue, int queueSize, int[] parents)
+    {
+    }
+
+    //
+    // pathFound
+    //
+    // Called for each augmenting path found.
+    //
+    //      [in] path       - the nodes of the path from source to sink
+    //      [in] length     - the number of edges on the path (path holds length + 1 nodes)
+    //
+    default void pathFound(int[] path, int length)
+    {
+    }
+
+    //
+    // augmented
+    //
+    // Called when flow is pushed along the last path found.
+    //
+    //      [in] minCost    - the minimum edge cost of the path, which is the flow pushed
+    //
+    default void augmented(int minCost)
+    {
+    }
+
+    //
+    // residualUpdated
+    //
+    // Called after the flow and residual capacities are updated along the last path found.
+    //
+    default void residualUpdated()
+    {
+    }
+
+    //
+    // finished
+    //
+    // Called when a computation finishes.
+    //
+    //      [in] engine     - the name of the engine used
+    //      [in] maxFlow    - the maximum flow
+    //
+    default void finished(String engine, int maxFlow)
+    {
+    }
+}
@@ -0,0 +1,168 @@
+//
+// FlowProblem.java
+//
+// This class describes a maximum flow problem read from a file: a sparse graph together
+// with its source and sink nodes (see DimacsReader.java and EdgeListReader.java). The graph
+// keeps int capacities unless a capacity or the total flow may not fit in an int, in which
+// case it is stored as a LongSparseGraph instead.
+//
+// The MIT License (MIT)
+//
+// Copyright (c) 2022 Luke Andrews. All Rights Reserved.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this
+// software and associated documentation files (the "Software"), to deal in the Software
+// without restriction, including without limitation the rights to use, copy, modify, merge,
+// publish, distribute, sub-license, and/or sell copies of the Software, and to permit persons
+// to whom the Software is furnished to do so, subject to the following conditions:
+// 
+// * The above copyright notice and this permission notice shall be included in all copies or
+//   substantial portions of the Software.
+// 
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, 
+// INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+// PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+// FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR 
+// OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+// DEALINGS IN THE SOFTWARE.
+//
+package maxflowalgorithm;
+
+class FlowProblem
+{
+    static final long MAX_CAPACITY = 1L << 32; // largest capacity, so no total of capacities overflows a long
+
+    private SparseGraph     graph;      // graph with int capacities, or null
+    private LongSparseGraph longGraph;  // graph with 64-bit capacities, or null
+    private int             source;
+    private int             sink;
+    private NameDictionary  names;      // node names, or null if nodes are only numbered
+
+    //
+    // Overloaded constructor.
+    //
+    // Constructs with a sparse graph, source node index, sink node index and node names.
+    //
+    //      [in] graph  - the sparse graph
+    //      [in] source - the index of source node
+    //      [in] sink   - the index of the sink node
+    //      [in] names  - the name of each node, or null
+    //
+    public FlowProblem(SparseGraph graph, int source, int sink, NameDictionary names)
+    {
+        this.graph  = graph;
+        this.source = source;
+        this.sink   = sink;
+        this.names  = names;
+    }
+
+    //
+    // Overloaded constructor.
+    //
+    // Constructs with a sparse graph with 64-bit capacities, source node index, sink node index
+    // and node names.
+    //
+    //      [in] longGraph  - the sparse graph
+    //      [in] source     - the index of source node
+    //      [in] sink       - the index of the sink node
+    //      [in] names      - the name of each node, or null
+    //
+    public FlowProblem(LongSparseGraph longGraph, int source, int sink, NameDictionary names)
+    {
+        this.longGraph = longGraph;
+        this.source    = source;
+        this.sink      = sink;
+        this.names     = names;
+    }
+
+    //
+    // create
+    //
+    // Builds a maximum flow problem from a list of edges, choosing int capacities when they
+    // are enough (see SolverSelector.needsLongCapacities) and 64-bit capacities otherwise.
+    //
+    //      [in] numNodes   - the number of nodes in the graph
+    //      [in] tails      - the start node of each edge
+    //      [in] heads      - the end node of each edge
+    //      [in] capacities - the capacity of each edge, from 0 to MAX_CAPACITY
+    //      [in] source     - the index of source node
+    //      [in] sink       - the index of the sink node
+    //      [in] names      - the name of each node, or null
+    //
+    // Returns the maximum flow problem.
+    //
+    public static FlowProblem create(int numNodes, IntList tails, IntList heads, LongList capacities,
+                                     int source, int sink, NameDictionary names)
+    {
+        int[]  tailArray     = tails.toArray();
+        int[]  headArray     = heads.toArray();
+        long[] capacityArray = capacities.toArray();
+        int    numEdges      = tailArray.length;
+
+        if (SolverSelector.needsLongCapacities(tailArray, headArray, capacityArray, numEdges, source, sink))
+        {
+            return new FlowProblem(new LongSparseGraph(numNodes, tailArray, headArray, capacityArray, numEdges),
+                                   source, sink, names);
+        }
+
+        int[] intCapacities = new int[numEdges];
+
+        for (int i = 0; i < numEdges; i++)
+        {
+            intCapacities[i] = (int) capacityArray[i];
+        }
+
+        return new FlowProblem(new SparseGraph(numNodes, tailArray, headArray, intCapacities, numEdges),
+                               source, sink, names);
+    }
+
+    //
+    // getGraph
+    //
+    // Gets the sparse graph, or null if the graph has 64-bit capacities (see getLongGraph).
+    //
+    public SparseGraph getGraph()
+    {
+        return graph;
+    }
+
+    //
+    // getLongGraph
+    //
+    // Gets the sparse graph with 64-bit capacities, or null if int capacities were enough.
+    //
+    public LongSparseGraph getLongGraph()
+    {
+        return longGraph;
+    }
+
+    //
+    // getSource
+    //
+    // Gets the index of the source node.
+    //
+    public int getSource()
+    {
+        return source;
+    }
+
+    //
+    // getSink
+    //
+    // Gets the index of the sink node.
+    //
+    public int getSink()
+    {
+        return sink;
+    }
+
+    //
+    // getNames
+    //
+    // Gets the node names, or null if the nodes are only numbered.
+    //
+    public NameDictionary getNames()
+    {
+        return names;
+    }
+}
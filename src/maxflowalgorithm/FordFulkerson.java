@@ -0,0 +1,207 @@
+//
+// FordFulkerson.java
+//
+// This class computes a maximum flow of a sparse graph using the Ford Fulkerson method.
+// Augmenting paths are found by a PathSearch (see PathSearch.java) in a chosen search mode.
+// The search and its working arrays are kept between runs on the same graph, so repeated runs
+// allocate no memory. Progress can be reported to a FlowListener (see FlowListener.java).
+//
+// The MIT License (MIT)
+//
+// Copyright (c) 2022 Luke Andrews. All Rights Reserved.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this
+// software and associated documentation files (the "Software"), to deal in the Software
+// without restriction, including without limitation the rights to use, copy, modify, merge,
+// publish, distribute, sub-license, and/or sell copies of the Software, and to permit persons
+// to whom the Software is furnished to do so, subject to the following conditions:
+// 
+// * The above copyright notice and this permission notice shall be included in all copies or
+//   substantial portions of the Software.
+// 
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, 
+// INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+// PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+// FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR 
+// OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+// DEALINGS IN THE SOFTWARE.
+//
+package maxflowalgorithm;
+
+class FordFulkerson implements MaxFlowSolver
+{
+    private PathSearch.Mode mode;
+    private FlowListener    listener = FlowListener.NONE;
+    private int[]           pathNodes;      // path as nodes, only built for a listener
+
+    private PathSearch      search;         // kept between runs on the same graph
+    private SparseGraph     searchGraph;
+    private int             searchSource;
+    private int             searchSink;
+
+    private long            verticesScanned;
+    private long            arcsScanned;
+
+    //
+    // FordFulkerson
+    //
+    // Default constructor. Paths are found by a breadth-first search that stops at the sink.
+    //
+    public FordFulkerson()
+    {
+        this(PathSearch.Mode.EARLY_EXIT);
+    }
+
+    //
+    // FordFulkerson
+    //
+    // Overloaded constructor. Constructs with a given path search mode.
+    //
+    //      [in] mode - the path search mode
+    //
+    public FordFulkerson(PathSearch.Mode mode)
+    {
+        this.mode = mode;
+    }
+
+    //
+    // setListener
+    //
+    // Sets the listener receiving progress events. FlowListener.NONE by default.
+    //
+    //      [in] listener - the listener
+    //
+    public void setListener(FlowListener listener)
+    {
+        this.listener = listener;
+    }
+
+    //
+    // getVerticesScanned
+    //
+    // Gets the number of vertices scanned by path searches in the last run.
+    //
+    public long getVerticesScanned()
+    {
+        return verticesScanned;
+    }
+
+    //
+    // getArcsScanned
+    //
+    // Gets the number of arcs scanned by path searches in the last run.
+    //
+    public long getArcsScanned()
+    {
+        return arcsScanned;
+    }
+
+    //
+    // getName
+    //
+    // Gets a short name for the engine, for reporting.
+    //
+    public String getName()
+    {
+        return "Ford Fulkerson";
+    }
+
+    //
+    // getMode
+    //
+    // Gets how paths are searched for (see PathSearch.java).
+    //
+    public PathSearch.Mode getMode()
+    {
+        return mode;
+    }
+
+    //
+    // computeMaxFlow
+    //
+    // Computes the maximum flow, starting from no flow. The resulting flow is left in the
+    // residual capacities of the sparse graph.
+    //
+    //      [in] graph      - the sparse graph
+    //      [in] source     - the index of source node
+    //      [in] sink       - the index of the sink node
+    //
+    // Returns the maximum flow.
+    //
+    public int computeMaxFlow(SparseGraph graph, int source, int sink)
+    {
+        int[] residuals = graph.getArcResiduals();
+        int[] reverses  = graph.getArcReverses();
+        int[] heads     = graph.getArcHeads();
+
+        //
+        // Reset flow (residual capacities start as a copy of the capacities):
+        //
+        graph.resetFlow();
+
+        if (search == null || searchGraph != graph || searchSource != source || searchSink != sink)
+        {
+            search       = new PathSearch(graph, source, sink, mode);
+            searchGraph  = graph;
+            searchSource = source;
+            searchSink   = sink;
+            pathNodes    = new int[graph.getNumNodes() + 1];
+        }
+
+        int[] path          = search.getPath();
+        long  startVertices = search.getVerticesScanned();
+        long  startArcs     = search.getArcsScanned();
+
+        //
+        // While we have a valid path:
+        //
+        while (search.findPath())
+        {
+            int length = search.getPathLength();
+
+            //
+            // Get the minimum cost of the path:
+            //
+            int minCost = Integer.MAX_VALUE;
+
+            for (int i = 0; i < length; i++)
+            {
+                minCost = Math.min(minCost, residuals[path[i]]);
+            }
+
+            if (listener != FlowListener.NONE)
+            {
+                pathNodes[0] = source;
+
+                for (int i = 0; i < length; i++)
+                {
+                    pathNodes[i + 1] = heads[path[i]];
+                }
+
+                listener.pathFound(pathNodes, length);
+                listener.augmented(minCost);
+            }
+
+            //
+            // Update the residual (and with it the flow) along the path:
+            //
+            for (int i = 0; i < length; i++)
+            {
+                int arc = path[i];
+
+                residuals[arc]           -= minCost;
+                residuals[reverses[arc]] += minCost;
+            }
+
+            listener.residualUpdated();
+        }
+
+        verticesScanned = search.getVerticesScanned() - startVertices;
+        arcsScanned     = search.getArcsScanned() - startArcs;
+
+        //
+        // Get max flow from the flow entering the sink:
+        //
+        return Math.toIntExact(graph.getInflow(sink));
+    }
+}
@@ -0,0 +1,75 @@
+//
+// GraphLoader.java
+//
+// This class loads a bipartite graph from any supported input file, choosing the reader from
+// the contents of the file: a binary graph file (see BinaryGraphFile.java), a gzip compressed
+// text file (see GzipLoader.java) or a text file (see ParallelLoader.java).
+//
+// The MIT License (MIT)
+//
+// Copyright (c) 2022 Luke Andrews. All Rights Reserved.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this
+// software and associated documentation files (the "Software"), to deal in the Software
+// without restriction, including without limitation the rights to use, copy, modify, merge,
+// publish, distribute, sub-license, and/or sell copies of the Software, and to permit persons
+// to whom the Software is furnished to do so, subject to the following conditions:
+// 
+// * The above copyright notice and this permission notice shall be included in all copies or
+//   substantial portions of the Software.
+// 
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, 
+// INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+// PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+// FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR 
+// OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+// DEALINGS IN THE SOFTWARE.
+//
+package maxflowalgorithm;
+
+import java.io.*;
+
+class GraphLoader
+{
+    //
+    // load
+    //
+    // Loads a bipartite graph from a file, reading text without weights.
+    //
+    //      [in] inputFile  - the input file
+    //      [in] numThreads - the number of threads to parse or decompress with
+    //
+    // Returns the bipartite graph.
+    //
+    public static BipartiteGraph load(File inputFile, int numThreads) throws IOException
+    {
+        return load(inputFile, numThreads, false);
+    }
+
+    //
+    // load
+    //
+    // Loads a bipartite graph from a file. A binary graph file has weights if it was written
+    // with them, whatever is asked for here.
+    //
+    //      [in] inputFile  - the input file
+    //      [in] numThreads - the number of threads to parse or decompress with
+    //      [in] weighted   - whether destinations in text may carry weights ("dst1:5", see MappedParser.java)
+    //
+    // Returns the bipartite graph.
+    //
+    public static BipartiteGraph load(File inputFile, int numThreads, boolean weighted) throws IOException
+    {
+        if (BinaryGraphFile.isBinary(inputFile))
+        {
+            return BinaryGraphFile.read(inputFile);
+        }
+
+        if (GzipLoader.isGzip(inputFile))
+        {
+            return GzipLoader.load(inputFile, numThreads, weighted);
+        }
+
+        return ParallelLoader.load(inputFile, numThreads, weighted);
+    }
+}
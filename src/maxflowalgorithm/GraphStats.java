@@ -0,0 +1,224 @@
+//
+// GraphStats.java
+//
+// This class gathers cheap statistics of a flow network in one pass over its arcs: the
+// number of nodes and edges, the edge density, whether every capacity is 1, and whether the
+// network is a bipartite matching layout (the source only feeds one side, the sink is only
+// fed by the other side, and every other edge runs from the first side to the second).
+//
+// The MIT License (MIT)
+//
+// Copyright (c) 2022 Luke Andrews. All Rights Reserved.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this
+// software and associated documentation files (the "Software"), to deal in the Software
+// without restriction, including without limitation the rights to use, copy, modify, merge,
+// publish, distribute, sub-license, and/or sell copies of the Software, and to permit persons
+// to whom the Software is furnished to do so, subject to the following conditions:
+// 
+// * The above copyright notice and this permission notice shall be included in all copies or
+//   substantial portions of the Software.
+// 
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, 
+// INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+// PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+// FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR 
+// OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+// DEALINGS IN THE SOFTWARE.
+//
+package maxflowalgorithm;
+
+class GraphStats
+{
+    static final int NONE  = 0; // side of a node with no edges constraining it
+    static final int LEFT  = 1; // side of a node fed by the source
+    static final int RIGHT = 2; // side of a node feeding the sink
+
+    private int     numNodes;
+    private int     numEdges;
+    private double  density;
+    private boolean unitCapacities;
+    private int     maxCapacity;
+    private boolean bipartite;
+
+    //
+    // compute
+    //
+    // Computes the statistics of a flow network.
+    //
+    //      [in] graph      - the sparse graph
+    //      [in] source     - the index of source node
+    //      [in] sink       - the index of the sink node
+    //
+    // Returns the statistics.
+    //
+    public static GraphStats compute(SparseGraph graph, int source, int sink)
+    {
+        GraphStats stats      = new GraphStats();
+        int[]      capacities = graph.getArcCapacities();
+        int        numArcs    = graph.getNumArcs();
+
+        stats.numNodes       = graph.getNumNodes();
+        stats.numEdges       = numArcs / 2;
+        stats.unitCapacities = true;
+        stats.maxCapacity    = 0;
+
+        for (int arc = 0; arc < numArcs; arc++)
+        {
+            if (capacities[arc] > 0)
+            {
+                stats.unitCapacities = stats.unitCapacities && capacities[arc] == 1;
+                stats.maxCapacity    = Math.max(stats.maxCapacity, capacities[arc]);
+            }
+        }
+
+        if (stats.numNodes > 1)
+        {
+            stats.density = (double) stats.numEdges / ((double) stats.numNodes * (stats.numNodes - 1));
+        }
+
+        stats.bipartite = (computeSides(graph, source, sink) != null);
+
+        return stats;
+    }
+
+    //
+    // computeSides
+    //
+    // Determines the side of every node of a bipartite matching layout. The source must only
+    // have edges to LEFT nodes, each fed by a single edge; the sink must only have edges from
+    // RIGHT nodes, each feeding it by a single edge; and every other edge must run from a LEFT
+    // node to a RIGHT node.
+    //
+    //      [in] graph      - the sparse graph
+    //      [in] source     - the index of source node
+    //      [in] sink       - the index of the sink node
+    //
+    // Returns the side of each node (NONE, LEFT or RIGHT), or null if the layout does not hold.
+    //
+    public static int[] computeSides(SparseGraph graph, int source, int sink)
+    {
+        int[] firstArcs = graph.getFirstArcs();
+        int[] heads     = graph.getArcHeads();
+        int   numNodes  = graph.getNumNodes();
+        int[] side      = new int[numNodes];
+
+        //
+        // Terminal edges first:
+        //
+        for (int arc = firstArcs[source]; arc < firstArcs[source + 1]; arc++)
+        {
+            int node = heads[arc];
+
+            if (!graph.isForward(arc) || node == sink || side[node] != NONE)
+            {
+                return null;
+            }
+
+            side[node] = LEFT;
+        }
+
+        for (int arc = firstArcs[sink]; arc < firstArcs[sink + 1]; arc++)
+        {
+            int node = heads[arc];
+
+            if (graph.isForward(arc) || side[node] != NONE)
+            {
+                return null;
+            }
+
+            side[node] = RIGHT;
+        }
+
+        //
+        // Then every other edge, which fixes its tail on the left and its head on the right:
+        //
+        for (int node = 0; node < numNodes; node++)
+        {
+            if (node == source || node == sink)
+            {
+                continue;
+            }
+
+            for (int arc = firstArcs[node]; arc < firstArcs[node + 1]; arc++)
+            {
+                int head = heads[arc];
+
+                if (!graph.isForward(arc) || head == sink)
+                {
+                    continue;
+                }
+
+                if (head == source || side[node] == RIGHT || side[head] == LEFT)
+                {
+                    return null;
+                }
+
+                side[node] = LEFT;
+                side[head] = RIGHT;
+            }
+        }
+
+        return side;
+    }
+
+    //
+    // getNumNodes
+    //
+    // Gets the number of nodes.
+    //
+    public int getNumNodes()
+    {
+        return numNodes;
+    }
+
+    //
+    // getNumEdges
+    //
+    // Gets the number of edges.
+    //
+    public int getNumEdges()
+    {
+        return numEdges;
+    }
+
+    //
+    // getDensity
+    //
+    // Gets the number of edges divided by the number of possible edges.
+    //
+    public double getDensity()
+    {
+        return density;
+    }
+
+    //
+    // hasUnitCapacities
+    //
+    // Gets whether every edge has a capacity of 1.
+    //
+    public boolean hasUnitCapacities()
+    {
+        return unitCapacities;
+    }
+
+    //
+    // getMaxCapacity
+    //
+    // Gets the largest edge capacity.
+    //
+    public int getMaxCapacity()
+    {
+        return maxCapacity;
+    }
+
+    //
+    // isBipartite
+    //
+    // Gets whether the network has a bipartite matching layout (see computeSides).
+    //
+    public boolean isBipartite()
+    {
+        return bipartite;
+    }
+}
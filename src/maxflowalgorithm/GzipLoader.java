@@ -0,0 +1,586 @@
+//
+// GzipLoader.java
+//
+// This class reads a bipartite graph in the "src>dst1,dst2,..." format from a gzip compressed
+// file, decompressing it as it is parsed (see StreamParser.java) so no uncompressed copy is
+// written to disk.
+//
+// Files made of many independently compressed members can be decompressed in parallel, but
+// only if the size of each member is known without decompressing it. Blocked gzip (BGZF, as
+// written by bgzip) records it in a "BC" extra field of every member header, so for such
+// files batches of members are inflated on a thread pool while the parser consumes the
+// results in file order. Any other gzip file, including plain multi-member files, is
+// decompressed on one thread, and so is the rest of a blocked file from the first member
+// without a block size.
+//
+// The MIT License (MIT)
+//
+// Copyright (c) 2022 Luke Andrews. All Rights Reserved.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this
+// software and associated documentation files (the "Software"), to deal in the Software
+// without restriction, including without limitation the rights to use, copy, modify, merge,
+// publish, distribute, sub-license, and/or sell copies of the Software, and to permit persons
+// to whom the Software is furnished to do so, subject to the following conditions:
+// 
+// * The above copyright notice and this permission notice shall be included in all copies or
+//   substantial portions of the Software.
+// 
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, 
+// INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+// PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+// FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR 
+// OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+// DEALINGS IN THE SOFTWARE.
+//
+package maxflowalgorithm;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.zip.*;
+
+class GzipLoader
+{
+    private static final int BATCH_SIZE  = 1 << 22;     // compressed bytes read and inflated per task
+    private static final int BUFFER_SIZE = 1 << 20;     // stream buffer for single-threaded decompression
+
+    private static final int FHCRC       = 2;           // gzip header flags
+    private static final int FEXTRA      = 4;
+    private static final int FNAME       = 8;
+    private static final int FCOMMENT    = 16;
+
+    //
+    // isGzip
+    //
+    // Determines whether a file starts with the gzip magic number.
+    //
+    //      [in] file - the file
+    //
+    // Returns whether the file is gzip compressed.
+    //
+    public static boolean isGzip(File file) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ))
+        {
+            ByteBuffer buffer = ByteBuffer.allocate(2);
+
+            return channel.read(buffer, 0) == 2 && (buffer.get(0) & 0xFF) == 0x1F && (buffer.get(1) & 0xFF) == 0x8B;
+        }
+    }
+
+    //
+    // open
+    //
+    // Opens a file for reading, decompressing it on the fly if it is gzip compressed.
+    //
+    //      [in] file - the file
+    //
+    // Returns the stream of (decompressed) bytes.
+    //
+    public static InputStream open(File file) throws IOException
+    {
+        if (isGzip(file))
+        {
+            return new GZIPInputStream(new FileInputStream(file), BUFFER_SIZE);
+        }
+
+        return new FileInputStream(file);
+    }
+
+    //
+    // load
+    //
+    // Reads a bipartite graph from a gzip compressed file, using one thread per available
+    // processor for blocked gzip files.
+    //
+    //      [in] inputFile - the input file
+    //
+    // Returns the bipartite graph.
+    //
+    public static BipartiteGraph load(File inputFile) throws IOException
+    {
+        return load(inputFile, Runtime.getRuntime().availableProcessors());
+    }
+
+    //
+    // load
+    //
+    // Reads an unweighted bipartite graph from a gzip compressed file.
+    //
+    //      [in] inputFile  - the input file
+    //      [in] numThreads - the number of threads to decompress blocked gzip files with
+    //
+    // Returns the bipartite graph.
+    //
+    public static BipartiteGraph load(File inputFile, int numThreads) throws IOException
+    {
+        return load(inputFile, numThreads, false);
+    }
+
+    //
+    // load
+    //
+    // Reads a bipartite graph from a gzip compressed file.
+    //
+    //      [in] inputFile  - the input file
+    //      [in] numThreads - the number of threads to decompress blocked gzip files with
+    //      [in] weighted   - whether destinations may carry weights ("dst1:5", see MappedParser.java)
+    //
+    // Returns the bipartite graph.
+    //
+    public static BipartiteGraph load(File inputFile, int numThreads, boolean weighted) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(inputFile.toPath(), StandardOpenOption.READ))
+        {
+            byte[] header = _readHeader(channel);
+
+            if (numThreads > 1 && _blockSize(header, 0, header.length) > 0)
+            {
+                return _loadBlocked(channel, numThreads, weighted);
+            }
+        }
+
+        try (InputStream in = new GZIPInputStream(new FileInputStream(inputFile), BUFFER_SIZE))
+        {
+            return StreamParser.parse(in, weighted);
+        }
+    }
+
+    //
+    // readHeader
+    //
+    // Reads the fixed header of the first gzip member and its extra field, if any.
+    //
+    //      [in] channel - the file channel
+    //
+    // Returns the header bytes (fewer if the file is shorter).
+    //
+    private static byte[] _readHeader(FileChannel channel) throws IOException
+    {
+        ByteBuffer header = ByteBuffer.allocate(12);
+
+        channel.read(header, 0);
+
+        if (header.position() == 12 && (header.get(3) & FEXTRA) != 0)
+        {
+            ByteBuffer extra = ByteBuffer.allocate(12 + _readShort(header.array(), 10));
+
+            extra.put(header.array());
+            channel.read(extra, 12);
+
+            header = extra;
+        }
+
+        return Arrays.copyOf(header.array(), header.position());
+    }
+
+    //
+    // loadBlocked
+    //
+    // Reads a blocked gzip file in batches of whole members. Each batch is inflated by a task
+    // on the pool, and at most two batches per thread are in flight, which bounds the memory
+    // held by decompressed data waiting to be parsed. A member without a block size cannot be
+    // split off, so from the first one the rest of the file is decompressed on this thread.
+    //
+    //      [in] channel    - the file channel
+    //      [in] numThreads - the number of threads to decompress with
+    //      [in] weighted   - whether destinations may carry weights
+    //
+    // Returns the bipartite graph.
+    //
+    private static BipartiteGraph _loadBlocked(FileChannel channel, int numThreads, boolean weighted) throws IOException
+    {
+        ExecutorService        pool     = Executors.newFixedThreadPool(numThreads);
+        Deque<Future<byte[]>>  inFlight = new ArrayDeque<>();
+        StreamParser           parser   = new StreamParser(weighted);
+        byte[]                 carry    = new byte[0];
+        long                   position = 0;
+        long                   size     = channel.size();
+
+        try
+        {
+            while (position < size || carry.length > 0)
+            {
+                //
+                // Read the next batch, starting with the partial member left over from the last one:
+                //
+                int    length = (int) Math.min(BATCH_SIZE, size - position);
+                byte[] batch  = Arrays.copyOf(carry, carry.length + length);
+                int    filled = carry.length;
+
+                while (filled < batch.length)
+                {
+                    int read = channel.read(ByteBuffer.wrap(batch, filled, batch.length - filled), position);
+
+                    if (read < 0)
+                    {
+                        throw new EOFException();
+                    }
+
+                    filled   += read;
+                    position += read;
+                }
+
+                //
+                // Split off the whole members, up to the first member known to have no block size:
+                //
+                int     end     = 0;
+                boolean blocked = true;
+
+                while (end < batch.length)
+                {
+                    int blockSize = _blockSize(batch, end, batch.length);
+
+                    if (blockSize < 0 && (position == size || _hasHeader(batch, end, batch.length)))
+                    {
+                        blocked = false;
+
+                        break;
+                    }
+
+                    if (blockSize < 0 || end + blockSize > batch.length)
+                    {
+                        break;
+                    }
+
+                    end += blockSize;
+                }
+
+                if (blocked && end == 0 && position == size)
+                {
+                    throw new IOException("Truncated blocked gzip member");
+                }
+
+                carry = Arrays.copyOfRange(batch, end, batch.length);
+
+                byte[] members = batch;
+                int    count   = end;
+
+                inFlight.add(pool.submit(() -> _inflate(members, count)));
+
+                if (!blocked)
+                {
+                    while (!inFlight.isEmpty())
+                    {
+                        _feed(parser, inFlight.poll());
+                    }
+
+                    _stream(parser, channel, position - carry.length);
+
+                    return parser.finish();
+                }
+
+                //
+                // Parse finished batches in order while too many are in flight:
+                //
+                while (inFlight.size() >= 2 * numThreads)
+                {
+                    _feed(parser, inFlight.poll());
+                }
+            }
+
+            while (!inFlight.isEmpty())
+            {
+                _feed(parser, inFlight.poll());
+            }
+
+            return parser.finish();
+        }
+        finally
+        {
+            pool.shutdownNow();
+        }
+    }
+
+    //
+    // stream
+    //
+    // Decompresses the rest of a gzip file on the calling thread and feeds it to the parser.
+    //
+    //      [in] parser     - the stream parser
+    //      [in] channel    - the file channel
+    //      [in] offset     - the position of the first member to decompress
+    //
+    private static void _stream(StreamParser parser, FileChannel channel, long offset) throws IOException
+    {
+        //
+        // Closing the stream also closes the channel, which the caller is done with:
+        //
+        try (InputStream in = new GZIPInputStream(Channels.newInputStream(channel.position(offset)), BUFFER_SIZE))
+        {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int    count;
+
+            while ((count = in.read(buffer)) >= 0)
+            {
+                parser.feed(buffer, 0, count);
+            }
+        }
+    }
+
+    //
+    // feed
+    //
+    // Waits for an inflated batch and feeds it to the parser.
+    //
+    //      [in] parser - the stream parser
+    //      [in] future - the task inflating the batch
+    //
+    private static void _feed(StreamParser parser, Future<byte[]> future) throws IOException
+    {
+        try
+        {
+            byte[] data = future.get();
+
+            parser.feed(data, 0, data.length);
+        }
+        catch (InterruptedException ex)
+        {
+            Thread.currentThread().interrupt();
+
+            throw new InterruptedIOException();
+        }
+        catch (ExecutionException ex)
+        {
+            if (ex.getCause() instanceof IOException)
+            {
+                throw (IOException) ex.getCause();
+            }
+
+            throw new IOException(ex.getCause());
+        }
+    }
+
+    //
+    // inflate
+    //
+    // Decompresses consecutive whole gzip members and checks each against its CRC and size.
+    //
+    //      [in] members    - the compressed members
+    //      [in] length     - the number of bytes of members
+    //
+    // Returns the decompressed bytes.
+    //
+    private static byte[] _inflate(byte[] members, int length) throws IOException
+    {
+        //
+        // Every member ends with the CRC and size of its data, so the output can be sized exactly:
+        //
+        long total = 0;
+
+        for (int offset = 0; offset < length; offset += _blockSize(members, offset, length))
+        {
+            total += _readInt(members, offset + _blockSize(members, offset, length) - 4) & 0xFFFFFFFFL;
+        }
+
+        if (total > Integer.MAX_VALUE - 8)
+        {
+            throw new IOException("Blocked gzip batch too large");
+        }
+
+        byte[]   output   = new byte[(int) total];
+        int      written  = 0;
+        byte[]   spare    = new byte[1];
+        Inflater inflater = new Inflater(true);
+        CRC32    crc      = new CRC32();
+
+        try
+        {
+            for (int offset = 0; offset < length; )
+            {
+                int blockSize = _blockSize(members, offset, length);
+                int dataStart = offset + _headerLength(members, offset, length);
+                int dataEnd   = offset + blockSize - 8;
+                int expected  = _readInt(members, dataEnd + 4);
+
+                inflater.reset();
+                inflater.setInput(members, dataStart, dataEnd - dataStart);
+
+                int start = written;
+
+                while (!inflater.finished())
+                {
+                    //
+                    // Once the output is full, only the end of the stream may follow:
+                    //
+                    boolean full = written == output.length;
+                    int     n    = full ? inflater.inflate(spare) : inflater.inflate(output, written, output.length - written);
+
+                    if ((n == 0 && !inflater.finished() && (inflater.needsInput() || inflater.needsDictionary())) ||
+                        (full && n > 0))
+                    {
+                        throw new IOException("Corrupt blocked gzip member");
+                    }
+
+                    written += n;
+                }
+
+                crc.reset();
+                crc.update(output, start, written - start);
+
+                if (written - start != expected || (int) crc.getValue() != _readInt(members, dataEnd))
+                {
+                    throw new IOException("Corrupt blocked gzip member");
+                }
+
+                offset += blockSize;
+            }
+        }
+        catch (DataFormatException ex)
+        {
+            throw new IOException(ex);
+        }
+        finally
+        {
+            inflater.end();
+        }
+
+        return output;
+    }
+
+    //
+    // blockSize
+    //
+    // Reads the total size of a gzip member from the "BC" extra field of its header.
+    //
+    //      [in] bytes  - the bytes holding the member
+    //      [in] offset - the index of the start of the member
+    //      [in] end    - the index just past the last available byte
+    //
+    // Returns the size of the member in bytes, or -1 if the header is incomplete or has no
+    // "BC" field.
+    //
+    private static int _blockSize(byte[] bytes, int offset, int end)
+    {
+        if (end - offset < 12 || (bytes[offset] & 0xFF) != 0x1F || (bytes[offset + 1] & 0xFF) != 0x8B ||
+            bytes[offset + 2] != 8 || (bytes[offset + 3] & FEXTRA) == 0)
+        {
+            return -1;
+        }
+
+        int extraEnd = offset + 12 + _readShort(bytes, offset + 10);
+
+        if (extraEnd > end)
+        {
+            return -1;
+        }
+
+        for (int field = offset + 12; field + 4 <= extraEnd; field += 4 + _readShort(bytes, field + 2))
+        {
+            if (bytes[field] == 'B' && bytes[field + 1] == 'C' && _readShort(bytes, field + 2) == 2 &&
+                field + 6 <= extraEnd)
+            {
+                return _readShort(bytes, field + 4) + 1;
+            }
+        }
+
+        return -1;
+    }
+
+    //
+    // hasHeader
+    //
+    // Determines whether the fixed header of a gzip member and its extra field, if any, are
+    // complete, so that blockSize can tell whether the member has a block size.
+    //
+    //      [in] bytes  - the bytes holding the member
+    //      [in] offset - the index of the start of the member
+    //      [in] end    - the index just past the last available byte
+    //
+    // Returns whether the header is complete.
+    //
+    private static boolean _hasHeader(byte[] bytes, int offset, int end)
+    {
+        if (end - offset < 12)
+        {
+            return false;
+        }
+
+        return (bytes[offset + 3] & FEXTRA) == 0 || offset + 12 + _readShort(bytes, offset + 10) <= end;
+    }
+
+    //
+    // headerLength
+    //
+    // Measures the header of a gzip member, including any optional fields.
+    //
+    //      [in] bytes  - the bytes holding the member
+    //      [in] offset - the index of the start of the member
+    //      [in] end    - the index just past the member
+    //
+    // Returns the length of the header in bytes.
+    //
+    private static int _headerLength(byte[] bytes, int offset, int end) throws IOException
+    {
+        int flags    = bytes[offset + 3];
+        int position = offset + 10;
+
+        if ((flags & FEXTRA) != 0)
+        {
+            position += 2 + _readShort(bytes, position);
+        }
+
+        if ((flags & FNAME) != 0)
+        {
+            while (position < end && bytes[position++] != 0)
+            {
+                continue;
+            }
+        }
+
+        if ((flags & FCOMMENT) != 0)
+        {
+            while (position < end && bytes[position++] != 0)
+            {
+                continue;
+            }
+        }
+
+        if ((flags & FHCRC) != 0)
+        {
+            position += 2;
+        }
+
+        if (position > end - 8)
+        {
+            throw new IOException("Corrupt blocked gzip member");
+        }
+
+        return position - offset;
+    }
+
+    //
+    // readShort
+    //
+    // Reads an unsigned little-endian 16 bit value.
+    //
+    //      [in] bytes  - the bytes
+    //      [in] offset - the index of the first byte
+    //
+    // Returns the value.
+    //
+    private static int _readShort(byte[] bytes, int offset)
+    {
+        return (bytes[offset] & 0xFF) | (bytes[offset + 1] & 0xFF) << 8;
+    }
+
+    //
+    // readInt
+    //
+    // Reads a little-endian 32 bit value.
+    //
+    //      [in] bytes  - the bytes
+    //      [in] offset - the index of the first byte
+    //
+    // Returns the value.
+    //
+    private static int _readInt(byte[] bytes, int offset)
+    {
+        return _readShort(bytes, offset) | _readShort(bytes, offset + 2) << 16;
+    }
+}
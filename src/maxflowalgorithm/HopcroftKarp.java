@@ -0,0 +1,311 @@
+//
+// HopcroftKarp.java
+//
+// This class computes a maximum bipartite matching using the Hopcroft Karp algorithm.
+// The graph is given directly as adjacency arrays from source nodes to destination nodes,
+// so no flow network (super source, super sink or matrix) is needed. Each phase finds a
+// maximal set of shortest, vertex-disjoint augmenting paths, and at most O(sqrt(V)) phases
+// are needed, for O(E * sqrt(V)) time in total.
+//
+// The MIT License (MIT)
+//
+// Copyright (c) 2022 Luke Andrews. All Rights Reserved.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this
+// software and associated documentation files (the "Software"), to deal in the Software
+// without restriction, including without limitation the rights to use, copy, modify, merge,
+// publish, distribute, sub-license, and/or sell copies of the Software, and to permit persons
+// to whom the Software is furnished to do so, subject to the following conditions:
+//
+// * The above copyright notice and this permission notice shall be included in all copies or
+//   substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+// INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+// PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+// FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+// OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+// DEALINGS IN THE SOFTWARE.
+//
+package maxflowalgorithm;
+
+class HopcroftKarp implements BipartiteMatcher
+{
+    private static final int INFINITY = Integer.MAX_VALUE;
+
+    private int   numSources;
+    private int   numDestinations;
+    private int[] offsets;          // destinations of source u are targets[offsets[u]] .. targets[offsets[u + 1] - 1]
+    private int[] targets;
+
+    private int[] sourceMate;       // destination matched to each source, -1 if free
+    private int[] destinationMate;  // source matched to each destination, -1 if free
+
+    private int[] dist;             // layer of each source in the current phase
+    private int[] currentArc;       // next arc to try at each source in the current phase
+    private int[] queue;
+    private int[] stack;
+    private int   freeDist;         // layer at which the first free destination was found
+
+    //
+    // Overloaded constructor.
+    //
+    // Constructs with the adjacency arrays of a bipartite graph.
+    //
+    //      [in] numSources         - the number of source nodes
+    //      [in] numDestinations    - the number of destination nodes
+    //      [in] offsets            - per source, the start of its destinations (numSources + 1 entries)
+    //      [in] targets            - the destination of each edge
+    //
+    public HopcroftKarp(int numSources, int numDestinations, int[] offsets, int[] targets)
+    {
+        if (numSources < 0 || numDestinations < 0 || offsets == null || targets == null ||
+            offsets.length < numSources + 1 || targets.length < offsets[numSources])
+        {
+            throw new IllegalArgumentException();
+        }
+
+        this.numSources      = numSources;
+        this.numDestinations = numDestinations;
+        this.offsets         = offsets;
+        this.targets         = targets;
+
+        this.sourceMate      = new int[numSources];
+        this.destinationMate = new int[numDestinations];
+        this.dist            = new int[numSources];
+        this.currentArc      = new int[numSources];
+        this.queue           = new int[numSources];
+        this.stack           = new int[numSources];
+    }
+
+    //
+    // getName
+    //
+    // Gets a short name for the engine, for reporting.
+    //
+    public String getName()
+    {
+        return "Hopcroft Karp";
+    }
+
+    //
+    // getSourceMates
+    //
+    // Gets the destination matched to each source, -1 if the source is unmatched.
+    //
+    public int[] getSourceMates()
+    {
+        return sourceMate;
+    }
+
+    //
+    // getDestinationMates
+    //
+    // Gets the source matched to each destination, -1 if the destination is unmatched.
+    //
+    public int[] getDestinationMates()
+    {
+        return destinationMate;
+    }
+
+    //
+    // computeMatching
+    //
+    // Computes a maximum matching, starting from an empty matching.
+    //
+    // Returns the number of matched pairs.
+    //
+    public int computeMatching()
+    {
+        return computeMatching(null);
+    }
+
+    //
+    // computeMatching
+    //
+    // Computes a maximum matching, starting from a given matching (a warm start). Only the
+    // augmenting paths still missing from the initial matching are searched for, so a nearly
+    // maximum initial matching needs few phases. Pairs whose destination is out of range or
+    // already taken by an earlier source are left out of the initial matching.
+    //
+    //      [in] initialSourceMates - the destination matched to each source, -1 if unmatched
+    //                                (may be shorter than the number of sources, or null)
+    //
+    // Returns the number of matched pairs.
+    //
+    public int computeMatching(int[] initialSourceMates)
+    {
+        int size = 0;
+
+        for (int i = 0; i < numSources; i++)
+        {
+            sourceMate[i] = -1;
+        }
+
+        for (int i = 0; i < numDestinations; i++)
+        {
+            destinationMate[i] = -1;
+        }
+
+        if (initialSourceMates != null)
+        {
+            for (int u = 0; u < Math.min(numSources, initialSourceMates.length); u++)
+            {
+                int v = initialSourceMates[u];
+
+                if (v >= 0 && v < numDestinations && destinationMate[v] == -1)
+                {
+                    sourceMate[u]      = v;
+                    destinationMate[v] = u;
+                    size++;
+                }
+            }
+        }
+
+        while (_buildLayers())
+        {
+            System.arraycopy(offsets, 0, currentArc, 0, numSources);
+
+            for (int u = 0; u < numSources; u++)
+            {
+                if (sourceMate[u] == -1 && _augment(u))
+                {
+                    size++;
+                }
+            }
+        }
+
+        return size;
+    }
+
+    //
+    // buildLayers
+    //
+    // Performs a breadth-first search from every free source, alternating between unmatched
+    // and matched edges, and labels each source with its layer. The search stops at the first
+    // layer that reaches a free destination.
+    //
+    // Returns whether an augmenting path exists.
+    //
+    private boolean _buildLayers()
+    {
+        int qSize = 0;
+
+        for (int u = 0; u < numSources; u++)
+        {
+            if (sourceMate[u] == -1)
+            {
+                dist[u]        = 0;
+                queue[qSize++] = u;
+            }
+            else
+            {
+                dist[u] = INFINITY;
+            }
+        }
+
+        freeDist = INFINITY;
+
+        for (int i = 0; i < qSize; i++)
+        {
+            int u = queue[i];
+
+            if (dist[u] >= freeDist)
+            {
+                break;
+            }
+
+            for (int arc = offsets[u]; arc < offsets[u + 1]; arc++)
+            {
+                int mate = destinationMate[targets[arc]];
+
+                if (mate == -1)
+                {
+                    freeDist = dist[u];
+                }
+                else if (dist[mate] == INFINITY)
+                {
+                    dist[mate]     = dist[u] + 1;
+                    queue[qSize++] = mate;
+                }
+            }
+        }
+
+        return freeDist != INFINITY;
+    }
+
+    //
+    // augment
+    //
+    // Searches depth-first through the layers for an augmenting path from a free source and
+    // flips the matching along it. Sources that lead nowhere are removed from the layers, and
+    // current-arc pointers only move forward, so each phase costs O(E).
+    //
+    //      [in] root - the free source to start from
+    //
+    // Returns whether an augmenting path was found.
+    //
+    private boolean _augment(int root)
+    {
+        int depth = 0;
+        stack[0] = root;
+
+        while (depth >= 0)
+        {
+            int     u        = stack[depth];
+            int     end      = offsets[u + 1];
+            boolean advanced = false;
+
+            while (currentArc[u] < end)
+            {
+                int v    = targets[currentArc[u]];
+                int mate = destinationMate[v];
+
+                if (mate == -1)
+                {
+                    if (dist[u] == freeDist)
+                    {
+                        //
+                        // Free destination reached: flip the matching along the stack:
+                        //
+                        for (int i = depth; i >= 0; i--)
+                        {
+                            int src = stack[i];
+                            int dst = targets[currentArc[src]];
+
+                            sourceMate[src]      = dst;
+                            destinationMate[dst] = src;
+                        }
+
+                        return true;
+                    }
+                }
+                else if (dist[mate] == dist[u] + 1)
+                {
+                    stack[++depth] = mate;
+                    advanced       = true;
+
+                    break;
+                }
+
+                currentArc[u]++;
+            }
+
+            if (!advanced)
+            {
+                //
+                // Dead end: remove from the layers and retreat:
+                //
+                dist[u] = INFINITY;
+                depth--;
+
+                if (depth >= 0)
+                {
+                    currentArc[stack[depth]]++;
+                }
+            }
+        }
+
+        return false;
+    }
+}
@@ -0,0 +1,331 @@
+//
+// IncrementalGraph.java
+//
+// This class holds a bipartite graph that keeps growing as lines are appended to its input.
+// Unlike a bipartite graph built in one go (see BipartiteGraphBuilder.java), a source that
+// appears again is merged: its new destinations are added to the ones it already has. Each
+// source keeps its edges in a linked list and a hash set of (source, destination) pairs drops
+// repeated edges, so adding a line costs time in proportion to the line, not to the graph.
+// Ids never change once given, so a matching of the graph stays valid as it grows. Each
+// destination also keeps a linked list of its incoming edges, and the sources given new edges
+// are recorded, so a matching can be updated from them alone (see IncrementalMatcher.java).
+//
+// The MIT License (MIT)
+//
+// Copyright (c) 2022 Luke Andrews. All Rights Reserved.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this
+// software and associated documentation files (the "Software"), to deal in the Software
+// without restriction, including without limitation the rights to use, copy, modify, merge,
+// publish, distribute, sub-license, and/or sell copies of the Software, and to permit persons
+// to whom the Software is furnished to do so, subject to the following conditions:
+// 
+// * The above copyright notice and this permission notice shall be included in all copies or
+//   substantial portions of the Software.
+// 
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, 
+// INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+// PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+// FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR 
+// OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+// DEALINGS IN THE SOFTWARE.
+//
+package maxflowalgorithm;
+
+import java.nio.ByteBuffer;
+
+class IncrementalGraph implements EdgeSink
+{
+    private NameDictionary sources      = new NameDictionary();
+    private NameDictionary destinations = new NameDictionary();
+
+    private IntList        firstEdge    = new IntList();    // first edge of each source, -1 if none
+    private IntList        lastEdge     = new IntList();    // last edge of each source, -1 if none
+    private IntList        nextEdge     = new IntList();    // next edge of the same source, -1 at the end
+    private IntList        edgeTarget   = new IntList();    // destination of each edge
+    private IntList        edgeSource   = new IntList();    // source of each edge
+    private IntList        firstInEdge  = new IntList();    // first edge into each destination, -1 if none
+    private IntList        nextInEdge   = new IntList();    // next edge into the same destination, -1 at the end
+
+    private IntList        touched      = new IntList();    // sources given edges since the last takeTouchedSources
+    private IntList        touchedMark  = new IntList();    // 1 for each source in touched, otherwise 0
+
+    private long[]         pairs        = new long[64];     // open addressing set of (source + 1) << 32 | destination, 0 if empty
+    private int            currentSrc   = -1;
+
+    //
+    // getSources
+    //
+    // Gets the source node names.
+    //
+    public NameDictionary getSources()
+    {
+        return sources;
+    }
+
+    //
+    // getDestinations
+    //
+    // Gets the destination node names.
+    //
+    public NameDictionary getDestinations()
+    {
+        return destinations;
+    }
+
+    //
+    // getNumEdges
+    //
+    // Gets the number of distinct edges.
+    //
+    public int getNumEdges()
+    {
+        return edgeTarget.size();
+    }
+
+    //
+    // getFirstEdges
+    //
+    // Gets the first edge of each source, -1 if it has none.
+    //
+    public IntList getFirstEdges()
+    {
+        return firstEdge;
+    }
+
+    //
+    // getNextEdges
+    //
+    // Gets the next edge of the same source after each edge, -1 at the end.
+    //
+    public IntList getNextEdges()
+    {
+        return nextEdge;
+    }
+
+    //
+    // getEdgeTargets
+    //
+    // Gets the destination of each edge.
+    //
+    public IntList getEdgeTargets()
+    {
+        return edgeTarget;
+    }
+
+    //
+    // getEdgeSources
+    //
+    // Gets the source of each edge.
+    //
+    public IntList getEdgeSources()
+    {
+        return edgeSource;
+    }
+
+    //
+    // getFirstInEdges
+    //
+    // Gets the first edge into each destination, -1 if it has none.
+    //
+    public IntList getFirstInEdges()
+    {
+        return firstInEdge;
+    }
+
+    //
+    // getNextInEdges
+    //
+    // Gets the next edge into the same destination after each edge, -1 at the end.
+    //
+    public IntList getNextInEdges()
+    {
+        return nextInEdge;
+    }
+
+    //
+    // takeTouchedSources
+    //
+    // Gets the sources given new edges since the last call, and starts a new record.
+    //
+    // Returns the sources, each listed once.
+    //
+    public int[] takeTouchedSources()
+    {
+        int[] sources = touched.toArray();
+
+        for (int src : sources)
+        {
+            touchedMark.set(src, 0);
+        }
+
+        touched.clear();
+
+        return sources;
+    }
+
+    //
+    // addSource
+    //
+    // Starts the destinations of a source node, new or already known.
+    //
+    //      [in] buffer - the buffer holding the name
+    //      [in] start  - the index of the first byte of the name
+    //      [in] end    - the index just past the last byte of the name
+    //
+    // Returns true, since destinations of repeated sources are merged.
+    //
+    public boolean addSource(ByteBuffer buffer, int start, int end)
+    {
+        currentSrc = sources.intern(buffer, start, end);
+
+        if (currentSrc == firstEdge.size())
+        {
+            firstEdge.add(-1);
+            lastEdge.add(-1);
+            touchedMark.add(0);
+        }
+
+        return true;
+    }
+
+    //
+    // addDestination
+    //
+    // Adds an edge from the current source node to a destination node, unless it already exists.
+    // Followed logs are matched without weights, so the weight is ignored.
+    //
+    //      [in] buffer - the buffer holding the name
+    //      [in] start  - the index of the first byte of the name
+    //      [in] end    - the index just past the last byte of the name
+    //      [in] weight - the weight of the edge (ignored)
+    //
+    public void addDestination(ByteBuffer buffer, int start, int end, int weight)
+    {
+        int dst = destinations.intern(buffer, start, end);
+
+        if (dst == firstInEdge.size())
+        {
+            firstInEdge.add(-1);
+        }
+
+        if (!_addPair(currentSrc, dst))
+        {
+            return;
+        }
+
+        int edge = edgeTarget.size();
+
+        edgeTarget.add(dst);
+        edgeSource.add(currentSrc);
+        nextEdge.add(-1);
+        nextInEdge.add(firstInEdge.get(dst));
+        firstInEdge.set(dst, edge);
+
+        if (touchedMark.get(currentSrc) == 0)
+        {
+            touchedMark.set(currentSrc, 1);
+            touched.add(currentSrc);
+        }
+
+        if (lastEdge.get(currentSrc) == -1)
+        {
+            firstEdge.set(currentSrc, edge);
+        }
+        else
+        {
+            nextEdge.set(lastEdge.get(currentSrc), edge);
+        }
+
+        lastEdge.set(currentSrc, edge);
+    }
+
+    //
+    // toBipartiteGraph
+    //
+    // Lays the edges out as adjacency arrays, in the order they were added per source.
+    // The dictionaries are shared, not copied.
+    //
+    // Returns the bipartite graph.
+    //
+    public BipartiteGraph toBipartiteGraph()
+    {
+        int   numSources = sources.size();
+        int[] offsets    = new int[numSources + 1];
+        int[] targets    = new int[edgeTarget.size()];
+        int   count      = 0;
+
+        for (int u = 0; u < numSources; u++)
+        {
+            offsets[u] = count;
+
+            for (int edge = firstEdge.get(u); edge != -1; edge = nextEdge.get(edge))
+            {
+                targets[count++] = edgeTarget.get(edge);
+            }
+        }
+
+        offsets[numSources] = count;
+
+        return new BipartiteGraph(sources, destinations, offsets, targets);
+    }
+
+    //
+    // addPair
+    //
+    // Adds a (source, destination) pair to the edge set.
+    //
+    //      [in] src - the source id
+    //      [in] dst - the destination id
+    //
+    // Returns whether the pair is new.
+    //
+    private boolean _addPair(int src, int dst)
+    {
+        if (2 * (edgeTarget.size() + 1) > pairs.length)
+        {
+            long[] old = pairs;
+
+            pairs = new long[old.length * 2];
+
+            for (long key : old)
+            {
+                if (key != 0)
+                {
+                    _insert(key);
+                }
+            }
+        }
+
+        return _insert((long) (src + 1) << 32 | dst);
+    }
+
+    //
+    // insert
+    //
+    // Inserts a key into the edge set, which must have a free slot.
+    //
+    //      [in] key - the key, never 0
+    //
+    // Returns whether the key is new.
+    //
+    private boolean _insert(long key)
+    {
+        int mask = pairs.length - 1;
+        int slot = (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+
+        while (pairs[slot] != 0)
+        {
+            if (pairs[slot] == key)
+            {
+                return false;
+            }
+
+            slot = (slot + 1) & mask;
+        }
+
+        pairs[slot] = key;
+
+        return true;
+    }
+}
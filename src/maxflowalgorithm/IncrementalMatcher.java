@@ -0,0 +1,445 @@
+//
+// IncrementalMatcher.java
+//
+// This class keeps a maximum matching of a growing bipartite graph (see IncrementalGraph.java)
+// up to date as edges are added, without rebuilding the graph. A matching that was maximum
+// before the new edges can only be improved by an augmenting path that uses a new edge, so
+// only the free sources whose alternating trees reach a source with new edges are searched
+// from, depth first over the graph's edge lists. Searches that fail share what they have
+// visited, and a source without an augmenting path keeps having none after augmentations
+// elsewhere, so the work per read is bounded by the part of the graph those trees cover. When
+// the new edges touch a large part of the graph, as on the first read of a log, one Hopcroft
+// Karp pass over the whole graph (see HopcroftKarp.java) is cheaper and is used instead.
+//
+// The MIT License (MIT)
+//
+// Copyright (c) 2022 Luke Andrews. All Rights Reserved.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this
+// software and associated documentation files (the "Software"), to deal in the Software
+// without restriction, including without limitation the rights to use, copy, modify, merge,
+// publish, distribute, sub-license, and/or sell copies of the Software, and to permit persons
+// to whom the Software is furnished to do so, subject to the following conditions:
+// 
+// * The above copyright notice and this permission notice shall be included in all copies or
+//   substantial portions of the Software.
+// 
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, 
+// INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+// PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+// FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR 
+// OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+// DEALINGS IN THE SOFTWARE.
+//
+package maxflowalgorithm;
+
+import java.util.Arrays;
+
+class IncrementalMatcher
+{
+    private static final int FULL_SOLVE_FRACTION = 4;   // touching more than 1 / this of the sources solves in full
+
+    private IncrementalGraph graph;
+    private int              size;
+
+    private IntList          sourceMate       = new IntList();        // destination matched to each source, -1 if free
+    private IntList          destinationMate  = new IntList();        // source matched to each destination, -1 if free
+    private IntList          freeSources      = new IntList();        // every free source, and some since matched
+
+    private int[]            sourceSeen       = new int[0];           // last search stamp each source was reached with
+    private int[]            sourceReached    = new int[0];           // the same, for the forward walk of findCandidates()
+    private int[]            destinationSeen  = new int[0];           // last search stamp each destination was reached with
+    private int              stamp;
+    private int[]            stackSource      = new int[0];           // sources on the current search path
+    private int[]            stackDestination = new int[0];           // destination taken from each source on the path
+    private int[]            stackEdge        = new int[0];           // next edge to try at each source on the path
+
+    //
+    // Overloaded constructor.
+    //
+    // Constructs with the graph to match, starting from an empty matching.
+    //
+    //      [in] graph - the growing graph
+    //
+    public IncrementalMatcher(IncrementalGraph graph)
+    {
+        if (graph == null)
+        {
+            throw new IllegalArgumentException();
+        }
+
+        this.graph = graph;
+    }
+
+    //
+    // getNumMatches
+    //
+    // Gets the number of matched pairs.
+    //
+    public int getNumMatches()
+    {
+        return size;
+    }
+
+    //
+    // getSourceMates
+    //
+    // Gets a copy of the destination matched to each source, -1 if the source is unmatched.
+    //
+    public int[] getSourceMates()
+    {
+        return sourceMate.toArray();
+    }
+
+    //
+    // update
+    //
+    // Brings the matching up to date with the edges added since the last call.
+    //
+    // Returns the number of matched pairs.
+    //
+    public int update()
+    {
+        int[] touched = graph.takeTouchedSources();
+
+        _grow();
+
+        if (touched.length == 0)
+        {
+            return size;
+        }
+
+        if ((long) touched.length * FULL_SOLVE_FRACTION > sourceMate.size())
+        {
+            _solveFull();
+
+            return size;
+        }
+
+        IntList candidates = _findCandidates(touched);
+
+        //
+        // Search from each of them in passes. Within a pass the stamps are shared, so a
+        // destination reached by a failed search is not tried again; a failed source is only
+        // given up once a whole pass leaves the matching unchanged:
+        //
+        while (candidates.size() > 0)
+        {
+            IntList failed = new IntList();
+
+            _newStamp();
+
+            for (int i = 0; i < candidates.size(); i++)
+            {
+                int u = candidates.get(i);
+
+                if (sourceMate.get(u) != -1)
+                {
+                    continue;
+                }
+
+                if (_augment(u))
+                {
+                    size++;
+                }
+                else
+                {
+                    failed.add(u);
+                }
+            }
+
+            if (failed.size() == candidates.size())
+            {
+                break;
+            }
+
+            candidates = failed;
+        }
+
+        return size;
+    }
+
+    //
+    // findCandidates
+    //
+    // Finds the free sources an augmenting path through a new edge could start from. Such a
+    // path reaches a touched source along an alternating path from a free source, so the
+    // sources are found either by walking backward from the touched sources (from a matched
+    // source to every source with an edge into its mate) or by walking forward from all the
+    // free sources (from a source over its edges to the mates of their destinations). The two
+    // walks take turns and the first to finish decides, since either may cover most of the
+    // graph while the other stays small.
+    //
+    //      [in] touched - the sources that gained edges
+    //
+    // Returns the free sources to search from.
+    //
+    private IntList _findCandidates(int[] touched)
+    {
+        IntList backward   = new IntList();
+        IntList forward    = new IntList();
+        IntList candidates = new IntList();
+        IntList firstIn    = graph.getFirstInEdges();
+        IntList nextIn     = graph.getNextInEdges();
+        IntList edgeSource = graph.getEdgeSources();
+        IntList firstEdge  = graph.getFirstEdges();
+        IntList nextEdge   = graph.getNextEdges();
+        IntList edgeTarget = graph.getEdgeTargets();
+        IntList free       = new IntList();
+
+        _newStamp();
+
+        for (int u : touched)
+        {
+            sourceSeen[u] = stamp;
+            backward.add(u);
+        }
+
+        for (int i = 0; i < freeSources.size(); i++)
+        {
+            int u = freeSources.get(i);
+
+            if (sourceMate.get(u) == -1)
+            {
+                sourceReached[u] = stamp;
+                free.add(u);
+                forward.add(u);
+            }
+        }
+
+        freeSources = free;
+
+        for (int b = 0, f = 0; ; b++, f++)
+        {
+            //
+            // The backward walk is done: the free sources it met are the candidates:
+            //
+            if (b == backward.size())
+            {
+                return candidates;
+            }
+
+            //
+            // The forward walk is done: every free source is a candidate if it met a touched
+            // source, and none is otherwise:
+            //
+            if (f == forward.size())
+            {
+                for (int u : touched)
+                {
+                    if (sourceReached[u] == stamp)
+                    {
+                        return free;
+                    }
+                }
+
+                return new IntList();
+            }
+
+            int u = backward.get(b);
+            int v = sourceMate.get(u);
+
+            if (v == -1)
+            {
+                candidates.add(u);
+            }
+            else
+            {
+                for (int edge = firstIn.get(v); edge != -1; edge = nextIn.get(edge))
+                {
+                    int w = edgeSource.get(edge);
+
+                    if (sourceSeen[w] != stamp)
+                    {
+                        sourceSeen[w] = stamp;
+                        backward.add(w);
+                    }
+                }
+            }
+
+            u = forward.get(f);
+
+            for (int edge = firstEdge.get(u); edge != -1; edge = nextEdge.get(edge))
+            {
+                v = edgeTarget.get(edge);
+
+                if (destinationSeen[v] != stamp)
+                {
+                    int w = destinationMate.get(v);
+
+                    //
+                    // A free destination was reached, so there is an augmenting path:
+                    //
+                    if (w == -1)
+                    {
+                        return free;
+                    }
+
+                    destinationSeen[v] = stamp;
+
+                    if (sourceReached[w] != stamp)
+                    {
+                        sourceReached[w] = stamp;
+                        forward.add(w);
+                    }
+                }
+            }
+        }
+    }
+
+    //
+    // grow
+    //
+    // Extends the per-node arrays to the current number of sources and destinations.
+    //
+    private void _grow()
+    {
+        int numSources      = graph.getSources().size();
+        int numDestinations = graph.getDestinations().size();
+
+        while (sourceMate.size() < numSources)
+        {
+            freeSources.add(sourceMate.size());
+            sourceMate.add(-1);
+        }
+
+        while (destinationMate.size() < numDestinations)
+        {
+            destinationMate.add(-1);
+        }
+
+        if (sourceSeen.length < numSources)
+        {
+            int capacity = Math.max(numSources, 2 * sourceSeen.length);
+
+            sourceSeen       = Arrays.copyOf(sourceSeen, capacity);
+            sourceReached    = Arrays.copyOf(sourceReached, capacity);
+            stackSource      = new int[capacity + 1];
+            stackDestination = new int[capacity + 1];
+            stackEdge        = new int[capacity + 1];
+        }
+
+        if (destinationSeen.length < numDestinations)
+        {
+            destinationSeen = Arrays.copyOf(destinationSeen, Math.max(numDestinations, 2 * destinationSeen.length));
+        }
+    }
+
+    //
+    // newStamp
+    //
+    // Starts a new search stamp (clearing the stamps only on wrap around).
+    //
+    private void _newStamp()
+    {
+        if (++stamp == Integer.MAX_VALUE)
+        {
+            Arrays.fill(sourceSeen, 0);
+            Arrays.fill(sourceReached, 0);
+            Arrays.fill(destinationSeen, 0);
+
+            stamp = 1;
+        }
+    }
+
+    //
+    // augment
+    //
+    // Searches depth-first for an augmenting path from a free source, without recursion, and
+    // flips the matching along it if one is found. Destinations already reached with the
+    // current stamp are skipped.
+    //
+    //      [in] root - the free source
+    //
+    // Returns whether the matching grew.
+    //
+    private boolean _augment(int root)
+    {
+        IntList firstEdge  = graph.getFirstEdges();
+        IntList nextEdge   = graph.getNextEdges();
+        IntList edgeTarget = graph.getEdgeTargets();
+        int     depth      = 0;
+
+        stackSource[0] = root;
+        stackEdge[0]   = firstEdge.get(root);
+
+        while (depth >= 0)
+        {
+            int edge = stackEdge[depth];
+
+            while (edge != -1 && destinationSeen[edgeTarget.get(edge)] == stamp)
+            {
+                edge = nextEdge.get(edge);
+            }
+
+            //
+            // Dead end: retreat to the previous source:
+            //
+            if (edge == -1)
+            {
+                depth--;
+
+                continue;
+            }
+
+            int v = edgeTarget.get(edge);
+            int w = destinationMate.get(v);
+
+            stackEdge[depth]        = nextEdge.get(edge);
+            stackDestination[depth] = v;
+            destinationSeen[v]      = stamp;
+
+            if (w == -1)
+            {
+                for (int d = 0; d <= depth; d++)
+                {
+                    sourceMate.set(stackSource[d], stackDestination[d]);
+                    destinationMate.set(stackDestination[d], stackSource[d]);
+                }
+
+                return true;
+            }
+
+            depth++;
+            stackSource[depth] = w;
+            stackEdge[depth]   = firstEdge.get(w);
+        }
+
+        return false;
+    }
+
+    //
+    // solveFull
+    //
+    // Recomputes the matching with one Hopcroft Karp pass over the whole graph, starting from
+    // the current matching.
+    //
+    private void _solveFull()
+    {
+        BipartiteGraph current = graph.toBipartiteGraph();
+        HopcroftKarp   matcher = new HopcroftKarp(current.getNumSources(), current.getNumDestinations(),
+                                                  current.getOffsets(), current.getTargets());
+
+        size = matcher.computeMatching(sourceMate.toArray());
+
+        int[] sourceMates      = matcher.getSourceMates();
+        int[] destinationMates = matcher.getDestinationMates();
+
+        freeSources = new IntList();
+
+        for (int u = 0; u < sourceMates.length; u++)
+        {
+            sourceMate.set(u, sourceMates[u]);
+
+            if (sourceMates[u] == -1)
+            {
+                freeSources.add(u);
+            }
+        }
+
+        for (int v = 0; v < destinationMates.length; v++)
+        {
+            destinationMate.set(v, destinationMates[v]);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+//
+// IntList.java
+//
+// This class is a growable list of ints backed by a plain array, so building large
+// adjacency arrays does not box every entry the way a List<Integer> would.
+//
+// The MIT License (MIT)
+//
+// Copyright (c) 2022 Luke Andrews. All Rights Reserved.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this
+// software and associated documentation files (the "Software"), to deal in the Software
+// without restriction, including without limitation the rights to use, copy, modify, merge,
+// publish, distribute, sub-license, and/or sell copies of the Software, and to permit persons
+// to whom the Software is furnished to do so, subject to the following conditions:
+// 
+// * The above copyright notice and this permission notice shall be included in all copies or
+//   substantial portions of the Software.
+// 
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, 
+// INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+// PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+// FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR 
+// OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+// DEALINGS IN THE SOFTWARE.
+//
+package maxflowalgorithm;
+
+class IntList
+{
+    private int[] values;
+    private int   size;
+
+    //
+    // Default constructor.
+    //
+    public IntList()
+    {
+        this(16);
+    }
+
+    //
+    // Overloaded constructor.
+    //
+    // Constructs with an initial capacity.
+    //
+    //      [in] capacity - the number of values to make room for
+    //
+    public IntList(int capacity)
+    {
+        this.values = new int[Math.max(capacity, 1)];
+    }
+
+    //
+    // size
+    //
+    // Gets the number of values.
+    //
+    public int size()
+    {
+        return size;
+    }
+
+    //
+    // get
+    //
+    // Gets the value at a given position.
+    //
+    //      [in] index - the position
+    //
+    // Returns the value.
+    //
+    public int get(int index)
+    {
+        return values[index];
+    }
+
+    //
+    // set
+    //
+    // Replaces the value at a given position.
+    //
+    //      [in] index - the position
+    //      [in] value - the new value
+    //
+    public void set(int index, int value)
+    {
+        values[index] = value;
+    }
+
+    //
+    // add
+    //
+    // Appends a value.
+    //
+    //      [in] value - the value
+    //
+    public void add(int value)
+    {
+        if (size == values.length)
+        {
+            values = java.util.Arrays.copyOf(values, size * 2);
+        }
+
+        values[size++] = value;
+    }
+
+    //
+    // clear
+    //
+    // Removes all values, keeping the allocated capacity.
+    //
+    public void clear()
+    {
+        size = 0;
+    }
+
+    //
+    // truncate
+    //
+    // Removes the values from an index on, keeping the allocated capacity.
+    //
+    //      [in] size - the number of values to keep
+    //
+    public void truncate(int size)
+    {
+        if (size < 0 || size > this.size)
+        {
+            throw new IndexOutOfBoundsException(Integer.toString(size));
+        }
+
+        this.size = size;
+    }
+
+    //
+    // toArray
+    //
+    // Copies the values into an array of exactly the right length.
+    //
+    // Returns the array.
+    //
+    public int[] toArray()
+    {
+        return java.util.Arrays.copyOf(values, size);
+    }
+}
@@ -0,0 +1,242 @@
+//
+// KarpSipser.java
+//
+// This class finds a large initial matching of a bipartite graph in linear time, to warm
+// start the Hopcroft Karp algorithm (see HopcroftKarp.java). It follows the Karp Sipser rules:
+// while some unmatched vertex has exactly one unmatched neighbour, that pair is matched, which
+// never loses a maximum matching; otherwise an unmatched source is matched to its first
+// unmatched neighbour. Matching a vertex lowers the degree of its neighbours, which can create
+// new degree one vertices. Each vertex is matched at most once and each edge is looked at a
+// constant number of times, so the whole pass is O(V + E).
+//
+// The MIT License (MIT)
+//
+// Copyright (c) 2022 Luke Andrews. All Rights Reserved.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this
+// software and associated documentation files (the "Software"), to deal in the Software
+// without restriction, including without limitation the rights to use, copy, modify, merge,
+// publish, distribute, sub-license, and/or sell copies of the Software, and to permit persons
+// to whom the Software is furnished to do so, subject to the following conditions:
+// 
+// * The above copyright notice and this permission notice shall be included in all copies or
+//   substantial portions of the Software.
+// 
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, 
+// INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+// PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+// FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR 
+// OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+// DEALINGS IN THE SOFTWARE.
+//
+package maxflowalgorithm;
+
+class KarpSipser
+{
+    //
+    // computeMatching
+    //
+    // Computes an initial matching of a bipartite graph given as adjacency arrays.
+    //
+    //      [in] numSources         - the number of source nodes
+    //      [in] numDestinations    - the number of destination nodes
+    //      [in] offsets            - per source, the start of its destinations (numSources + 1 entries)
+    //      [in] targets            - the destination of each edge
+    //
+    // Returns the destination matched to each source, -1 if unmatched.
+    //
+    public static int[] computeMatching(int numSources, int numDestinations, int[] offsets, int[] targets)
+    {
+        int numEdges = offsets[numSources];
+
+        //
+        // Build the adjacency arrays from destinations back to sources:
+        //
+        int[] dstOffsets = new int[numDestinations + 1];
+        int[] dstSources = new int[numEdges];
+
+        for (int arc = 0; arc < numEdges; arc++)
+        {
+            dstOffsets[targets[arc] + 1]++;
+        }
+
+        for (int v = 0; v < numDestinations; v++)
+        {
+            dstOffsets[v + 1] += dstOffsets[v];
+        }
+
+        int[] cursor = java.util.Arrays.copyOf(dstOffsets, numDestinations);
+
+        for (int u = 0; u < numSources; u++)
+        {
+            for (int arc = offsets[u]; arc < offsets[u + 1]; arc++)
+            {
+                dstSources[cursor[targets[arc]]++] = u;
+            }
+        }
+
+        //
+        // Vertices are numbered sources first, then destinations. Degrees count edges to
+        // unmatched vertices:
+        //
+        int   numVertices = numSources + numDestinations;
+        int[] degree      = new int[numVertices];
+        int[] mate        = new int[numVertices];
+        int[] queue       = new int[numVertices];
+        int   head        = 0;
+        int   tail        = 0;
+
+        java.util.Arrays.fill(mate, -1);
+
+        for (int u = 0; u < numSources; u++)
+        {
+            degree[u] = offsets[u + 1] - offsets[u];
+        }
+
+        for (int v = 0; v < numDestinations; v++)
+        {
+            degree[numSources + v] = dstOffsets[v + 1] - dstOffsets[v];
+        }
+
+        for (int x = 0; x < numVertices; x++)
+        {
+            if (degree[x] == 1)
+            {
+                queue[tail++] = x;
+            }
+        }
+
+        int nextSource = 0; // sources below this one have been tried by the greedy rule
+
+        while (true)
+        {
+            int x;
+
+            //
+            // Degree one rule first, then the greedy rule:
+            //
+            if (head < tail)
+            {
+                x = queue[head++];
+
+                if (mate[x] != -1 || degree[x] != 1)
+                {
+                    continue;
+                }
+            }
+            else
+            {
+                while (nextSource < numSources && (mate[nextSource] != -1 || degree[nextSource] == 0))
+                {
+                    nextSource++;
+                }
+
+                if (nextSource == numSources)
+                {
+                    break;
+                }
+
+                x = nextSource;
+            }
+
+            int y = _firstUnmatchedNeighbour(x, numSources, offsets, targets, dstOffsets, dstSources, mate);
+
+            mate[x] = y;
+            mate[y] = x;
+
+            tail = _removeVertex(x, numSources, offsets, targets, dstOffsets, dstSources, mate, degree, queue, tail);
+            tail = _removeVertex(y, numSources, offsets, targets, dstOffsets, dstSources, mate, degree, queue, tail);
+        }
+
+        int[] sourceMates = new int[numSources];
+
+        for (int u = 0; u < numSources; u++)
+        {
+            sourceMates[u] = mate[u] == -1 ? -1 : mate[u] - numSources;
+        }
+
+        return sourceMates;
+    }
+
+    //
+    // firstUnmatchedNeighbour
+    //
+    // Finds the first unmatched neighbour of a vertex, which must have one.
+    //
+    //      [in] x              - the vertex
+    //      [in] numSources     - the number of source nodes
+    //      [in] offsets        - the source adjacency offsets
+    //      [in] targets        - the source adjacency targets
+    //      [in] dstOffsets     - the destination adjacency offsets
+    //      [in] dstSources     - the destination adjacency sources
+    //      [in] mate           - the vertex matched to each vertex, -1 if unmatched
+    //
+    // Returns the neighbour, numbered like x.
+    //
+    private static int _firstUnmatchedNeighbour(int x, int numSources, int[] offsets, int[] targets,
+                                                int[] dstOffsets, int[] dstSources, int[] mate)
+    {
+        if (x < numSources)
+        {
+            for (int arc = offsets[x]; arc < offsets[x + 1]; arc++)
+            {
+                if (mate[numSources + targets[arc]] == -1)
+                {
+                    return numSources + targets[arc];
+                }
+            }
+        }
+        else
+        {
+            int v = x - numSources;
+
+            for (int arc = dstOffsets[v]; arc < dstOffsets[v + 1]; arc++)
+            {
+                if (mate[dstSources[arc]] == -1)
+                {
+                    return dstSources[arc];
+                }
+            }
+        }
+
+        throw new IllegalStateException();
+    }
+
+    //
+    // removeVertex
+    //
+    // Lowers the degree of every neighbour of a vertex that has just been matched, queuing
+    // unmatched neighbours whose degree drops to one.
+    //
+    //      [in] x              - the matched vertex
+    //      [in] numSources     - the number of source nodes
+    //      [in] offsets        - the source adjacency offsets
+    //      [in] targets        - the source adjacency targets
+    //      [in] dstOffsets     - the destination adjacency offsets
+    //      [in] dstSources     - the destination adjacency sources
+    //      [in] mate           - the vertex matched to each vertex, -1 if unmatched
+    //      [in] degree         - the number of edges to unmatched vertices of each vertex
+    //      [in] queue          - the queue of degree one vertices
+    //      [in] tail           - the end of the queue
+    //
+    // Returns the new end of the queue.
+    //
+    private static int _removeVertex(int x, int numSources, int[] offsets, int[] targets, int[] dstOffsets,
+                                     int[] dstSources, int[] mate, int[] degree, int[] queue, int tail)
+    {
+        int start = x < numSources ? offsets[x] : dstOffsets[x - numSources];
+        int end   = x < numSources ? offsets[x + 1] : dstOffsets[x - numSources + 1];
+
+        for (int arc = start; arc < end; arc++)
+        {
+            int z = x < numSources ? numSources + targets[arc] : dstSources[arc];
+
+            if (mate[z] == -1 && --degree[z] == 1)
+            {
+                queue[tail++] = z;
+            }
+        }
+
+        return tail;
+    }
+}
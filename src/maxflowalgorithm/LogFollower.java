@@ -0,0 +1,248 @@
+//
+// LogFollower.java
+//
+// This class follows an append-only input log in the "src>dst1,dst2,..." format. It remembers
+// the byte offset it has consumed up to, and each time the log grows it parses only the new
+// complete lines into a growing graph (see IncrementalGraph.java), where repeated sources are
+// merged instead of ignored. The maximum matching is kept between reads and only searched for
+// augmenting paths through the new edges (see IncrementalMatcher.java), so no read rebuilds the
+// graph. A line still being written is left for the next read.
+//
+// The MIT License (MIT)
+//
+// Copyright (c) 2022 Luke Andrews. All Rights Reserved.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this
+// software and associated documentation files (the "Software"), to deal in the Software
+// without restriction, including without limitation the rights to use, copy, modify, merge,
+// publish, distribute, sub-license, and/or sell copies of the Software, and to permit persons
+// to whom the Software is furnished to do so, subject to the following conditions:
+// 
+// * The above copyright notice and this permission notice shall be included in all copies or
+//   substantial portions of the Software.
+// 
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, 
+// INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+// PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+// FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR 
+// OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+// DEALINGS IN THE SOFTWARE.
+//
+package maxflowalgorithm;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+
+class LogFollower
+{
+    private static final int WINDOW_SIZE = 1 << 30;   // largest mapping, well under the 2 GB limit
+
+    private File               inputFile;
+    private long               offset;                // bytes consumed so far, always at a line start
+    private IncrementalGraph   graph   = new IncrementalGraph();
+    private IncrementalMatcher matcher = new IncrementalMatcher(graph);
+    private int                maxFlow;
+
+    //
+    // Overloaded constructor.
+    //
+    // Constructs with the log to follow. Nothing is read until ingest() is called.
+    //
+    //      [in] inputFile - the input log
+    //
+    public LogFollower(File inputFile)
+    {
+        if (inputFile == null)
+        {
+            throw new IllegalArgumentException();
+        }
+
+        this.inputFile = inputFile;
+    }
+
+    //
+    // getOffset
+    //
+    // Gets the number of bytes of the log consumed so far.
+    //
+    public long getOffset()
+    {
+        return offset;
+    }
+
+    //
+    // getMaxFlow
+    //
+    // Gets the size of the matching found by the last call to solve().
+    //
+    public int getMaxFlow()
+    {
+        return maxFlow;
+    }
+
+    //
+    // getGraph
+    //
+    // Gets a compressed copy of the graph read so far. This rebuilds the graph on every call.
+    //
+    public BipartiteGraph getGraph()
+    {
+        return graph.toBipartiteGraph();
+    }
+
+    //
+    // getSourceMates
+    //
+    // Gets the destination matched to each source by the last call to solve(), -1 if unmatched.
+    //
+    public int[] getSourceMates()
+    {
+        return matcher.getSourceMates();
+    }
+
+    //
+    // ingest
+    //
+    // Parses the complete lines appended to the log since the last call.
+    //
+    // Returns the number of bytes consumed.
+    //
+    public long ingest() throws IOException
+    {
+        long start = offset;
+
+        try (FileChannel channel = FileChannel.open(inputFile.toPath(), StandardOpenOption.READ))
+        {
+            long size = channel.size();
+
+            if (size < offset)
+            {
+                throw new IOException("Input log was truncated: " + inputFile);
+            }
+
+            while (offset < size)
+            {
+                int        length = (int) Math.min(WINDOW_SIZE, size - offset);
+                ByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+                int        end    = length;
+
+                while (end > 0 && window.get(end - 1) != '\n')
+                {
+                    end--;
+                }
+
+                if (end == 0)
+                {
+                    if (length == WINDOW_SIZE)
+                    {
+                        throw new IOException("Line longer than " + WINDOW_SIZE + " bytes at offset " + offset);
+                    }
+
+                    break;
+                }
+
+                MappedParser.parseLines(window, 0, end, graph);
+
+                offset += end;
+            }
+        }
+
+        return offset - start;
+    }
+
+    //
+    // solve
+    //
+    // Brings the maximum matching up to date with the lines ingested since the last call.
+    //
+    // Returns the number of matched pairs.
+    //
+    public int solve()
+    {
+        maxFlow = matcher.update();
+
+        return maxFlow;
+    }
+
+    //
+    // follow
+    //
+    // Polls the log until interrupted. Whenever new lines have been appended, ingests them,
+    // re-solves, prints a status line and, if an output file is given, rewrites it with the
+    // answer (see MatchWriter.java).
+    //
+    //      [in] pollMillis - the time to wait between polls
+    //      [in] outputFile - the file to write each answer to, or null
+    //
+    public void follow(long pollMillis, File outputFile) throws IOException
+    {
+        boolean first = true;
+
+        while (!Thread.currentThread().isInterrupted())
+        {
+            long start = System.nanoTime();
+            long read  = ingest();
+
+            if (read > 0 || first)
+            {
+                solve();
+
+                if (outputFile != null)
+                {
+                    _writeAnswer(outputFile);
+                }
+
+                System.out.println("Read " + read + " bytes (" + offset + " in total): " +
+                                   graph.getSources().size() + " sources, " +
+                                   graph.getDestinations().size() + " destinations, " +
+                                   graph.getNumEdges() + " edges, Max Flow " + maxFlow +
+                                   " (" + (System.nanoTime() - start) / 1000000 + " ms)");
+
+                first = false;
+            }
+
+            try
+            {
+                Thread.sleep(pollMillis);
+            }
+            catch (InterruptedException ex)
+            {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    //
+    // writeAnswer
+    //
+    // Writes the last answer to a file, replacing it. The answer is written to a temporary
+    // file in the same directory first and then moved over the output file, so a reader never
+    // sees a partly written answer.
+    //
+    //      [in] outputFile - the output file
+    //
+    private void _writeAnswer(File outputFile) throws IOException
+    {
+        Path target = outputFile.toPath().toAbsolutePath();
+        Path temp   = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+
+        try
+        {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE))
+            {
+                MatchWriter writer = new MatchWriter(channel);
+
+                writer.writeAnswer(graph.getSources(), graph.getDestinations(), maxFlow, matcher.getSourceMates(), false);
+                writer.flush();
+            }
+
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        }
+        finally
+        {
+            Files.deleteIfExists(temp);
+        }
+    }
+}
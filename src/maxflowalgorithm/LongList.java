@@ -1,8 +1,8 @@
 //
-// Node.java
+// LongList.java
 //
-// This class describes a node of a graph with a reference to the edge it belongs to and
-// a reference to the next node it connects to.
+// This class is a growable list of longs backed by a plain array, the 64-bit counterpart of
+// IntList (see IntList.java), used to collect capacities before the graph is built.
 //
 // The MIT License (MIT)
 //
@@ -26,69 +26,81 @@
 //
 package maxflowalgorithm;
 
-class Node
+class LongList
 {
-    public Edge value;
-    public Node next;
+    private long[] values;
+    private int    size;
 
-    //
-    // Node
     //
     // Default constructor.
     //
-    public Node()
+    public LongList()
     {
-        value = null;
-        next  = null;
+        this(16);
     }
-    
+
+    //
+    // Overloaded constructor.
     //
-    // Node
+    // Constructs with an initial capacity.
     //
-    // Overloaded constructor. Constructs with a given edge.
+    //      [in] capacity - the number of values to make room for
     //
-    public Node(Edge value)
+    public LongList(int capacity)
     {
-        this.value = value;
-        this.next  = null;
+        this.values = new long[Math.max(capacity, 1)];
     }
-    
+
     //
-    // Node
+    // size
     //
-    // Overloaded constructor. Constructs with a given edge and next node.
+    // Gets the number of values.
     //
-    public Node(Edge value, Node next)
+    public int size()
     {
-        this.value = value; 
-        this.next  = next;
+        return size;
     }
-    
+
+    //
+    // get
     //
-    // toString
+    // Gets the value at a given position.
     //
-    // Converts the node to a string value of format "Edge.toString NextEdge.toString ...".
-    // See Edge.toString for more details.
+    //      [in] index - the position
     //
-    // Returns the string.
+    // Returns the value.
     //
-    public String toString()
+    public long get(int index)
     {
-        StringBuilder ret  = new StringBuilder();
-        Node          curr = this;
-        
-        while (curr != null)
+        return values[index];
+    }
+
+    //
+    // add
+    //
+    // Appends a value.
+    //
+    //      [in] value - the value
+    //
+    public void add(long value)
+    {
+        if (size == values.length)
         {
-            ret.append(curr.value);
-            
-            if (curr.next != null) 
-            {
-                ret.append(" ");
-            }
-            
-            curr = curr.next;
+            values = java.util.Arrays.copyOf(values, size * 2);
         }
-        
-        return ret.toString();
+
+        values[size++] = value;
+    }
+
+    //
+    // toArray
+    //
+    // Copies the values into an array of exactly the right length.
+    //
+    // Returns the array.
+    //
+    public long[] toArray()
+    {
+        return java.util.Arrays.copyOf(values, size);
     }
-}
\ No newline at end of file
+}
@@ -1,7 +1,9 @@
 //
-// Edge.java
+// LongMaxFlowSolver.java
 //
-// This class describes an edge of a graph with a start and end node ID.
+// This interface describes an engine that computes a maximum flow of a sparse graph with
+// 64-bit capacities (see LongSparseGraph.java). It is the counterpart of MaxFlowSolver for
+// networks whose capacities, or whose total flow, do not fit in an int.
 //
 // The MIT License (MIT)
 //
@@ -25,31 +27,25 @@
 //
 package maxflowalgorithm;
 
-class Edge
+interface LongMaxFlowSolver
 {
-    public int startNodeId;
-    public int endNodeId;
-    
     //
-    // Edge
+    // getName
     //
-    // Overloaded constructor. Constructs with a given start and end node ID.
+    // Gets a short name for the engine, for reporting.
     //
-    public Edge(int startNodeId, int endNodeId)
-    {
-        this.startNodeId = startNodeId;
-        this.endNodeId   = endNodeId;
-    }
-    
+    String getName();
+
+    //
+    // computeMaxFlow
     //
-    // toString
+    // Computes the maximum flow of a sparse graph with 64-bit capacities, starting from no flow.
     //
-    // Converts the edge to a string value of format "startNodeID-->endNodeID".
+    //      [in] graph      - the sparse graph, whose residual capacities receive the flow
+    //      [in] source     - the index of source node
+    //      [in] sink       - the index of the sink node
     //
-    // Returns the string.
+    // Returns the maximum flow.
     //
-    public String toString()
-    {
-        return startNodeId + "-->" + endNodeId;
-    }
+    long computeMaxFlow(LongSparseGraph graph, int source, int sink);
 }
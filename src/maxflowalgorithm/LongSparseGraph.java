@@ -0,0 +1,340 @@
+//
+// LongSparseGraph.java
+//
+// This class describes a weighted graph stored in compressed sparse row (CSR) form with 64-bit
+// capacities. It has the same layout as SparseGraph (see SparseGraph.java), but capacities and
+// residual capacities are held in primitive long arrays, so flows whose totals exceed the range
+// of an int can be computed. Graphs whose capacities and totals fit in an int should keep using
+// SparseGraph, which needs half the memory for them.
+//
+// The MIT License (MIT)
+//
+// Copyright (c) 2022 Luke Andrews. All Rights Reserved.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this
+// software and associated documentation files (the "Software"), to deal in the Software
+// without restriction, including without limitation the rights to use, copy, modify, merge,
+// publish, distribute, sub-license, and/or sell copies of the Software, and to permit persons
+// to whom the Software is furnished to do so, subject to the following conditions:
+//
+// * The above copyright notice and this permission notice shall be included in all copies or
+//   substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+// INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+// PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+// FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+// OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+// DEALINGS IN THE SOFTWARE.
+//
+package maxflowalgorithm;
+
+class LongSparseGraph implements ResidualNetwork
+{
+    private int    numNodes;
+    private int    numArcs;
+
+    private int[]  firstArc;    // arcs leaving node u are firstArc[u] .. firstArc[u + 1] - 1
+    private int[]  arcHead;     // node each arc points to
+    private int[]  arcReverse;  // index of the paired arc running the opposite way
+    private long[] arcCapacity; // capacity of forward arcs, 0 for reverse arcs
+    private long[] arcResidual; // remaining capacity of each arc
+
+    //
+    // Overloaded constructor.
+    //
+    // Constructs from a list of edges given as parallel arrays. Edges with a capacity of 0
+    // are treated as absent. Each remaining edge becomes a forward arc and a reverse arc.
+    //
+    //      [in] numNodes       - the number of nodes in the graph
+    //      [in] tails          - the start node of each edge
+    //      [in] heads          - the end node of each edge
+    //      [in] capacities     - the capacity of each edge
+    //      [in] numEdges       - the number of entries to read from the edge arrays
+    //
+    public LongSparseGraph(int numNodes, int[] tails, int[] heads, long[] capacities, int numEdges)
+    {
+        if (numNodes < 0 || numEdges < 0 ||
+            tails.length < numEdges || heads.length < numEdges || capacities.length < numEdges)
+        {
+            throw new IllegalArgumentException();
+        }
+
+        //
+        // Count the arcs leaving each node (one forward arc at the tail, one reverse arc at the head):
+        //
+        int[] degree = new int[numNodes + 1];
+        int   count  = 0;
+
+        for (int i = 0; i < numEdges; i++)
+        {
+            int tail = tails[i];
+            int head = heads[i];
+
+            if (tail < 0 || tail >= numNodes || head < 0 || head >= numNodes || capacities[i] < 0)
+            {
+                throw new IllegalArgumentException();
+            }
+
+            if (capacities[i] > 0)
+            {
+                degree[tail]++;
+                degree[head]++;
+                count += 2;
+            }
+        }
+
+        this.numNodes    = numNodes;
+        this.numArcs     = count;
+        this.firstArc    = new int[numNodes + 1];
+        this.arcHead     = new int[count];
+        this.arcReverse  = new int[count];
+        this.arcCapacity = new long[count];
+        this.arcResidual = new long[count];
+
+        for (int u = 0; u < numNodes; u++)
+        {
+            firstArc[u + 1] = firstArc[u] + degree[u];
+        }
+
+        //
+        // Place each forward arc and its reverse arc, reusing degree[] as the insertion cursor:
+        //
+        for (int u = 0; u < numNodes; u++)
+        {
+            degree[u] = firstArc[u];
+        }
+
+        for (int i = 0; i < numEdges; i++)
+        {
+            if (capacities[i] == 0)
+            {
+                continue;
+            }
+
+            int forward  = degree[tails[i]]++;
+            int backward = degree[heads[i]]++;
+
+            arcHead[forward]      = heads[i];
+            arcReverse[forward]   = backward;
+            arcCapacity[forward]  = capacities[i];
+            arcResidual[forward]  = capacities[i];
+
+            arcHead[backward]     = tails[i];
+            arcReverse[backward]  = forward;
+            arcCapacity[backward] = 0;
+            arcResidual[backward] = 0;
+        }
+    }
+
+    //
+    // fromSparseGraph
+    //
+    // Builds a graph with 64-bit capacities from a graph with int capacities.
+    //
+    //      [in] graph - the graph with int capacities
+    //
+    // Returns the graph with 64-bit capacities.
+    //
+    public static LongSparseGraph fromSparseGraph(SparseGraph graph)
+    {
+        int[]  firstArcs  = graph.getFirstArcs();
+        int[]  heads      = graph.getArcHeads();
+        int[]  capacities = graph.getArcCapacities();
+        int    numEdges   = graph.getNumArcs() / 2;
+        int[]  tails      = new int[numEdges];
+        int[]  edgeHeads  = new int[numEdges];
+        long[] edgeCaps   = new long[numEdges];
+        int    index      = 0;
+
+        for (int u = 0; u < graph.getNumNodes(); u++)
+        {
+            for (int arc = firstArcs[u]; arc < firstArcs[u + 1]; arc++)
+            {
+                if (graph.isForward(arc))
+                {
+                    tails[index]     = u;
+                    edgeHeads[index] = heads[arc];
+                    edgeCaps[index]  = capacities[arc];
+                    index++;
+                }
+            }
+        }
+
+        return new LongSparseGraph(graph.getNumNodes(), tails, edgeHeads, edgeCaps, numEdges);
+    }
+
+    //
+    // getNumNodes
+    //
+    // Gets the number of nodes.
+    //
+    public int getNumNodes()
+    {
+        return numNodes;
+    }
+
+    //
+    // getNumArcs
+    //
+    // Gets the number of arcs (twice the number of edges, counting reverse arcs).
+    //
+    public int getNumArcs()
+    {
+        return numArcs;
+    }
+
+    //
+    // getFirstArcs
+    //
+    // Gets the row offsets. The arcs leaving node u are numbered firstArc[u] to firstArc[u + 1] - 1.
+    //
+    public int[] getFirstArcs()
+    {
+        return firstArc;
+    }
+
+    //
+    // getArcHeads
+    //
+    // Gets the end node of every arc.
+    //
+    public int[] getArcHeads()
+    {
+        return arcHead;
+    }
+
+    //
+    // getArcReverses
+    //
+    // Gets the index of the paired arc of every arc.
+    //
+    public int[] getArcReverses()
+    {
+        return arcReverse;
+    }
+
+    //
+    // getArcCapacities
+    //
+    // Gets the capacity of every arc. Reverse arcs have a capacity of 0.
+    //
+    public long[] getArcCapacities()
+    {
+        return arcCapacity;
+    }
+
+    //
+    // getArcResiduals
+    //
+    // Gets the residual capacity of every arc. Algorithms update this array in place.
+    //
+    public long[] getArcResiduals()
+    {
+        return arcResidual;
+    }
+
+    //
+    // isForward
+    //
+    // Determines whether an arc is the forward arc of an edge.
+    //
+    //      [in] arc - the arc index
+    //
+    // Returns whether the arc is a forward arc.
+    //
+    public boolean isForward(int arc)
+    {
+        return arcCapacity[arc] > 0;
+    }
+
+    //
+    // getFlow
+    //
+    // Gets the flow currently carried by an arc. Reverse arcs carry no flow of their own.
+    //
+    //      [in] arc - the arc index
+    //
+    // Returns the flow.
+    //
+    public long getFlow(int arc)
+    {
+        return isForward(arc) ? arcCapacity[arc] - arcResidual[arc] : 0;
+    }
+
+    //
+    // resetFlow
+    //
+    // Removes all flow (residual capacities are reset to the original capacities).
+    //
+    public void resetFlow()
+    {
+        System.arraycopy(arcCapacity, 0, arcResidual, 0, numArcs);
+    }
+
+    //
+    // hasResidual
+    //
+    // Determines whether an arc has residual capacity left.
+    //
+    //      [in] arc - the arc index
+    //
+    // Returns whether the residual capacity is positive.
+    //
+    public boolean hasResidual(int arc)
+    {
+        return arcResidual[arc] > 0;
+    }
+
+    //
+    // getResidual
+    //
+    // Gets the residual capacity of an arc.
+    //
+    //      [in] arc - the arc index
+    //
+    // Returns the residual capacity.
+    //
+    public long getResidual(int arc)
+    {
+        return arcResidual[arc];
+    }
+
+    //
+    // push
+    //
+    // Sends flow along an arc, lowering its residual capacity and raising that of its paired arc.
+    //
+    //      [in] arc    - the arc index
+    //      [in] amount - the flow to send, at most the residual capacity of the arc
+    //
+    public void push(int arc, long amount)
+    {
+        arcResidual[arc]             -= amount;
+        arcResidual[arcReverse[arc]] += amount;
+    }
+
+    //
+    // getInflow
+    //
+    // Computes the total flow entering a given node.
+    //
+    //      [in] node - the node index
+    //
+    // Returns the total flow.
+    //
+    public long getInflow(int node)
+    {
+        long total = 0;
+
+        for (int arc = firstArc[node]; arc < firstArc[node + 1]; arc++)
+        {
+            if (!isForward(arc))
+            {
+                total += getFlow(arcReverse[arc]);
+            }
+        }
+
+        return total;
+    }
+}
@@ -0,0 +1,270 @@
+//
+// MappedParser.java
+//
+// This class reads a bipartite graph from a file of lines in the form "src>dst1,dst2,...".
+// The file is memory-mapped and its bytes are scanned directly for '>', ',' and line ends,
+// and names are interned straight from the mapped bytes (see NameDictionary.java), so no
+// String or array is allocated per line or per token. Files larger than one mapping allows
+// are mapped in windows that end on a line boundary.
+//
+// Lines may end in "\n" or "\r\n". Lines without a '>' and empty names are ignored.
+// Names are taken whole unless weights are asked for: then a destination name followed by a
+// colon and up to nine digits ("dst1:5") carries that weight, and any other destination has
+// weight 1. Weights are never inferred from the input, since "Room:101" is also a valid name.
+//
+// The MIT License (MIT)
+//
+// Copyright (c) 2022 Luke Andrews. All Rights Reserved.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this
+// software and associated documentation files (the "Software"), to deal in the Software
+// without restriction, including without limitation the rights to use, copy, modify, merge,
+// publish, distribute, sub-license, and/or sell copies of the Software, and to permit persons
+// to whom the Software is furnished to do so, subject to the following conditions:
+// 
+// * The above copyright notice and this permission notice shall be included in all copies or
+//   substantial portions of the Software.
+// 
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, 
+// INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+// PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+// FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR 
+// OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+// DEALINGS IN THE SOFTWARE.
+//
+package maxflowalgorithm;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+class MappedParser
+{
+    private static final int WINDOW_SIZE       = 1 << 30;   // largest mapping, well under the 2 GB limit
+    private static final int DEFAULT_WEIGHT    = 1;
+    private static final int MAX_WEIGHT_DIGITS = 9;         // so every weight fits in an int
+
+    //
+    // parse
+    //
+    // Reads an unweighted bipartite graph from a file.
+    //
+    //      [in] inputFile - the input file
+    //
+    // Returns the bipartite graph.
+    //
+    public static BipartiteGraph parse(File inputFile) throws IOException
+    {
+        return parse(inputFile, false);
+    }
+
+    //
+    // parse
+    //
+    // Reads a bipartite graph from a file.
+    //
+    //      [in] inputFile  - the input file
+    //      [in] weighted   - whether destinations may carry weights ("dst1:5")
+    //
+    // Returns the bipartite graph.
+    //
+    public static BipartiteGraph parse(File inputFile, boolean weighted) throws IOException
+    {
+        BipartiteGraphBuilder builder = new BipartiteGraphBuilder();
+
+        try (FileChannel channel = FileChannel.open(inputFile.toPath(), StandardOpenOption.READ))
+        {
+            long size     = channel.size();
+            long position = 0;
+
+            while (position < size)
+            {
+                int              length = (int) Math.min(WINDOW_SIZE, size - position);
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                boolean          last   = position + length == size;
+
+                //
+                // Parse up to the last line end in the window; the rest is mapped again with the next window:
+                //
+                int end = last ? length : _lastLineEnd(window, length);
+
+                if (end < 0)
+                {
+                    throw new IOException("Line longer than " + WINDOW_SIZE + " bytes at offset " + position);
+                }
+
+                parseLines(window, 0, end, builder, weighted);
+
+                position += end;
+            }
+        }
+
+        return builder.build();
+    }
+
+    //
+    // parseLines
+    //
+    // Parses the lines in a range of a buffer, delivering them to an edge sink (such as a
+    // bipartite graph builder).
+    // The range should start at the beginning of a line and end just after a line end (or at
+    // the end of the input). The buffer position is not used or changed.
+    //
+    //      [in] buffer     - the buffer holding the lines
+    //      [in] start      - the index of the first byte to parse
+    //      [in] end        - the index just past the last byte to parse
+    //      [in] builder    - the sink to deliver the lines to
+    //
+    public static void parseLines(ByteBuffer buffer, int start, int end, EdgeSink builder)
+    {
+        parseLines(buffer, start, end, builder, false);
+    }
+
+    //
+    // parseLines
+    //
+    // Parses the lines in a range of a buffer as above, splitting a weight off each destination
+    // name if weights are asked for.
+    //
+    //      [in] buffer     - the buffer holding the lines
+    //      [in] start      - the index of the first byte to parse
+    //      [in] end        - the index just past the last byte to parse
+    //      [in] builder    - the sink to deliver the lines to
+    //      [in] weighted   - whether destinations may carry weights ("dst1:5")
+    //
+    public static void parseLines(ByteBuffer buffer, int start, int end, EdgeSink builder, boolean weighted)
+    {
+        int position = start;
+
+        while (position < end)
+        {
+            //
+            // Find the end of the line and of the source name:
+            //
+            int lineEnd = position;
+            int arrow   = -1;
+
+            for (; lineEnd < end; lineEnd++)
+            {
+                byte b = buffer.get(lineEnd);
+
+                if (b == '\n')
+                {
+                    break;
+                }
+
+                if (b == '>' && arrow < 0)
+                {
+                    arrow = lineEnd;
+                }
+            }
+
+            int next = lineEnd + 1;
+
+            if (lineEnd > position && buffer.get(lineEnd - 1) == '\r')
+            {
+                lineEnd--;
+            }
+
+            if (arrow > position && builder.addSource(buffer, position, arrow))
+            {
+                //
+                // Add each destination, separated by commas:
+                //
+                int tokenStart = arrow + 1;
+
+                for (int i = tokenStart; i <= lineEnd; i++)
+                {
+                    if (i == lineEnd || buffer.get(i) == ',')
+                    {
+                        int colon = weighted ? _weightSeparator(buffer, tokenStart, i) : -1;
+
+                        if (colon < 0 && i > tokenStart)
+                        {
+                            builder.addDestination(buffer, tokenStart, i, DEFAULT_WEIGHT);
+                        }
+                        else if (colon > tokenStart)
+                        {
+                            builder.addDestination(buffer, tokenStart, colon, _parseWeight(buffer, colon + 1, i));
+                        }
+
+                        tokenStart = i + 1;
+                    }
+                }
+            }
+
+            position = next;
+        }
+    }
+
+    //
+    // weightSeparator
+    //
+    // Finds the colon that separates a destination name from its weight.
+    //
+    //      [in] buffer     - the buffer holding the token
+    //      [in] start      - the index of the first byte of the token
+    //      [in] end        - the index just past the last byte of the token
+    //
+    // Returns the index of the colon, or -1 if the token does not end in a weight.
+    //
+    private static int _weightSeparator(ByteBuffer buffer, int start, int end)
+    {
+        int i = end - 1;
+
+        while (i >= start && end - i <= MAX_WEIGHT_DIGITS && buffer.get(i) >= '0' && buffer.get(i) <= '9')
+        {
+            i--;
+        }
+
+        return (i >= start && i < end - 1 && buffer.get(i) == ':') ? i : -1;
+    }
+
+    //
+    // parseWeight
+    //
+    // Parses a weight of decimal digits.
+    //
+    //      [in] buffer     - the buffer holding the digits
+    //      [in] start      - the index of the first digit
+    //      [in] end        - the index just past the last digit
+    //
+    // Returns the weight.
+    //
+    private static int _parseWeight(ByteBuffer buffer, int start, int end)
+    {
+        int weight = 0;
+
+        for (int i = start; i < end; i++)
+        {
+            weight = weight * 10 + (buffer.get(i) - '0');
+        }
+
+        return weight;
+    }
+
+    //
+    // lastLineEnd
+    //
+    // Finds the end of the last complete line in a window.
+    //
+    //      [in] window - the window
+    //      [in] length - the number of bytes in the window
+    //
+    // Returns the index just past the last '\n', or -1 if there is none.
+    //
+    private static int _lastLineEnd(ByteBuffer window, int length)
+    {
+        for (int i = length - 1; i >= 0; i--)
+        {
+            if (window.get(i) == '\n')
+            {
+                return i + 1;
+            }
+        }
+
+        return -1;
+    }
+}
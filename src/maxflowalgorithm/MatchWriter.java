@@ -0,0 +1,421 @@
+//
+// MatchWriter.java
+//
+// This class writes the answer to a bipartite matching problem: the maximum flow and the
+// list of matches. The mate array is walked once and each match is written straight from
+// the name pools (see NameDictionary.java) into one large buffer that is flushed to a
+// channel, so no String or map entry is made per match. Matches come out in the order the
+// sources were first read, or sorted by source name when asked.
+//
+// The MIT License (MIT)
+//
+// Copyright (c) 2022 Luke Andrews. All Rights Reserved.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this
+// software and associated documentation files (the "Software"), to deal in the Software
+// without restriction, including without limitation the rights to use, copy, modify, merge,
+// publish, distribute, sub-license, and/or sell copies of the Software, and to permit persons
+// to whom the Software is furnished to do so, subject to the following conditions:
+// 
+// * The above copyright notice and this permission notice shall be included in all copies or
+//   substantial portions of the Software.
+// 
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, 
+// INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+// PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+// FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR 
+// OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+// DEALINGS IN THE SOFTWARE.
+//
+package maxflowalgorithm;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+class MatchWriter
+{
+    private static final int    BUFFER_SIZE = 1 << 20;
+    private static final byte[] RULE        = "***************************************************\n".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] ARROW       = "-->".getBytes(StandardCharsets.US_ASCII);
+    private static final int    SMALL_SORT  = 32;       // ranges of ids sorted by insertion instead of radix
+
+    private WritableByteChannel channel;
+    private ByteBuffer          buffer;
+
+    //
+    // Overloaded constructor.
+    //
+    // Constructs with the channel to write to.
+    //
+    //      [in] channel - the output channel
+    //
+    public MatchWriter(WritableByteChannel channel)
+    {
+        this.channel = channel;
+        this.buffer  = ByteBuffer.allocate(BUFFER_SIZE);
+    }
+
+    //
+    // writeAnswer
+    //
+    // Writes the maximum flow and the matches of a bipartite graph.
+    //
+    //      [in] graph          - the bipartite graph
+    //      [in] maxFlow        - the maximum flow (the number of matches)
+    //      [in] sourceMates    - the destination matched to each source, -1 if unmatched
+    //      [in] sorted         - whether to sort the matches by source name
+    //
+    public void writeAnswer(BipartiteGraph graph, int maxFlow, int[] sourceMates, boolean sorted) throws IOException
+    {
+        writeAnswer(graph.getSources(), graph.getDestinations(), maxFlow, sourceMates, sorted);
+    }
+
+    //
+    // writeAnswer
+    //
+    // Writes the maximum flow and the matches of a bipartite graph given by its names only, for
+    // graphs that are not kept in compressed form (see LogFollower.java).
+    //
+    //      [in] sources        - the source names
+    //      [in] destinations   - the destination names
+    //      [in] maxFlow        - the maximum flow (the number of matches)
+    //      [in] sourceMates    - the destination matched to each source, -1 if unmatched
+    //      [in] sorted         - whether to sort the matches by source name
+    //
+    public void writeAnswer(NameDictionary sources, NameDictionary destinations, int maxFlow, int[] sourceMates,
+                            boolean sorted) throws IOException
+    {
+        _writeAnswer(sources, destinations, "Max Flow: " + maxFlow + "\n", sourceMates, sorted);
+    }
+
+    //
+    // writeWeightedAnswer
+    //
+    // Writes the number of matches, their total weight and the matches of a weighted bipartite
+    // graph (see WeightedAssignment.java).
+    //
+    //      [in] graph          - the bipartite graph
+    //      [in] maxFlow        - the number of matches
+    //      [in] maxWeight      - the total weight of the matches
+    //      [in] sourceMates    - the destination matched to each source, -1 if unmatched
+    //      [in] sorted         - whether to sort the matches by source name
+    //
+    public void writeWeightedAnswer(BipartiteGraph graph, int maxFlow, long maxWeight, int[] sourceMates,
+                                    boolean sorted) throws IOException
+    {
+        _writeAnswer(graph.getSources(), graph.getDestinations(), "Max Flow: " + maxFlow + "\nMax Weight: " + maxWeight + "\n", sourceMates, sorted);
+    }
+
+    //
+    // flush
+    //
+    // Writes out everything buffered so far.
+    //
+    public void flush() throws IOException
+    {
+        buffer.flip();
+
+        while (buffer.hasRemaining())
+        {
+            channel.write(buffer);
+        }
+
+        buffer.clear();
+    }
+
+    //
+    // writeAnswer
+    //
+    // Writes a heading and the matches of a bipartite graph, between rule lines.
+    //
+    //      [in] sources        - the source names
+    //      [in] destinations   - the destination names
+    //      [in] heading        - the lines to write before the matches
+    //      [in] sourceMates    - the destination matched to each source, -1 if unmatched
+    //      [in] sorted         - whether to sort the matches by source name
+    //
+    private void _writeAnswer(NameDictionary sources, NameDictionary destinations, String heading, int[] sourceMates,
+                              boolean sorted) throws IOException
+    {
+        _write(RULE, 0, RULE.length);
+        _writeAscii(heading + "Matches:\n");
+
+        if (sorted)
+        {
+            for (int src : _sortedSources(sources, sourceMates))
+            {
+                _writeMatch(sources, src, destinations, sourceMates[src]);
+            }
+        }
+        else
+        {
+            for (int src = 0; src < sourceMates.length; src++)
+            {
+                if (sourceMates[src] != -1)
+                {
+                    _writeMatch(sources, src, destinations, sourceMates[src]);
+                }
+            }
+        }
+
+        _write(RULE, 0, RULE.length);
+    }
+
+    //
+    // writeMatch
+    //
+    // Writes one match as a tab, the source name, an arrow and the destination name.
+    //
+    //      [in] sources        - the source node names
+    //      [in] src            - the source id
+    //      [in] destinations   - the destination node names
+    //      [in] dst            - the destination id
+    //
+    private void _writeMatch(NameDictionary sources, int src, NameDictionary destinations, int dst) throws IOException
+    {
+        _put((byte) '\t');
+        _writeName(sources, src);
+        _write(ARROW, 0, ARROW.length);
+        _writeName(destinations, dst);
+        _put((byte) '\n');
+    }
+
+    //
+    // writeName
+    //
+    // Writes the UTF-8 bytes of a name.
+    //
+    //      [in] names  - the names
+    //      [in] id     - the id of the name
+    //
+    private void _writeName(NameDictionary names, int id) throws IOException
+    {
+        int[] starts = names.getStarts();
+
+        _write(names.getPool(), starts[id], starts[id + 1] - starts[id]);
+    }
+
+    //
+    // writeAscii
+    //
+    // Writes a short ASCII string.
+    //
+    //      [in] text - the text
+    //
+    private void _writeAscii(String text) throws IOException
+    {
+        byte[] bytes = text.getBytes(StandardCharsets.US_ASCII);
+
+        _write(bytes, 0, bytes.length);
+    }
+
+    //
+    // put
+    //
+    // Writes one byte.
+    //
+    //      [in] b - the byte
+    //
+    private void _put(byte b) throws IOException
+    {
+        if (!buffer.hasRemaining())
+        {
+            flush();
+        }
+
+        buffer.put(b);
+    }
+
+    //
+    // write
+    //
+    // Writes a range of bytes, flushing the buffer whenever it fills.
+    //
+    //      [in] bytes  - the bytes
+    //      [in] offset - the index of the first byte
+    //      [in] length - the number of bytes
+    //
+    private void _write(byte[] bytes, int offset, int length) throws IOException
+    {
+        while (length > 0)
+        {
+            if (!buffer.hasRemaining())
+            {
+                flush();
+            }
+
+            int n = Math.min(length, buffer.remaining());
+
+            buffer.put(bytes, offset, n);
+
+            offset += n;
+            length -= n;
+        }
+    }
+
+    //
+    // sortedSources
+    //
+    // Sorts the matched sources by name. Names are compared as unsigned UTF-8 bytes, which is
+    // the same as comparing them by Unicode code point.
+    //
+    //      [in] sources        - the source node names
+    //      [in] sourceMates    - the destination matched to each source, -1 if unmatched
+    //
+    // Returns the matched source ids in name order.
+    //
+    private static int[] _sortedSources(NameDictionary sources, int[] sourceMates)
+    {
+        int count = 0;
+
+        for (int src = 0; src < sourceMates.length; src++)
+        {
+            if (sourceMates[src] != -1)
+            {
+                count++;
+            }
+        }
+
+        int[] ids = new int[count];
+
+        count = 0;
+
+        for (int src = 0; src < sourceMates.length; src++)
+        {
+            if (sourceMates[src] != -1)
+            {
+                ids[count++] = src;
+            }
+        }
+
+        _sortByName(ids, sources.getPool(), sources.getStarts());
+
+        return ids;
+    }
+
+    //
+    // sortByName
+    //
+    // Sorts ids by their names with a most significant byte first radix sort, so no object is
+    // made per id. Each range of ids sharing a prefix is split into 257 buckets by the next
+    // byte, with names that end first in bucket 0. The ranges still to split are kept on a
+    // stack instead of recursing, since names may share long prefixes, and small ranges are
+    // finished by insertion sort.
+    //
+    //      [in,out] ids    - the ids to sort
+    //      [in]     pool   - the name bytes
+    //      [in]     starts - the start of each name in the pool, followed by the end of the last
+    //
+    private static void _sortByName(int[] ids, byte[] pool, int[] starts)
+    {
+        int[]   buffer  = new int[ids.length];
+        int[]   bucket  = new int[258];         // start of each bucket, then the end of the last
+        IntList pending = new IntList();        // (start, end, depth) of each range still to sort
+
+        pending.add(0);
+        pending.add(ids.length);
+        pending.add(0);
+
+        while (pending.size() > 0)
+        {
+            int top   = pending.size() - 3;
+            int start = pending.get(top);
+            int end   = pending.get(top + 1);
+            int depth = pending.get(top + 2);
+
+            pending.truncate(top);
+
+            if (end - start <= SMALL_SORT)
+            {
+                _insertionSort(ids, start, end, depth, pool, starts);
+
+                continue;
+            }
+
+            Arrays.fill(bucket, 0);
+
+            for (int i = start; i < end; i++)
+            {
+                bucket[_byteAt(ids[i], depth, pool, starts) + 1]++;
+            }
+
+            for (int b = 0; b < 257; b++)
+            {
+                bucket[b + 1] += bucket[b];
+            }
+
+            for (int i = start; i < end; i++)
+            {
+                buffer[start + bucket[_byteAt(ids[i], depth, pool, starts)]++] = ids[i];
+            }
+
+            System.arraycopy(buffer, start, ids, start, end - start);
+
+            //
+            // Bucket b now ends at bucket[b]; names in bucket 0 are equal and need no more sorting:
+            //
+            for (int b = 1; b < 257; b++)
+            {
+                if (bucket[b] - bucket[b - 1] > 1)
+                {
+                    pending.add(start + bucket[b - 1]);
+                    pending.add(start + bucket[b]);
+                    pending.add(depth + 1);
+                }
+            }
+        }
+    }
+
+    //
+    // byteAt
+    //
+    // Gets a byte of a name as a bucket number.
+    //
+    //      [in] id     - the id of the name
+    //      [in] depth  - the index of the byte in the name
+    //      [in] pool   - the name bytes
+    //      [in] starts - the start of each name in the pool
+    //
+    // Returns 0 if the name is shorter than depth + 1 bytes, otherwise the unsigned byte plus 1.
+    //
+    private static int _byteAt(int id, int depth, byte[] pool, int[] starts)
+    {
+        int index = starts[id] + depth;
+
+        return (index < starts[id + 1]) ? (pool[index] & 0xFF) + 1 : 0;
+    }
+
+    //
+    // insertionSort
+    //
+    // Sorts a small range of ids by name, comparing only the bytes from a depth on, since the
+    // names of the range share the bytes before it.
+    //
+    //      [in,out] ids    - the ids
+    //      [in]     start  - the index of the first id of the range
+    //      [in]     end    - the index just past the last id of the range
+    //      [in]     depth  - the length of the prefix the names share
+    //      [in]     pool   - the name bytes
+    //      [in]     starts - the start of each name in the pool
+    //
+    private static void _insertionSort(int[] ids, int start, int end, int depth, byte[] pool, int[] starts)
+    {
+        for (int i = start + 1; i < end; i++)
+        {
+            int id = ids[i];
+            int j  = i;
+
+            while (j > start && Arrays.compareUnsigned(pool, starts[ids[j - 1]] + depth, starts[ids[j - 1] + 1],
+                                                       pool, starts[id] + depth, starts[id + 1]) > 0)
+            {
+                ids[j] = ids[j - 1];
+                j--;
+            }
+
+            ids[j] = id;
+        }
+    }
+}
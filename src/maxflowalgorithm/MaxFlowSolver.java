@@ -0,0 +1,52 @@
+//
+// MaxFlowSolver.java
+//
+// This interface describes an engine that computes a maximum flow of a sparse graph.
+// Engines start from no flow and leave the resulting flow in the residual capacities of the
+// graph, so one engine can be swapped for another without changing the caller.
+//
+// The MIT License (MIT)
+//
+// Copyright (c) 2022 Luke Andrews. All Rights Reserved.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this
+// software and associated documentation files (the "Software"), to deal in the Software
+// without restriction, including without limitation the rights to use, copy, modify, merge,
+// publish, distribute, sub-license, and/or sell copies of the Software, and to permit persons
+// to whom the Software is furnished to do so, subject to the following conditions:
+// 
+// * The above copyright notice and this permission notice shall be included in all copies or
+//   substantial portions of the Software.
+// 
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, 
+// INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+// PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+// FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR 
+// OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+// DEALINGS IN THE SOFTWARE.
+//
+package maxflowalgorithm;
+
+interface MaxFlowSolver
+{
+    //
+    // getName
+    //
+    // Gets a short name for the engine, for reporting.
+    //
+    String getName();
+
+    //
+    // computeMaxFlow
+    //
+    // Computes the maximum flow of a sparse graph, starting from no flow.
+    //
+    //      [in] graph      - the sparse graph, whose residual capacities receive the flow
+    //      [in] source     - the index of source node
+    //      [in] sink       - the index of the sink node
+    //
+    // Returns the maximum flow. Throws ArithmeticException if it does not fit in an int; such
+    // networks are solved as a LongSparseGraph with a LongMaxFlowSolver instead.
+    //
+    int computeMaxFlow(SparseGraph graph, int source, int sink);
+}
@@ -0,0 +1,392 @@
+//
+// NameDictionary.java
+//
+// This class interns node names, mapping each distinct name to a dense integer id. Ids are
+// handed out in the order names are first seen, so id i is the i-th distinct name read.
+// Lookups use an open addressing hash table with linear probing, so interning a name takes
+// constant expected time however many names are already stored.
+//
+// Names are kept as UTF-8 bytes in a single pool and can be interned straight from a range of
+// a byte buffer (such as a memory-mapped file), so no temporary String is made per token.
+// A String is only created when a name is asked for. A dictionary can also be rebuilt from
+// its pool (see BinaryGraphFile.java), in which case the hash table is only built once a
+// lookup needs it.
+//
+// The MIT License (MIT)
+//
+// Copyright (c) 2022 Luke Andrews. All Rights Reserved.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this
+// software and associated documentation files (the "Software"), to deal in the Software
+// without restriction, including without limitation the rights to use, copy, modify, merge,
+// publish, distribute, sub-license, and/or sell copies of the Software, and to permit persons
+// to whom the Software is furnished to do so, subject to the following conditions:
+// 
+// * The above copyright notice and this permission notice shall be included in all copies or
+//   substantial portions of the Software.
+// 
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, 
+// INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+// PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+// FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR 
+// OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+// DEALINGS IN THE SOFTWARE.
+//
+package maxflowalgorithm;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+class NameDictionary
+{
+    private static final int INITIAL_CAPACITY = 16;
+
+    private byte[] pool;        // bytes of every name, one after the other
+    private int    poolSize;
+    private int[]  starts;      // start of each id's name in the pool (size + 1 entries)
+    private int[]  hashes;      // hash of each id's name
+    private int[]  table;       // open addressing table of id + 1, 0 if the slot is empty (null until needed)
+    private int    size;
+
+    //
+    // Default constructor.
+    //
+    public NameDictionary()
+    {
+        this.pool   = new byte[INITIAL_CAPACITY * 8];
+        this.starts = new int[INITIAL_CAPACITY + 1];
+        this.hashes = new int[INITIAL_CAPACITY];
+        this.table  = new int[INITIAL_CAPACITY * 2];
+    }
+
+    //
+    // Overloaded constructor.
+    //
+    // Constructs from the names of an existing dictionary, as returned by getPool() and
+    // getStarts(). The arrays are used directly, not copied.
+    //
+    //      [in] pool   - the bytes of every name
+    //      [in] starts - the start of each name in the pool (size + 1 entries)
+    //      [in] size   - the number of names
+    //
+    public NameDictionary(byte[] pool, int[] starts, int size)
+    {
+        if (pool == null || starts == null || size < 0 || starts.length < size + 1 ||
+            starts[size] > pool.length)
+        {
+            throw new IllegalArgumentException();
+        }
+
+        this.pool     = pool;
+        this.starts   = starts;
+        this.size     = size;
+        this.poolSize = starts[size];
+    }
+
+    //
+    // size
+    //
+    // Gets the number of distinct names.
+    //
+    public int size()
+    {
+        return size;
+    }
+
+    //
+    // getPool
+    //
+    // Gets the bytes of every name, one after the other. Only the first getStarts()[size()]
+    // bytes are meaningful.
+    //
+    public byte[] getPool()
+    {
+        return pool;
+    }
+
+    //
+    // getStarts
+    //
+    // Gets the start of each name in the pool. Only the first size() + 1 entries are meaningful.
+    //
+    public int[] getStarts()
+    {
+        return starts;
+    }
+
+    //
+    // getName
+    //
+    // Gets the name with a given id.
+    //
+    //      [in] id - the id
+    //
+    // Returns the name.
+    //
+    public String getName(int id)
+    {
+        return new String(pool, starts[id], starts[id + 1] - starts[id], StandardCharsets.UTF_8);
+    }
+
+    //
+    // find
+    //
+    // Looks up the id of a name without adding it.
+    //
+    //      [in] name - the name
+    //
+    // Returns the id, or -1 if the name has not been interned.
+    //
+    public int find(String name)
+    {
+        byte[]     bytes  = name.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        int        hash   = _hash(buffer, 0, bytes.length);
+
+        _buildTable();
+
+        return table[_findSlot(buffer, 0, bytes.length, hash)] - 1;
+    }
+
+    //
+    // intern
+    //
+    // Gets the id of a name, adding the name with the next free id if it is new.
+    //
+    //      [in] name - the name
+    //
+    // Returns the id.
+    //
+    public int intern(String name)
+    {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+
+        return intern(ByteBuffer.wrap(bytes), 0, bytes.length);
+    }
+
+    //
+    // intern
+    //
+    // Gets the id of a name given as UTF-8 bytes, adding the name with the next free id if it
+    // is new. The bytes are only copied when the name is new. The buffer position is not used
+    // or changed.
+    //
+    //      [in] buffer - the buffer holding the name
+    //      [in] start  - the index of the first byte of the name
+    //      [in] end    - the index just past the last byte of the name
+    //
+    // Returns the id.
+    //
+    public int intern(ByteBuffer buffer, int start, int end)
+    {
+        _buildTable();
+
+        int hash = _hash(buffer, start, end);
+        int slot = _findSlot(buffer, start, end, hash);
+
+        if (table[slot] != 0)
+        {
+            return table[slot] - 1;
+        }
+
+        int length = end - start;
+
+        if (size == hashes.length || poolSize + length > pool.length)
+        {
+            _grow(length);
+
+            slot = _findSlot(buffer, start, end, hash);
+        }
+
+        for (int i = 0; i < length; i++)
+        {
+            pool[poolSize + i] = buffer.get(start + i);
+        }
+
+        poolSize         += length;
+        hashes[size]      = hash;
+        starts[size + 1]  = poolSize;
+        table[slot]       = ++size;
+
+        return size - 1;
+    }
+
+    //
+    // intern
+    //
+    // Gets the id of a name of another dictionary, adding the name with the next free id if
+    // it is new.
+    //
+    //      [in] other  - the other dictionary
+    //      [in] id     - the id of the name in the other dictionary
+    //
+    // Returns the id in this dictionary.
+    //
+    public int intern(NameDictionary other, int id)
+    {
+        return intern(ByteBuffer.wrap(other.pool), other.starts[id], other.starts[id + 1]);
+    }
+
+    //
+    // findSlot
+    //
+    // Probes the table for a name.
+    //
+    //      [in] buffer - the buffer holding the name
+    //      [in] start  - the index of the first byte of the name
+    //      [in] end    - the index just past the last byte of the name
+    //      [in] hash   - the hash of the name
+    //
+    // Returns the slot holding the name, or the empty slot where it would go.
+    //
+    private int _findSlot(ByteBuffer buffer, int start, int end, int hash)
+    {
+        int mask = table.length - 1;
+        int slot = hash & mask;
+
+        for (; table[slot] != 0; slot = (slot + 1) & mask)
+        {
+            int id = table[slot] - 1;
+
+            if (hashes[id] == hash && _equals(id, buffer, start, end))
+            {
+                break;
+            }
+        }
+
+        return slot;
+    }
+
+    //
+    // equals
+    //
+    // Compares the name of an id with a range of bytes.
+    //
+    //      [in] id     - the id
+    //      [in] buffer - the buffer holding the other name
+    //      [in] start  - the index of the first byte of the other name
+    //      [in] end    - the index just past the last byte of the other name
+    //
+    // Returns whether the names are the same.
+    //
+    private boolean _equals(int id, ByteBuffer buffer, int start, int end)
+    {
+        int offset = starts[id];
+
+        if (starts[id + 1] - offset != end - start)
+        {
+            return false;
+        }
+
+        for (int i = start; i < end; i++)
+        {
+            if (pool[offset++] != buffer.get(i))
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    //
+    // buildTable
+    //
+    // Builds the hash table of a dictionary constructed from an existing pool, if not built yet.
+    //
+    private void _buildTable()
+    {
+        if (table != null)
+        {
+            return;
+        }
+
+        int        capacity = Math.max(Integer.highestOneBit(Math.max(size, 1)) * 2, INITIAL_CAPACITY);
+        ByteBuffer buffer   = ByteBuffer.wrap(pool);
+
+        starts = java.util.Arrays.copyOf(starts, capacity + 1);
+        hashes = new int[capacity];
+        table  = new int[capacity * 2];
+
+        int mask = table.length - 1;
+
+        for (int id = 0; id < size; id++)
+        {
+            hashes[id] = _hash(buffer, starts[id], starts[id + 1]);
+
+            int slot = hashes[id] & mask;
+
+            while (table[slot] != 0)
+            {
+                slot = (slot + 1) & mask;
+            }
+
+            table[slot] = id + 1;
+        }
+    }
+
+    //
+    // grow
+    //
+    // Makes room for one more name of a given length, doubling whichever arrays are full.
+    // The table is rehashed whenever the number of ids grows, keeping it at most half full.
+    //
+    //      [in] length - the length in bytes of the name to make room for
+    //
+    private void _grow(int length)
+    {
+        if (poolSize + length > pool.length)
+        {
+            pool = java.util.Arrays.copyOf(pool, Math.max(pool.length * 2, poolSize + length));
+        }
+
+        if (size < hashes.length)
+        {
+            return;
+        }
+
+        starts = java.util.Arrays.copyOf(starts, hashes.length * 2 + 1);
+        hashes = java.util.Arrays.copyOf(hashes, hashes.length * 2);
+        table  = new int[table.length * 2];
+
+        int mask = table.length - 1;
+
+        for (int id = 0; id < size; id++)
+        {
+            int slot = hashes[id] & mask;
+
+            while (table[slot] != 0)
+            {
+                slot = (slot + 1) & mask;
+            }
+
+            table[slot] = id + 1;
+        }
+    }
+
+    //
+    // hash
+    //
+    // Hashes a range of bytes (FNV-1a, with the bits spread afterwards so that linear probing
+    // on the low bits stays short).
+    //
+    //      [in] buffer - the buffer holding the name
+    //      [in] start  - the index of the first byte of the name
+    //      [in] end    - the index just past the last byte of the name
+    //
+    // Returns the hash.
+    //
+    private static int _hash(ByteBuffer buffer, int start, int end)
+    {
+        int hash = 0x811C9DC5;
+
+        for (int i = start; i < end; i++)
+        {
+            hash = (hash ^ (buffer.get(i) & 0xFF)) * 0x01000193;
+        }
+
+        hash *= 0x9E3779B9;
+
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,482 @@
+//
+// ParallelHopcroftKarp.java
+//
+// This class computes a maximum bipartite matching using the Hopcroft Karp algorithm on
+// several threads (see HopcroftKarp.java for the sequential engine). Each phase has two parts:
+//
+//      layering        - a breadth-first search from the free sources, one layer at a time.
+//                        Each layer is split across a work-stealing pool, and a source of the
+//                        next layer is taken by whichever thread first sets its layer with an
+//                        atomic compare-and-set.
+//      augmenting      - depth-first searches through the layers from the free sources, split
+//                        across the same pool. A thread claims each destination it steps
+//                        onto with a compare-and-set on a shared array of phase stamps, so the
+//                        paths found by different threads are vertex-disjoint without locks.
+//
+// The set of paths found in a phase may differ from the sequential one, but every phase
+// augments at least one path and phases continue until no augmenting path is left, so the
+// matching found has the same (maximum) cardinality.
+//
+// The MIT License (MIT)
+//
+// Copyright (c) 2022 Luke Andrews. All Rights Reserved.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this
+// software and associated documentation files (the "Software"), to deal in the Software
+// without restriction, including without limitation the rights to use, copy, modify, merge,
+// publish, distribute, sub-license, and/or sell copies of the Software, and to permit persons
+// to whom the Software is furnished to do so, subject to the following conditions:
+// 
+// * The above copyright notice and this permission notice shall be included in all copies or
+//   substantial portions of the Software.
+// 
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, 
+// INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+// PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+// FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR 
+// OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+// DEALINGS IN THE SOFTWARE.
+//
+package maxflowalgorithm;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+class ParallelHopcroftKarp implements BipartiteMatcher
+{
+    private static final int INFINITY   = Integer.MAX_VALUE;
+    private static final int GRAIN_SIZE = 1024;     // sources per task below which work is not split
+
+    private int                numSources;
+    private int                numDestinations;
+    private int[]              offsets;         // destinations of source u are targets[offsets[u]] .. targets[offsets[u + 1] - 1]
+    private int[]              targets;
+    private int                numThreads;
+
+    private int[]              sourceMate;      // destination matched to each source, -1 if free
+    private int[]              destinationMate; // source matched to each destination, -1 if free
+
+    private AtomicIntegerArray dist;            // layer of each source in the current phase
+    private AtomicIntegerArray claimed;         // last phase stamp each destination was claimed with
+    private int                stamp;
+    private int[]              currentArc;      // next arc to try at each source in the current phase
+    private int[]              roots;           // free sources, the roots of the augmenting searches
+    private int[]              frontier;        // sources of the current layer
+    private int[]              nextFrontier;    // sources of the next layer
+    private AtomicInteger      nextSize;
+    private volatile boolean   foundFree;       // whether the current layer reaches a free destination
+    private int                freeDist;        // layer at which the first free destination was found
+
+    //
+    // Overloaded constructor.
+    //
+    // Constructs with the adjacency arrays of a bipartite graph and a thread count.
+    //
+    //      [in] numSources         - the number of source nodes
+    //      [in] numDestinations    - the number of destination nodes
+    //      [in] offsets            - per source, the start of its destinations (numSources + 1 entries)
+    //      [in] targets            - the destination of each edge
+    //      [in] numThreads         - the number of threads to search with
+    //
+    public ParallelHopcroftKarp(int numSources, int numDestinations, int[] offsets, int[] targets, int numThreads)
+    {
+        if (numSources < 0 || numDestinations < 0 || offsets == null || targets == null ||
+            offsets.length < numSources + 1 || targets.length < offsets[numSources] || numThreads < 1)
+        {
+            throw new IllegalArgumentException();
+        }
+
+        this.numSources      = numSources;
+        this.numDestinations = numDestinations;
+        this.offsets         = offsets;
+        this.targets         = targets;
+        this.numThreads      = numThreads;
+
+        this.sourceMate      = new int[numSources];
+        this.destinationMate = new int[numDestinations];
+        this.dist            = new AtomicIntegerArray(numSources);
+        this.claimed         = new AtomicIntegerArray(numDestinations);
+        this.currentArc      = new int[numSources];
+        this.roots           = new int[numSources];
+        this.frontier        = new int[numSources];
+        this.nextFrontier    = new int[numSources];
+        this.nextSize        = new AtomicInteger();
+    }
+
+    //
+    // getName
+    //
+    // Gets a short name for the engine, for reporting.
+    //
+    public String getName()
+    {
+        return "Parallel Hopcroft Karp";
+    }
+
+    //
+    // getSourceMates
+    //
+    // Gets the destination matched to each source, -1 if the source is unmatched.
+    //
+    public int[] getSourceMates()
+    {
+        return sourceMate;
+    }
+
+    //
+    // getDestinationMates
+    //
+    // Gets the source matched to each destination, -1 if the destination is unmatched.
+    //
+    public int[] getDestinationMates()
+    {
+        return destinationMate;
+    }
+
+    //
+    // computeMatching
+    //
+    // Computes a maximum matching, starting from an empty matching.
+    //
+    // Returns the number of matched pairs.
+    //
+    public int computeMatching()
+    {
+        return computeMatching(null);
+    }
+
+    //
+    // computeMatching
+    //
+    // Computes a maximum matching, starting from a given matching (a warm start). Pairs whose
+    // destination is out of range or already taken by an earlier source are left out of the
+    // initial matching.
+    //
+    //      [in] initialSourceMates - the destination matched to each source, -1 if unmatched
+    //                                (may be shorter than the number of sources, or null)
+    //
+    // Returns the number of matched pairs.
+    //
+    public int computeMatching(int[] initialSourceMates)
+    {
+        int size = 0;
+
+        java.util.Arrays.fill(sourceMate, -1);
+        java.util.Arrays.fill(destinationMate, -1);
+
+        if (initialSourceMates != null)
+        {
+            for (int u = 0; u < Math.min(numSources, initialSourceMates.length); u++)
+            {
+                int v = initialSourceMates[u];
+
+                if (v >= 0 && v < numDestinations && destinationMate[v] == -1)
+                {
+                    sourceMate[u]      = v;
+                    destinationMate[v] = u;
+                    size++;
+                }
+            }
+        }
+
+        //
+        // Each call owns its pool and shuts it down when done, so no threads outlive it:
+        //
+        ForkJoinPool pool = new ForkJoinPool(numThreads);
+
+        try
+        {
+            int numRoots = _buildLayers(pool);
+
+            while (numRoots > 0)
+            {
+                //
+                // A new stamp releases every destination claimed in the previous phase
+                // (clear the stamps only on wrap around):
+                //
+                if (++stamp == Integer.MAX_VALUE)
+                {
+                    for (int v = 0; v < numDestinations; v++)
+                    {
+                        claimed.set(v, 0);
+                    }
+
+                    stamp = 1;
+                }
+
+                System.arraycopy(offsets, 0, currentArc, 0, numSources);
+
+                size    += pool.invoke(new _AugmentTask(0, numRoots));
+                numRoots = _buildLayers(pool);
+            }
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+
+        return size;
+    }
+
+    //
+    // buildLayers
+    //
+    // Performs a level-synchronous breadth-first search from every free source, alternating
+    // between unmatched and matched edges, and labels each source with its layer. The search
+    // stops at the first layer that reaches a free destination.
+    //
+    //      [in] pool - the pool to search on
+    //
+    // Returns the number of free sources (left in roots) if an augmenting path exists, otherwise 0.
+    //
+    private int _buildLayers(ForkJoinPool pool)
+    {
+        int numRoots = 0;
+
+        for (int u = 0; u < numSources; u++)
+        {
+            if (sourceMate[u] == -1)
+            {
+                dist.set(u, 0);
+                roots[numRoots++] = u;
+            }
+            else
+            {
+                dist.set(u, INFINITY);
+            }
+        }
+
+        System.arraycopy(roots, 0, frontier, 0, numRoots);
+
+        int size = numRoots;
+
+        freeDist  = INFINITY;
+        foundFree = false;
+
+        for (int level = 0; size > 0; level++)
+        {
+            nextSize.set(0);
+
+            pool.invoke(new _LayerTask(level, 0, size));
+
+            if (foundFree)
+            {
+                freeDist = level;
+
+                return numRoots;
+            }
+
+            int[] swap = frontier;
+
+            frontier     = nextFrontier;
+            nextFrontier = swap;
+            size         = nextSize.get();
+        }
+
+        return 0;
+    }
+
+    //
+    // _LayerTask
+    //
+    // This class expands a range of the current layer of the breadth-first search, splitting
+    // it in halves for the pool to steal until it is small enough to scan directly. Tasks are
+    // never serialized.
+    //
+    @SuppressWarnings("serial")
+    private class _LayerTask extends RecursiveAction
+    {
+        private int level;
+        private int start;
+        private int end;
+
+        _LayerTask(int level, int start, int end)
+        {
+            this.level = level;
+            this.start = start;
+            this.end   = end;
+        }
+
+        protected void compute()
+        {
+            if (end - start > GRAIN_SIZE)
+            {
+                int middle = (start + end) >>> 1;
+
+                invokeAll(new _LayerTask(level, start, middle), new _LayerTask(level, middle, end));
+
+                return;
+            }
+
+            //
+            // Collect the sources this range reaches, then copy them to the next layer in one go:
+            //
+            IntList found = new IntList();
+
+            for (int i = start; i < end; i++)
+            {
+                int u = frontier[i];
+
+                for (int arc = offsets[u]; arc < offsets[u + 1]; arc++)
+                {
+                    int mate = destinationMate[targets[arc]];
+
+                    if (mate == -1)
+                    {
+                        foundFree = true;
+                    }
+                    else if (dist.get(mate) == INFINITY && dist.compareAndSet(mate, INFINITY, level + 1))
+                    {
+                        found.add(mate);
+                    }
+                }
+            }
+
+            if (found.size() > 0)
+            {
+                System.arraycopy(found.toArray(), 0, nextFrontier, nextSize.getAndAdd(found.size()), found.size());
+            }
+        }
+    }
+
+    //
+    // _AugmentTask
+    //
+    // This class searches for augmenting paths from a range of the free sources, splitting
+    // it in halves for the pool to steal until it is small enough to search directly. Tasks are
+    // never serialized.
+    //
+    @SuppressWarnings("serial")
+    private class _AugmentTask extends RecursiveTask<Integer>
+    {
+        private int start;
+        private int end;
+
+        _AugmentTask(int start, int end)
+        {
+            this.start = start;
+            this.end   = end;
+        }
+
+        protected Integer compute()
+        {
+            if (end - start > GRAIN_SIZE)
+            {
+                int          middle = (start + end) >>> 1;
+                _AugmentTask right  = new _AugmentTask(middle, end);
+
+                right.fork();
+
+                int count = new _AugmentTask(start, middle).compute();
+
+                return count + right.join();
+            }
+
+            int[] stack = new int[freeDist + 1];
+            int   count = 0;
+
+            for (int i = start; i < end; i++)
+            {
+                if (_augment(roots[i], stack))
+                {
+                    count++;
+                }
+            }
+
+            return count;
+        }
+    }
+
+    //
+    // claim
+    //
+    // Claims a destination for the calling thread's path in the current phase.
+    //
+    //      [in] v - the destination
+    //
+    // Returns whether the destination was claimed, false if another path already holds it.
+    //
+    private boolean _claim(int v)
+    {
+        int last = claimed.get(v);
+
+        return last != stamp && claimed.compareAndSet(v, last, stamp);
+    }
+
+    //
+    // augment
+    //
+    // Searches depth-first through the layers for an augmenting path from a free source and
+    // flips the matching along it, claiming every destination stepped onto. A source is only
+    // reached through its claimed mate, so the sources and destinations on the stack belong
+    // to the calling thread alone. Sources that lead nowhere are removed from the layers.
+    //
+    //      [in] root   - the free source to start from
+    //      [in] stack  - a stack with room for one source per layer
+    //
+    // Returns whether an augmenting path was found.
+    //
+    private boolean _augment(int root, int[] stack)
+    {
+        int depth = 0;
+        stack[0] = root;
+
+        while (depth >= 0)
+        {
+            int     u        = stack[depth];
+            int     end      = offsets[u + 1];
+            boolean advanced = false;
+
+            while (currentArc[u] < end)
+            {
+                int v    = targets[currentArc[u]];
+                int mate = destinationMate[v];
+
+                if (mate == -1)
+                {
+                    if (depth == freeDist && _claim(v))
+                    {
+                        //
+                        // Free destination reached: flip the matching along the stack:
+                        //
+                        for (int i = depth; i >= 0; i--)
+                        {
+                            int src = stack[i];
+                            int dst = targets[currentArc[src]];
+
+                            sourceMate[src]      = dst;
+                            destinationMate[dst] = src;
+                        }
+
+                        return true;
+                    }
+                }
+                else if (depth < freeDist && dist.get(mate) == depth + 1 && _claim(v))
+                {
+                    stack[++depth] = mate;
+                    advanced       = true;
+
+                    break;
+                }
+
+                currentArc[u]++;
+            }
+
+            if (!advanced)
+            {
+                //
+                // Dead end: remove from the layers and retreat:
+                //
+                dist.set(u, INFINITY);
+                depth--;
+
+                if (depth >= 0)
+                {
+                    currentArc[stack[depth]]++;
+                }
+            }
+        }
+
+        return false;
+    }
+}
@@ -0,0 +1,340 @@
+//
+// ParallelLoader.java
+//
+// This class reads a bipartite graph from a file in the "src>dst1,dst2,..." format on several
+// threads. Lines are independent, so the file is split into chunks at line boundaries and each
+// chunk is memory-mapped and parsed by its own thread into its own dictionaries and edge
+// arrays (see MappedParser.java). The chunks are then merged in file order into one global id
+// space, which gives exactly the ids, edges and duplicate handling of a single-threaded read.
+//
+// The MIT License (MIT)
+//
+// Copyright (c) 2022 Luke Andrews. All Rights Reserved.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this
+// software and associated documentation files (the "Software"), to deal in the Software
+// without restriction, including without limitation the rights to use, copy, modify, merge,
+// publish, distribute, sub-license, and/or sell copies of the Software, and to permit persons
+// to whom the Software is furnished to do so, subject to the following conditions:
+// 
+// * The above copyright notice and this permission notice shall be included in all copies or
+//   substantial portions of the Software.
+// 
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, 
+// INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+// PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+// FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR 
+// OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+// DEALINGS IN THE SOFTWARE.
+//
+package maxflowalgorithm;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.*;
+
+class ParallelLoader
+{
+    private static final long MIN_CHUNK_SIZE = 1 << 20; // smaller chunks are not worth a thread
+    private static final long MAX_CHUNK_SIZE = 1 << 30; // largest mapping, well under the 2 GB limit
+    private static final int  SCAN_SIZE      = 1 << 16; // bytes read at a time when looking for a line end
+
+    //
+    // load
+    //
+    // Reads a bipartite graph from a file using one thread per available processor.
+    //
+    //      [in] inputFile - the input file
+    //
+    // Returns the bipartite graph.
+    //
+    public static BipartiteGraph load(File inputFile) throws IOException
+    {
+        return load(inputFile, Runtime.getRuntime().availableProcessors());
+    }
+
+    //
+    // load
+    //
+    // Reads an unweighted bipartite graph from a file using a given number of threads.
+    //
+    //      [in] inputFile  - the input file
+    //      [in] numThreads - the number of threads to parse with
+    //
+    // Returns the bipartite graph.
+    //
+    public static BipartiteGraph load(File inputFile, int numThreads) throws IOException
+    {
+        return load(inputFile, numThreads, false);
+    }
+
+    //
+    // load
+    //
+    // Reads a bipartite graph from a file using a given number of threads.
+    //
+    //      [in] inputFile  - the input file
+    //      [in] numThreads - the number of threads to parse with
+    //      [in] weighted   - whether destinations may carry weights ("dst1:5", see MappedParser.java)
+    //
+    // Returns the bipartite graph.
+    //
+    public static BipartiteGraph load(File inputFile, int numThreads, boolean weighted) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(inputFile.toPath(), StandardOpenOption.READ))
+        {
+            long[] bounds    = _splitChunks(channel, numThreads);
+            int    numChunks = bounds.length - 1;
+
+            if (numChunks == 1)
+            {
+                return MappedParser.parse(inputFile, weighted);
+            }
+
+            //
+            // Parse every chunk on the pool:
+            //
+            ExecutorService              pool    = Executors.newFixedThreadPool(Math.min(numThreads, numChunks));
+            List<Future<BipartiteGraph>>   futures = new ArrayList<>();
+
+            try
+            {
+                for (int i = 0; i < numChunks; i++)
+                {
+                    long start = bounds[i];
+                    long end   = bounds[i + 1];
+
+                    futures.add(pool.submit(() -> _parseChunk(channel, start, end, weighted)));
+                }
+
+                BipartiteGraph[] chunks = new BipartiteGraph[numChunks];
+
+                for (int i = 0; i < numChunks; i++)
+                {
+                    chunks[i] = futures.get(i).get();
+                }
+
+                return _merge(chunks);
+            }
+            catch (InterruptedException ex)
+            {
+                Thread.currentThread().interrupt();
+
+                throw new InterruptedIOException();
+            }
+            catch (ExecutionException ex)
+            {
+                if (ex.getCause() instanceof IOException)
+                {
+                    throw (IOException) ex.getCause();
+                }
+
+                throw new IOException(ex.getCause());
+            }
+            finally
+            {
+                pool.shutdownNow();
+            }
+        }
+    }
+
+    //
+    // splitChunks
+    //
+    // Splits a file into chunks of roughly equal size that each start at the beginning of a line.
+    //
+    //      [in] channel    - the file channel
+    //      [in] numThreads - the number of threads to parse with
+    //
+    // Returns the chunk boundaries: chunk i is bytes bounds[i] .. bounds[i + 1] - 1.
+    //
+    private static long[] _splitChunks(FileChannel channel, int numThreads) throws IOException
+    {
+        long size      = channel.size();
+        long numChunks = Math.max(Math.min(numThreads, size / MIN_CHUNK_SIZE), 1);
+
+        numChunks = Math.max(numChunks, (size + MAX_CHUNK_SIZE / 2 - 1) / (MAX_CHUNK_SIZE / 2));
+
+        long[] bounds = new long[(int) numChunks + 1];
+        int    count  = 1;
+
+        for (int i = 1; i < numChunks; i++)
+        {
+            long bound = _nextLineStart(channel, Math.max(size * i / numChunks, bounds[count - 1]));
+
+            if (bound > bounds[count - 1] && bound < size)
+            {
+                bounds[count++] = bound;
+            }
+        }
+
+        bounds[count++] = size;
+
+        for (int i = 1; i < count; i++)
+        {
+            if (bounds[i] - bounds[i - 1] > MAX_CHUNK_SIZE)
+            {
+                throw new IOException("Line longer than " + MAX_CHUNK_SIZE / 2 + " bytes near offset " + bounds[i - 1]);
+            }
+        }
+
+        return Arrays.copyOf(bounds, count);
+    }
+
+    //
+    // nextLineStart
+    //
+    // Finds the start of the first line beginning at or after a given offset.
+    //
+    //      [in] channel    - the file channel
+    //      [in] offset     - the offset to search from
+    //
+    // Returns the offset of the line start, or the file size if there is none.
+    //
+    private static long _nextLineStart(FileChannel channel, long offset) throws IOException
+    {
+        if (offset == 0)
+        {
+            return 0;
+        }
+
+        ByteBuffer buffer   = ByteBuffer.allocate(SCAN_SIZE);
+        long       position = offset - 1;
+
+        while (true)
+        {
+            buffer.clear();
+
+            int read = channel.read(buffer, position);
+
+            if (read <= 0)
+            {
+                return channel.size();
+            }
+
+            for (int i = 0; i < read; i++)
+            {
+                if (buffer.get(i) == '\n')
+                {
+                    return position + i + 1;
+                }
+            }
+
+            position += read;
+        }
+    }
+
+    //
+    // parseChunk
+    //
+    // Maps one chunk of the file and parses it into a bipartite graph with its own ids.
+    //
+    //      [in] channel    - the file channel
+    //      [in] start      - the offset of the first byte of the chunk
+    //      [in] end        - the offset just past the last byte of the chunk
+    //      [in] weighted   - whether destinations may carry weights
+    //
+    // Returns the bipartite graph of the chunk.
+    //
+    private static BipartiteGraph _parseChunk(FileChannel channel, long start, long end, boolean weighted) throws IOException
+    {
+        BipartiteGraphBuilder builder = new BipartiteGraphBuilder();
+        ByteBuffer            chunk   = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+
+        MappedParser.parseLines(chunk, 0, (int) (end - start), builder, weighted);
+
+        return builder.build();
+    }
+
+    //
+    // merge
+    //
+    // Merges the graphs of the chunks, in file order, into one graph. Names are re-interned
+    // into global dictionaries, and the edges of a source already seen in an earlier chunk
+    // are dropped, as they would be by a single-threaded read. Destinations are re-interned
+    // as the kept edges reach them, so only destinations of kept edges get an id, in the
+    // order a single-threaded read would give. As in BipartiteGraphBuilder.java, weights are
+    // only kept once a kept edge has a weight other than 1, so a weighted edge that is dropped
+    // does not make the merged graph weighted.
+    //
+    //      [in] chunks - the graphs of the chunks
+    //
+    // Returns the merged graph.
+    //
+    private static BipartiteGraph _merge(BipartiteGraph[] chunks)
+    {
+        NameDictionary sources      = new NameDictionary();
+        NameDictionary destinations = new NameDictionary();
+        int            numSources   = 0;
+        int            numEdges     = 0;
+
+        for (BipartiteGraph chunk : chunks)
+        {
+            numSources += chunk.getNumSources();
+            numEdges   += chunk.getNumEdges();
+        }
+
+        IntList offsets = new IntList(numSources + 1);
+        IntList targets = new IntList(numEdges);
+        IntList weights = null;                         // edge weights, null while every kept weight is 1
+
+        for (BipartiteGraph chunk : chunks)
+        {
+            NameDictionary chunkSrc = chunk.getSources();
+            NameDictionary chunkDst = chunk.getDestinations();
+            int[]          chunkOff = chunk.getOffsets();
+            int[]          chunkTgt = chunk.getTargets();
+            int[]          chunkWgt = chunk.getWeights();
+            int[]          dstIds   = new int[chunkDst.size()];    // global id of each chunk destination + 1, 0 if not yet interned
+
+            for (int u = 0; u < chunkSrc.size(); u++)
+            {
+                int numSeen = sources.size();
+
+                if (sources.intern(chunkSrc, u) < numSeen)
+                {
+                    continue;
+                }
+
+                offsets.add(targets.size());
+
+                for (int arc = chunkOff[u]; arc < chunkOff[u + 1]; arc++)
+                {
+                    int v = chunkTgt[arc];
+
+                    if (dstIds[v] == 0)
+                    {
+                        dstIds[v] = destinations.intern(chunkDst, v) + 1;
+                    }
+
+                    int weight = chunkWgt == null ? 1 : chunkWgt[arc];
+
+                    if (weights == null && weight != 1)
+                    {
+                        weights = new IntList(numEdges);
+
+                        for (int i = 0; i < targets.size(); i++)
+                        {
+                            weights.add(1);
+                        }
+                    }
+
+                    targets.add(dstIds[v] - 1);
+
+                    if (weights != null)
+                    {
+                        weights.add(weight);
+                    }
+                }
+            }
+        }
+
+        offsets.add(targets.size());
+
+        return new BipartiteGraph(sources, destinations, offsets.toArray(), targets.toArray(),
+                                  weights == null ? null : weights.toArray());
+    }
+}
@@ -0,0 +1,389 @@
+//
+// PathSearch.java
+//
+// This class finds augmenting paths from a source to a sink through the residual capacities
+// of a sparse graph. Three search modes are available:
+//
+//      FULL            - a breadth-first search run to completion (the original behaviour)
+//      EARLY_EXIT      - a breadth-first search that stops as soon as the sink is reached
+//      BIDIRECTIONAL   - breadth-first searches grown from both the source and the sink, one
+//                        layer at a time from whichever frontier is smaller, stopping where
+//                        they meet
+//
+// Arcs can optionally be restricted to those with at least a given residual capacity.
+// The number of vertices and arcs scanned is counted across searches so the modes can be
+// compared. All working arrays are allocated once, at construction.
+//
+// The MIT License (MIT)
+//
+// Copyright (c) 2022 Luke Andrews. All Rights Reserved.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this
+// software and associated documentation files (the "Software"), to deal in the Software
+// without restriction, including without limitation the rights to use, copy, modify, merge,
+// publish, distribute, sub-license, and/or sell copies of the Software, and to permit persons
+// to whom the Software is furnished to do so, subject to the following conditions:
+//
+// * The above copyright notice and this permission notice shall be included in all copies or
+//   substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+// INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+// PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+// FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+// OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+// DEALINGS IN THE SOFTWARE.
+//
+package maxflowalgorithm;
+
+class PathSearch
+{
+    enum Mode
+    {
+        FULL,
+        EARLY_EXIT,
+        BIDIRECTIONAL
+    }
+
+    private SparseGraph graph;
+    private int         source;
+    private int         sink;
+    private Mode        mode;
+    private int         minResidual = 1;
+
+    private int[]       forwardQueue;
+    private int[]       backwardQueue;
+    private int[]       forwardArc;     // arc used to reach each node from the source side
+    private int[]       backwardArc;    // arc leading from each node towards the sink side
+    private int[]       forwardMark;    // equal to stamp when reached from the source side
+    private int[]       backwardMark;   // equal to stamp when reached from the sink side
+    private int         stamp;
+
+    private int[]       path;           // arcs of the last path found, from source to sink
+    private int         pathLength;
+
+    private long        verticesScanned;
+    private long        arcsScanned;
+
+    //
+    // Overloaded constructor.
+    //
+    // Constructs with a sparse graph, source node index, sink node index and search mode.
+    //
+    //      [in] graph      - the sparse graph
+    //      [in] source     - the index of source node
+    //      [in] sink       - the index of the sink node
+    //      [in] mode       - the search mode
+    //
+    public PathSearch(SparseGraph graph, int source, int sink, Mode mode)
+    {
+        this.graph  = graph;
+        this.source = source;
+        this.sink   = sink;
+        this.mode   = mode;
+
+        int numNodes = graph.getNumNodes();
+
+        this.forwardQueue  = new int[numNodes];
+        this.backwardQueue = new int[numNodes];
+        this.forwardArc    = new int[numNodes];
+        this.backwardArc   = new int[numNodes];
+        this.forwardMark   = new int[numNodes];
+        this.backwardMark  = new int[numNodes];
+        this.path          = new int[numNodes];
+    }
+
+    //
+    // setMinResidual
+    //
+    // Sets the smallest residual capacity an arc needs to be used by a path (1 by default).
+    //
+    //      [in] minResidual - the smallest usable residual capacity
+    //
+    public void setMinResidual(int minResidual)
+    {
+        this.minResidual = minResidual;
+    }
+
+    //
+    // getPath
+    //
+    // Gets the arcs of the last path found, in order from the source to the sink.
+    // Only the first getPathLength() entries are meaningful.
+    //
+    public int[] getPath()
+    {
+        return path;
+    }
+
+    //
+    // getPathLength
+    //
+    // Gets the number of arcs in the last path found.
+    //
+    public int getPathLength()
+    {
+        return pathLength;
+    }
+
+    //
+    // getVerticesScanned
+    //
+    // Gets the number of vertices whose arcs were scanned, over all searches.
+    //
+    public long getVerticesScanned()
+    {
+        return verticesScanned;
+    }
+
+    //
+    // getArcsScanned
+    //
+    // Gets the number of arcs scanned, over all searches.
+    //
+    public long getArcsScanned()
+    {
+        return arcsScanned;
+    }
+
+    //
+    // findPath
+    //
+    // Searches for a path from the source to the sink along arcs with at least the minimum
+    // residual capacity.
+    //
+    // Returns whether a path was found.
+    //
+    public boolean findPath()
+    {
+        //
+        // Advance the stamp instead of clearing the marks (clear them only on wrap around):
+        //
+        if (++stamp == Integer.MAX_VALUE)
+        {
+            java.util.Arrays.fill(forwardMark, 0);
+            java.util.Arrays.fill(backwardMark, 0);
+            stamp = 1;
+        }
+
+        pathLength = 0;
+
+        if (mode == Mode.BIDIRECTIONAL)
+        {
+            return _findPathBidirectional();
+        }
+
+        return _findPathForward(mode == Mode.EARLY_EXIT);
+    }
+
+    //
+    // findPathForward
+    //
+    // Performs a breadth-first search from the source.
+    //
+    //      [in] earlyExit - whether to stop as soon as the sink is reached
+    //
+    // Returns whether a path was found.
+    //
+    private boolean _findPathForward(boolean earlyExit)
+    {
+        int[] firstArcs = graph.getFirstArcs();
+        int[] heads     = graph.getArcHeads();
+        int[] residuals = graph.getArcResiduals();
+
+        int qSize = 1;
+        forwardQueue[0]     = source;
+        forwardMark[source] = stamp;
+
+        for (int i = 0; i < qSize; i++)
+        {
+            int node = forwardQueue[i];
+
+            verticesScanned++;
+
+            for (int arc = firstArcs[node]; arc < firstArcs[node + 1]; arc++)
+            {
+                int head = heads[arc];
+
+                arcsScanned++;
+
+                if (forwardMark[head] != stamp && residuals[arc] >= minResidual)
+                {
+                    forwardMark[head]     = stamp;
+                    forwardArc[head]      = arc;
+                    forwardQueue[qSize++] = head;
+
+                    if (earlyExit && head == sink)
+                    {
+                        _makePath(sink);
+
+                        return true;
+                    }
+                }
+            }
+        }
+
+        if (forwardMark[sink] != stamp)
+        {
+            return false;
+        }
+
+        _makePath(sink);
+
+        return true;
+    }
+
+    //
+    // findPathBidirectional
+    //
+    // Grows breadth-first searches from the source (along residual arcs) and from the sink
+    // (against residual arcs), expanding one whole layer of the smaller frontier at a time,
+    // until a node is reached from both sides.
+    //
+    // Returns whether a path was found.
+    //
+    private boolean _findPathBidirectional()
+    {
+        int[] firstArcs = graph.getFirstArcs();
+        int[] heads     = graph.getArcHeads();
+        int[] reverses  = graph.getArcReverses();
+        int[] residuals = graph.getArcResiduals();
+
+        int forwardStart  = 0;
+        int forwardEnd    = 1;
+        int backwardStart = 0;
+        int backwardEnd   = 1;
+
+        forwardQueue[0]     = source;
+        forwardMark[source] = stamp;
+        backwardQueue[0]    = sink;
+        backwardMark[sink]  = stamp;
+
+        while (forwardStart < forwardEnd && backwardStart < backwardEnd)
+        {
+            if (forwardEnd - forwardStart <= backwardEnd - backwardStart)
+            {
+                //
+                // Expand one layer from the source side:
+                //
+                int layerEnd = forwardEnd;
+
+                for (int i = forwardStart; i < layerEnd; i++)
+                {
+                    int node = forwardQueue[i];
+
+                    verticesScanned++;
+
+                    for (int arc = firstArcs[node]; arc < firstArcs[node + 1]; arc++)
+                    {
+                        int head = heads[arc];
+
+                        arcsScanned++;
+
+                        if (forwardMark[head] == stamp || residuals[arc] < minResidual)
+                        {
+                            continue;
+                        }
+
+                        forwardMark[head] = stamp;
+                        forwardArc[head]  = arc;
+
+                        if (backwardMark[head] == stamp)
+                        {
+                            _makePath(head);
+
+                            return true;
+                        }
+
+                        forwardQueue[forwardEnd++] = head;
+                    }
+                }
+
+                forwardStart = layerEnd;
+            }
+            else
+            {
+                //
+                // Expand one layer from the sink side. The arc from a neighbour to this node
+                // is the reverse of the arc from this node to the neighbour:
+                //
+                int layerEnd = backwardEnd;
+
+                for (int i = backwardStart; i < layerEnd; i++)
+                {
+                    int node = backwardQueue[i];
+
+                    verticesScanned++;
+
+                    for (int arc = firstArcs[node]; arc < firstArcs[node + 1]; arc++)
+                    {
+                        int tail    = heads[arc];
+                        int inbound = reverses[arc];
+
+                        arcsScanned++;
+
+                        if (backwardMark[tail] == stamp || residuals[inbound] < minResidual)
+                        {
+                            continue;
+                        }
+
+                        backwardMark[tail] = stamp;
+                        backwardArc[tail]  = inbound;
+
+                        if (forwardMark[tail] == stamp)
+                        {
+                            _makePath(tail);
+
+                            return true;
+                        }
+
+                        backwardQueue[backwardEnd++] = tail;
+                    }
+                }
+
+                backwardStart = layerEnd;
+            }
+        }
+
+        return false;
+    }
+
+    //
+    // makePath
+    //
+    // Builds the path from the source to the sink through a node reached from the source side
+    // (and, if it is not the sink, from the sink side as well).
+    //
+    //      [in] meet - the node where the searches met
+    //
+    private void _makePath(int meet)
+    {
+        int[] heads    = graph.getArcHeads();
+        int[] reverses = graph.getArcReverses();
+
+        //
+        // Count the arcs back to the source, then fill them in from the meeting node backwards:
+        //
+        int count = 0;
+
+        for (int node = meet; node != source; node = heads[reverses[forwardArc[node]]])
+        {
+            count++;
+        }
+
+        pathLength = count;
+
+        for (int node = meet; node != source; node = heads[reverses[forwardArc[node]]])
+        {
+            path[--count] = forwardArc[node];
+        }
+
+        //
+        // Then follow the arcs on to the sink:
+        //
+        for (int node = meet; node != sink; node = heads[backwardArc[node]])
+        {
+            path[pathLength++] = backwardArc[node];
+        }
+    }
+}
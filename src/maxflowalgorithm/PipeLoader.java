@@ -0,0 +1,267 @@
+//
+// PipeLoader.java
+//
+// This class reads a bipartite graph in the "src>dst1,dst2,..." format from a pipe, such as
+// standard input, that can only be read once from start to end. A reader thread fills blocks
+// from the pipe while the calling thread parses the blocks already read (see StreamParser.java),
+// so the graph is built while the producer is still writing and nothing is staged on disk.
+// Gzip compressed input is detected from its first bytes and decompressed on the reader thread.
+//
+// The MIT License (MIT)
+//
+// Copyright (c) 2022 Luke Andrews. All Rights Reserved.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this
+// software and associated documentation files (the "Software"), to deal in the Software
+// without restriction, including without limitation the rights to use, copy, modify, merge,
+// publish, distribute, sub-license, and/or sell copies of the Software, and to permit persons
+// to whom the Software is furnished to do so, subject to the following conditions:
+// 
+// * The above copyright notice and this permission notice shall be included in all copies or
+//   substantial portions of the Software.
+// 
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, 
+// INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+// PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+// FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR 
+// OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+// DEALINGS IN THE SOFTWARE.
+//
+package maxflowalgorithm;
+
+import java.io.*;
+import java.util.concurrent.*;
+import java.util.zip.GZIPInputStream;
+
+class PipeLoader
+{
+    private static final int BLOCK_SIZE = 1 << 20;  // bytes per block
+    private static final int NUM_BLOCKS = 4;        // blocks shared between the reader and the parser
+
+    //
+    // _Block
+    //
+    // This class describes one block of bytes read from the pipe.
+    //
+    private static class _Block
+    {
+        byte[] data   = new byte[BLOCK_SIZE];
+        int    length;                          // -1 marks the end of the input
+    }
+
+    //
+    // load
+    //
+    // Reads an unweighted bipartite graph from a stream until the end of the stream. The stream
+    // is not closed.
+    //
+    //      [in] in - the input stream
+    //
+    // Returns the bipartite graph.
+    //
+    public static BipartiteGraph load(InputStream in) throws IOException
+    {
+        return load(in, false);
+    }
+
+    //
+    // load
+    //
+    // Reads a bipartite graph from a stream until the end of the stream. The stream is not closed.
+    //
+    //      [in] in         - the input stream
+    //      [in] weighted   - whether destinations may carry weights ("dst1:5", see MappedParser.java)
+    //
+    // Returns the bipartite graph.
+    //
+    public static BipartiteGraph load(InputStream in, boolean weighted) throws IOException
+    {
+        BlockingQueue<_Block> free   = new ArrayBlockingQueue<>(NUM_BLOCKS);
+        BlockingQueue<_Block> filled = new ArrayBlockingQueue<>(NUM_BLOCKS + 1);
+        Throwable[]           error  = new Throwable[1];
+
+        for (int i = 0; i < NUM_BLOCKS; i++)
+        {
+            free.add(new _Block());
+        }
+
+        Thread reader = new Thread(() -> _read(in, free, filled, error), "PipeLoader reader");
+
+        reader.setDaemon(true);
+        reader.start();
+
+        //
+        // Parse each block as it arrives and hand it back to the reader:
+        //
+        StreamParser parser = new StreamParser(weighted);
+
+        try
+        {
+            _Block block = filled.take();
+
+            while (block.length >= 0)
+            {
+                parser.feed(block.data, 0, block.length);
+                free.put(block);
+
+                block = filled.take();
+            }
+
+            reader.join();
+        }
+        catch (InterruptedException ex)
+        {
+            Thread.currentThread().interrupt();
+
+            throw new InterruptedIOException();
+        }
+        finally
+        {
+            //
+            // If parsing failed, the reader may be waiting for a free block that will never
+            // be handed back (this does nothing once it has finished):
+            //
+            reader.interrupt();
+        }
+
+        if (error[0] instanceof IOException)
+        {
+            throw (IOException) error[0];
+        }
+
+        if (error[0] instanceof RuntimeException)
+        {
+            throw (RuntimeException) error[0];
+        }
+
+        if (error[0] instanceof Error)
+        {
+            throw (Error) error[0];
+        }
+
+        return parser.finish();
+    }
+
+    //
+    // read
+    //
+    // Body of the reader thread. Fills free blocks from the stream, decompressing it first if
+    // it is gzip compressed, and queues them for parsing. Always queues an end marker last,
+    // after recording any error, even one that is not an IOException, so the parser never
+    // waits for a block that will not come.
+    //
+    //      [in]  in        - the input stream
+    //      [in]  free      - the blocks available for filling
+    //      [in]  filled    - the blocks waiting to be parsed
+    //      [out] error     - the error that stopped reading, if any
+    //
+    private static void _read(InputStream in, BlockingQueue<_Block> free, BlockingQueue<_Block> filled,
+                              Throwable[] error)
+    {
+        _Block end = new _Block();
+
+        end.length = -1;
+
+        try
+        {
+            InputStream source = _decompressIfGzip(in);
+
+            while (true)
+            {
+                _Block block = free.take();
+                int    count = _readFully(source, block.data);
+
+                if (count == 0)
+                {
+                    break;
+                }
+
+                block.length = count;
+                filled.put(block);
+            }
+        }
+        catch (IOException ex)
+        {
+            error[0] = ex;
+        }
+        catch (InterruptedException ex)
+        {
+            error[0] = new InterruptedIOException();
+        }
+        catch (Throwable ex)
+        {
+            error[0] = ex;
+        }
+        finally
+        {
+            filled.add(end);
+        }
+    }
+
+    //
+    // decompressIfGzip
+    //
+    // Looks at the first two bytes of a stream for the gzip magic number.
+    //
+    //      [in] in - the input stream
+    //
+    // Returns a stream of the decompressed bytes if the input is gzip compressed, otherwise
+    // a stream of the input bytes.
+    //
+    private static InputStream _decompressIfGzip(InputStream in) throws IOException
+    {
+        PushbackInputStream pushback = new PushbackInputStream(in, 2);
+        byte[]              magic    = new byte[2];
+        int                 count    = 0;
+
+        while (count < 2)
+        {
+            int read = pushback.read(magic, count, 2 - count);
+
+            if (read < 0)
+            {
+                break;
+            }
+
+            count += read;
+        }
+
+        pushback.unread(magic, 0, count);
+
+        if (count == 2 && (magic[0] & 0xFF) == 0x1F && (magic[1] & 0xFF) == 0x8B)
+        {
+            return new GZIPInputStream(pushback, BLOCK_SIZE);
+        }
+
+        return pushback;
+    }
+
+    //
+    // readFully
+    //
+    // Reads from a stream until a buffer is full or the stream ends.
+    //
+    //      [in]  in        - the input stream
+    //      [out] buffer    - the buffer to fill
+    //
+    // Returns the number of bytes read, 0 at the end of the stream.
+    //
+    private static int _readFully(InputStream in, byte[] buffer) throws IOException
+    {
+        int count = 0;
+
+        while (count < buffer.length)
+        {
+            int read = in.read(buffer, count, buffer.length - count);
+
+            if (read < 0)
+            {
+                break;
+            }
+
+            count += read;
+        }
+
+        return count;
+    }
+}
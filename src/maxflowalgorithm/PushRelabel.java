@@ -0,0 +1,434 @@
+//
+// PushRelabel.java
+//
+// This class computes a maximum flow of a sparse graph using the push-relabel method.
+// Active nodes are discharged in highest-label order. Two heuristics keep the labels exact:
+// the gap heuristic cuts off every node above a label no node holds any more, and a global
+// relabel periodically recomputes all labels by a backward breadth-first search from the sink.
+//
+// The computation has two phases. The first finds a maximum preflow, whose value is the
+// maximum flow. The second returns any excess stranded inside the graph to the source, so
+// the residual capacities left in the sparse graph describe a valid flow.
+//
+// The MIT License (MIT)
+//
+// Copyright (c) 2022 Luke Andrews. All Rights Reserved.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this
+// software and associated documentation files (the "Software"), to deal in the Software
+// without restriction, including without limitation the rights to use, copy, modify, merge,
+// publish, distribute, sub-license, and/or sell copies of the Software, and to permit persons
+// to whom the Software is furnished to do so, subject to the following conditions:
+//
+// * The above copyright notice and this permission notice shall be included in all copies or
+//   substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+// INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+// PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+// FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+// OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+// DEALINGS IN THE SOFTWARE.
+//
+package maxflowalgorithm;
+
+class PushRelabel implements MaxFlowSolver
+{
+    private static final int GLOBAL_RELABEL_FACTOR = 6; // global relabel after 6 * V + E units of work
+
+    private SparseGraph graph;
+    private int         source;
+    private int         sink;
+    private int         numNodes;
+
+    private int[]       label;
+    private long[]      excess;
+    private int[]       currentArc;
+    private int[]       queue;
+
+    private int[]       activeHead; // per label, stack of active nodes
+    private int[]       activeNext;
+    private int         maxActive;
+
+    private int[]       allHead;    // per label, doubly linked list of all nodes below numNodes
+    private int[]       allNext;
+    private int[]       allPrev;
+    private int         maxLabel;
+
+    private long        work;
+
+    //
+    // getName
+    //
+    // Gets a short name for the engine, for reporting.
+    //
+    public String getName()
+    {
+        return "Push-relabel";
+    }
+
+    //
+    // computeMaxFlow
+    //
+    // Computes the maximum flow, starting from no flow. The resulting flow is left in the
+    // residual capacities of the sparse graph. Working arrays are kept between calls and only
+    // reallocated when the number of nodes changes.
+    //
+    //      [in] graph      - the sparse graph
+    //      [in] source     - the index of source node
+    //      [in] sink       - the index of the sink node
+    //
+    // Returns the maximum flow.
+    //
+    public int computeMaxFlow(SparseGraph graph, int source, int sink)
+    {
+        this.graph    = graph;
+        this.source   = source;
+        this.sink     = sink;
+
+        if (label == null || numNodes != graph.getNumNodes())
+        {
+            numNodes   = graph.getNumNodes();
+            label      = new int[numNodes];
+            excess     = new long[numNodes];
+            currentArc = new int[numNodes];
+            queue      = new int[numNodes];
+            activeHead = new int[numNodes + 1];
+            activeNext = new int[numNodes];
+            allHead    = new int[numNodes + 1];
+            allNext    = new int[numNodes];
+            allPrev    = new int[numNodes];
+        }
+
+        int[] firstArcs = graph.getFirstArcs();
+        int[] heads     = graph.getArcHeads();
+        int[] reverses  = graph.getArcReverses();
+        int[] residuals = graph.getArcResiduals();
+
+        graph.resetFlow();
+
+        for (int i = 0; i < numNodes; i++)
+        {
+            excess[i] = 0;
+        }
+
+        //
+        // Saturate every arc leaving the source:
+        //
+        for (int arc = firstArcs[source]; arc < firstArcs[source + 1]; arc++)
+        {
+            int capacity = residuals[arc];
+
+            if (capacity > 0 && heads[arc] != source)
+            {
+                residuals[arc]           -= capacity;
+                residuals[reverses[arc]] += capacity;
+                excess[heads[arc]]       += capacity;
+                excess[source]           -= capacity;
+            }
+        }
+
+        //
+        // Phase one: move as much excess as possible to the sink:
+        //
+        _run(sink, source);
+
+        int maxFlow = Math.toIntExact(excess[sink]);
+
+        //
+        // Phase two: return the excess that cannot reach the sink to the source:
+        //
+        _run(source, sink);
+
+        return maxFlow;
+    }
+
+    //
+    // run
+    //
+    // Discharges active nodes in highest-label order until none remain, where labels measure
+    // the residual distance to a given target node.
+    //
+    //      [in] target     - the node excess is moved towards
+    //      [in] other      - the other terminal node, which never receives excess
+    //
+    private void _run(int target, int other)
+    {
+        long threshold = (long) GLOBAL_RELABEL_FACTOR * numNodes + graph.getNumArcs();
+
+        _globalRelabel(target, other);
+
+        while (true)
+        {
+            while (maxActive >= 0 && activeHead[maxActive] == -1)
+            {
+                maxActive--;
+            }
+
+            if (maxActive < 0)
+            {
+                break;
+            }
+
+            int node = activeHead[maxActive];
+            activeHead[maxActive] = activeNext[node];
+
+            _discharge(node, target, other);
+
+            if (work > threshold)
+            {
+                _globalRelabel(target, other);
+            }
+        }
+    }
+
+    //
+    // globalRelabel
+    //
+    // Sets every label to the exact residual distance to the target by a backward breadth-first
+    // search, then rebuilds the label lists. Nodes that cannot reach the target get numNodes.
+    //
+    //      [in] target     - the node distances are measured to
+    //      [in] other      - the other terminal node
+    //
+    private void _globalRelabel(int target, int other)
+    {
+        int[] firstArcs = graph.getFirstArcs();
+        int[] heads     = graph.getArcHeads();
+        int[] reverses  = graph.getArcReverses();
+        int[] residuals = graph.getArcResiduals();
+
+        for (int i = 0; i < numNodes; i++)
+        {
+            label[i]      = numNodes;
+            currentArc[i] = firstArcs[i];
+        }
+
+        for (int i = 0; i <= numNodes; i++)
+        {
+            activeHead[i] = -1;
+            allHead[i]    = -1;
+        }
+
+        maxActive = -1;
+        maxLabel  = 0;
+        work      = 0;
+
+        int qSize = 1;
+        queue[0]      = target;
+        label[target] = 0;
+
+        for (int i = 0; i < qSize; i++)
+        {
+            int node = queue[i];
+
+            //
+            // A node can reach this one if the arc running from it to here has residual capacity:
+            //
+            for (int arc = firstArcs[node]; arc < firstArcs[node + 1]; arc++)
+            {
+                int tail = heads[arc];
+
+                if (label[tail] == numNodes && tail != other && residuals[reverses[arc]] > 0)
+                {
+                    label[tail]    = label[node] + 1;
+                    queue[qSize++] = tail;
+
+                    _addToLabel(tail);
+
+                    if (excess[tail] > 0)
+                    {
+                        _activate(tail);
+                    }
+                }
+            }
+        }
+    }
+
+    //
+    // discharge
+    //
+    // Pushes the excess of a node along admissible arcs, relabeling it whenever it runs out
+    // of admissible arcs, until it has no excess or can no longer reach the target.
+    //
+    //      [in] node       - the active node
+    //      [in] target     - the node excess is moved towards
+    //      [in] other      - the other terminal node
+    //
+    private void _discharge(int node, int target, int other)
+    {
+        int[] firstArcs = graph.getFirstArcs();
+        int[] heads     = graph.getArcHeads();
+        int[] reverses  = graph.getArcReverses();
+        int[] residuals = graph.getArcResiduals();
+
+        int end = firstArcs[node + 1];
+
+        while (excess[node] > 0)
+        {
+            int arc = currentArc[node];
+
+            if (arc == end)
+            {
+                _relabel(node);
+
+                if (label[node] >= numNodes)
+                {
+                    return;
+                }
+
+                continue;
+            }
+
+            int head = heads[arc];
+
+            if (residuals[arc] > 0 && label[node] == label[head] + 1)
+            {
+                int amount = (int) Math.min(excess[node], residuals[arc]);
+
+                if (excess[head] == 0 && head != target && head != other)
+                {
+                    _activate(head);
+                }
+
+                residuals[arc]           -= amount;
+                residuals[reverses[arc]] += amount;
+                excess[node]             -= amount;
+                excess[head]             += amount;
+            }
+            else
+            {
+                currentArc[node]++;
+            }
+        }
+    }
+
+    //
+    // relabel
+    //
+    // Raises the label of a node to one more than its lowest residual neighbour. If the node
+    // was the last one holding its old label, applies the gap heuristic instead.
+    //
+    //      [in] node - the node to relabel
+    //
+    private void _relabel(int node)
+    {
+        int[] firstArcs = graph.getFirstArcs();
+        int[] heads     = graph.getArcHeads();
+        int[] residuals = graph.getArcResiduals();
+
+        int oldLabel = label[node];
+
+        _removeFromLabel(node);
+
+        //
+        // Gap: no node is left with the old label, so nothing above it can reach the target.
+        // Only inactive nodes can be above it, since the node being discharged has the highest label:
+        //
+        if (allHead[oldLabel] == -1)
+        {
+            for (int l = oldLabel + 1; l <= maxLabel; l++)
+            {
+                for (int other = allHead[l]; other != -1; other = allNext[other])
+                {
+                    label[other] = numNodes;
+                }
+
+                allHead[l] = -1;
+            }
+
+            maxLabel    = oldLabel - 1;
+            label[node] = numNodes;
+
+            return;
+        }
+
+        int newLabel = numNodes;
+
+        for (int arc = firstArcs[node]; arc < firstArcs[node + 1]; arc++)
+        {
+            if (residuals[arc] > 0)
+            {
+                newLabel = Math.min(newLabel, label[heads[arc]] + 1);
+            }
+        }
+
+        work += firstArcs[node + 1] - firstArcs[node] + 12;
+
+        label[node]      = newLabel;
+        currentArc[node] = firstArcs[node];
+
+        if (newLabel < numNodes)
+        {
+            _addToLabel(node);
+        }
+    }
+
+    //
+    // activate
+    //
+    // Adds a node to the stack of active nodes for its label.
+    //
+    //      [in] node - the node with new excess
+    //
+    private void _activate(int node)
+    {
+        int l = label[node];
+
+        if (l < numNodes)
+        {
+            activeNext[node] = activeHead[l];
+            activeHead[l]    = node;
+            maxActive        = Math.max(maxActive, l);
+        }
+    }
+
+    //
+    // addToLabel
+    //
+    // Adds a node to the list of all nodes with its label.
+    //
+    //      [in] node - the node
+    //
+    private void _addToLabel(int node)
+    {
+        int l = label[node];
+
+        allPrev[node] = -1;
+        allNext[node] = allHead[l];
+
+        if (allHead[l] != -1)
+        {
+            allPrev[allHead[l]] = node;
+        }
+
+        allHead[l] = node;
+        maxLabel   = Math.max(maxLabel, l);
+    }
+
+    //
+    // removeFromLabel
+    //
+    // Removes a node from the list of all nodes with its label.
+    //
+    //      [in] node - the node
+    //
+    private void _removeFromLabel(int node)
+    {
+        int l = label[node];
+
+        if (allPrev[node] != -1)
+        {
+            allNext[allPrev[node]] = allNext[node];
+        }
+        else
+        {
+            allHead[l] = allNext[node];
+        }
+
+        if (allNext[node] != -1)
+        {
+            allPrev[allNext[node]] = allPrev[node];
+        }
+    }
+}
@@ -0,0 +1,358 @@
+//
+// PushRelabelMatcher.java
+//
+// This class computes a maximum bipartite matching with a push-relabel method specialised
+// for unit capacities. The source and sink of the flow network are implicit: an unmatched
+// source is an active node with one unit of excess, and an unmatched destination is a node
+// next to the sink. So only the mate of every vertex and a label per destination are kept,
+// the label being the residual distance to a free destination.
+//
+// An active source is discharged with a double push: it is matched to its lowest labelled
+// neighbour, evicting that neighbour's previous mate (which becomes active), and the
+// neighbour is relabelled to two more than the source's second lowest neighbour. Labels are
+// periodically recomputed exactly by a breadth-first search from the free destinations, and
+// a source whose neighbours can no longer reach a free destination is dropped. No phase has to
+// scan every vertex, so on some graphs this is faster than Hopcroft Karp.
+//
+// The MIT License (MIT)
+//
+// Copyright (c) 2022 Luke Andrews. All Rights Reserved.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this
+// software and associated documentation files (the "Software"), to deal in the Software
+// without restriction, including without limitation the rights to use, copy, modify, merge,
+// publish, distribute, sub-license, and/or sell copies of the Software, and to permit persons
+// to whom the Software is furnished to do so, subject to the following conditions:
+// 
+// * The above copyright notice and this permission notice shall be included in all copies or
+//   substantial portions of the Software.
+// 
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, 
+// INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+// PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+// FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR 
+// OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+// DEALINGS IN THE SOFTWARE.
+//
+package maxflowalgorithm;
+
+class PushRelabelMatcher implements BipartiteMatcher
+{
+    private static final int GLOBAL_RELABEL_FACTOR = 6; // global relabel after 6 * V + E units of work
+
+    private int   numSources;
+    private int   numDestinations;
+    private int[] offsets;          // destinations of source u are targets[offsets[u]] .. targets[offsets[u + 1] - 1]
+    private int[] targets;
+    private int[] dstOffsets;       // sources of destination v are dstSources[dstOffsets[v]] .. dstSources[dstOffsets[v + 1] - 1]
+    private int[] dstSources;
+
+    private int[] sourceMate;       // destination matched to each source, -1 if free
+    private int[] destinationMate;  // source matched to each destination, -1 if free
+    private int[] label;            // residual distance of each destination to a free destination
+    private int   limit;            // label of destinations that cannot reach a free destination
+
+    private int[] active;           // circular queue of active (free) sources
+    private int   activeHead;
+    private int   activeSize;
+    private int[] queue;            // breadth-first search queue of destinations
+
+    //
+    // Overloaded constructor.
+    //
+    // Constructs with the adjacency arrays of a bipartite graph.
+    //
+    //      [in] numSources         - the number of source nodes
+    //      [in] numDestinations    - the number of destination nodes
+    //      [in] offsets            - per source, the start of its destinations (numSources + 1 entries)
+    //      [in] targets            - the destination of each edge
+    //
+    public PushRelabelMatcher(int numSources, int numDestinations, int[] offsets, int[] targets)
+    {
+        if (numSources < 0 || numDestinations < 0 || offsets == null || targets == null ||
+            offsets.length < numSources + 1 || targets.length < offsets[numSources])
+        {
+            throw new IllegalArgumentException();
+        }
+
+        this.numSources      = numSources;
+        this.numDestinations = numDestinations;
+        this.offsets         = offsets;
+        this.targets         = targets;
+
+        this.sourceMate      = new int[numSources];
+        this.destinationMate = new int[numDestinations];
+        this.label           = new int[numDestinations];
+        this.limit           = 2 * numDestinations + 2;
+        this.active          = new int[numSources];
+        this.queue           = new int[numDestinations];
+
+        //
+        // The global relabel searches from destinations back to sources:
+        //
+        this.dstOffsets      = new int[numDestinations + 1];
+        this.dstSources      = new int[offsets[numSources]];
+
+        for (int arc = 0; arc < offsets[numSources]; arc++)
+        {
+            dstOffsets[targets[arc] + 1]++;
+        }
+
+        for (int v = 0; v < numDestinations; v++)
+        {
+            dstOffsets[v + 1] += dstOffsets[v];
+        }
+
+        int[] cursor = java.util.Arrays.copyOf(dstOffsets, numDestinations);
+
+        for (int u = 0; u < numSources; u++)
+        {
+            for (int arc = offsets[u]; arc < offsets[u + 1]; arc++)
+            {
+                dstSources[cursor[targets[arc]]++] = u;
+            }
+        }
+    }
+
+    //
+    // getName
+    //
+    // Gets a short name for the engine, for reporting.
+    //
+    public String getName()
+    {
+        return "Push-relabel";
+    }
+
+    //
+    // getSourceMates
+    //
+    // Gets the destination matched to each source, -1 if the source is unmatched.
+    //
+    public int[] getSourceMates()
+    {
+        return sourceMate;
+    }
+
+    //
+    // getDestinationMates
+    //
+    // Gets the source matched to each destination, -1 if the destination is unmatched.
+    //
+    public int[] getDestinationMates()
+    {
+        return destinationMate;
+    }
+
+    //
+    // computeMatching
+    //
+    // Computes a maximum matching, starting from an empty matching.
+    //
+    // Returns the number of matched pairs.
+    //
+    public int computeMatching()
+    {
+        return computeMatching(null);
+    }
+
+    //
+    // computeMatching
+    //
+    // Computes a maximum matching, starting from a given matching (a warm start). Pairs whose
+    // destination is out of range or already taken by an earlier source are left out of the
+    // initial matching.
+    //
+    //      [in] initialSourceMates - the destination matched to each source, -1 if unmatched
+    //                                (may be shorter than the number of sources, or null)
+    //
+    // Returns the number of matched pairs.
+    //
+    public int computeMatching(int[] initialSourceMates)
+    {
+        java.util.Arrays.fill(sourceMate, -1);
+        java.util.Arrays.fill(destinationMate, -1);
+
+        if (initialSourceMates != null)
+        {
+            for (int u = 0; u < Math.min(numSources, initialSourceMates.length); u++)
+            {
+                int v = initialSourceMates[u];
+
+                if (v >= 0 && v < numDestinations && destinationMate[v] == -1)
+                {
+                    sourceMate[u]      = v;
+                    destinationMate[v] = u;
+                }
+            }
+        }
+
+        activeHead = 0;
+        activeSize = 0;
+
+        for (int u = 0; u < numSources; u++)
+        {
+            if (sourceMate[u] == -1 && offsets[u + 1] > offsets[u])
+            {
+                _activate(u);
+            }
+        }
+
+        _globalRelabel();
+
+        long threshold = (long) GLOBAL_RELABEL_FACTOR * (numSources + numDestinations) + offsets[numSources];
+        long work      = 0;
+
+        while (activeSize > 0)
+        {
+            int u = active[activeHead];
+
+            activeHead = (activeHead + 1 == numSources) ? 0 : activeHead + 1;
+            activeSize--;
+
+            work += _discharge(u);
+
+            if (work > threshold)
+            {
+                _globalRelabel();
+
+                work = 0;
+            }
+        }
+
+        int size = 0;
+
+        for (int u = 0; u < numSources; u++)
+        {
+            if (sourceMate[u] != -1)
+            {
+                size++;
+            }
+        }
+
+        return size;
+    }
+
+    //
+    // discharge
+    //
+    // Double push from a free source: matches it to its lowest labelled neighbour, evicting
+    // that neighbour's mate, and relabels the neighbour. A source whose neighbours all have the
+    // limit label is dropped, since it cannot be matched without unmatching another.
+    //
+    //      [in] u - the free source
+    //
+    // Returns the work done, for scheduling global relabels.
+    //
+    private int _discharge(int u)
+    {
+        int best      = -1;
+        int bestLabel = limit;
+        int nextLabel = limit;
+
+        for (int arc = offsets[u]; arc < offsets[u + 1]; arc++)
+        {
+            int l = label[targets[arc]];
+
+            if (l < bestLabel)
+            {
+                nextLabel = bestLabel;
+                bestLabel = l;
+                best      = targets[arc];
+            }
+            else if (l < nextLabel)
+            {
+                nextLabel = l;
+            }
+        }
+
+        int work = offsets[u + 1] - offsets[u] + 12;
+
+        if (best == -1)
+        {
+            return work;
+        }
+
+        //
+        // Push: the source takes the destination, whose old mate (if any) becomes active:
+        //
+        int evicted = destinationMate[best];
+
+        sourceMate[u]         = best;
+        destinationMate[best] = u;
+
+        if (evicted != -1)
+        {
+            sourceMate[evicted] = -1;
+
+            _activate(evicted);
+        }
+
+        //
+        // Relabel: the destination is now reached through this source, whose best alternative
+        // is its second lowest neighbour:
+        //
+        label[best] = Math.min(nextLabel + 2, limit);
+
+        return work;
+    }
+
+    //
+    // globalRelabel
+    //
+    // Sets every destination label to its exact residual distance to a free destination by a
+    // breadth-first search backwards from the free destinations. Destinations that cannot
+    // reach one get the limit label.
+    //
+    private void _globalRelabel()
+    {
+        int qSize = 0;
+
+        for (int v = 0; v < numDestinations; v++)
+        {
+            if (destinationMate[v] == -1)
+            {
+                label[v]       = 0;
+                queue[qSize++] = v;
+            }
+            else
+            {
+                label[v] = limit;
+            }
+        }
+
+        for (int i = 0; i < qSize; i++)
+        {
+            int v = queue[i];
+
+            //
+            // A destination matched to a neighbouring source reaches v through that source:
+            //
+            for (int arc = dstOffsets[v]; arc < dstOffsets[v + 1]; arc++)
+            {
+                int mate = sourceMate[dstSources[arc]];
+
+                if (mate != -1 && label[mate] == limit)
+                {
+                    label[mate]    = label[v] + 2;
+                    queue[qSize++] = mate;
+                }
+            }
+        }
+    }
+
+    //
+    // activate
+    //
+    // Adds a free source to the queue of active sources.
+    //
+    //      [in] u - the source
+    //
+    private void _activate(int u)
+    {
+        int tail = activeHead + activeSize;
+
+        active[tail >= numSources ? tail - numSources : tail] = u;
+        activeSize++;
+    }
+}
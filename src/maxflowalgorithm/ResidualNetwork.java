@@ -0,0 +1,99 @@
+//
+// ResidualNetwork.java
+//
+// This interface describes a graph in compressed sparse row (CSR) form whose arcs carry
+// residual capacities. It is implemented by both SparseGraph (int capacities) and
+// LongSparseGraph (64-bit capacities), so an engine written against it, such as Dinic
+// (see Dinic.java), runs unchanged on either storage.
+//
+// The MIT License (MIT)
+//
+// Copyright (c) 2022 Luke Andrews. All Rights Reserved.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this
+// software and associated documentation files (the "Software"), to deal in the Software
+// without restriction, including without limitation the rights to use, copy, modify, merge,
+// publish, distribute, sub-license, and/or sell copies of the Software, and to permit persons
+// to whom the Software is furnished to do so, subject to the following conditions:
+// 
+// * The above copyright notice and this permission notice shall be included in all copies or
+//   substantial portions of the Software.
+// 
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, 
+// INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+// PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+// FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR 
+// OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+// DEALINGS IN THE SOFTWARE.
+//
+package maxflowalgorithm;
+
+interface ResidualNetwork
+{
+    //
+    // getNumNodes
+    //
+    // Gets the number of nodes.
+    //
+    int getNumNodes();
+
+    //
+    // getFirstArcs
+    //
+    // Gets the row offsets. The arcs leaving node u are numbered firstArc[u] to firstArc[u + 1] - 1.
+    //
+    int[] getFirstArcs();
+
+    //
+    // getArcHeads
+    //
+    // Gets the end node of every arc.
+    //
+    int[] getArcHeads();
+
+    //
+    // getArcReverses
+    //
+    // Gets the index of the paired arc of every arc.
+    //
+    int[] getArcReverses();
+
+    //
+    // resetFlow
+    //
+    // Removes all flow (residual capacities are reset to the original capacities).
+    //
+    void resetFlow();
+
+    //
+    // hasResidual
+    //
+    // Determines whether an arc has residual capacity left.
+    //
+    //      [in] arc - the arc index
+    //
+    // Returns whether the residual capacity is positive.
+    //
+    boolean hasResidual(int arc);
+
+    //
+    // getResidual
+    //
+    // Gets the residual capacity of an arc.
+    //
+    //      [in] arc - the arc index
+    //
+    // Returns the residual capacity.
+    //
+    long getResidual(int arc);
+
+    //
+    // push
+    //
+    // Sends flow along an arc, lowering its residual capacity and raising that of its paired arc.
+    //
+    //      [in] arc    - the arc index
+    //      [in] amount - the flow to send, at most the residual capacity of the arc
+    //
+    void push(int arc, long amount);
+}
@@ -0,0 +1,160 @@
+//
+// SolverSelector.java
+//
+// This class chooses a maximum flow engine for a flow network from cheap statistics of the
+// network (see GraphStats.java):
+//
+//      bipartite, unit capacities      - Hopcroft Karp on the matching itself
+//      tiny, small capacities          - Ford Fulkerson, which has the least set up cost
+//      tiny, large capacities          - capacity scaling, which does not slow down with them
+//      unit capacities                 - Dinic, which needs O(E * sqrt(V)) time on them
+//      dense                           - push-relabel
+//      otherwise                       - Dinic
+//
+// Networks whose capacities or total flow do not fit in an int (see needsLongCapacities) are
+// stored as a LongSparseGraph and always solved with Dinic, through LongMaxFlowSolver.
+//
+// The MIT License (MIT)
+//
+// Copyright (c) 2022 Luke Andrews. All Rights Reserved.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this
+// software and associated documentation files (the "Software"), to deal in the Software
+// without restriction, including without limitation the rights to use, copy, modify, merge,
+// publish, distribute, sub-license, and/or sell copies of the Software, and to permit persons
+// to whom the Software is furnished to do so, subject to the following conditions:
+// 
+// * The above copyright notice and this permission notice shall be included in all copies or
+//   substantial portions of the Software.
+// 
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, 
+// INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+// PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+// FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR 
+// OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+// DEALINGS IN THE SOFTWARE.
+//
+package maxflowalgorithm;
+
+class SolverSelector
+{
+    private static final int    SMALL_GRAPH_NODES   = 64;
+    private static final double DENSE_GRAPH_DENSITY = 0.05;
+    private static final int    LARGE_CAPACITY      = 1 << 10;
+
+    //
+    // select
+    //
+    // Chooses an engine for a flow network.
+    //
+    //      [in] graph      - the sparse graph
+    //      [in] source     - the index of source node
+    //      [in] sink       - the index of the sink node
+    //
+    // Returns the engine.
+    //
+    public static MaxFlowSolver select(SparseGraph graph, int source, int sink)
+    {
+        return select(GraphStats.compute(graph, source, sink));
+    }
+
+    //
+    // select
+    //
+    // Chooses an engine for a flow network with given statistics.
+    //
+    //      [in] stats - the statistics of the network
+    //
+    // Returns the engine.
+    //
+    public static MaxFlowSolver select(GraphStats stats)
+    {
+        if (stats.isBipartite() && stats.hasUnitCapacities())
+        {
+            return new BipartiteMatchingSolver();
+        }
+
+        if (stats.getNumNodes() <= SMALL_GRAPH_NODES)
+        {
+            if (stats.getMaxCapacity() >= LARGE_CAPACITY)
+            {
+                return new CapacityScaling();
+            }
+
+            return new FordFulkerson();
+        }
+
+        if (stats.hasUnitCapacities())
+        {
+            return new Dinic();
+        }
+
+        if (stats.getDensity() >= DENSE_GRAPH_DENSITY)
+        {
+            return new PushRelabel();
+        }
+
+        return new Dinic();
+    }
+
+    //
+    // selectLong
+    //
+    // Chooses an engine for a flow network with 64-bit capacities. Dinic is the only engine
+    // written against ResidualNetwork, so it is used for every such network.
+    //
+    //      [in] graph      - the sparse graph
+    //      [in] source     - the index of source node
+    //      [in] sink       - the index of the sink node
+    //
+    // Returns the engine.
+    //
+    public static LongMaxFlowSolver selectLong(LongSparseGraph graph, int source, int sink)
+    {
+        return new Dinic();
+    }
+
+    //
+    // needsLongCapacities
+    //
+    // Determines whether a flow network given as a list of edges must be stored with 64-bit
+    // capacities. This is the case when one capacity does not fit in an int, or when both the
+    // capacity leaving the source and the capacity entering the sink exceed it, since the
+    // maximum flow may then exceed it too.
+    //
+    //      [in] tails      - the start node of each edge
+    //      [in] heads      - the end node of each edge
+    //      [in] capacities - the capacity of each edge
+    //      [in] numEdges   - the number of entries to read from the edge arrays
+    //      [in] source     - the index of source node
+    //      [in] sink       - the index of the sink node
+    //
+    // Returns whether 64-bit capacities are needed.
+    //
+    public static boolean needsLongCapacities(int[] tails, int[] heads, long[] capacities, int numEdges,
+                                              int source, int sink)
+    {
+        long sourceCapacity = 0;
+        long sinkCapacity   = 0;
+
+        for (int i = 0; i < numEdges; i++)
+        {
+            if (capacities[i] > Integer.MAX_VALUE)
+            {
+                return true;
+            }
+
+            if (tails[i] == source && heads[i] != source)
+            {
+                sourceCapacity += capacities[i];
+            }
+
+            if (heads[i] == sink && tails[i] != sink)
+            {
+                sinkCapacity += capacities[i];
+            }
+        }
+
+        return Math.min(sourceCapacity, sinkCapacity) > Integer.MAX_VALUE;
+    }
+}
@@ -0,0 +1,426 @@
+//
+// SparseGraph.java
+//
+// This class describes a weighted graph stored in compressed sparse row (CSR) form.
+// Every edge is stored as a forward arc carrying its capacity together with a paired reverse
+// arc of zero capacity, and both arcs keep a residual capacity. Memory use is proportional to
+// the number of nodes plus the number of edges, so large sparse graphs fit where an adjacency
+// matrix would not.
+//
+// The MIT License (MIT)
+//
+// Copyright (c) 2022 Luke Andrews. All Rights Reserved.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this
+// software and associated documentation files (the "Software"), to deal in the Software
+// without restriction, including without limitation the rights to use, copy, modify, merge,
+// publish, distribute, sub-license, and/or sell copies of the Software, and to permit persons
+// to whom the Software is furnished to do so, subject to the following conditions:
+//
+// * The above copyright notice and this permission notice shall be included in all copies or
+//   substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+// INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+// PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+// FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+// OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+// DEALINGS IN THE SOFTWARE.
+//
+package maxflowalgorithm;
+
+class SparseGraph implements ResidualNetwork
+{
+    private int   numNodes;
+    private int   numArcs;
+
+    private int[] firstArc;     // arcs leaving node u are firstArc[u] .. firstArc[u + 1] - 1
+    private int[] arcHead;      // node each arc points to
+    private int[] arcReverse;   // index of the paired arc running the opposite way
+    private int[] arcCapacity;  // capacity of forward arcs, 0 for reverse arcs
+    private int[] arcResidual;  // remaining capacity of each arc
+
+    //
+    // Overloaded constructor.
+    //
+    // Constructs from a list of edges given as parallel arrays. Edges with a capacity of 0
+    // are treated as absent. Each remaining edge becomes a forward arc and a reverse arc.
+    //
+    //      [in] numNodes       - the number of nodes in the graph
+    //      [in] tails          - the start node of each edge
+    //      [in] heads          - the end node of each edge
+    //      [in] capacities     - the capacity of each edge
+    //      [in] numEdges       - the number of entries to read from the edge arrays
+    //
+    public SparseGraph(int numNodes, int[] tails, int[] heads, int[] capacities, int numEdges)
+    {
+        if (numNodes < 0 || numEdges < 0 ||
+            tails.length < numEdges || heads.length < numEdges || capacities.length < numEdges)
+        {
+            throw new IllegalArgumentException();
+        }
+
+        //
+        // Count the arcs leaving each node (one forward arc at the tail, one reverse arc at the head):
+        //
+        int[] degree = new int[numNodes + 1];
+        int   count  = 0;
+
+        for (int i = 0; i < numEdges; i++)
+        {
+            int tail = tails[i];
+            int head = heads[i];
+
+            if (tail < 0 || tail >= numNodes || head < 0 || head >= numNodes || capacities[i] < 0)
+            {
+                throw new IllegalArgumentException();
+            }
+
+            if (capacities[i] > 0)
+            {
+                degree[tail]++;
+                degree[head]++;
+                count += 2;
+            }
+        }
+
+        this.numNodes    = numNodes;
+        this.numArcs     = count;
+        this.firstArc    = new int[numNodes + 1];
+        this.arcHead     = new int[count];
+        this.arcReverse  = new int[count];
+        this.arcCapacity = new int[count];
+        this.arcResidual = new int[count];
+
+        for (int u = 0; u < numNodes; u++)
+        {
+            firstArc[u + 1] = firstArc[u] + degree[u];
+        }
+
+        //
+        // Place each forward arc and its reverse arc, reusing degree[] as the insertion cursor:
+        //
+        for (int u = 0; u < numNodes; u++)
+        {
+            degree[u] = firstArc[u];
+        }
+
+        for (int i = 0; i < numEdges; i++)
+        {
+            if (capacities[i] == 0)
+            {
+                continue;
+            }
+
+            int forward  = degree[tails[i]]++;
+            int backward = degree[heads[i]]++;
+
+            arcHead[forward]      = heads[i];
+            arcReverse[forward]   = backward;
+            arcCapacity[forward]  = capacities[i];
+            arcResidual[forward]  = capacities[i];
+
+            arcHead[backward]     = tails[i];
+            arcReverse[backward]  = forward;
+            arcCapacity[backward] = 0;
+            arcResidual[backward] = 0;
+        }
+    }
+
+    //
+    // fromMatrix
+    //
+    // Builds a sparse graph from a weighted adjacency matrix. Positive entries indicate an
+    // edge and 0 indicates the absence of an edge.
+    //
+    //      [in] matrix - the weighted adjacency matrix
+    //
+    // Returns the sparse graph.
+    //
+    public static SparseGraph fromMatrix(int[][] matrix)
+    {
+        int count = 0;
+
+        for (int i = 0; i < matrix.length; i++)
+        {
+            for (int j = 0; j < matrix[i].length; j++)
+            {
+                if (matrix[i][j] != 0)
+                {
+                    count++;
+                }
+            }
+        }
+
+        int[] tails      = new int[count];
+        int[] heads      = new int[count];
+        int[] capacities = new int[count];
+        int   index      = 0;
+
+        for (int i = 0; i < matrix.length; i++)
+        {
+            for (int j = 0; j < matrix[i].length; j++)
+            {
+                if (matrix[i][j] != 0)
+                {
+                    tails[index]      = i;
+                    heads[index]      = j;
+                    capacities[index] = matrix[i][j];
+                    index++;
+                }
+            }
+        }
+
+        return new SparseGraph(matrix.length, tails, heads, capacities, count);
+    }
+
+    //
+    // getNumNodes
+    //
+    // Gets the number of nodes.
+    //
+    public int getNumNodes()
+    {
+        return numNodes;
+    }
+
+    //
+    // getNumArcs
+    //
+    // Gets the number of arcs (twice the number of edges, counting reverse arcs).
+    //
+    public int getNumArcs()
+    {
+        return numArcs;
+    }
+
+    //
+    // getFirstArcs
+    //
+    // Gets the row offsets. The arcs leaving node u are numbered firstArc[u] to firstArc[u + 1] - 1.
+    //
+    public int[] getFirstArcs()
+    {
+        return firstArc;
+    }
+
+    //
+    // getArcHeads
+    //
+    // Gets the end node of every arc.
+    //
+    public int[] getArcHeads()
+    {
+        return arcHead;
+    }
+
+    //
+    // getArcReverses
+    //
+    // Gets the index of the paired arc of every arc.
+    //
+    public int[] getArcReverses()
+    {
+        return arcReverse;
+    }
+
+    //
+    // getArcCapacities
+    //
+    // Gets the capacity of every arc. Reverse arcs have a capacity of 0.
+    //
+    public int[] getArcCapacities()
+    {
+        return arcCapacity;
+    }
+
+    //
+    // getArcResiduals
+    //
+    // Gets the residual capacity of every arc. Algorithms update this array in place.
+    //
+    public int[] getArcResiduals()
+    {
+        return arcResidual;
+    }
+
+    //
+    // isForward
+    //
+    // Determines whether an arc is the forward arc of an edge.
+    //
+    //      [in] arc - the arc index
+    //
+    // Returns whether the arc is a forward arc.
+    //
+    public boolean isForward(int arc)
+    {
+        return arcCapacity[arc] > 0;
+    }
+
+    //
+    // getFlow
+    //
+    // Gets the flow currently carried by an arc. Reverse arcs carry no flow of their own.
+    //
+    //      [in] arc - the arc index
+    //
+    // Returns the flow.
+    //
+    public int getFlow(int arc)
+    {
+        return isForward(arc) ? arcCapacity[arc] - arcResidual[arc] : 0;
+    }
+
+    //
+    // resetFlow
+    //
+    // Removes all flow (residual capacities are reset to the original capacities).
+    //
+    public void resetFlow()
+    {
+        System.arraycopy(arcCapacity, 0, arcResidual, 0, numArcs);
+    }
+
+    //
+    // hasResidual
+    //
+    // Determines whether an arc has residual capacity left.
+    //
+    //      [in] arc - the arc index
+    //
+    // Returns whether the residual capacity is positive.
+    //
+    public boolean hasResidual(int arc)
+    {
+        return arcResidual[arc] > 0;
+    }
+
+    //
+    // getResidual
+    //
+    // Gets the residual capacity of an arc.
+    //
+    //      [in] arc - the arc index
+    //
+    // Returns the residual capacity.
+    //
+    public long getResidual(int arc)
+    {
+        return arcResidual[arc];
+    }
+
+    //
+    // push
+    //
+    // Sends flow along an arc, lowering its residual capacity and raising that of its paired arc.
+    //
+    //      [in] arc    - the arc index
+    //      [in] amount - the flow to send, at most the residual capacity of the arc
+    //
+    public void push(int arc, long amount)
+    {
+        arcResidual[arc]             -= (int) amount;
+        arcResidual[arcReverse[arc]] += (int) amount;
+    }
+
+    //
+    // getInflow
+    //
+    // Computes the total flow entering a given node.
+    //
+    //      [in] node - the node index
+    //
+    // Returns the total flow.
+    //
+    public long getInflow(int node)
+    {
+        long total = 0;
+
+        for (int arc = firstArc[node]; arc < firstArc[node + 1]; arc++)
+        {
+            if (!isForward(arc))
+            {
+                total += getFlow(arcReverse[arc]);
+            }
+        }
+
+        return total;
+    }
+
+    //
+    // toFlowMatrix
+    //
+    // Converts the current flow into an adjacency matrix. Intended for small graphs only,
+    // since the matrix needs memory proportional to the square of the number of nodes.
+    //
+    // Returns the flow matrix.
+    //
+    public int[][] toFlowMatrix()
+    {
+        int[][] matrix = new int[numNodes][numNodes];
+
+        fillFlowMatrix(matrix);
+
+        return matrix;
+    }
+
+    //
+    // toResidualMatrix
+    //
+    // Converts the current residual capacities into an adjacency matrix. Intended for small
+    // graphs only, see toFlowMatrix.
+    //
+    // Returns the residual matrix.
+    //
+    public int[][] toResidualMatrix()
+    {
+        int[][] matrix = new int[numNodes][numNodes];
+
+        fillResidualMatrix(matrix);
+
+        return matrix;
+    }
+
+    //
+    // fillFlowMatrix
+    //
+    // Writes the current flow into an existing adjacency matrix, replacing its contents, so
+    // a caller that keeps the matrix allocates nothing.
+    //
+    //      [out] matrix - a numNodes by numNodes matrix
+    //
+    public void fillFlowMatrix(int[][] matrix)
+    {
+        for (int u = 0; u < numNodes; u++)
+        {
+            java.util.Arrays.fill(matrix[u], 0);
+
+            for (int arc = firstArc[u]; arc < firstArc[u + 1]; arc++)
+            {
+                matrix[u][arcHead[arc]] += getFlow(arc);
+            }
+        }
+    }
+
+    //
+    // fillResidualMatrix
+    //
+    // Writes the current residual capacities into an existing adjacency matrix, replacing its
+    // contents (see fillFlowMatrix).
+    //
+    //      [out] matrix - a numNodes by numNodes matrix
+    //
+    public void fillResidualMatrix(int[][] matrix)
+    {
+        for (int u = 0; u < numNodes; u++)
+        {
+            java.util.Arrays.fill(matrix[u], 0);
+
+            for (int arc = firstArc[u]; arc < firstArc[u + 1]; arc++)
+            {
+                matrix[u][arcHead[arc]] += arcResidual[arc];
+            }
+        }
+    }
+}
@@ -0,0 +1,197 @@
+//
+// StreamParser.java
+//
+// This class reads a bipartite graph in the "src>dst1,dst2,..." format from a stream of bytes
+// that cannot be memory-mapped, such as a decompressed or piped input. Bytes are fed in blocks
+// of any size; complete lines are parsed in place (see MappedParser.java) and only a line cut
+// off at the end of a block is copied, to be finished by the next block.
+//
+// The MIT License (MIT)
+//
+// Copyright (c) 2022 Luke Andrews. All Rights Reserved.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this
+// software and associated documentation files (the "Software"), to deal in the Software
+// without restriction, including without limitation the rights to use, copy, modify, merge,
+// publish, distribute, sub-license, and/or sell copies of the Software, and to permit persons
+// to whom the Software is furnished to do so, subject to the following conditions:
+// 
+// * The above copyright notice and this permission notice shall be included in all copies or
+//   substantial portions of the Software.
+// 
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, 
+// INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+// PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+// FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR 
+// OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+// DEALINGS IN THE SOFTWARE.
+//
+package maxflowalgorithm;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+
+class StreamParser
+{
+    private static final int BLOCK_SIZE = 1 << 20; // bytes read at a time from a stream
+
+    private BipartiteGraphBuilder builder = new BipartiteGraphBuilder();
+    private boolean               weighted;                  // whether destinations may carry weights
+    private byte[]                pending = new byte[256];   // start of a line cut off by the last block
+    private int                   pendingSize;
+
+    //
+    // Default constructor. Names are taken whole, without weights.
+    //
+    public StreamParser()
+    {
+        this(false);
+    }
+
+    //
+    // Overloaded constructor.
+    //
+    // Constructs with whether destinations may carry weights ("dst1:5", see MappedParser.java).
+    //
+    //      [in] weighted - whether destinations may carry weights
+    //
+    public StreamParser(boolean weighted)
+    {
+        this.weighted = weighted;
+    }
+
+    //
+    // parse
+    //
+    // Reads an unweighted bipartite graph from a stream until the end of the stream. The stream
+    // is not closed.
+    //
+    //      [in] in - the input stream
+    //
+    // Returns the bipartite graph.
+    //
+    public static BipartiteGraph parse(InputStream in) throws IOException
+    {
+        return parse(in, false);
+    }
+
+    //
+    // parse
+    //
+    // Reads a bipartite graph from a stream until the end of the stream. The stream is not closed.
+    //
+    //      [in] in         - the input stream
+    //      [in] weighted   - whether destinations may carry weights ("dst1:5")
+    //
+    // Returns the bipartite graph.
+    //
+    public static BipartiteGraph parse(InputStream in, boolean weighted) throws IOException
+    {
+        StreamParser parser = new StreamParser(weighted);
+        byte[]       block  = new byte[BLOCK_SIZE];
+        int          read   = in.read(block);
+
+        while (read >= 0)
+        {
+            parser.feed(block, 0, read);
+
+            read = in.read(block);
+        }
+
+        return parser.finish();
+    }
+
+    //
+    // feed
+    //
+    // Parses the next block of bytes. The block is not kept, so it may be reused by the caller.
+    //
+    //      [in] block  - the bytes
+    //      [in] offset - the index of the first byte
+    //      [in] length - the number of bytes
+    //
+    public void feed(byte[] block, int offset, int length)
+    {
+        int end   = offset + length;
+        int first = offset;
+
+        //
+        // Finish the line left over from the last block, if any:
+        //
+        if (pendingSize > 0)
+        {
+            while (first < end && block[first] != '\n')
+            {
+                first++;
+            }
+
+            if (first == end)
+            {
+                _keep(block, offset, length);
+
+                return;
+            }
+
+            first++;
+
+            _keep(block, offset, first - offset);
+            MappedParser.parseLines(ByteBuffer.wrap(pending), 0, pendingSize, builder, weighted);
+
+            pendingSize = 0;
+        }
+
+        //
+        // Parse the complete lines in place and keep the rest:
+        //
+        int last = end;
+
+        while (last > first && block[last - 1] != '\n')
+        {
+            last--;
+        }
+
+        if (last > first)
+        {
+            MappedParser.parseLines(ByteBuffer.wrap(block), first, last, builder, weighted);
+        }
+
+        _keep(block, last, end - last);
+    }
+
+    //
+    // finish
+    //
+    // Parses a last line that has no line end, if any, and builds the graph.
+    //
+    // Returns the bipartite graph.
+    //
+    public BipartiteGraph finish()
+    {
+        MappedParser.parseLines(ByteBuffer.wrap(pending), 0, pendingSize, builder, weighted);
+
+        pendingSize = 0;
+
+        return builder.build();
+    }
+
+    //
+    // keep
+    //
+    // Appends bytes to the unfinished line.
+    //
+    //      [in] block  - the bytes
+    //      [in] offset - the index of the first byte
+    //      [in] length - the number of bytes
+    //
+    private void _keep(byte[] block, int offset, int length)
+    {
+        if (pendingSize + length > pending.length)
+        {
+            pending = java.util.Arrays.copyOf(pending, Math.max(pending.length * 2, pendingSize + length));
+        }
+
+        System.arraycopy(block, offset, pending, pendingSize, length);
+
+        pendingSize += length;
+    }
+}
@@ -0,0 +1,409 @@
+//
+// WeightedAssignment.java
+//
+// This class computes a maximum weight matching of a bipartite graph whose edges carry
+// non-negative weights, such as ranked preferences ("Person 1>Dev:5,Eng:3"). The graph is
+// given as adjacency arrays, and the dense O(n^3) Hungarian method is avoided: sources are
+// added one at a time, and each is matched along a shortest augmenting path found by
+// Dijkstra's algorithm over the sparse edges, with dual potentials keeping every reduced
+// cost non-negative (the shortest augmenting path method of Jonker and Volgenant).
+//
+// Weights become costs W - w, where W is the largest weight, and each source also gets an
+// edge of cost W to a dummy destination of its own, meaning "left unmatched". A minimum cost
+// assignment of every source is then a maximum weight matching of the real edges.
+//
+// The MIT License (MIT)
+//
+// Copyright (c) 2022 Luke Andrews. All Rights Reserved.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this
+// software and associated documentation files (the "Software"), to deal in the Software
+// without restriction, including without limitation the rights to use, copy, modify, merge,
+// publish, distribute, sub-license, and/or sell copies of the Software, and to permit persons
+// to whom the Software is furnished to do so, subject to the following conditions:
+// 
+// * The above copyright notice and this permission notice shall be included in all copies or
+//   substantial portions of the Software.
+// 
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, 
+// INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+// PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+// FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR 
+// OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+// DEALINGS IN THE SOFTWARE.
+//
+package maxflowalgorithm;
+
+class WeightedAssignment
+{
+    private static final long INFINITY = Long.MAX_VALUE;
+
+    private int       numSources;
+    private int       numDestinations;
+    private int[]     offsets;              // destinations of source u are targets[offsets[u]] .. targets[offsets[u + 1] - 1]
+    private int[]     targets;
+    private int[]     weights;              // weight of each edge, null if every edge has weight 1
+    private int       maxWeight;
+
+    private int[]     sourceMate;           // destination (or dummy numDestinations + u) matched to each source
+    private int[]     sourceArc;            // edge matched to each source, -1 for its dummy
+    private int[]     destinationMate;      // source matched to each destination or dummy, -1 if free
+    private long[]    sourcePotential;
+    private long[]    destinationPotential;
+
+    private long[]    dist;                 // reduced path cost to each destination in the current search
+    private int[]     predArc;              // edge each destination was reached by, -1 for a dummy
+    private int[]     predSource;           // source each destination was reached from
+    private boolean[] scanned;
+    private IntList   touched     = new IntList();  // destinations with a finite distance, to reset
+    private IntList   scannedList = new IntList();
+
+    private long[]    heapKey     = new long[64];   // binary heap of (distance, destination), with stale entries
+    private int[]     heapNode    = new int[64];
+    private int       heapSize;
+
+    //
+    // Overloaded constructor.
+    //
+    // Constructs with the adjacency arrays and edge weights of a bipartite graph.
+    //
+    //      [in] numSources         - the number of source nodes
+    //      [in] numDestinations    - the number of destination nodes
+    //      [in] offsets            - per source, the start of its destinations (numSources + 1 entries)
+    //      [in] targets            - the destination of each edge
+    //      [in] weights            - the non-negative weight of each edge, or null if every edge has weight 1
+    //
+    public WeightedAssignment(int numSources, int numDestinations, int[] offsets, int[] targets, int[] weights)
+    {
+        if (numSources < 0 || numDestinations < 0 || offsets == null || targets == null ||
+            offsets.length < numSources + 1 || targets.length < offsets[numSources] ||
+            (weights != null && weights.length < offsets[numSources]))
+        {
+            throw new IllegalArgumentException();
+        }
+
+        this.numSources      = numSources;
+        this.numDestinations = numDestinations;
+        this.offsets         = offsets;
+        this.targets         = targets;
+        this.weights         = weights;
+        this.maxWeight       = 1;
+
+        if (weights != null)
+        {
+            for (int arc = 0; arc < offsets[numSources]; arc++)
+            {
+                if (weights[arc] < 0)
+                {
+                    throw new IllegalArgumentException();
+                }
+
+                maxWeight = Math.max(maxWeight, weights[arc]);
+            }
+        }
+
+        int numNodes = numDestinations + numSources;    // real destinations, then one dummy per source
+
+        this.sourceMate           = new int[numSources];
+        this.sourceArc            = new int[numSources];
+        this.destinationMate      = new int[numNodes];
+        this.sourcePotential      = new long[numSources];
+        this.destinationPotential = new long[numNodes];
+        this.dist                 = new long[numNodes];
+        this.predArc              = new int[numNodes];
+        this.predSource           = new int[numNodes];
+        this.scanned              = new boolean[numNodes];
+    }
+
+    //
+    // getSourceMates
+    //
+    // Gets the destination matched to each source, -1 if the source is unmatched.
+    //
+    public int[] getSourceMates()
+    {
+        int[] mates = new int[numSources];
+
+        for (int u = 0; u < numSources; u++)
+        {
+            mates[u] = sourceArc[u] != -1 ? sourceMate[u] : -1;
+        }
+
+        return mates;
+    }
+
+    //
+    // getNumMatches
+    //
+    // Gets the number of matched pairs.
+    //
+    public int getNumMatches()
+    {
+        int count = 0;
+
+        for (int u = 0; u < numSources; u++)
+        {
+            if (sourceArc[u] != -1)
+            {
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    //
+    // computeAssignment
+    //
+    // Computes a maximum weight matching.
+    //
+    // Returns the total weight of the matched edges.
+    //
+    public long computeAssignment()
+    {
+        java.util.Arrays.fill(sourceArc, -1);
+        java.util.Arrays.fill(destinationMate, -1);
+        java.util.Arrays.fill(sourcePotential, 0);
+        java.util.Arrays.fill(destinationPotential, 0);
+        java.util.Arrays.fill(dist, INFINITY);
+        java.util.Arrays.fill(scanned, false);
+
+        for (int root = 0; root < numSources; root++)
+        {
+            _assign(root);
+        }
+
+        long total = 0;
+
+        for (int u = 0; u < numSources; u++)
+        {
+            if (sourceArc[u] != -1)
+            {
+                total += _weight(sourceArc[u]);
+            }
+        }
+
+        return total;
+    }
+
+    //
+    // assign
+    //
+    // Matches one more source along a shortest augmenting path, then updates the potentials
+    // so every reduced cost stays non-negative and every matched edge has a reduced cost of 0.
+    //
+    //      [in] root - the source to add
+    //
+    private void _assign(int root)
+    {
+        heapSize = 0;
+
+        _relax(root, 0);
+
+        //
+        // Dijkstra's algorithm over the destinations, stepping from a matched destination to
+        // its mate at no cost, until a free destination is reached. The root's dummy is always
+        // free, so one is always found:
+        //
+        int  end = -1;
+        long length;
+
+        while (true)
+        {
+            int  v   = heapNode[0];
+            long key = _pop();
+
+            if (scanned[v] || key != dist[v])
+            {
+                continue;
+            }
+
+            if (destinationMate[v] == -1)
+            {
+                end    = v;
+                length = key;
+
+                break;
+            }
+
+            scanned[v] = true;
+            scannedList.add(v);
+
+            _relax(destinationMate[v], key);
+        }
+
+        //
+        // Update the potentials of everything scanned, which keeps reduced costs non-negative:
+        //
+        for (int i = 0; i < scannedList.size(); i++)
+        {
+            int  v     = scannedList.get(i);
+            long delta = length - dist[v];
+
+            destinationPotential[v]             -= delta;
+            sourcePotential[destinationMate[v]] += delta;
+        }
+
+        sourcePotential[root] += length;
+
+        //
+        // Flip the matching along the path back to the root:
+        //
+        for (int v = end; ; )
+        {
+            int u    = predSource[v];
+            int next = u == root ? -1 : sourceMate[u];
+
+            sourceMate[u]      = v;
+            sourceArc[u]       = predArc[v];
+            destinationMate[v] = u;
+
+            if (next == -1)
+            {
+                break;
+            }
+
+            v = next;
+        }
+
+        for (int i = 0; i < touched.size(); i++)
+        {
+            dist[touched.get(i)]    = INFINITY;
+            scanned[touched.get(i)] = false;
+        }
+
+        touched.clear();
+        scannedList.clear();
+    }
+
+    //
+    // relax
+    //
+    // Offers every destination of a source, and its dummy, a path through the source.
+    //
+    //      [in] u      - the source
+    //      [in] base   - the reduced cost of the path to the source
+    //
+    private void _relax(int u, long base)
+    {
+        for (int arc = offsets[u]; arc <= offsets[u + 1]; arc++)
+        {
+            boolean dummy = arc == offsets[u + 1];
+            int     v     = dummy ? numDestinations + u : targets[arc];
+            long    cost  = dummy ? maxWeight : maxWeight - _weight(arc);
+
+            if (scanned[v])
+            {
+                continue;
+            }
+
+            long d = base + cost - sourcePotential[u] - destinationPotential[v];
+
+            if (d < dist[v])
+            {
+                if (dist[v] == INFINITY)
+                {
+                    touched.add(v);
+                }
+
+                dist[v]       = d;
+                predArc[v]    = dummy ? -1 : arc;
+                predSource[v] = u;
+
+                _push(d, v);
+            }
+        }
+    }
+
+    //
+    // weight
+    //
+    // Gets the weight of an edge.
+    //
+    //      [in] arc - the edge index
+    //
+    // Returns the weight.
+    //
+    private int _weight(int arc)
+    {
+        return weights == null ? 1 : weights[arc];
+    }
+
+    //
+    // push
+    //
+    // Adds an entry to the heap, growing it if needed.
+    //
+    //      [in] key    - the distance
+    //      [in] node   - the destination
+    //
+    private void _push(long key, int node)
+    {
+        if (heapSize == heapKey.length)
+        {
+            heapKey  = java.util.Arrays.copyOf(heapKey, heapSize * 2);
+            heapNode = java.util.Arrays.copyOf(heapNode, heapSize * 2);
+        }
+
+        int i = heapSize++;
+
+        while (i > 0 && heapKey[(i - 1) >> 1] > key)
+        {
+            int parent = (i - 1) >> 1;
+
+            heapKey[i]  = heapKey[parent];
+            heapNode[i] = heapNode[parent];
+            i           = parent;
+        }
+
+        heapKey[i]  = key;
+        heapNode[i] = node;
+    }
+
+    //
+    // pop
+    //
+    // Removes the smallest entry from the heap. Its destination is heapNode[0] before the call.
+    //
+    // Returns the distance of the removed entry.
+    //
+    private long _pop()
+    {
+        long top = heapKey[0];
+
+        heapSize--;
+
+        long key  = heapKey[heapSize];
+        int  node = heapNode[heapSize];
+        int  i    = 0;
+
+        while (true)
+        {
+            int child = 2 * i + 1;
+
+            if (child >= heapSize)
+            {
+                break;
+            }
+
+            if (child + 1 < heapSize && heapKey[child + 1] < heapKey[child])
+            {
+                child++;
+            }
+
+            if (heapKey[child] >= key)
+            {
+                break;
+            }
+
+            heapKey[i]  = heapKey[child];
+            heapNode[i] = heapNode[child];
+            i           = child;
+        }
+
+        heapKey[i]  = key;
+        heapNode[i] = node;
+
+        return top;
+    }
+}
@@ -0,0 +1,199 @@
+//
+// BinaryGraphFileTest.java
+//
+// This class checks that bipartite graphs written in the binary format (see
+// BinaryGraphFile.java) read back unchanged, weighted or not, that version 1 files are still
+// read, and that damaged files are reported as an IOException rather than read as a graph.
+//
+// The MIT License (MIT)
+//
+// Copyright (c) 2022 Luke Andrews. All Rights Reserved.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this
+// software and associated documentation files (the "Software"), to deal in the Software
+// without restriction, including without limitation the rights to use, copy, modify, merge,
+// publish, distribute, sub-license, and/or sell copies of the Software, and to permit persons
+// to whom the Software is furnished to do so, subject to the following conditions:
+// 
+// * The above copyright notice and this permission notice shall be included in all copies or
+//   substantial portions of the Software.
+// 
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, 
+// INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+// PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+// FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR 
+// OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+// DEALINGS IN THE SOFTWARE.
+//
+package maxflowalgorithm;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.util.*;
+
+class BinaryGraphFileTest
+{
+    private static final int HEADER_BYTES  = 32;
+    private static final int VERSION_INDEX = 1;        // header word positions
+    private static final int FLAGS_INDEX   = 7;
+
+    //
+    // main
+    //
+    // Runs the checks.
+    //
+    //      [in] args - ignored
+    //
+    public static void main(String[] args) throws IOException
+    {
+        Random         random     = new Random(24);
+        BipartiteGraph unweighted = _parse(TestGraphs.randomInput(random, 20000, 10000, 5000, false), false);
+        BipartiteGraph weighted   = _parse(TestGraphs.randomInput(random, 20000, 10000, 5000, true), true);
+        BipartiteGraph empty      = _parse(new byte[0], false);
+
+        TestGraphs.check(weighted.getWeights() != null, "the weighted input has no weights");
+
+        _checkRoundTrip(unweighted, "unweighted graph");
+        _checkRoundTrip(weighted, "weighted graph");
+        _checkRoundTrip(empty, "empty graph");
+
+        //
+        // Version 1 files have no weights and a zero flags word:
+        //
+        byte[] current = _toBytes(unweighted);
+
+        TestGraphs.checkSameGraph(unweighted, _read(_patch(current, VERSION_INDEX, BinaryGraphFile.VERSION_1)),
+                                  "version 1 file");
+
+        //
+        // Damaged files:
+        //
+        byte[] flagged   = _toBytes(weighted);
+        int    numEdges  = unweighted.getNumEdges();
+        int    targetsAt = HEADER_BYTES + 4 * (2 * (unweighted.getNumSources() + 1) + unweighted.getNumDestinations() + 1);
+
+        TestGraphs.check(numEdges > 0, "the unweighted input has no edges");
+
+        _checkRejected(_patch(current, 0, 0), "bad magic number");
+        _checkRejected(_patch(current, VERSION_INDEX, BinaryGraphFile.VERSION + 1), "unknown version");
+        _checkRejected(_patch(flagged, VERSION_INDEX, BinaryGraphFile.VERSION_1), "version 1 file with weights");
+        _checkRejected(_patch(current, FLAGS_INDEX, 2), "unknown flag");
+        _checkRejected(_patch(current, targetsAt / 4, unweighted.getNumDestinations()), "target out of range");
+        _checkRejected(Arrays.copyOf(current, current.length - 1), "truncated file");
+        _checkRejected(Arrays.copyOf(current, HEADER_BYTES - 1), "truncated header");
+
+        System.out.println("BinaryGraphFileTest passed");
+    }
+
+    //
+    // checkRoundTrip
+    //
+    // Checks that a graph written to a file reads back unchanged, directly and through the
+    // loader that picks the reader by the file contents (see GraphLoader.java).
+    //
+    //      [in] graph  - the bipartite graph
+    //      [in] what   - a description of the graph, for the failure message
+    //
+    private static void _checkRoundTrip(BipartiteGraph graph, String what) throws IOException
+    {
+        File file = TestGraphs.tempFile(".bin");
+
+        BinaryGraphFile.write(graph, file);
+
+        TestGraphs.check(BinaryGraphFile.isBinary(file), what + ": not recognised as binary");
+        TestGraphs.checkSameGraph(graph, BinaryGraphFile.read(file), what + " read back");
+        TestGraphs.checkSameGraph(graph, GraphLoader.load(file, 1), what + " loaded back");
+    }
+
+    //
+    // checkRejected
+    //
+    // Checks that reading a damaged file throws an IOException.
+    //
+    //      [in] bytes  - the file contents
+    //      [in] what   - a description of the damage, for the failure message
+    //
+    private static void _checkRejected(byte[] bytes, String what) throws IOException
+    {
+        try
+        {
+            _read(bytes);
+        }
+        catch (IOException ex)
+        {
+            return;
+        }
+
+        throw new AssertionError(what + ": read without an error");
+    }
+
+    //
+    // parse
+    //
+    // Parses input bytes into a bipartite graph.
+    //
+    //      [in] input      - the input bytes
+    //      [in] weighted   - whether to read weights
+    //
+    // Returns the bipartite graph.
+    //
+    private static BipartiteGraph _parse(byte[] input, boolean weighted) throws IOException
+    {
+        return MappedParser.parse(TestGraphs.write(input, ".txt"), weighted);
+    }
+
+    //
+    // toBytes
+    //
+    // Writes a bipartite graph in the binary format.
+    //
+    //      [in] graph - the bipartite graph
+    //
+    // Returns the file contents.
+    //
+    private static byte[] _toBytes(BipartiteGraph graph) throws IOException
+    {
+        File file = TestGraphs.tempFile(".bin");
+
+        BinaryGraphFile.write(graph, file);
+
+        return Files.readAllBytes(file.toPath());
+    }
+
+    //
+    // read
+    //
+    // Reads a bipartite graph from file contents in the binary format.
+    //
+    //      [in] bytes - the file contents
+    //
+    // Returns the bipartite graph.
+    //
+    private static BipartiteGraph _read(byte[] bytes) throws IOException
+    {
+        return BinaryGraphFile.read(TestGraphs.write(bytes, ".bin"));
+    }
+
+    //
+    // patch
+    //
+    // Copies file contents with one little-endian int replaced.
+    //
+    //      [in] bytes  - the file contents
+    //      [in] index  - the position of the int, in ints
+    //      [in] value  - the new value
+    //
+    // Returns the patched copy.
+    //
+    private static byte[] _patch(byte[] bytes, int index, int value)
+    {
+        byte[] copy = bytes.clone();
+
+        for (int i = 0; i < 4; i++)
+        {
+            copy[4 * index + i] = (byte) (value >>> (8 * i));
+        }
+
+        return copy;
+    }
+}
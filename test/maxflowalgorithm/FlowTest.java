@@ -0,0 +1,407 @@
+//
+// FlowTest.java
+//
+// This class checks the maximum flow engines against the Edmonds-Karp method run directly on
+// an adjacency matrix. Random graphs are solved through Flow, from an adjacency matrix and from
+// a sparse graph (see SparseGraph.java), with every engine and more than once per instance, and
+// the flow must respect capacities and conservation. The same graphs written as DIMACS files
+// and edge lists must read into problems with the same maximum flow (see DimacsReader.java and
+// EdgeListReader.java), including capacities too large for an int.
+//
+// The MIT License (MIT)
+//
+// Copyright (c) 2022 Luke Andrews. All Rights Reserved.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this
+// software and associated documentation files (the "Software"), to deal in the Software
+// without restriction, including without limitation the rights to use, copy, modify, merge,
+// publish, distribute, sub-license, and/or sell copies of the Software, and to permit persons
+// to whom the Software is furnished to do so, subject to the following conditions:
+// 
+// * The above copyright notice and this permission notice shall be included in all copies or
+//   substantial portions of the Software.
+// 
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, 
+// INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+// PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+// FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR 
+// OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+// DEALINGS IN THE SOFTWARE.
+//
+package maxflowalgorithm;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+class FlowTest
+{
+    private static final int NUM_TRIALS   = 200;
+    private static final int MAX_NODES    = 30;
+    private static final int MAX_CAPACITY = 50;
+
+    //
+    // main
+    //
+    // Runs the checks.
+    //
+    //      [in] args - ignored
+    //
+    public static void main(String[] args) throws IOException
+    {
+        Random random = new Random(1);
+
+        for (int trial = 0; trial < NUM_TRIALS; trial++)
+        {
+            int      numNodes = 2 + random.nextInt(MAX_NODES - 1);
+            long[][] matrix   = _randomMatrix(random, numNodes, 0.1 + 0.4 * random.nextDouble(),
+                                              trial % 2 == 0 ? MAX_CAPACITY : FlowProblem.MAX_CAPACITY);
+            int      sink     = 1 + random.nextInt(numNodes - 1);
+            long     expected = _referenceMaxFlow(matrix, 0, sink);
+
+            if (trial % 2 == 0)
+            {
+                _checkFlow(_toIntMatrix(matrix), 0, sink, expected);
+            }
+
+            _checkReaders(matrix, 0, sink, expected);
+        }
+
+        System.out.println("FlowTest passed");
+    }
+
+    //
+    // checkFlow
+    //
+    // Checks every engine of Flow, from the adjacency matrix and from a sparse graph.
+    //
+    //      [in] matrix     - the capacity of each edge, 0 for no edge
+    //      [in] source     - the index of the source node
+    //      [in] sink       - the index of the sink node
+    //      [in] expected   - the maximum flow
+    //
+    private static void _checkFlow(int[][] matrix, int source, int sink, long expected)
+    {
+        Flow   dense  = new Flow(matrix, source, sink);
+        Flow   sparse = new Flow(SparseGraph.fromMatrix(matrix), source, sink);
+        String size   = " on " + matrix.length + " nodes";
+
+        for (int run = 0; run < 2; run++)
+        {
+            for (Flow flow : new Flow[] { dense, sparse })
+            {
+                String kind = (flow == dense ? "matrix " : "sparse ");
+
+                for (PathSearch.Mode mode : PathSearch.Mode.values())
+                {
+                    flow.setPathSearchMode(mode);
+                    flow.computeMaxFlowFordFulkerson();
+                    _checkResult(flow, expected, kind + "Ford Fulkerson (" + mode + ")" + size);
+                }
+
+                flow.computeMaxFlowDinic();
+                _checkResult(flow, expected, kind + "Dinic" + size);
+
+                flow.computeMaxFlowPushRelabel();
+                _checkResult(flow, expected, kind + "Push Relabel" + size);
+
+                flow.computeMaxFlowCapacityScaling();
+                _checkResult(flow, expected, kind + "Capacity Scaling" + size);
+
+                flow.computeMaxFlow();
+                _checkResult(flow, expected, kind + "selected engine" + size);
+            }
+        }
+    }
+
+    //
+    // checkResult
+    //
+    // Checks the maximum flow of a solved Flow and that its flow graph is a valid flow of that
+    // value: within capacities and conserved at every node but the source and sink.
+    //
+    //      [in] flow       - the solved flow
+    //      [in] expected   - the maximum flow
+    //      [in] what       - a description of the run, for the failure message
+    //
+    private static void _checkResult(Flow flow, long expected, String what)
+    {
+        TestGraphs.check(flow.getMaxFlow() == expected, what + ": flow " + flow.getMaxFlow() + ", expected " + expected);
+
+        int[][] capacities = flow.getGraph() != null ? flow.getGraph() : _capacityMatrix(flow.getSparseGraph());
+        int[][] flows      = flow.getFlowGraph();
+        long[]  excess     = new long[flows.length];
+
+        for (int u = 0; u < flows.length; u++)
+        {
+            for (int v = 0; v < flows.length; v++)
+            {
+                TestGraphs.check(flows[u][v] >= 0 && flows[u][v] <= capacities[u][v],
+                                 what + ": flow " + flows[u][v] + " on edge " + u + "-" + v);
+
+                excess[u] -= flows[u][v];
+                excess[v] += flows[u][v];
+            }
+        }
+
+        for (int u = 0; u < flows.length; u++)
+        {
+            long balance = u == flow.getSource() ? -expected : u == flow.getSink() ? expected : 0;
+
+            TestGraphs.check(excess[u] == balance, what + ": node " + u + " is out of balance by " + excess[u]);
+        }
+    }
+
+    //
+    // capacityMatrix
+    //
+    // Lays the capacities of a sparse graph out as an adjacency matrix.
+    //
+    //      [in] graph - the sparse graph
+    //
+    // Returns the capacity of each edge, 0 for no edge.
+    //
+    private static int[][] _capacityMatrix(SparseGraph graph)
+    {
+        int[][] matrix = new int[graph.getNumNodes()][graph.getNumNodes()];
+
+        for (int u = 0; u < graph.getNumNodes(); u++)
+        {
+            for (int arc = graph.getFirstArcs()[u]; arc < graph.getFirstArcs()[u + 1]; arc++)
+            {
+                if (graph.isForward(arc))
+                {
+                    matrix[u][graph.getArcHeads()[arc]] += graph.getArcCapacities()[arc];
+                }
+            }
+        }
+
+        return matrix;
+    }
+
+    //
+    // checkReaders
+    //
+    // Writes a graph as a DIMACS file and as an edge list with a header line, reads both back
+    // and checks their maximum flows.
+    //
+    //      [in] matrix     - the capacity of each edge, 0 for no edge
+    //      [in] source     - the index of the source node
+    //      [in] sink       - the index of the sink node
+    //      [in] expected   - the maximum flow
+    //
+    private static void _checkReaders(long[][] matrix, int source, int sink, long expected) throws IOException
+    {
+        StringBuilder dimacs   = new StringBuilder();
+        StringBuilder csv      = new StringBuilder("from,to,capacity\n");
+        int           numEdges = 0;
+
+        for (int u = 0; u < matrix.length; u++)
+        {
+            for (int v = 0; v < matrix.length; v++)
+            {
+                if (matrix[u][v] > 0)
+                {
+                    dimacs.append("a ").append(u + 1).append(' ').append(v + 1).append(' ').append(matrix[u][v]).append('\n');
+                    csv.append("n").append(u).append(", n").append(v).append(", ").append(matrix[u][v]).append('\n');
+                    numEdges++;
+                }
+            }
+        }
+
+        dimacs.insert(0, "c random graph\np max " + matrix.length + " " + numEdges + "\nn " + (source + 1) +
+                         " s\nn " + (sink + 1) + " t\n");
+
+        File dimacsFile = TestGraphs.write(dimacs.toString().getBytes(StandardCharsets.UTF_8), ".max");
+        File csvFile    = TestGraphs.write(csv.toString().getBytes(StandardCharsets.UTF_8), ".csv");
+
+        _checkProblem(DimacsReader.read(dimacsFile), expected, "DIMACS on " + matrix.length + " nodes");
+
+        //
+        // Nodes without edges are not in the edge list, so the source and sink need edges:
+        //
+        if (_hasEdges(matrix, source) && _hasEdges(matrix, sink))
+        {
+            _checkProblem(EdgeListReader.read(csvFile, "n" + source, "n" + sink), expected,
+                          "edge list on " + matrix.length + " nodes");
+        }
+    }
+
+    //
+    // checkProblem
+    //
+    // Checks the maximum flow of a problem that was read from a file, with Dinic's algorithm
+    // on whichever graph the reader built.
+    //
+    //      [in] problem    - the maximum flow problem
+    //      [in] expected   - the maximum flow
+    //      [in] what       - a description of the problem, for the failure message
+    //
+    private static void _checkProblem(FlowProblem problem, long expected, String what)
+    {
+        long flow = problem.getGraph() != null ?
+                    new Dinic().computeMaxFlow(problem.getGraph(), problem.getSource(), problem.getSink()) :
+                    new Dinic().computeMaxFlow(problem.getLongGraph(), problem.getSource(), problem.getSink());
+
+        TestGraphs.check(flow == expected, what + ": flow " + flow + ", expected " + expected);
+    }
+
+    //
+    // hasEdges
+    //
+    // Determines whether a node has an edge in or out.
+    //
+    //      [in] matrix - the capacity of each edge, 0 for no edge
+    //      [in] u      - the node
+    //
+    // Returns whether the node has an edge.
+    //
+    private static boolean _hasEdges(long[][] matrix, int u)
+    {
+        for (int v = 0; v < matrix.length; v++)
+        {
+            if (matrix[u][v] > 0 || matrix[v][u] > 0)
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    //
+    // randomMatrix
+    //
+    // Builds a random capacity matrix. Each pair of nodes gets at most one edge, in a random
+    // direction, as Flow requires of an adjacency matrix.
+    //
+    //      [in] random         - the random number source
+    //      [in] numNodes       - the number of nodes
+    //      [in] density        - the chance that a pair of nodes has an edge
+    //      [in] maxCapacity    - the largest capacity
+    //
+    // Returns the capacity of each edge, 0 for no edge.
+    //
+    private static long[][] _randomMatrix(Random random, int numNodes, double density, long maxCapacity)
+    {
+        long[][] matrix = new long[numNodes][numNodes];
+
+        for (int u = 0; u < numNodes; u++)
+        {
+            for (int v = u + 1; v < numNodes; v++)
+            {
+                if (random.nextDouble() < density)
+                {
+                    long capacity = 1 + (long) (random.nextDouble() * maxCapacity);
+
+                    if (random.nextBoolean())
+                    {
+                        matrix[u][v] = Math.min(capacity, maxCapacity);
+                    }
+                    else
+                    {
+                        matrix[v][u] = Math.min(capacity, maxCapacity);
+                    }
+                }
+            }
+        }
+
+        return matrix;
+    }
+
+    //
+    // toIntMatrix
+    //
+    // Copies a capacity matrix whose capacities fit in an int.
+    //
+    //      [in] matrix - the capacity matrix
+    //
+    // Returns the copy.
+    //
+    private static int[][] _toIntMatrix(long[][] matrix)
+    {
+        int[][] copy = new int[matrix.length][matrix.length];
+
+        for (int u = 0; u < matrix.length; u++)
+        {
+            for (int v = 0; v < matrix.length; v++)
+            {
+                copy[u][v] = Math.toIntExact(matrix[u][v]);
+            }
+        }
+
+        return copy;
+    }
+
+    //
+    // referenceMaxFlow
+    //
+    // Finds the maximum flow with the Edmonds-Karp method: augment along shortest paths of
+    // the residual matrix, found by breadth-first search, until the sink is unreachable.
+    //
+    //      [in] matrix - the capacity of each edge, 0 for no edge
+    //      [in] source - the index of the source node
+    //      [in] sink   - the index of the sink node
+    //
+    // Returns the maximum flow.
+    //
+    private static long _referenceMaxFlow(long[][] matrix, int source, int sink)
+    {
+        int      numNodes = matrix.length;
+        long[][] residual = new long[numNodes][];
+        int[]    parent   = new int[numNodes];
+        int[]    queue    = new int[numNodes];
+        long     total    = 0;
+
+        for (int u = 0; u < numNodes; u++)
+        {
+            residual[u] = matrix[u].clone();
+        }
+
+        while (true)
+        {
+            Arrays.fill(parent, -1);
+
+            parent[source] = source;
+
+            int head = 0;
+            int tail = 0;
+
+            queue[tail++] = source;
+
+            while (head < tail && parent[sink] == -1)
+            {
+                int u = queue[head++];
+
+                for (int v = 0; v < numNodes; v++)
+                {
+                    if (parent[v] == -1 && residual[u][v] > 0)
+                    {
+                        parent[v]     = u;
+                        queue[tail++] = v;
+                    }
+                }
+            }
+
+            if (parent[sink] == -1)
+            {
+                return total;
+            }
+
+            long amount = Long.MAX_VALUE;
+
+            for (int v = sink; v != source; v = parent[v])
+            {
+                amount = Math.min(amount, residual[parent[v]][v]);
+            }
+
+            for (int v = sink; v != source; v = parent[v])
+            {
+                residual[parent[v]][v] -= amount;
+                residual[v][parent[v]] += amount;
+            }
+
+            total += amount;
+        }
+    }
+}
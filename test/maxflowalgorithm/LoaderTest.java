@@ -0,0 +1,273 @@
+//
+// LoaderTest.java
+//
+// This class checks that every way of loading a bipartite graph gives exactly the graph the
+// single-threaded memory-mapped parser reads (see MappedParser.java): chunked parallel reads
+// on several thread counts, plain, multi-member and blocked gzip files, and piped input. The
+// inputs are large enough to be split into several chunks, batches and blocks.
+//
+// The MIT License (MIT)
+//
+// Copyright (c) 2022 Luke Andrews. All Rights Reserved.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this
+// software and associated documentation files (the "Software"), to deal in the Software
+// without restriction, including without limitation the rights to use, copy, modify, merge,
+// publish, distribute, sub-license, and/or sell copies of the Software, and to permit persons
+// to whom the Software is furnished to do so, subject to the following conditions:
+// 
+// * The above copyright notice and this permission notice shall be included in all copies or
+//   substantial portions of the Software.
+// 
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, 
+// INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+// PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+// FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR 
+// OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+// DEALINGS IN THE SOFTWARE.
+//
+package maxflowalgorithm;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.zip.*;
+
+class LoaderTest
+{
+    private static final int   NUM_LINES    = 300000;       // about 4 MB of text, several parallel chunks
+    private static final int   BLOCK_SIZE   = 60000;        // uncompressed bytes per blocked gzip member
+    private static final int[] THREAD_COUNTS = { 1, 2, 4 };
+
+    //
+    // main
+    //
+    // Runs the checks.
+    //
+    //      [in] args - ignored
+    //
+    public static void main(String[] args) throws IOException
+    {
+        Random random = new Random(13);
+
+        for (boolean weighted : new boolean[] { false, true })
+        {
+            byte[] input = TestGraphs.randomInput(random, NUM_LINES, NUM_LINES / 2, NUM_LINES / 4, weighted);
+
+            _checkLoaders(input, weighted);
+        }
+
+        _checkDroppedWeights();
+
+        System.out.println("LoaderTest passed");
+    }
+
+    //
+    // checkLoaders
+    //
+    // Checks every loader against the memory-mapped parser on one input.
+    //
+    //      [in] input      - the input bytes
+    //      [in] weighted   - whether to read weights
+    //
+    private static void _checkLoaders(byte[] input, boolean weighted) throws IOException
+    {
+        String         mode     = weighted ? " (weighted)" : "";
+        File           text     = TestGraphs.write(input, ".txt");
+        File           gzip     = TestGraphs.write(_gzip(input, 0, input.length), ".gz");
+        File           members  = TestGraphs.write(_gzipMembers(input), ".gz");
+        File           blocked  = TestGraphs.write(_bgzf(input, 0, input.length, Deflater.NO_COMPRESSION), ".gz");
+        File           mixed    = TestGraphs.write(_mixed(input), ".gz");
+        BipartiteGraph expected = MappedParser.parse(text, weighted);
+
+        for (int numThreads : THREAD_COUNTS)
+        {
+            String threads = " on " + numThreads + " threads" + mode;
+
+            TestGraphs.checkSameGraph(expected, ParallelLoader.load(text, numThreads, weighted), "ParallelLoader" + threads);
+            TestGraphs.checkSameGraph(expected, GzipLoader.load(gzip, numThreads, weighted), "gzip" + threads);
+            TestGraphs.checkSameGraph(expected, GzipLoader.load(members, numThreads, weighted), "gzip members" + threads);
+            TestGraphs.checkSameGraph(expected, GzipLoader.load(blocked, numThreads, weighted), "blocked gzip" + threads);
+            TestGraphs.checkSameGraph(expected, GzipLoader.load(mixed, numThreads, weighted), "mixed gzip" + threads);
+            TestGraphs.checkSameGraph(expected, GraphLoader.load(gzip, numThreads, weighted), "GraphLoader gzip" + threads);
+        }
+
+        try (InputStream in = new ByteArrayInputStream(input))
+        {
+            TestGraphs.checkSameGraph(expected, PipeLoader.load(in, weighted), "PipeLoader" + mode);
+        }
+
+        try (InputStream in = new FileInputStream(gzip))
+        {
+            TestGraphs.checkSameGraph(expected, PipeLoader.load(in, weighted), "PipeLoader gzip" + mode);
+        }
+
+        try (InputStream in = new ByteArrayInputStream(input))
+        {
+            TestGraphs.checkSameGraph(expected, StreamParser.parse(in, weighted), "StreamParser" + mode);
+        }
+    }
+
+    //
+    // checkDroppedWeights
+    //
+    // Checks that a weight on a duplicate source line, which is dropped with its line, does
+    // not make the graph weighted when the line lands in a later parallel chunk.
+    //
+    private static void _checkDroppedWeights() throws IOException
+    {
+        StringBuilder text = new StringBuilder("a>x\n");
+
+        for (int i = 0; i < NUM_LINES; i++)
+        {
+            text.append('s').append(i).append(">d").append(i % 1000).append('\n');
+        }
+
+        text.append("a>y:5\n");
+
+        File           file     = TestGraphs.write(text.toString().getBytes(StandardCharsets.UTF_8), ".txt");
+        BipartiteGraph expected = MappedParser.parse(file, true);
+
+        TestGraphs.check(expected.getWeights() == null, "MappedParser kept a dropped weight");
+
+        for (int numThreads : THREAD_COUNTS)
+        {
+            TestGraphs.checkSameGraph(expected, ParallelLoader.load(file, numThreads, true),
+                                      "ParallelLoader with a dropped weight on " + numThreads + " threads");
+        }
+    }
+
+    //
+    // gzip
+    //
+    // Compresses bytes into one gzip member.
+    //
+    //      [in] bytes  - the bytes
+    //      [in] start  - the index of the first byte to compress
+    //      [in] end    - the index just past the last byte to compress
+    //
+    // Returns the member.
+    //
+    private static byte[] _gzip(byte[] bytes, int start, int end) throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out))
+        {
+            gzip.write(bytes, start, end - start);
+        }
+
+        return out.toByteArray();
+    }
+
+    //
+    // gzipMembers
+    //
+    // Compresses bytes into several gzip members without block sizes, split mid-line.
+    //
+    //      [in] bytes - the bytes
+    //
+    // Returns the members, concatenated.
+    //
+    private static byte[] _gzipMembers(byte[] bytes) throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        for (int start = 0; start < bytes.length; start += 1000003)
+        {
+            out.write(_gzip(bytes, start, Math.min(bytes.length, start + 1000003)));
+        }
+
+        return out.toByteArray();
+    }
+
+    //
+    // mixed
+    //
+    // Compresses the first half of the bytes into blocked gzip members and the rest into a
+    // plain gzip member, which the loader has to decompress on one thread.
+    //
+    //      [in] bytes - the bytes
+    //
+    // Returns the members, concatenated.
+    //
+    private static byte[] _mixed(byte[] bytes) throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        out.write(_bgzf(bytes, 0, bytes.length / 2, Deflater.DEFAULT_COMPRESSION));
+        out.write(_gzip(bytes, bytes.length / 2, bytes.length));
+
+        return out.toByteArray();
+    }
+
+    //
+    // bgzf
+    //
+    // Compresses bytes into blocked gzip members, each with its size in a "BC" extra field the
+    // way bgzip writes them. Stored members make the file span several batches of the loader.
+    //
+    //      [in] bytes  - the bytes
+    //      [in] start  - the index of the first byte to compress
+    //      [in] end    - the index just past the last byte to compress
+    //      [in] level  - the deflate compression level
+    //
+    // Returns the members, concatenated.
+    //
+    private static byte[] _bgzf(byte[] bytes, int start, int end, int level)
+    {
+        ByteArrayOutputStream out    = new ByteArrayOutputStream();
+        byte[]                buffer = new byte[2 * BLOCK_SIZE];
+
+        for (int block = start; block < end; block += BLOCK_SIZE)
+        {
+            int      length   = Math.min(BLOCK_SIZE, end - block);
+            Deflater deflater = new Deflater(level, true);
+            CRC32    crc      = new CRC32();
+
+            deflater.setInput(bytes, block, length);
+            deflater.finish();
+
+            int compressed = deflater.deflate(buffer);
+
+            deflater.end();
+            crc.update(bytes, block, length);
+
+            out.write(new byte[] { 0x1F, (byte) 0x8B, 8, 4, 0, 0, 0, 0, 0, (byte) 0xFF, 6, 0, 'B', 'C', 2, 0 }, 0, 16);
+            _writeShort(out, 16 + compressed + 8 + 2 - 1);
+            out.write(buffer, 0, compressed);
+            _writeInt(out, (int) crc.getValue());
+            _writeInt(out, length);
+        }
+
+        return out.toByteArray();
+    }
+
+    //
+    // writeShort
+    //
+    // Writes the low 16 bits of a value, little-endian.
+    //
+    //      [in] out    - the output
+    //      [in] value  - the value
+    //
+    private static void _writeShort(ByteArrayOutputStream out, int value)
+    {
+        out.write(value);
+        out.write(value >>> 8);
+    }
+
+    //
+    // writeInt
+    //
+    // Writes a value, little-endian.
+    //
+    //      [in] out    - the output
+    //      [in] value  - the value
+    //
+    private static void _writeInt(ByteArrayOutputStream out, int value)
+    {
+        _writeShort(out, value);
+        _writeShort(out, value >>> 16);
+    }
+}
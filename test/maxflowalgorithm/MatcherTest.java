@@ -0,0 +1,479 @@
+//
+// MatcherTest.java
+//
+// This class checks the matchers against simple references on random bipartite graphs. The
+// maximum matchings (see BipartiteMatcher.java), cold and warm started from a Karp-Sipser
+// matching (see KarpSipser.java), must be valid and as large as one found by plain augmenting
+// paths. The followed log (see LogFollower.java), re-solved as lines are appended, must stay
+// maximum for the graph read so far. The maximum weight matchings (see WeightedAssignment.java
+// and AuctionSolver.java) must reach the weight found by trying every subset of destinations
+// on small graphs, and agree with each other on larger ones.
+//
+// The MIT License (MIT)
+//
+// Copyright (c) 2022 Luke Andrews. All Rights Reserved.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this
+// software and associated documentation files (the "Software"), to deal in the Software
+// without restriction, including without limitation the rights to use, copy, modify, merge,
+// publish, distribute, sub-license, and/or sell copies of the Software, and to permit persons
+// to whom the Software is furnished to do so, subject to the following conditions:
+// 
+// * The above copyright notice and this permission notice shall be included in all copies or
+//   substantial portions of the Software.
+// 
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, 
+// INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+// PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+// FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR 
+// OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+// DEALINGS IN THE SOFTWARE.
+//
+package maxflowalgorithm;
+
+import java.io.*;
+import java.util.*;
+
+class MatcherTest
+{
+    private static final int   NUM_TRIALS        = 300;
+    private static final int   MAX_SMALL_SIZE    = 60;     // nodes per side of the small matching graphs
+    private static final int   MAX_BRUTE_SIZE    = 9;      // destinations of the graphs weighted by brute force
+    private static final int   LARGE_SIZE        = 30000;  // nodes per side, so parallel work is split into tasks
+    private static final int   NUM_FOLLOW_LINES  = 40000;
+    private static final int[] THREAD_COUNTS     = { 1, 4 };
+
+    //
+    // _Graph
+    //
+    // This class holds the adjacency arrays of a random bipartite graph.
+    //
+    private static class _Graph
+    {
+        int   numSources;
+        int   numDestinations;
+        int[] offsets;          // destinations of source u are targets[offsets[u]] .. targets[offsets[u + 1] - 1]
+        int[] targets;
+        int[] weights;          // weight of each edge
+    }
+
+    //
+    // main
+    //
+    // Runs the checks.
+    //
+    //      [in] args - ignored
+    //
+    public static void main(String[] args) throws IOException
+    {
+        Random random = new Random(21);
+
+        for (int trial = 0; trial < NUM_TRIALS; trial++)
+        {
+            _checkMatchers(_randomGraph(random, random.nextInt(MAX_SMALL_SIZE), random.nextInt(MAX_SMALL_SIZE),
+                                        1 + random.nextInt(6), 1));
+        }
+
+        _checkMatchers(_randomGraph(random, LARGE_SIZE, LARGE_SIZE, 3, 1));
+
+        for (int trial = 0; trial < NUM_TRIALS; trial++)
+        {
+            int maxWeight = trial % 3 == 0 ? 1 : trial % 3 == 1 ? 20 : Integer.MAX_VALUE;
+
+            _checkWeighted(_randomGraph(random, random.nextInt(2 * MAX_BRUTE_SIZE), random.nextInt(MAX_BRUTE_SIZE + 1),
+                                        1 + random.nextInt(4), maxWeight), true);
+        }
+
+        _checkWeighted(_randomGraph(random, 3000, 2000, 4, 1000), false);
+
+        _checkFollower(random);
+
+        System.out.println("MatcherTest passed");
+    }
+
+    //
+    // checkMatchers
+    //
+    // Checks every maximum matching engine, cold and warm started, against the reference size.
+    //
+    //      [in] graph - the graph
+    //
+    private static void _checkMatchers(_Graph graph)
+    {
+        int   expected = _referenceSize(graph.numSources, graph.numDestinations, graph.offsets, graph.targets);
+        int[] initial  = KarpSipser.computeMatching(graph.numSources, graph.numDestinations,
+                                                    graph.offsets, graph.targets);
+
+        TestGraphs.checkMatching(graph.offsets, graph.targets, graph.numDestinations, initial,
+                                 _countMatched(initial), "Karp-Sipser");
+
+        List<BipartiteMatcher> matchers = new ArrayList<>();
+
+        matchers.add(new HopcroftKarp(graph.numSources, graph.numDestinations, graph.offsets, graph.targets));
+        matchers.add(new PushRelabelMatcher(graph.numSources, graph.numDestinations, graph.offsets, graph.targets));
+
+        for (int numThreads : THREAD_COUNTS)
+        {
+            matchers.add(new ParallelHopcroftKarp(graph.numSources, graph.numDestinations, graph.offsets,
+                                                  graph.targets, numThreads));
+        }
+
+        for (BipartiteMatcher matcher : matchers)
+        {
+            for (int[] start : new int[][] { null, initial })
+            {
+                String what = matcher.getName() + (start == null ? "" : " (warm start)") + " on " +
+                              graph.numSources + "x" + graph.numDestinations;
+                int    size = matcher.computeMatching(start);
+
+                TestGraphs.check(size == expected, what + ": " + size + " pairs, expected " + expected);
+                TestGraphs.checkMatching(graph.offsets, graph.targets, graph.numDestinations,
+                                         matcher.getSourceMates(), expected, what);
+            }
+        }
+    }
+
+    //
+    // checkWeighted
+    //
+    // Checks both maximum weight matching engines: each must return a valid matching whose
+    // weight is the one returned, and the best weight found by brute force or by the other.
+    //
+    //      [in] graph      - the graph
+    //      [in] bruteForce - whether the graph is small enough to try every subset of destinations
+    //
+    private static void _checkWeighted(_Graph graph, boolean bruteForce)
+    {
+        WeightedAssignment assignment = new WeightedAssignment(graph.numSources, graph.numDestinations,
+                                                               graph.offsets, graph.targets, graph.weights);
+        long               expected   = assignment.computeAssignment();
+        String             size       = " on " + graph.numSources + "x" + graph.numDestinations;
+
+        _checkWeightedMatching(graph, assignment.getSourceMates(), assignment.getNumMatches(), expected,
+                               "WeightedAssignment" + size);
+
+        if (bruteForce)
+        {
+            long best = _bruteForceWeight(graph);
+
+            TestGraphs.check(expected == best, "WeightedAssignment" + size + ": weight " + expected + ", expected " + best);
+        }
+
+        for (int numThreads : THREAD_COUNTS)
+        {
+            AuctionSolver auction = new AuctionSolver(graph.numSources, graph.numDestinations, graph.offsets,
+                                                      graph.targets, graph.weights, numThreads);
+            long          weight  = auction.computeAssignment();
+            String        what    = "AuctionSolver on " + numThreads + " threads" + size;
+
+            TestGraphs.check(weight == expected, what + ": weight " + weight + ", expected " + expected);
+
+            _checkWeightedMatching(graph, auction.getSourceMates(), auction.getNumMatches(), weight, what);
+        }
+    }
+
+    //
+    // checkWeightedMatching
+    //
+    // Checks that a matching is valid and has the given size and weight.
+    //
+    //      [in] graph          - the graph
+    //      [in] sourceMates    - the destination matched to each source, -1 if unmatched
+    //      [in] size           - the number of matched pairs reported
+    //      [in] weight         - the weight reported
+    //      [in] what           - a description of the matching, for the failure message
+    //
+    private static void _checkWeightedMatching(_Graph graph, int[] sourceMates, int size, long weight, String what)
+    {
+        long total = 0;
+
+        TestGraphs.checkMatching(graph.offsets, graph.targets, graph.numDestinations, sourceMates, size, what);
+
+        for (int u = 0; u < graph.numSources; u++)
+        {
+            for (int e = graph.offsets[u]; e < graph.offsets[u + 1]; e++)
+            {
+                if (graph.targets[e] == sourceMates[u])
+                {
+                    total += graph.weights[e];
+                }
+            }
+        }
+
+        TestGraphs.check(total == weight, what + ": pairs weigh " + total + ", reported " + weight);
+    }
+
+    //
+    // checkFollower
+    //
+    // Appends random input to a log in pieces cut anywhere, even mid-line, and checks after
+    // each piece that the follower's matching is a maximum matching of the graph read so far.
+    // At the end the graph must be the one a new follower reads from the whole log.
+    //
+    //      [in] random - the random number source
+    //
+    private static void _checkFollower(Random random) throws IOException
+    {
+        byte[]      input    = TestGraphs.randomInput(random, NUM_FOLLOW_LINES, NUM_FOLLOW_LINES / 2,
+                                                      NUM_FOLLOW_LINES / 2, false);
+        File        log      = TestGraphs.tempFile(".log");
+        LogFollower follower = new LogFollower(log);
+        int         position = 0;
+
+        while (position < input.length)
+        {
+            int length = Math.min(input.length - position, 1 + random.nextInt(input.length / 20));
+
+            try (OutputStream out = new FileOutputStream(log, true))
+            {
+                out.write(input, position, length);
+            }
+
+            position += length;
+
+            follower.ingest();
+
+            BipartiteGraph graph    = follower.getGraph();
+            int            size     = follower.solve();
+            int            expected = _referenceSize(graph.getNumSources(), graph.getNumDestinations(),
+                                                     graph.getOffsets(), graph.getTargets());
+            String         what     = "LogFollower at byte " + position;
+
+            TestGraphs.check(size == expected, what + ": " + size + " pairs, expected " + expected);
+            TestGraphs.checkMatching(graph.getOffsets(), graph.getTargets(), graph.getNumDestinations(),
+                                     follower.getSourceMates(), expected, what);
+        }
+
+        LogFollower reread = new LogFollower(log);
+
+        reread.ingest();
+
+        TestGraphs.checkSameGraph(reread.getGraph(), follower.getGraph(), "LogFollower graph");
+    }
+
+    //
+    // randomGraph
+    //
+    // Builds a random bipartite graph without repeated edges.
+    //
+    //      [in] random             - the random number source
+    //      [in] numSources         - the number of source nodes
+    //      [in] numDestinations    - the number of destination nodes
+    //      [in] maxDegree          - the largest number of edges per source
+    //      [in] maxWeight          - the largest edge weight (weights are drawn from 0 .. maxWeight)
+    //
+    // Returns the graph.
+    //
+    private static _Graph _randomGraph(Random random, int numSources, int numDestinations, int maxDegree,
+                                       int maxWeight)
+    {
+        _Graph  graph   = new _Graph();
+        IntList targets = new IntList();
+        IntList weights = new IntList();
+
+        graph.numSources      = numSources;
+        graph.numDestinations = numDestinations;
+        graph.offsets         = new int[numSources + 1];
+
+        for (int u = 0; u < numSources; u++)
+        {
+            int degree = numDestinations == 0 ? 0 : random.nextInt(Math.min(maxDegree, numDestinations) + 1);
+
+            graph.offsets[u] = targets.size();
+
+            while (targets.size() < graph.offsets[u] + degree)
+            {
+                int v = random.nextInt(numDestinations);
+
+                if (!_contains(targets, graph.offsets[u], v))
+                {
+                    targets.add(v);
+                    weights.add(maxWeight == Integer.MAX_VALUE && random.nextBoolean() ?
+                                maxWeight - random.nextInt(3) : random.nextInt(maxWeight) + (maxWeight == 1 ? 1 : 0));
+                }
+            }
+        }
+
+        graph.offsets[numSources] = targets.size();
+        graph.targets             = targets.toArray();
+        graph.weights             = weights.toArray();
+
+        return graph;
+    }
+
+    //
+    // contains
+    //
+    // Determines whether a list holds a value from a given index on.
+    //
+    //      [in] list   - the list
+    //      [in] start  - the first index to look at
+    //      [in] value  - the value
+    //
+    // Returns whether the value was found.
+    //
+    private static boolean _contains(IntList list, int start, int value)
+    {
+        for (int i = start; i < list.size(); i++)
+        {
+            if (list.get(i) == value)
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    //
+    // countMatched
+    //
+    // Counts the matched sources of a matching.
+    //
+    //      [in] sourceMates - the destination matched to each source, -1 if unmatched
+    //
+    // Returns the number of matched pairs.
+    //
+    private static int _countMatched(int[] sourceMates)
+    {
+        int count = 0;
+
+        for (int v : sourceMates)
+        {
+            if (v >= 0)
+            {
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    //
+    // referenceSize
+    //
+    // Finds the size of a maximum matching with the plain augmenting path method: each source
+    // in turn starts a depth-first search for a free destination, kept on an explicit stack so
+    // long paths do not overflow the call stack.
+    //
+    //      [in] numSources         - the number of source nodes
+    //      [in] numDestinations    - the number of destination nodes
+    //      [in] offsets            - per source, the start of its destinations
+    //      [in] targets            - the destination of each edge
+    //
+    // Returns the number of matched pairs.
+    //
+    private static int _referenceSize(int numSources, int numDestinations, int[] offsets, int[] targets)
+    {
+        int[] destinationMate = new int[numDestinations];
+        int[] visited         = new int[numDestinations];  // last root whose search reached each destination, plus 1
+        int[] stackSource     = new int[numSources];
+        int[] stackArc        = new int[numSources];
+        int[] stackTarget     = new int[numSources];
+        int   size            = 0;
+
+        Arrays.fill(destinationMate, -1);
+
+        for (int root = 0; root < numSources; root++)
+        {
+            int depth = 0;
+
+            stackSource[0] = root;
+            stackArc[0]    = offsets[root];
+
+            while (depth >= 0)
+            {
+                int u = stackSource[depth];
+
+                if (stackArc[depth] == offsets[u + 1])
+                {
+                    depth--;
+
+                    continue;
+                }
+
+                int v = targets[stackArc[depth]++];
+
+                if (visited[v] == root + 1)
+                {
+                    continue;
+                }
+
+                visited[v]         = root + 1;
+                stackTarget[depth] = v;
+
+                if (destinationMate[v] == -1)
+                {
+                    for (int i = depth; i >= 0; i--)
+                    {
+                        destinationMate[stackTarget[i]] = stackSource[i];
+                    }
+
+                    size++;
+
+                    break;
+                }
+
+                depth++;
+                stackSource[depth] = destinationMate[v];
+                stackArc[depth]    = offsets[destinationMate[v]];
+            }
+        }
+
+        return size;
+    }
+
+    //
+    // bruteForceWeight
+    //
+    // Finds the weight of a maximum weight matching by dynamic programming over the subsets of
+    // destinations: after each source, best[set] is the largest weight of a matching of the
+    // sources so far that uses exactly the destinations in the set.
+    //
+    //      [in] graph - the graph, with few destinations
+    //
+    // Returns the weight.
+    //
+    private static long _bruteForceWeight(_Graph graph)
+    {
+        long[] best = new long[1 << graph.numDestinations];
+
+        Arrays.fill(best, Long.MIN_VALUE);
+
+        best[0] = 0;
+
+        for (int u = 0; u < graph.numSources; u++)
+        {
+            long[] next = best.clone();
+
+            for (int set = 0; set < best.length; set++)
+            {
+                if (best[set] == Long.MIN_VALUE)
+                {
+                    continue;
+                }
+
+                for (int e = graph.offsets[u]; e < graph.offsets[u + 1]; e++)
+                {
+                    int bit = 1 << graph.targets[e];
+
+                    if ((set & bit) == 0)
+                    {
+                        next[set | bit] = Math.max(next[set | bit], best[set] + graph.weights[e]);
+                    }
+                }
+            }
+
+            best = next;
+        }
+
+        long result = 0;
+
+        for (long weight : best)
+        {
+            result = Math.max(result, weight);
+        }
+
+        return result;
+    }
+}
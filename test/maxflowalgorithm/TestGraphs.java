@@ -0,0 +1,248 @@
+//
+// TestGraphs.java
+//
+// This class holds what the checks in this directory share: random input files in the
+// "src>dst1,dst2,..." format, comparison of bipartite graphs and validation of matchings.
+// The checks are plain programs, run from the repository root with:
+//
+//      javac -d out src/maxflowalgorithm/*.java test/maxflowalgorithm/*.java
+//      java -cp out maxflowalgorithm.LoaderTest
+//
+// and each throws an AssertionError at the first mismatch.
+//
+// The MIT License (MIT)
+//
+// Copyright (c) 2022 Luke Andrews. All Rights Reserved.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this
+// software and associated documentation files (the "Software"), to deal in the Software
+// without restriction, including without limitation the rights to use, copy, modify, merge,
+// publish, distribute, sub-license, and/or sell copies of the Software, and to permit persons
+// to whom the Software is furnished to do so, subject to the following conditions:
+// 
+// * The above copyright notice and this permission notice shall be included in all copies or
+//   substantial portions of the Software.
+// 
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, 
+// INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+// PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+// FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR 
+// OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+// DEALINGS IN THE SOFTWARE.
+//
+package maxflowalgorithm;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+class TestGraphs
+{
+    //
+    // check
+    //
+    // Fails the running check unless a condition holds.
+    //
+    //      [in] condition  - the condition
+    //      [in] message    - what was checked
+    //
+    static void check(boolean condition, String message)
+    {
+        if (!condition)
+        {
+            throw new AssertionError(message);
+        }
+    }
+
+    //
+    // tempFile
+    //
+    // Creates an empty temporary file that is deleted when the check exits.
+    //
+    //      [in] suffix - the file name suffix
+    //
+    // Returns the file.
+    //
+    static File tempFile(String suffix) throws IOException
+    {
+        File file = File.createTempFile("maxflow", suffix);
+
+        file.deleteOnExit();
+
+        return file;
+    }
+
+    //
+    // write
+    //
+    // Writes bytes to a new temporary file.
+    //
+    //      [in] bytes  - the file contents
+    //      [in] suffix - the file name suffix
+    //
+    // Returns the file.
+    //
+    static File write(byte[] bytes, String suffix) throws IOException
+    {
+        File file = tempFile(suffix);
+
+        try (OutputStream out = new FileOutputStream(file))
+        {
+            out.write(bytes);
+        }
+
+        return file;
+    }
+
+    //
+    // randomInput
+    //
+    // Builds random input lines. Besides plain lines it mixes in what the parsers have to
+    // tolerate: duplicate sources, "\r\n" line ends, lines without a '>', empty names,
+    // non-ASCII names, names with a colon and, if asked for, weights.
+    //
+    //      [in] random             - the random number source
+    //      [in] numLines           - the number of lines
+    //      [in] numSources         - the number of distinct source names to draw from
+    //      [in] numDestinations    - the number of distinct destination names to draw from
+    //      [in] weighted           - whether to add weights to some destinations
+    //
+    // Returns the UTF-8 bytes of the input.
+    //
+    static byte[] randomInput(Random random, int numLines, int numSources, int numDestinations, boolean weighted)
+    {
+        StringBuilder text = new StringBuilder();
+
+        for (int i = 0; i < numLines; i++)
+        {
+            int kind = random.nextInt(50);
+
+            if (kind == 0)
+            {
+                text.append("no separator here\n");
+
+                continue;
+            }
+
+            text.append(kind == 1 ? "P\u00e9rson " : "s").append(random.nextInt(numSources)).append('>');
+
+            int degree = random.nextInt(6);
+
+            for (int j = 0; j < degree; j++)
+            {
+                if (j > 0)
+                {
+                    text.append(',');
+                }
+
+                if (random.nextInt(40) == 0)
+                {
+                    continue;                   // an empty name
+                }
+
+                text.append(random.nextInt(30) == 0 ? "Room:" : "d").append(random.nextInt(numDestinations));
+
+                if (weighted && random.nextInt(3) == 0)
+                {
+                    text.append(':').append(random.nextInt(1000));
+                }
+            }
+
+            text.append(kind == 2 ? "\r\n" : "\n");
+        }
+
+        return text.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    //
+    // checkSameGraph
+    //
+    // Checks that two bipartite graphs have the same names, ids, edges and weights.
+    //
+    //      [in] expected   - the expected graph
+    //      [in] actual     - the graph to check
+    //      [in] what       - a description of the graph to check, for the failure message
+    //
+    static void checkSameGraph(BipartiteGraph expected, BipartiteGraph actual, String what)
+    {
+        check(expected.getNumSources() == actual.getNumSources(), what + ": number of sources");
+        check(expected.getNumDestinations() == actual.getNumDestinations(), what + ": number of destinations");
+        check(Arrays.equals(expected.getOffsets(), actual.getOffsets()), what + ": offsets");
+        check(Arrays.equals(expected.getTargets(), actual.getTargets()), what + ": targets");
+        check(Arrays.equals(expected.getWeights(), actual.getWeights()), what + ": weights");
+
+        for (int u = 0; u < expected.getNumSources(); u++)
+        {
+            check(expected.getSources().getName(u).equals(actual.getSources().getName(u)), what + ": source " + u);
+        }
+
+        for (int v = 0; v < expected.getNumDestinations(); v++)
+        {
+            check(expected.getDestinations().getName(v).equals(actual.getDestinations().getName(v)),
+                  what + ": destination " + v);
+        }
+    }
+
+    //
+    // checkMatching
+    //
+    // Checks that every matched pair is an edge, that no destination is matched twice and
+    // that the matching has the expected size.
+    //
+    //      [in] offsets            - per source, the start of its destinations
+    //      [in] targets            - the destination of each edge
+    //      [in] numDestinations    - the number of destination nodes
+    //      [in] sourceMates        - the destination matched to each source, -1 if unmatched
+    //      [in] expectedSize       - the expected number of matched pairs
+    //      [in] what               - a description of the matching, for the failure message
+    //
+    static void checkMatching(int[] offsets, int[] targets, int numDestinations, int[] sourceMates,
+                              int expectedSize, String what)
+    {
+        boolean[] taken = new boolean[numDestinations];
+        int       size  = 0;
+
+        for (int u = 0; u < sourceMates.length; u++)
+        {
+            int v = sourceMates[u];
+
+            if (v < 0)
+            {
+                continue;
+            }
+
+            check(!taken[v], what + ": destination " + v + " matched twice");
+            check(_hasEdge(offsets, targets, u, v), what + ": pair " + u + "-" + v + " is not an edge");
+
+            taken[v] = true;
+            size++;
+        }
+
+        check(size == expectedSize, what + ": " + size + " pairs, expected " + expectedSize);
+    }
+
+    //
+    // hasEdge
+    //
+    // Determines whether a source has an edge to a destination.
+    //
+    //      [in] offsets    - per source, the start of its destinations
+    //      [in] targets    - the destination of each edge
+    //      [in] u          - the source
+    //      [in] v          - the destination
+    //
+    // Returns whether the edge exists.
+    //
+    private static boolean _hasEdge(int[] offsets, int[] targets, int u, int v)
+    {
+        for (int e = offsets[u]; e < offsets[u + 1]; e++)
+        {
+            if (targets[e] == v)
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}